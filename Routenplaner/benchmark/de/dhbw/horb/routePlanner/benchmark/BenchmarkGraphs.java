@@ -0,0 +1,124 @@
+package de.dhbw.horb.routePlanner.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.xml.stream.XMLStreamException;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.GraphDataMapBuilder;
+import de.dhbw.horb.routePlanner.data.JDomGraphDataCreator;
+import de.dhbw.horb.routePlanner.data.JunctionIndex;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.data.StAXMapGraphDataParser;
+import de.dhbw.horb.routePlanner.data.SyntheticGraphDataGenerator;
+import de.dhbw.horb.routePlanner.data.XMLFileManager;
+
+/**
+ * Testgraphen fr die Benchmarks in drei Gren. Fr jede Gre wird einmalig eine graphData*.xml fr das Land
+ * "Benchmark_&lt;Gre&gt;" erzeugt und daraus mit {@link JDomGraphDataCreator} die nodes*.xml und routes*.xml. Bei
+ * weiteren Lufen werden die vorhandenen Dateien wiederverwendet.
+ * <p>
+ * Der Graph ist ein Gitter aus {@link SyntheticGraphDataGenerator} mit festem Startwert, sodass jeder Lauf denselben
+ * Graphen und dieselben Anfragen bekommt.
+ */
+public class BenchmarkGraphs {
+
+    public static final String SMALL = "small";
+    public static final String MEDIUM = "medium";
+    public static final String LARGE = "large";
+
+    private static final long SEED = 4711L;
+
+    /**
+     * @param size {@link #SMALL}, {@link #MEDIUM} oder {@link #LARGE}
+     * @return Das Land, unter dem die XML Dateien der Gre gespeichert werden.
+     */
+    public static String getCountry(String size) {
+	return "Benchmark_" + size;
+    }
+
+    /**
+     * @param size {@link #SMALL}, {@link #MEDIUM} oder {@link #LARGE}
+     * @return Anzahl der Anschlussstellen pro Seite des Gitters.
+     */
+    private static int getGridSize(String size) {
+	switch (size) {
+	case SMALL:
+	    return 10;
+	case MEDIUM:
+	    return 40;
+	case LARGE:
+	    return 120;
+	default:
+	    throw new IllegalArgumentException("Unbekannte Gre: " + size);
+	}
+    }
+
+    /**
+     * Erzeugt die XML Dateien einer Gre, falls sie noch nicht existieren.
+     * 
+     * @param size {@link #SMALL}, {@link #MEDIUM} oder {@link #LARGE}
+     * @throws IOException
+     * @throws XMLStreamException
+     */
+    public static synchronized void prepare(String size) throws IOException, XMLStreamException {
+	String country = getCountry(size);
+	if (XMLFileManager.fileExists(XMLFileManager.getExtendedXMLFileName(Constants.XML_ROUTES, country)))
+	    return;
+
+	int gridSize = getGridSize(size);
+	new SyntheticGraphDataGenerator(SyntheticGraphDataGenerator.TOPOLOGY_GRID, gridSize * gridSize, SEED)
+	        .write(XMLFileManager.getExtendedXMLFileName(Constants.XML_GRAPHDATA, country));
+	GraphDataMapBuilder graphData = JDomGraphDataCreator.loadGraphData(country);
+	JDomGraphDataCreator.createNodeXML(country, graphData);
+	JDomGraphDataCreator.createRouteXML(country, graphData);
+    }
+
+    /**
+     * Ldt den Graphen einer Gre aus ihren XML Dateien, ohne eine
+     * {@link de.dhbw.horb.routePlanner.data.GraphSnapshot} zu schreiben.
+     * 
+     * @param size {@link #SMALL}, {@link #MEDIUM} oder {@link #LARGE}
+     * @return Der Graph.
+     * @throws IOException
+     * @throws XMLStreamException
+     */
+    public static RoadGraph loadGraph(String size) throws IOException, XMLStreamException {
+	prepare(size);
+	String country = getCountry(size);
+	return new RoadGraph(country, StAXMapGraphDataParser.getNodeXMLMap(country),
+	        StAXMapGraphDataParser.getRouteXMLMap(country));
+    }
+
+    /**
+     * Erzeugt zufllige, aber bei jedem Lauf gleiche Anfragen zwischen Anschlussstellen mit Routen.
+     * 
+     * @param graph Der Graph.
+     * @param count Anzahl der Anfragen.
+     * @return Paare aus Start- und Zielname.
+     */
+    public static String[][] createQueries(RoadGraph graph, int count) {
+	JunctionIndex junctions = graph.getJunctionIndex();
+	List<String> names = new ArrayList<String>();
+	for (int ordinal = 0; ordinal < junctions.getNameCount(); ordinal++)
+	    if (junctions.hasRoute(ordinal))
+		names.add(junctions.getName(ordinal));
+	if (names.size() < 2)
+	    throw new IllegalStateException("Zu wenige Anschlussstellen in " + graph.getCountry());
+
+	Random random = new Random(SEED);
+	String[][] queries = new String[count][];
+	for (int i = 0; i < count; i++) {
+	    String departure = names.get(random.nextInt(names.size()));
+	    String destination;
+	    do {
+		destination = names.get(random.nextInt(names.size()));
+	    } while (destination.equals(departure));
+	    queries[i] = new String[] { departure, destination };
+	}
+	return queries;
+    }
+}
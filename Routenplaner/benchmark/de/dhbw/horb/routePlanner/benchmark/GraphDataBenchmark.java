@@ -0,0 +1,84 @@
+package de.dhbw.horb.routePlanner.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.dhbw.horb.routePlanner.data.GraphDataMapBuilder;
+import de.dhbw.horb.routePlanner.data.JDomGraphDataCreator;
+import de.dhbw.horb.routePlanner.data.StAXMapGraphDataParser;
+
+/**
+ * Dauer der Loader von {@link StAXMapGraphDataParser} und der Vorberechnung mit {@link JDomGraphDataCreator} fr die
+ * Testgraphen aus {@link BenchmarkGraphs}. Alle Aufrufe geben das Land der Testgraphen an, die Einstellungen des
+ * Benutzers bleiben unverndert.
+ * 
+ * <pre>
+ * ant benchmark -Djmh.home=/pfad/zu/jmh -Djmh.args="GraphDataBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphDataBenchmark {
+
+    @Param({ BenchmarkGraphs.SMALL, BenchmarkGraphs.MEDIUM, BenchmarkGraphs.LARGE })
+    public String size;
+
+    private String country;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, XMLStreamException {
+	BenchmarkGraphs.prepare(size);
+	country = BenchmarkGraphs.getCountry(size);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, String>> nodeMap() throws IOException, XMLStreamException {
+	return StAXMapGraphDataParser.getNodeMap(country);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, String>> wayMap() throws IOException, XMLStreamException {
+	return StAXMapGraphDataParser.getWayMap(country);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> nodeXMLMap() throws IOException, XMLStreamException {
+	return StAXMapGraphDataParser.getNodeXMLMap(country);
+    }
+
+    @Benchmark
+    public Map<String, List<Map<String, String>>> routeXMLMap() throws IOException, XMLStreamException {
+	return StAXMapGraphDataParser.getRouteXMLMap(country);
+    }
+
+    /**
+     * Die gesamte Vorberechnung: graphData*.xml einlesen und nodes*.xml und routes*.xml neu schreiben.
+     */
+    @Benchmark
+    public void createNodeAndRouteXML() throws IOException, XMLStreamException {
+	GraphDataMapBuilder graphData = JDomGraphDataCreator.loadGraphData(country);
+	JDomGraphDataCreator.createNodeXML(country, graphData);
+	JDomGraphDataCreator.createRouteXML(country, graphData);
+    }
+}
@@ -0,0 +1,200 @@
+package de.dhbw.horb.routePlanner.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.GraphDataStreamReader;
+import de.dhbw.horb.routePlanner.data.XMLFileManager;
+
+/**
+ * Vergleicht den {@link GraphDataStreamReader} mit seiner frheren Fassung, die den Elementnamen bei jeder Abfrage
+ * erneut verglichen und fr jeden Schlssel k und v gelesen hat, und mit einer reinen StAX Schleife. Jeder Durchlauf
+ * liest eine graphData*.xml aus dem Speicher und fragt wie der Parser id, lat und lon jedes Knotens und highway, name
+ * und ref jedes Tags ab.
+ * <p>
+ * Gedacht ist der Benchmark fr den GC Profiler. Die Anzahl der Elemente steht beim Start in der Ausgabe, der Wert
+ * gc.alloc.rate.norm geteilt durch diese Anzahl ergibt die Bytes pro Element:
+ * 
+ * <pre>
+ * ant benchmark -Djmh.home=/pfad/zu/jmh -Djmh.args="GraphDataStreamReaderBenchmark -prof gc"
+ * </pre>
+ * 
+ * Mit einem Land als Parameter wird dessen heruntergeladene graphData*.xml gelesen, die Einstellungen bleiben
+ * unverndert.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphDataStreamReaderBenchmark {
+
+    /**
+     * Die frhere Fassung von {@link GraphDataStreamReader}.
+     */
+    private static class ReaderWithoutElementType extends StreamReaderDelegate {
+
+	ReaderWithoutElementType(XMLStreamReader streamReader) {
+	    super(streamReader);
+	}
+
+	boolean isNode() {
+	    return getLocalName().trim().equals(Constants.NODE) || getLocalName().trim().equals(Constants.WAY_NODE)
+		    || getLocalName().trim().equals(Constants.NEW_NODE);
+	}
+
+	boolean nextStartElement() throws XMLStreamException {
+	    while (hasNext())
+		if (next() == START_ELEMENT)
+		    return true;
+	    return false;
+	}
+
+	String getAttributeValue(String attributeLocalName) {
+	    for (int x = 0; x < getAttributeCount(); x++)
+		if (getAttributeLocalName(x).trim().equals(attributeLocalName))
+		    return getAttributeValue(x);
+	    return null;
+	}
+
+	String getAttributeKV(String inK) {
+	    if (getLocalName().equals(Constants.NODE_TAG)) {
+		String k = getAttributeValue("k");
+		String v = getAttributeValue("v");
+		if (k.equals(inK))
+		    return v;
+	    }
+	    return null;
+	}
+    }
+
+    /** Eine Gre aus {@link BenchmarkGraphs} oder ein Land mit vorhandener graphData*.xml. */
+    @Param({ BenchmarkGraphs.SMALL, BenchmarkGraphs.MEDIUM, BenchmarkGraphs.LARGE })
+    public String source;
+
+    private XMLInputFactory factory;
+    private byte[] graphData;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, XMLStreamException {
+	String country = source;
+	if (BenchmarkGraphs.SMALL.equals(source) || BenchmarkGraphs.MEDIUM.equals(source)
+	        || BenchmarkGraphs.LARGE.equals(source)) {
+	    BenchmarkGraphs.prepare(source);
+	    country = BenchmarkGraphs.getCountry(source);
+	}
+	String fileName = XMLFileManager.getExtendedXMLFileName(Constants.XML_GRAPHDATA, country);
+	if (!XMLFileManager.fileExists(fileName))
+	    throw new IllegalStateException("Keine graphData XML Datei fr " + country);
+
+	factory = XMLInputFactory.newInstance();
+	graphData = Files.readAllBytes(new File(fileName).toPath());
+	System.out.println("Elemente in " + fileName + ": " + countElements());
+    }
+
+    private XMLStreamReader createReader() throws XMLStreamException {
+	return factory.createXMLStreamReader(new ByteArrayInputStream(graphData));
+    }
+
+    private long countElements() throws XMLStreamException {
+	XMLStreamReader reader = createReader();
+	long elements = 0;
+	try {
+	    while (reader.hasNext())
+		if (reader.next() == XMLStreamConstants.START_ELEMENT)
+		    elements++;
+	} finally {
+	    reader.close();
+	}
+	return elements;
+    }
+
+    private static int length(String value) {
+	return value == null ? 0 : value.length();
+    }
+
+    /**
+     * Untergrenze: nur die StAX Ereignisse, ohne Attribute zu lesen.
+     */
+    @Benchmark
+    public long plainStAX() throws XMLStreamException {
+	XMLStreamReader reader = createReader();
+	long elements = 0;
+	try {
+	    while (reader.hasNext())
+		if (reader.next() == XMLStreamConstants.START_ELEMENT)
+		    elements += reader.getLocalName().length();
+	} finally {
+	    reader.close();
+	}
+	return elements;
+    }
+
+    @Benchmark
+    public long readerWithoutElementType() throws XMLStreamException {
+	ReaderWithoutElementType reader = new ReaderWithoutElementType(createReader());
+	long sum = 0;
+	try {
+	    while (reader.nextStartElement()) {
+		if (reader.isNode()) {
+		    sum += length(reader.getAttributeValue(Constants.NODE_ID));
+		    sum += length(reader.getAttributeValue(Constants.NODE_LATITUDE));
+		    sum += length(reader.getAttributeValue(Constants.NODE_LONGITUDE));
+		} else {
+		    sum += length(reader.getAttributeKV(Constants.NODE_HIGHWAY));
+		    sum += length(reader.getAttributeKV(Constants.NODE_NAME));
+		    sum += length(reader.getAttributeKV(Constants.NODE_REF));
+		}
+	    }
+	} finally {
+	    reader.close();
+	}
+	return sum;
+    }
+
+    @Benchmark
+    public long reader() throws XMLStreamException {
+	GraphDataStreamReader reader = new GraphDataStreamReader(createReader());
+	long sum = 0;
+	try {
+	    while (reader.nextStartElement()) {
+		if (reader.isNode()) {
+		    sum += length(reader.getAttributeValue(Constants.NODE_ID));
+		    sum += length(reader.getAttributeValue(Constants.NODE_LATITUDE));
+		    sum += length(reader.getAttributeValue(Constants.NODE_LONGITUDE));
+		} else {
+		    sum += length(reader.getAttributeKV(Constants.NODE_HIGHWAY));
+		    sum += length(reader.getAttributeKV(Constants.NODE_NAME));
+		    sum += length(reader.getAttributeKV(Constants.NODE_REF));
+		}
+	    }
+	} finally {
+	    reader.close();
+	}
+	return sum;
+    }
+}
@@ -0,0 +1,148 @@
+package de.dhbw.horb.routePlanner.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.SupportMethods;
+import de.dhbw.horb.routePlanner.data.StAXMapGraphDataParser;
+import de.dhbw.horb.routePlanner.data.XMLFileManager;
+
+/**
+ * Vergleicht die Zahlenprfung ber {@link Double#parseDouble(String)} mit abgefangener Exception, wie sie frher in
+ * {@link SupportMethods#isNumeric(String)} stand, mit den Methoden von {@link SupportMethods}, die ohne Exception
+ * auskommen. Gemessen wird ber die Schlssel einer nodes*.xml (Namen und Knoten IDs gemischt) und ber die Knoten
+ * IDs und Koordinaten einer graphData*.xml.
+ * <p>
+ * Ohne Angabe werden die Testgraphen aus {@link BenchmarkGraphs} verwendet. Mit einem Land als Parameter werden
+ * dessen heruntergeladene XML Dateien gelesen, die Einstellungen bleiben unverndert:
+ * 
+ * <pre>
+ * ant benchmark -Djmh.home=/pfad/zu/jmh -Djmh.args="NumberParsingBenchmark -p source=Deutschland"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NumberParsingBenchmark {
+
+    /** Eine Gre aus {@link BenchmarkGraphs} oder ein Land mit vorhandenen XML Dateien. */
+    @Param({ BenchmarkGraphs.SMALL, BenchmarkGraphs.MEDIUM, BenchmarkGraphs.LARGE })
+    public String source;
+
+    private String[] nodeKeys;
+    private String[] nodeIDs;
+    private String[] coordinates;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, XMLStreamException {
+	String country = source;
+	if (BenchmarkGraphs.SMALL.equals(source) || BenchmarkGraphs.MEDIUM.equals(source)
+	        || BenchmarkGraphs.LARGE.equals(source)) {
+	    BenchmarkGraphs.prepare(source);
+	    country = BenchmarkGraphs.getCountry(source);
+	} else if (!XMLFileManager.fileExists(XMLFileManager.getExtendedXMLFileName(Constants.XML_NODES, country))) {
+	    throw new IllegalStateException("Keine XML Dateien fr " + country);
+	}
+
+	nodeKeys = StAXMapGraphDataParser.getNodeXMLMap(country).keySet().toArray(new String[0]);
+	Map<String, Map<String, String>> nodes = StAXMapGraphDataParser.getNodeMap(country);
+	nodeIDs = nodes.keySet().toArray(new String[0]);
+	List<String> values = new ArrayList<String>(nodes.size() * 2);
+	for (Map<String, String> node : nodes.values()) {
+	    values.add(node.get(Constants.NODE_LATITUDE));
+	    values.add(node.get(Constants.NODE_LONGITUDE));
+	}
+	coordinates = values.toArray(new String[0]);
+    }
+
+    /**
+     * Die frhere Prfung aus {@link SupportMethods#isNumeric(String)}.
+     */
+    private static boolean isNumericWithException(String str) {
+	try {
+	    Double.parseDouble(str);
+	} catch (NumberFormatException nfe) {
+	    return false;
+	}
+	return true;
+    }
+
+    @Benchmark
+    public int isNumericWithException() {
+	int numbers = 0;
+	for (String key : nodeKeys)
+	    if (isNumericWithException(key))
+		numbers++;
+	return numbers;
+    }
+
+    @Benchmark
+    public int isNumeric() {
+	int numbers = 0;
+	for (String key : nodeKeys)
+	    if (SupportMethods.isNumeric(key))
+		numbers++;
+	return numbers;
+    }
+
+    @Benchmark
+    public long parseLongWithException() {
+	long sum = 0;
+	for (String id : nodeIDs) {
+	    try {
+		sum += Long.parseLong(id);
+	    } catch (NumberFormatException nfe) {
+		sum--;
+	    }
+	}
+	return sum;
+    }
+
+    @Benchmark
+    public long parseLong() {
+	long sum = 0;
+	for (String id : nodeIDs)
+	    sum += SupportMethods.parseLong(id, -1L);
+	return sum;
+    }
+
+    @Benchmark
+    public double parseDoubleWithException() {
+	double sum = 0.0;
+	for (String coordinate : coordinates) {
+	    if (isNumericWithException(coordinate))
+		sum += Double.parseDouble(coordinate);
+	}
+	return sum;
+    }
+
+    @Benchmark
+    public double parseDouble() {
+	double sum = 0.0;
+	for (String coordinate : coordinates)
+	    sum += SupportMethods.parseDouble(coordinate, 0.0);
+	return sum;
+    }
+}
@@ -0,0 +1,89 @@
+package de.dhbw.horb.routePlanner.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.aStar.AStar;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.Dijkstra;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.OneToAllDijkstra;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.ShortestPathTree;
+
+/**
+ * Latenz einer einzelnen Routenberechnung mit {@link Dijkstra} und {@link AStar} fr beide Berechnungsmethoden. Jeder
+ * Aufruf nimmt die nchste Anfrage aus einer festen Liste zuflliger Start- und Zielpaare. Zum Vergleich berechnet
+ * shortestPathTree den ganzen Baum der Startkreuzung mit {@link OneToAllDijkstra}. Im Modus
+ * {@link Mode#SampleTime} gibt JMH die Perzentile der Latenz aus, mit "-prof gc" zustzlich die Allokationsrate.
+ * 
+ * <pre>
+ * ant benchmark -Djmh.home=/pfad/zu/jmh -Djmh.args="RouteEngineBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteEngineBenchmark {
+
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({ BenchmarkGraphs.SMALL, BenchmarkGraphs.MEDIUM, BenchmarkGraphs.LARGE })
+    public String size;
+
+    @Param({ Constants.EVALUATION_CALCULATION_DISTANCE, Constants.EVALUATION_CALCULATION_DURATION })
+    public String calculationMethod;
+
+    private RoadGraph graph;
+    private String[][] queries;
+    private int nextQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, XMLStreamException {
+	graph = BenchmarkGraphs.loadGraph(size);
+	queries = BenchmarkGraphs.createQueries(graph, QUERY_COUNT);
+	nextQuery = 0;
+    }
+
+    private String[] nextQuery() {
+	String[] query = queries[nextQuery];
+	nextQuery = (nextQuery + 1) % queries.length;
+	return query;
+    }
+
+    @Benchmark
+    public List<Map<String, String>> dijkstra() {
+	String[] query = nextQuery();
+	return new Dijkstra(query[0], query[1], graph).calculateRoute(calculationMethod);
+    }
+
+    @Benchmark
+    public List<Map<String, String>> aStar() {
+	String[] query = nextQuery();
+	return new AStar(query[0], query[1], graph).calculateWay(calculationMethod);
+    }
+
+    @Benchmark
+    public ShortestPathTree shortestPathTree() {
+	return OneToAllDijkstra.calculateTree(graph, nextQuery()[0], calculationMethod, Double.POSITIVE_INFINITY);
+    }
+}
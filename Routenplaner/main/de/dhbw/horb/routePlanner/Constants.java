@@ -23,6 +23,12 @@ public interface Constants {
     public final static String XML_GRAPHDATA = PROGRAM_HOME + System.getProperty("file.separator") + "graphData.xml";
     public final static String XML_NODES = PROGRAM_HOME + System.getProperty("file.separator") + "nodes.xml";
     public final static String XML_ROUTES = PROGRAM_HOME + System.getProperty("file.separator") + "routes.xml";
+    public final static String CH_DURATION = PROGRAM_HOME + System.getProperty("file.separator")
+	    + "hierarchyDuration.ch";
+    public final static String CH_DISTANCE = PROGRAM_HOME + System.getProperty("file.separator")
+	    + "hierarchyDistance.ch";
+    public final static String ALT_LANDMARKS = PROGRAM_HOME + System.getProperty("file.separator") + "landmarks.alt";
+    public final static String GRAPH_SNAPSHOT = PROGRAM_HOME + System.getProperty("file.separator") + "graph.snapshot";
 
     public final static String STARTUP_INITIALIZE = "Initialisiere...";
     public final static String STARTUP_CANCEL = "Abbrechen...";
@@ -39,9 +45,15 @@ public interface Constants {
     public final static String STARTUP_CREATE_XML_GRAPHDATA = "GraphDataXML wird heruntergeladen...";
     public final static String STARTUP_CREATE_XML_NODES = "NodeXML/RouteXML wird erzeugt...";
     public final static String STARTUP_CREATE_XML_ROUTES = "RouteXML/NodeXML wird erzeugt...";
+    public final static String STARTUP_CREATE_HIERARCHY = "Contraction Hierarchies werden berechnet...";
+    public final static String STARTUP_ERROR_HIERARCHY = "Contraction Hierarchies konnten nicht berechnet werden";
+    public final static String STARTUP_LOAD_GRAPH = "Routendaten werden geladen...";
+    public final static String STARTUP_ERROR_GRAPH = "Routendaten konnten nicht geladen werden";
 
     public final static String EVALUATION_METHOD_ASTAR = "AStern";
     public final static String EVALUATION_METHOD_DIJKSTRA = "Dijkstra";
+    public final static String EVALUATION_METHOD_BIDIRECTIONAL = "Bidirektional";
+    public final static String EVALUATION_METHOD_CONTRACTION_HIERARCHIES = "ContractionHierarchies";
     public final static String EVALUATION_CALCULATION_DURATION = "Dauer";
     public final static String EVALUATION_CALCULATION_DISTANCE = "Strecke";
 
@@ -58,6 +70,8 @@ public interface Constants {
     public final static String SETTINGS_COLOR_WAYS_DEFAULT = "0x0000ffff";
     public final static String SETTINGS_COLOR_NODES = "Color_Nodes";
     public final static String SETTINGS_COLOR_NODES_DEFAULT = "0xff0000ff";
+    public final static String SETTINGS_PREPROCESSING_THREADS = "Preprocessing_Threads";
+    public final static String SETTINGS_XML_PRETTY_PRINT = "XML_Pretty_Print";
 
     public final static String NODE = "node";
     public final static String NODE_ID = "id";
@@ -101,6 +115,8 @@ public interface Constants {
     public final static String NEW_ROUTE_DEPARTURENODENAME = "departureNodeName";
     public final static String NEW_ROUTE_DESTINATIONNODENAME = "destinationNodeName";
 
+    public final static int AUTOCOMPLETE_MAX_SUGGESTIONS = 50;
+
     public final static String TOOLTIP_CLOSE_BUTTON = "Dieser Button beendet das Programm";
     public final static String TOOLTIP_INFO_BUTTON = "Dieser Button zeigt Informationen ber das Programm";
     public final static String TOOLTIP_CALCULATE_ROUTE_BUTTON = "Dieser Button lst die Berechnung der Route aus.";
@@ -122,6 +138,14 @@ public interface Constants {
 	    + "mchten, setzten Sie den Haken hier.";
     public final static String TOOLTIP_ASTAR_ROUTE_RADIO = "Wenn Sie eine Route mittels AStern berechnen mchten, "
 	    + "setzten Sie den Haken hier.";
+    public final static String TOOLTIP_BIDIRECTIONAL_ROUTE_RADIO = "Wenn Sie eine Route mittels bidirektionalem "
+	    + "Dijkstra berechnen mchten, setzten Sie den Haken hier.";
+    public final static String TOOLTIP_CONTRACTION_HIERARCHIES_ROUTE_RADIO = "Wenn Sie eine Route mittels "
+	    + "Contraction Hierarchies berechnen mchten, setzten Sie den Haken hier.";
+    public final static String TOOLTIP_ISOCHRONE_CUTOFF_TEXTFIELD = "Geben Sie hier bitte die hchste Fahrzeit in "
+	    + "Minuten bzw. die hchste Strecke in km ein.";
+    public final static String TOOLTIP_CALCULATE_ISOCHRONE_BUTTON = "Dieser Button zeigt alle Anschlussstellen an, "
+	    + "die vom Start aus innerhalb der angegebenen Fahrzeit bzw. Strecke erreichbar sind.";
 
     public final static String ROUTEPLANNER_INFO_STRING = "Dieses Java-Programm entstand im Rahmen der Vorlesung "
 	    + "\"Programmieren I + II\" an der DHBW Stuttgart Campus Horb. \n\n\u00a9 2014 Julius Mahlenbrey, "
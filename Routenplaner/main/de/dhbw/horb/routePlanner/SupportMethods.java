@@ -221,17 +221,138 @@ public class SupportMethods {
     }
 
     /**
-     * Prft ob ein String nur aus Zahlen besteht bzw. eine Zahl ist.
+     * Prft ob ein String nur aus Zahlen besteht bzw. eine Zahl ist. Es werden die gleichen Strings erkannt wie von
+     * {@link Double#parseDouble(String)}, die Prfung kommt aber ohne Exception aus, da sie meist fr Namen aufgerufen
+     * wird. Nur Hexadezimalzahlen werden noch ber {@link Double#parseDouble(String)} geprft.
      * 
      * @param str Der zu berprfende String.
-     * @return True: Ist eine Zahl. False: Ist keine Zahl.
+     * @return True: Ist eine Zahl. False: Ist keine Zahl oder null.
      */
     public static boolean isNumeric(String str) {
-	try {
-	    Double.parseDouble(str);
-	} catch (NumberFormatException nfe) {
+	if (str == null)
 	    return false;
+
+	int start = 0;
+	int end = str.length();
+	while (start < end && str.charAt(start) <= ' ')
+	    start++;
+	while (end > start && str.charAt(end - 1) <= ' ')
+	    end--;
+	if (start < end && (str.charAt(start) == '+' || str.charAt(start) == '-'))
+	    start++;
+	if (start == end)
+	    return false;
+
+	char first = str.charAt(start);
+	if (first == 'N')
+	    return str.regionMatches(start, "NaN", 0, 3) && end - start == 3;
+	if (first == 'I')
+	    return str.regionMatches(start, "Infinity", 0, 8) && end - start == 8;
+	if (first == '0' && start + 1 < end && (str.charAt(start + 1) == 'x' || str.charAt(start + 1) == 'X')) {
+	    try {
+		Double.parseDouble(str);
+	    } catch (NumberFormatException nfe) {
+		return false;
+	    }
+	    return true;
+	}
+
+	int digits = 0;
+	int i = start;
+	for (; i < end && isDigit(str.charAt(i)); i++)
+	    digits++;
+	if (i < end && str.charAt(i) == '.')
+	    for (i++; i < end && isDigit(str.charAt(i)); i++)
+		digits++;
+	if (digits == 0)
+	    return false;
+
+	if (i < end && (str.charAt(i) == 'e' || str.charAt(i) == 'E')) {
+	    i++;
+	    if (i < end && (str.charAt(i) == '+' || str.charAt(i) == '-'))
+		i++;
+	    int exponentStart = i;
+	    while (i < end && isDigit(str.charAt(i)))
+		i++;
+	    if (i == exponentStart)
+		return false;
+	}
+	if (i < end && "fFdD".indexOf(str.charAt(i)) >= 0)
+	    i++;
+	return i == end;
+    }
+
+    private static boolean isDigit(char c) {
+	return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Liest eine ganze Zahl mit optionalem Vorzeichen, z.B. eine ID, ohne Exception und ohne Objekte zu erzeugen.
+     * 
+     * @param str Der String.
+     * @param defaultValue Wird zurckgegeben wenn der String null, keine ganze Zahl oder zu gro fr ein long ist.
+     * @return Die Zahl.
+     */
+    public static long parseLong(String str, long defaultValue) {
+	if (str == null || str.isEmpty())
+	    return defaultValue;
+
+	int i = 0;
+	boolean negative = str.charAt(0) == '-';
+	if (negative || str.charAt(0) == '+')
+	    i++;
+	if (i == str.length())
+	    return defaultValue;
+
+	// Negativ summieren, damit auch Long.MIN_VALUE passt.
+	long value = 0;
+	for (; i < str.length(); i++) {
+	    char c = str.charAt(i);
+	    if (!isDigit(c) || value < Long.MIN_VALUE / 10)
+		return defaultValue;
+	    value *= 10;
+	    if (value < Long.MIN_VALUE + (c - '0'))
+		return defaultValue;
+	    value -= c - '0';
+	}
+	if (negative)
+	    return value;
+	return value == Long.MIN_VALUE ? defaultValue : -value;
+    }
+
+    /**
+     * Wie {@link #parseLong(String, long)} fr int Werte, z.B. Geschwindigkeiten.
+     * 
+     * @param str Der String.
+     * @param defaultValue Wird zurckgegeben wenn der String null, keine ganze Zahl oder zu gro fr ein int ist.
+     * @return Die Zahl.
+     */
+    public static int parseInt(String str, int defaultValue) {
+	long value = parseLong(str, Long.MIN_VALUE);
+	if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+	    return defaultValue;
+	return (int) value;
+    }
+
+    /**
+     * Liest eine Kommazahl, z.B. Strecke, Dauer oder Koordinaten, ohne Exception. Ganze Zahlen wie die Dauer in
+     * Millisekunden werden direkt umgerechnet, andere Zahlen ber {@link Double#parseDouble(String)}.
+     * 
+     * @param str Der String.
+     * @param defaultValue Wird zurckgegeben wenn der String keine Zahl ist.
+     * @return Die Zahl.
+     */
+    public static double parseDouble(String str, double defaultValue) {
+	if (str == null)
+	    return defaultValue;
+	// Bis 15 Stellen ist ein long ohne Rundung als double darstellbar.
+	if (str.length() <= 15) {
+	    long value = parseLong(str, Long.MIN_VALUE);
+	    if (value != Long.MIN_VALUE && !(value == 0 && str.charAt(0) == '-'))
+		return value;
 	}
-	return true;
+	if (!isNumeric(str))
+	    return defaultValue;
+	return Double.parseDouble(str);
     }
 }
@@ -0,0 +1,430 @@
+package de.dhbw.horb.routePlanner.batch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.stream.XMLStreamException;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.SupportMethods;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.RouteCache;
+import de.dhbw.horb.routePlanner.evaluation.RouteEngine;
+import de.dhbw.horb.routePlanner.evaluation.RouteResult;
+import de.dhbw.horb.routePlanner.server.JsonWriter;
+
+/**
+ * Berechnet viele Routen ohne GUI, z.B. ber Nacht. Die Eingabe ist eine CSV Datei mit Start- und Zielkreuzung pro
+ * Zeile, getrennt durch Komma oder Semikolon, optional mit einer Kopfzeile "departure,destination". Alle Routen werden
+ * mit einer {@link RouteEngine} auf einem gemeinsam geladenen Graphen auf mehrere Threads verteilt.
+ * <p>
+ * Die Ergebnisse werden in der Reihenfolge der Eingabe geschrieben, sobald sie vorliegen. Es sind hchstens
+ * {@link #PENDING_PER_THREAD} Zeilen pro Thread gleichzeitig in Arbeit, so bleibt der Speicherbedarf auch bei sehr
+ * groen Dateien klein. Ausgabe als CSV (Status, Start, Ziel, Strecke in km, Dauer in ms, Weg IDs, Meldung) oder
+ * als JSON Lines mit einem Objekt pro Zeile.
+ */
+public class BatchRouteCalculator {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_JSON_LINES = "jsonl";
+
+    public static final String STATUS_OK = "ok";
+    public static final String STATUS_NO_ROUTE = "no_route";
+    public static final String STATUS_ERROR = "error";
+
+    /** Hchstanzahl der gleichzeitig offenen Zeilen pro Thread. */
+    public static final int PENDING_PER_THREAD = 64;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final RouteEngine engine;
+    private final String evaluationMethod;
+    private final String calculationMethod;
+    private final String format;
+    private final int threads;
+
+    /**
+     * Ergebnis eines Laufs.
+     */
+    public static class Summary {
+
+	private final long pairs;
+	private final long routes;
+	private final long noRoutes;
+	private final long errors;
+	private final long millis;
+
+	Summary(long pairs, long routes, long noRoutes, long errors, long millis) {
+	    this.pairs = pairs;
+	    this.routes = routes;
+	    this.noRoutes = noRoutes;
+	    this.errors = errors;
+	    this.millis = millis;
+	}
+
+	/**
+	 * @return Anzahl der gelesenen Paare aus Start und Ziel.
+	 */
+	public long getPairs() {
+	    return pairs;
+	}
+
+	/**
+	 * @return Anzahl der gefundenen Routen.
+	 */
+	public long getRoutes() {
+	    return routes;
+	}
+
+	/**
+	 * @return Anzahl der Paare ohne Verbindung.
+	 */
+	public long getNoRoutes() {
+	    return noRoutes;
+	}
+
+	/**
+	 * @return Anzahl der fehlerhaften Zeilen, z.B. mit unbekannten Kreuzungen.
+	 */
+	public long getErrors() {
+	    return errors;
+	}
+
+	/**
+	 * @return Laufzeit in ms.
+	 */
+	public long getMillis() {
+	    return millis;
+	}
+
+	/**
+	 * @return Berechnete Paare pro Sekunde.
+	 */
+	public double getPairsPerSecond() {
+	    return millis == 0 ? pairs * 1000.0 : pairs * 1000.0 / millis;
+	}
+
+	@Override
+	public String toString() {
+	    return String.format(Locale.ROOT, "%d Paare in %d ms (%.1f pro Sekunde): %d Routen, %d ohne Route, "
+	            + "%d Fehler", pairs, millis, getPairsPerSecond(), routes, noRoutes, errors);
+	}
+    }
+
+    /**
+     * Ergebnis einer Zeile, fertig formatiert.
+     */
+    private static class Row {
+
+	final String status;
+	final String text;
+
+	Row(String status, String text) {
+	    this.status = status;
+	    this.text = text;
+	}
+    }
+
+    /**
+     * @param engine Die gemeinsam genutzte Engine.
+     * @param evaluationMethod Berechnungsalgorithmus, z.B. Constants.EVALUATION_METHOD_DIJKSTRA.
+     * @param calculationMethod Art der Auswertung (krzeste/schnellste Route).
+     * @param format {@link #FORMAT_CSV} oder {@link #FORMAT_JSON_LINES}
+     * @param threads Anzahl der Threads.
+     */
+    public BatchRouteCalculator(RouteEngine engine, String evaluationMethod, String calculationMethod, String format,
+	    int threads) {
+	if (!RouteEngine.isEvaluationMethod(evaluationMethod))
+	    throw new IllegalArgumentException("Unbekannter Algorithmus: " + evaluationMethod);
+	if (!RouteEngine.isCalculationMethod(calculationMethod))
+	    throw new IllegalArgumentException("Unbekannte Auswertung: " + calculationMethod);
+	if (!FORMAT_CSV.equals(format) && !FORMAT_JSON_LINES.equals(format))
+	    throw new IllegalArgumentException("Unbekanntes Format: " + format);
+	this.engine = engine;
+	this.evaluationMethod = evaluationMethod;
+	this.calculationMethod = calculationMethod;
+	this.format = format;
+	this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Berechnet die Routen einer CSV Datei.
+     * 
+     * <pre>
+     * java ... BatchRouteCalculator Eingabe.csv|- [Ausgabe|-] [--method Dijkstra|AStern|...]
+     *          [--calculation Dauer|Strecke] [--format csv|jsonl] [--threads n] [--country Land] [--cache Gewicht]
+     * </pre>
+     * 
+     * Wiederholte Paare werden aus einem {@link RouteCache} beantwortet, --cache 0 schaltet ihn ab. Die
+     * Zusammenfassung wird auf System.err ausgegeben, damit sie nicht in die Ausgabe gert.
+     * 
+     * @param args Siehe oben, "-" steht fr System.in bzw. System.out.
+     * @throws IOException
+     * @throws XMLStreamException
+     * @throws InterruptedException
+     */
+    public static void main(String[] args) throws IOException, XMLStreamException, InterruptedException {
+	List<String> files = new ArrayList<String>();
+	String evaluationMethod = Constants.EVALUATION_METHOD_DIJKSTRA;
+	String calculationMethod = Constants.EVALUATION_CALCULATION_DURATION;
+	String format = FORMAT_CSV;
+	int threads = Runtime.getRuntime().availableProcessors();
+	String country = null;
+	long cacheWeight = RouteCache.DEFAULT_MAX_WEIGHT;
+	for (int i = 0; i < args.length; i++) {
+	    String option = args[i];
+	    if (!option.startsWith("--")) {
+		files.add(option);
+	    } else if (i + 1 < args.length) {
+		String value = args[++i];
+		switch (option) {
+		case "--method":
+		    evaluationMethod = value;
+		    break;
+		case "--calculation":
+		    calculationMethod = value;
+		    break;
+		case "--format":
+		    format = value;
+		    break;
+		case "--threads":
+		    threads = SupportMethods.parseInt(value, -1);
+		    break;
+		case "--country":
+		    country = value;
+		    break;
+		case "--cache":
+		    cacheWeight = SupportMethods.parseLong(value, -1);
+		    break;
+		default:
+		    usage("Unbekannte Option " + option);
+		}
+	    } else {
+		usage("Wert fehlt fr " + option);
+	    }
+	}
+	if (files.isEmpty() || files.size() > 2 || threads < 1 || cacheWeight < 0)
+	    usage(null);
+
+	long start = System.currentTimeMillis();
+	RoadGraph graph = country != null ? RoadGraph.getInstance(country) : RoadGraph.getInstance();
+	System.err.println("Routendaten fr " + graph.getCountry() + " geladen in "
+	        + (System.currentTimeMillis() - start) + " ms");
+
+	RouteCache cache = cacheWeight > 0 ? new RouteCache(cacheWeight) : null;
+	BatchRouteCalculator calculator;
+	try {
+	    calculator = new BatchRouteCalculator(new RouteEngine(graph, cache), evaluationMethod, calculationMethod,
+	            format, threads);
+	} catch (IllegalArgumentException e) {
+	    usage(e.getMessage());
+	    return;
+	}
+
+	String input = files.get(0);
+	String output = files.size() > 1 ? files.get(1) : "-";
+	Reader in = new InputStreamReader("-".equals(input) ? System.in : new FileInputStream(input), UTF8);
+	Writer out = new BufferedWriter(new OutputStreamWriter("-".equals(output) ? System.out : new FileOutputStream(
+	        output), UTF8), 1 << 16);
+	try {
+	    System.err.println(calculator.run(in, out));
+	    if (cache != null)
+		System.err.println(cache);
+	} finally {
+	    in.close();
+	    out.close();
+	}
+    }
+
+    private static void usage(String message) {
+	if (message != null)
+	    System.err.println(message);
+	System.err.println("Aufruf: BatchRouteCalculator Eingabe.csv|- [Ausgabe|-] [--method "
+	        + Constants.EVALUATION_METHOD_DIJKSTRA + "|" + Constants.EVALUATION_METHOD_ASTAR + "|"
+	        + Constants.EVALUATION_METHOD_BIDIRECTIONAL + "|" + Constants.EVALUATION_METHOD_CONTRACTION_HIERARCHIES
+	        + "] [--calculation " + Constants.EVALUATION_CALCULATION_DURATION + "|"
+	        + Constants.EVALUATION_CALCULATION_DISTANCE
+	        + "] [--format csv|jsonl] [--threads n] [--country Land] [--cache Gewicht]");
+	System.exit(1);
+    }
+
+    /**
+     * Liest alle Paare, berechnet die Routen parallel und schreibt die Ergebnisse in Reihenfolge der Eingabe.
+     * 
+     * @param in Die CSV Eingabe, sie wird nicht geschlossen.
+     * @param out Die Ausgabe, sie wird nicht geschlossen.
+     * @return Die Zusammenfassung.
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public Summary run(Reader in, Writer out) throws IOException, InterruptedException {
+	long start = System.currentTimeMillis();
+	long pairs = 0;
+	long[] counts = new long[3];
+	BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in, 1 << 16);
+	ExecutorService executor = Executors.newFixedThreadPool(threads);
+	ArrayDeque<Future<Row>> pending = new ArrayDeque<Future<Row>>();
+	int maxPending = threads * PENDING_PER_THREAD;
+	try {
+	    if (FORMAT_CSV.equals(format))
+		out.write("status,departure,destination,distance,duration,wayIDs,message\n");
+
+	    char separator = 0;
+	    long lineNumber = 0;
+	    String line;
+	    while ((line = reader.readLine()) != null) {
+		lineNumber++;
+		if (line.trim().isEmpty())
+		    continue;
+		if (separator == 0)
+		    separator = line.indexOf(';') >= 0 && line.indexOf(',') < 0 ? ';' : ',';
+		final List<String> fields = parseCsvLine(line, separator);
+		if (lineNumber == 1 && fields.size() >= 2 && "departure".equalsIgnoreCase(fields.get(0).trim()))
+		    continue;
+
+		pairs++;
+		final long currentLine = lineNumber;
+		pending.add(executor.submit(new Callable<Row>() {
+		    @Override
+		    public Row call() {
+			return calculate(currentLine, fields);
+		    }
+		}));
+		if (pending.size() >= maxPending)
+		    write(pending.poll(), out, counts);
+	    }
+	    while (!pending.isEmpty())
+		write(pending.poll(), out, counts);
+	    out.flush();
+	} finally {
+	    executor.shutdownNow();
+	}
+	return new Summary(pairs, counts[0], counts[1], counts[2], System.currentTimeMillis() - start);
+    }
+
+    private static void write(Future<Row> future, Writer out, long[] counts) throws IOException,
+	    InterruptedException {
+	Row row;
+	try {
+	    row = future.get();
+	} catch (ExecutionException e) {
+	    throw new IllegalStateException(e.getCause());
+	}
+	counts[STATUS_OK.equals(row.status) ? 0 : STATUS_NO_ROUTE.equals(row.status) ? 1 : 2]++;
+	out.write(row.text);
+	out.write('\n');
+    }
+
+    private Row calculate(long lineNumber, List<String> fields) {
+	String departure = fields.size() > 0 ? fields.get(0).trim() : null;
+	String destination = fields.size() > 1 ? fields.get(1).trim() : null;
+	if (fields.size() < 2)
+	    return format(lineNumber, departure, destination, STATUS_ERROR, null, "Start oder Ziel fehlt");
+	try {
+	    RouteResult result = engine.calculate(departure, destination, evaluationMethod, calculationMethod);
+	    if (result == null)
+		return format(lineNumber, departure, destination, STATUS_NO_ROUTE, null, "Keine Route gefunden");
+	    return format(lineNumber, departure, destination, STATUS_OK, result, null);
+	} catch (IllegalArgumentException e) {
+	    return format(lineNumber, departure, destination, STATUS_ERROR, null, e.getMessage());
+	}
+    }
+
+    private Row format(long lineNumber, String departure, String destination, String status, RouteResult result,
+	    String message) {
+	if (FORMAT_JSON_LINES.equals(format)) {
+	    JsonWriter json = new JsonWriter();
+	    json.beginObject();
+	    json.name("line").value(lineNumber);
+	    json.name("status").value(status);
+	    json.name("departure").value(departure);
+	    json.name("destination").value(destination);
+	    if (result != null) {
+		json.name("distance").value(result.getDistance());
+		json.name("duration").value(result.getDuration());
+		json.name("wayIDs").value(result.getWayIDs());
+	    }
+	    if (message != null)
+		json.name("message").value(message);
+	    json.endObject();
+	    return new Row(status, json.toString());
+	}
+
+	StringBuilder csv = new StringBuilder();
+	csv.append(status).append(',');
+	appendCsvField(csv, departure);
+	csv.append(',');
+	appendCsvField(csv, destination);
+	csv.append(',');
+	if (result != null)
+	    csv.append(result.getDistance()).append(',').append(Math.round(result.getDuration())).append(',');
+	else
+	    csv.append(",,");
+	if (result != null)
+	    appendCsvField(csv, SupportMethods.strListToCommaStr(result.getWayIDs()));
+	csv.append(',');
+	appendCsvField(csv, message);
+	return new Row(status, csv.toString());
+    }
+
+    private static void appendCsvField(StringBuilder csv, String value) {
+	if (value == null)
+	    return;
+	if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+	    csv.append(value);
+	    return;
+	}
+	csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    /**
+     * Zerlegt eine CSV Zeile. Felder in Anfhrungszeichen drfen das Trennzeichen enthalten, doppelte Anfhrungszeichen
+     * stehen fr eines.
+     * 
+     * @param line Die Zeile.
+     * @param separator Das Trennzeichen.
+     * @return Die Felder.
+     */
+    public static List<String> parseCsvLine(String line, char separator) {
+	List<String> fields = new ArrayList<String>(2);
+	StringBuilder field = new StringBuilder();
+	boolean quoted = false;
+	for (int i = 0; i < line.length(); i++) {
+	    char c = line.charAt(i);
+	    if (quoted) {
+		if (c != '"')
+		    field.append(c);
+		else if (i + 1 < line.length() && line.charAt(i + 1) == '"')
+		    field.append(line.charAt(++i));
+		else
+		    quoted = false;
+	    } else if (c == '"') {
+		quoted = true;
+	    } else if (c == separator) {
+		fields.add(field.toString());
+		field.setLength(0);
+	    } else {
+		field.append(c);
+	    }
+	}
+	fields.add(field.toString());
+	return fields;
+    }
+}
@@ -0,0 +1,435 @@
+package de.dhbw.horb.routePlanner.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.SupportMethods;
+
+/**
+ * Kompakte Darstellung des Routengraphen als Compressed Sparse Row (CSR). Alle Knoten IDs werden fortlaufend auf int
+ * Indizes abgebildet. Die ausgehenden Kanten eines Knotens liegen hintereinander in primitiven Arrays, sodass pro
+ * Kante nur Ziel, Strecke und Dauer (20 Byte) gespeichert werden. Strecke und Dauer sind double, damit die Werte aus
+ * den XML Dateien und ihre Summen genau bleiben. ber {@link #getEdgeRoute(int)} kommt man wieder an
+ * die Routen Map fr die Ausgabe, deren Werte im {@link EdgeAttributeStore} auerhalb des Heaps liegen. Fr Suchen
+ * gegen die Fahrtrichtung gibt es zustzlich die eingehenden Kanten jedes Knotens.
+ * <p>
+ * Knoten IDs werden ohne Map gesucht: OSM IDs liegen als aufsteigend sortiertes long Array mit dem Knoten Index
+ * daneben vor, alle anderen IDs werden per Binrsuche direkt in den sortierten Knoten IDs gesucht.
+ */
+public class CompactRouteGraph {
+
+    private final String[] nodeIDs;
+    private final long[] numericNodeIDs;
+    private final int[] numericNodeIndices;
+    private final int[] edgeOffsets;
+    private final int[] edgeTargets;
+    private final double[] edgeDistances;
+    private final double[] edgeDurations;
+    private final EdgeAttributeStore edgeAttributes;
+    private final int[] reverseEdgeOffsets;
+    private final int[] reverseEdges;
+    private final int[] reverseEdgeSources;
+    private final double maxEdgeSpeed;
+
+    /**
+     * Erzeugt den Graphen aus den Maps der nodes*.xml und routes*.xml.
+     * 
+     * @param nodeXMLMap Map wie {@link StAXMapGraphDataParser#getNodeXMLMap()}
+     * @param routeXMLMap Map wie {@link StAXMapGraphDataParser#getRouteXMLMap()}
+     */
+    public CompactRouteGraph(Map<String, List<String>> nodeXMLMap, Map<String, List<Map<String, String>>> routeXMLMap) {
+	this(new GraphArrays(nodeXMLMap, routeXMLMap));
+    }
+
+    private CompactRouteGraph(GraphArrays arrays) {
+	this(arrays.nodeIDs, arrays.edgeOffsets, arrays.edgeTargets, arrays.edgeDistances, arrays.edgeDurations,
+	        arrays.edgeAttributes);
+    }
+
+    /**
+     * Erzeugt den Graphen aus bereits fertigen CSR Arrays, z.B. aus einem {@link GraphSnapshot}. Die Arrays werden
+     * nicht kopiert.
+     * 
+     * @param nodeIDs Knoten IDs nach Knoten Index, aufsteigend sortiert.
+     * @param edgeOffsets Erste ausgehende Kante jedes Knotens, Lnge Knotenanzahl + 1.
+     * @param edgeTargets Zielknoten jeder Kante.
+     * @param edgeDistances Strecke jeder Kante.
+     * @param edgeDurations Dauer jeder Kante.
+     * @param edgeAttributes Attribute jeder Kante fr die Ausgabe.
+     */
+    CompactRouteGraph(String[] nodeIDs, int[] edgeOffsets, int[] edgeTargets, double[] edgeDistances,
+	    double[] edgeDurations, EdgeAttributeStore edgeAttributes) {
+	this.nodeIDs = nodeIDs;
+	this.edgeOffsets = edgeOffsets;
+	this.edgeTargets = edgeTargets;
+	this.edgeDistances = edgeDistances;
+	this.edgeDurations = edgeDurations;
+	this.edgeAttributes = edgeAttributes;
+
+	int numericCount = 0;
+	for (String nodeID : nodeIDs)
+	    if (toNumericID(nodeID) != Long.MIN_VALUE)
+		numericCount++;
+	numericNodeIDs = new long[numericCount];
+	numericNodeIndices = new int[numericCount];
+	numericCount = 0;
+	for (String nodeID : nodeIDs) {
+	    long numericID = toNumericID(nodeID);
+	    if (numericID != Long.MIN_VALUE)
+		numericNodeIDs[numericCount++] = numericID;
+	}
+	Arrays.sort(numericNodeIDs);
+	for (int i = 0; i < nodeIDs.length; i++) {
+	    long numericID = toNumericID(nodeIDs[i]);
+	    if (numericID != Long.MIN_VALUE)
+		numericNodeIndices[Arrays.binarySearch(numericNodeIDs, numericID)] = i;
+	}
+
+	int edge = edgeTargets.length;
+	double maxSpeed = 0.0;
+	for (int i = 0; i < edge; i++) {
+	    if (edgeDistances[i] <= 0)
+		continue;
+	    if (edgeDurations[i] <= 0) {
+		maxSpeed = Double.POSITIVE_INFINITY;
+		break;
+	    }
+	    maxSpeed = Math.max(maxSpeed, edgeDistances[i] / edgeDurations[i]);
+	}
+	maxEdgeSpeed = maxSpeed;
+
+	reverseEdgeOffsets = new int[nodeIDs.length + 1];
+	reverseEdges = new int[edge];
+	reverseEdgeSources = new int[edge];
+	for (int i = 0; i < edge; i++)
+	    reverseEdgeOffsets[edgeTargets[i] + 1]++;
+	for (int node = 0; node < nodeIDs.length; node++)
+	    reverseEdgeOffsets[node + 1] += reverseEdgeOffsets[node];
+
+	int[] fill = new int[nodeIDs.length];
+	for (int node = 0; node < nodeIDs.length; node++) {
+	    for (int i = edgeOffsets[node]; i < edgeOffsets[node + 1]; i++) {
+		int target = edgeTargets[i];
+		int position = reverseEdgeOffsets[target] + fill[target]++;
+		reverseEdges[position] = i;
+		reverseEdgeSources[position] = node;
+	    }
+	}
+    }
+
+    /**
+     * CSR Arrays aus den Maps der XML Dateien, bevor daraus der Graph erzeugt wird.
+     */
+    private static class GraphArrays {
+
+	private final String[] nodeIDs;
+	private final int[] edgeOffsets;
+	private final int[] edgeTargets;
+	private final double[] edgeDistances;
+	private final double[] edgeDurations;
+	private final EdgeAttributeStore edgeAttributes;
+
+	private GraphArrays(Map<String, List<String>> nodeXMLMap, Map<String, List<Map<String, String>>> routeXMLMap) {
+	    TreeSet<String> ids = new TreeSet<String>();
+	    for (Map.Entry<String, List<String>> entry : nodeXMLMap.entrySet())
+		if (!SupportMethods.isNumeric(entry.getKey()))
+		    ids.addAll(entry.getValue());
+
+	    for (Map.Entry<String, List<Map<String, String>>> entry : routeXMLMap.entrySet()) {
+		ids.add(entry.getKey());
+		for (Map<String, String> route : entry.getValue()) {
+		    String destinationID = route.get(Constants.NEW_ROUTE_DESTINATIONNODEID);
+		    if (destinationID != null)
+			ids.add(destinationID);
+		}
+	    }
+
+	    nodeIDs = ids.toArray(new String[ids.size()]);
+
+	    int edgeCount = 0;
+	    for (List<Map<String, String>> routes : routeXMLMap.values())
+		edgeCount += routes.size();
+
+	    edgeOffsets = new int[nodeIDs.length + 1];
+	    int[] targets = new int[edgeCount];
+	    double[] distances = new double[edgeCount];
+	    double[] durations = new double[edgeCount];
+	    List<Map<String, String>> edgeRoutes = new ArrayList<Map<String, String>>(edgeCount);
+
+	    int edge = 0;
+	    for (int node = 0; node < nodeIDs.length; node++) {
+		edgeOffsets[node] = edge;
+		List<Map<String, String>> routes = routeXMLMap.get(nodeIDs[node]);
+		if (routes == null)
+		    continue;
+
+		for (Map<String, String> route : routes) {
+		    String destinationID = route.get(Constants.NEW_ROUTE_DESTINATIONNODEID);
+		    double distance = SupportMethods.parseDouble(route.get(Constants.NEW_ROUTE_DISTANCE), Double.NaN);
+		    double duration = SupportMethods.parseDouble(route.get(Constants.NEW_ROUTE_DURATION), Double.NaN);
+
+		    if (destinationID == null || destinationID.equals(nodeIDs[node]) || Double.isNaN(distance)
+		            || Double.isNaN(duration))
+			continue;
+
+		    targets[edge] = Arrays.binarySearch(nodeIDs, destinationID);
+		    distances[edge] = distance;
+		    durations[edge] = duration;
+		    edgeRoutes.add(route);
+		    edge++;
+		}
+	    }
+	    edgeOffsets[nodeIDs.length] = edge;
+
+	    edgeTargets = trim(targets, edge);
+	    edgeDistances = trim(distances, edge);
+	    edgeDurations = trim(durations, edge);
+	    edgeAttributes = EdgeAttributeStore.create(edgeRoutes);
+	}
+    }
+
+    private static int[] trim(int[] array, int length) {
+	if (array.length == length)
+	    return array;
+	int[] trimmed = new int[length];
+	System.arraycopy(array, 0, trimmed, 0, length);
+	return trimmed;
+    }
+
+    private static double[] trim(double[] array, int length) {
+	if (array.length == length)
+	    return array;
+	double[] trimmed = new double[length];
+	System.arraycopy(array, 0, trimmed, 0, length);
+	return trimmed;
+    }
+
+    /**
+     * @return Anzahl der Knoten.
+     */
+    public int getNodeCount() {
+	return nodeIDs.length;
+    }
+
+    /**
+     * @return Anzahl der Kanten.
+     */
+    public int getEdgeCount() {
+	return edgeTargets.length;
+    }
+
+    /**
+     * @param nodeID Die Knoten ID aus den XML Dateien.
+     * @return Der Index des Knotens oder -1 wenn er nicht im Graphen vorkommt.
+     */
+    public int getNodeIndex(String nodeID) {
+	if (nodeID == null)
+	    return -1;
+	long numericID = toNumericID(nodeID);
+	int index;
+	if (numericID != Long.MIN_VALUE) {
+	    index = Arrays.binarySearch(numericNodeIDs, numericID);
+	    return index < 0 ? -1 : numericNodeIndices[index];
+	}
+	index = Arrays.binarySearch(nodeIDs, nodeID);
+	return index < 0 ? -1 : index;
+    }
+
+    /**
+     * @param nodeID Eine Knoten ID.
+     * @return Die ID als long, wenn sie genau so geschrieben ist wie {@link Long#toString(long)} sie ausgibt, sonst
+     *         Long.MIN_VALUE. IDs wie "007" oder "+7" werden so nicht mit "7" verwechselt.
+     */
+    private static long toNumericID(String nodeID) {
+	long numericID = SupportMethods.parseLong(nodeID, Long.MIN_VALUE);
+	if (numericID == Long.MIN_VALUE || nodeID.charAt(0) == '+')
+	    return Long.MIN_VALUE;
+	int first = nodeID.charAt(0) == '-' ? 1 : 0;
+	if (nodeID.charAt(first) == '0' && nodeID.length() > 1)
+	    return Long.MIN_VALUE;
+	return numericID;
+    }
+
+    /**
+     * @param nodeIDs Knoten IDs aus den XML Dateien.
+     * @return Die Indizes aller IDs die im Graphen vorkommen.
+     */
+    public int[] getNodeIndices(Collection<String> nodeIDs) {
+	if (nodeIDs == null)
+	    return new int[0];
+
+	int[] indices = new int[nodeIDs.size()];
+	int count = 0;
+	for (String nodeID : nodeIDs) {
+	    int index = getNodeIndex(nodeID);
+	    if (index >= 0)
+		indices[count++] = index;
+	}
+	return trim(indices, count);
+    }
+
+    /**
+     * @param node Der Knoten Index.
+     * @return Die Knoten ID aus den XML Dateien.
+     */
+    public String getNodeID(int node) {
+	return nodeIDs[node];
+    }
+
+    /**
+     * @param node Der Knoten Index.
+     * @return Index der ersten ausgehenden Kante des Knotens.
+     */
+    public int getEdgeStart(int node) {
+	return edgeOffsets[node];
+    }
+
+    /**
+     * @param node Der Knoten Index.
+     * @return Index hinter der letzten ausgehenden Kante des Knotens.
+     */
+    public int getEdgeEnd(int node) {
+	return edgeOffsets[node + 1];
+    }
+
+    /**
+     * @param edge Der Kanten Index.
+     * @return Der Index des Zielknotens.
+     */
+    public int getEdgeTarget(int edge) {
+	return edgeTargets[edge];
+    }
+
+    /**
+     * @param edge Der Kanten Index.
+     * @return Die Strecke in km.
+     */
+    public double getEdgeDistance(int edge) {
+	return edgeDistances[edge];
+    }
+
+    /**
+     * @param edge Der Kanten Index.
+     * @return Die Dauer in Millisekunden.
+     */
+    public double getEdgeDuration(int edge) {
+	return edgeDurations[edge];
+    }
+
+    /**
+     * @param node Der Knoten Index.
+     * @return Index der ersten eingehenden Kante des Knotens in den Rckwrts Arrays.
+     */
+    public int getReverseEdgeStart(int node) {
+	return reverseEdgeOffsets[node];
+    }
+
+    /**
+     * @param node Der Knoten Index.
+     * @return Index hinter der letzten eingehenden Kante des Knotens in den Rckwrts Arrays.
+     */
+    public int getReverseEdgeEnd(int node) {
+	return reverseEdgeOffsets[node + 1];
+    }
+
+    /**
+     * @param reverseEdge Index in den Rckwrts Arrays.
+     * @return Der Index der zugehrigen Kante in Fahrtrichtung, z.B. fr {@link #getEdgeWeights(String)}.
+     */
+    public int getReverseEdge(int reverseEdge) {
+	return reverseEdges[reverseEdge];
+    }
+
+    /**
+     * @param reverseEdge Index in den Rckwrts Arrays.
+     * @return Der Index des Startknotens der Kante.
+     */
+    public int getReverseEdgeSource(int reverseEdge) {
+	return reverseEdgeSources[reverseEdge];
+    }
+
+    /**
+     * Hchste Geschwindigkeit (Strecke durch Dauer) ber alle Kanten. Da die Dauer beim Erzeugen der routes*.xml pro
+     * Abschnitt abgerundet wird, ist dieser Wert eine sichere obere Schranke als das grte maxspeed der Wege.
+     * 
+     * @return Geschwindigkeit in km pro Millisekunde, unendlich wenn eine Kante eine Strecke aber keine Dauer hat.
+     */
+    public double getMaxEdgeSpeed() {
+	return maxEdgeSpeed;
+    }
+
+    /**
+     * Gibt die Kantengewichte fr eine Berechnungsmethode zurck. Das Array wird aus Geschwindigkeitsgrnden nicht
+     * kopiert und darf nicht verndert werden.
+     * 
+     * @param calculationMethod Constants.EVALUATION_CALCULATION_DISTANCE oder
+     *            Constants.EVALUATION_CALCULATION_DURATION (Standard).
+     * @return Gewicht jeder Kante nach Kanten Index.
+     */
+    public double[] getEdgeWeights(String calculationMethod) {
+	if (Constants.EVALUATION_CALCULATION_DISTANCE.equals(calculationMethod))
+	    return edgeDistances;
+	return edgeDurations;
+    }
+
+    /**
+     * Prfsumme ber Knoten, Kanten und Gewichte einer Berechnungsmethode. ndern sich die Routen, passen daraus
+     * vorberechnete Dateien nicht mehr.
+     * 
+     * @param calculationMethod Berechnungsmethode (Dauer oder Strecke)
+     * @return Die Prfsumme.
+     */
+    public long getFingerprint(String calculationMethod) {
+	double[] weights = getEdgeWeights(calculationMethod);
+	long hash = 1125899906842597L;
+	hash = 31 * hash + nodeIDs.length;
+	for (int node = 0; node < nodeIDs.length; node++) {
+	    hash = 31 * hash + nodeIDs[node].hashCode();
+	    hash = 31 * hash + edgeOffsets[node + 1];
+	}
+	for (int edge = 0; edge < edgeTargets.length; edge++) {
+	    hash = 31 * hash + edgeTargets[edge];
+	    long bits = Double.doubleToLongBits(weights[edge]);
+	    hash = 31 * hash + (int) (bits ^ (bits >>> 32));
+	}
+	return hash;
+    }
+
+    /**
+     * @param edge Der Kanten Index.
+     * @return Der Index des Startknotens der Kante.
+     */
+    public int getEdgeSource(int edge) {
+	int low = 0;
+	int high = nodeIDs.length - 1;
+	while (low < high) {
+	    int middle = (low + high + 1) >>> 1;
+	    if (edgeOffsets[middle] <= edge)
+		low = middle;
+	    else
+		high = middle - 1;
+	}
+	return low;
+    }
+
+    /**
+     * @return Die Attribute der Kanten fr die Ausgabe.
+     */
+    public EdgeAttributeStore getEdgeAttributes() {
+	return edgeAttributes;
+    }
+
+    /**
+     * @param edge Der Kanten Index.
+     * @return Die Routen Map wie in {@link StAXMapGraphDataParser#getRouteXMLMap()}, gelesen aus dem
+     *         {@link EdgeAttributeStore}.
+     */
+    public EdgeRoute getEdgeRoute(int edge) {
+	return new EdgeRoute(edgeAttributes, edge, nodeIDs[getEdgeSource(edge)], nodeIDs[edgeTargets[edge]]);
+    }
+}
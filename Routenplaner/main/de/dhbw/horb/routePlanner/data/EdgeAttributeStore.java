@@ -0,0 +1,316 @@
+package de.dhbw.horb.routePlanner.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.SupportMethods;
+
+/**
+ * Speichert die Attribute der Kanten, die nur fr die Ausgabe gebraucht werden, auerhalb des Heaps. Namen,
+ * Autobahnnummern, Strecke und Dauer stehen ohne Duplikate in einer {@link StringTable}, die Weg IDs als long Werte.
+ * Pro Kante gibt es nur einen Eintrag fester Gre mit Verweisen darauf. Der Puffer ist entweder direkter Speicher oder
+ * ein Ausschnitt einer eingeblendeten {@link GraphSnapshot} Datei.
+ * 
+ * <pre>
+ * int Kanten, int Weg IDs, StringTable,
+ * int[Kanten * 6] Eintrge, int[Kanten + 1] Weg ID Offsets, long[Weg IDs] Weg IDs
+ * </pre>
+ */
+public class EdgeAttributeStore {
+
+    /** Pro Kante: Abfahrtsname, Zielname, Nummer, Strecke, Dauer und Weg IDs als Index in die Stringtabelle. */
+    private static final int RECORD_SIZE = 6 * 4;
+    private static final int DEPARTURE_NAME = 0;
+    private static final int DESTINATION_NAME = 4;
+    private static final int NUMBER = 8;
+    private static final int DISTANCE = 12;
+    private static final int DURATION = 16;
+    private static final int WAY_IDS = 20;
+
+    private static final int NO_STRING = -1;
+    /** Die Weg IDs der Kante stehen als long Werte im Puffer. */
+    private static final int WAY_IDS_PACKED = -2;
+    /** Lngere Weg IDs passen nicht sicher in ein long und bleiben ein String. */
+    private static final int MAX_PACKED_DIGITS = 18;
+
+    private final ByteBuffer buffer;
+    private final StringTable strings;
+    private final int edgeCount;
+    private final int begin;
+    private final int recordStart;
+    private final int wayIDOffsetStart;
+    private final int wayIDStart;
+    private final int end;
+
+    private EdgeAttributeStore(ByteBuffer buffer, int begin) throws IOException {
+	this.begin = begin;
+	buffer.position(begin);
+	edgeCount = buffer.getInt();
+	int wayIDCount = buffer.getInt();
+	strings = StringTable.read(buffer);
+	recordStart = buffer.position();
+	wayIDOffsetStart = recordStart + edgeCount * RECORD_SIZE;
+	wayIDStart = wayIDOffsetStart + (edgeCount + 1) * 4;
+	long storeEnd = wayIDStart + (long) wayIDCount * 8;
+	if (edgeCount < 0 || wayIDCount < 0 || storeEnd > buffer.limit())
+	    throw new IOException("Unvollstndige Kantenattribute");
+	end = (int) storeEnd;
+	buffer.position(end);
+	this.buffer = buffer.duplicate();
+    }
+
+    /**
+     * Erzeugt den Speicher aus den Routen Maps der Kanten in direktem Speicher.
+     * 
+     * @param routes Routen Map jeder Kante wie in {@link StAXMapGraphDataParser#getRouteXMLMap()}.
+     * @return Der Speicher.
+     */
+    public static EdgeAttributeStore create(List<Map<String, String>> routes) {
+	ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+	try {
+	    write(routes, new DataOutputStream(bytes));
+	} catch (IOException e) {
+	    throw new IllegalStateException(e);
+	}
+
+	ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.size());
+	buffer.put(bytes.toByteArray());
+	buffer.flip();
+	try {
+	    return new EdgeAttributeStore(buffer, 0);
+	} catch (IOException e) {
+	    throw new IllegalStateException(e);
+	}
+    }
+
+    /**
+     * Liest den Speicher ab der aktuellen Position des Puffers, ohne ihn zu kopieren. Die Position steht danach hinter
+     * dem Speicher.
+     * 
+     * @param buffer Der Puffer, z.B. eine eingeblendete Datei.
+     * @return Der Speicher, der auf den Puffer verweist.
+     * @throws IOException Wenn der Puffer zu kurz ist.
+     */
+    public static EdgeAttributeStore read(ByteBuffer buffer) throws IOException {
+	EdgeAttributeStore store = new EdgeAttributeStore(buffer.duplicate(), buffer.position());
+	buffer.position(store.end);
+	return store;
+    }
+
+    /**
+     * Schreibt den Speicher im Format von {@link #read(ByteBuffer)}.
+     * 
+     * @param out Der Ausgabestrom.
+     * @throws IOException
+     */
+    public void write(DataOutputStream out) throws IOException {
+	ByteBuffer view = buffer.duplicate();
+	view.limit(end);
+	view.position(begin);
+	byte[] chunk = new byte[1 << 16];
+	while (view.hasRemaining()) {
+	    int length = Math.min(chunk.length, view.remaining());
+	    view.get(chunk, 0, length);
+	    out.write(chunk, 0, length);
+	}
+    }
+
+    private static void write(List<Map<String, String>> routes, DataOutputStream out) throws IOException {
+	StringTable.Builder strings = new StringTable.Builder();
+	int[] records = new int[routes.size() * RECORD_SIZE / 4];
+	int[] wayIDOffsets = new int[routes.size() + 1];
+	List<Long> wayIDs = new ArrayList<Long>();
+	for (int edge = 0; edge < routes.size(); edge++) {
+	    Map<String, String> route = routes.get(edge);
+	    int record = edge * RECORD_SIZE / 4;
+	    records[record] = add(strings, route.get(Constants.NEW_ROUTE_DEPARTURENODENAME));
+	    records[record + 1] = add(strings, route.get(Constants.NEW_ROUTE_DESTINATIONNODENAME));
+	    records[record + 2] = add(strings, route.get(Constants.NEW_ROUTE_NUMBER));
+	    records[record + 3] = add(strings, route.get(Constants.NEW_ROUTE_DISTANCE));
+	    records[record + 4] = add(strings, route.get(Constants.NEW_ROUTE_DURATION));
+
+	    String ways = route.get(Constants.NEW_ROUTE_WAYIDS);
+	    if (packWayIDs(ways, wayIDs))
+		records[record + 5] = WAY_IDS_PACKED;
+	    else
+		records[record + 5] = add(strings, ways);
+	    wayIDOffsets[edge + 1] = wayIDs.size();
+	}
+
+	out.writeInt(routes.size());
+	out.writeInt(wayIDs.size());
+	strings.write(out);
+	for (int value : records)
+	    out.writeInt(value);
+	for (int value : wayIDOffsets)
+	    out.writeInt(value);
+	for (long wayID : wayIDs)
+	    out.writeLong(wayID);
+	out.flush();
+    }
+
+    private static int add(StringTable.Builder strings, String value) {
+	return value == null ? NO_STRING : strings.add(value);
+    }
+
+    /**
+     * Hngt die Weg IDs einer Kante als Zahlen an die Liste an.
+     * 
+     * @return Falsch wenn sie sich nicht verlustfrei als Zahlen speichern lassen, die Liste bleibt dann unverndert.
+     */
+    private static boolean packWayIDs(String ways, List<Long> wayIDs) {
+	if (ways == null || ways.isEmpty())
+	    return false;
+
+	int size = wayIDs.size();
+	int start = 0;
+	while (start <= ways.length()) {
+	    int end = ways.indexOf(',', start);
+	    if (end < 0)
+		end = ways.length();
+
+	    long value = 0;
+	    boolean valid = end > start && end - start <= MAX_PACKED_DIGITS
+	            && (ways.charAt(start) != '0' || end - start == 1);
+	    for (int i = start; valid && i < end; i++) {
+		char c = ways.charAt(i);
+		valid = c >= '0' && c <= '9';
+		value = value * 10 + (c - '0');
+	    }
+	    if (!valid) {
+		wayIDs.subList(size, wayIDs.size()).clear();
+		return false;
+	    }
+	    wayIDs.add(value);
+	    start = end + 1;
+	}
+	return true;
+    }
+
+    /**
+     * @return Anzahl der Kanten.
+     */
+    public int getEdgeCount() {
+	return edgeCount;
+    }
+
+    private String getString(int edge, int field) {
+	int index = buffer.getInt(recordStart + edge * RECORD_SIZE + field);
+	return index < 0 ? null : strings.get(index);
+    }
+
+    /**
+     * @param edge Der Kanten Index.
+     * @return Name der Abfahrt oder null.
+     */
+    public String getDepartureName(int edge) {
+	return getString(edge, DEPARTURE_NAME);
+    }
+
+    /**
+     * @param edge Der Kanten Index.
+     * @return Name des Ziels oder null.
+     */
+    public String getDestinationName(int edge) {
+	return getString(edge, DESTINATION_NAME);
+    }
+
+    /**
+     * @param edge Der Kanten Index.
+     * @return Autobahnnummer (z.B. A 8) oder null.
+     */
+    public String getNumber(int edge) {
+	return getString(edge, NUMBER);
+    }
+
+    /**
+     * @param edge Der Kanten Index.
+     * @return Die Strecke wie in der routes*.xml.
+     */
+    public String getDistance(int edge) {
+	return getString(edge, DISTANCE);
+    }
+
+    /**
+     * @param edge Der Kanten Index.
+     * @return Die Dauer wie in der routes*.xml.
+     */
+    public String getDuration(int edge) {
+	return getString(edge, DURATION);
+    }
+
+    private boolean isPacked(int edge) {
+	return buffer.getInt(recordStart + edge * RECORD_SIZE + WAY_IDS) == WAY_IDS_PACKED;
+    }
+
+    /**
+     * @param edge Der Kanten Index.
+     * @return Anzahl der Weg IDs der Kante oder -1, wenn sie nicht als Zahlen gespeichert sind.
+     */
+    public int getWayIDCount(int edge) {
+	if (!isPacked(edge))
+	    return -1;
+	return buffer.getInt(wayIDOffsetStart + edge * 4 + 4) - buffer.getInt(wayIDOffsetStart + edge * 4);
+    }
+
+    /**
+     * @param edge Der Kanten Index.
+     * @return Wahr wenn die Kante mindestens eine Weg ID hat.
+     */
+    public boolean hasWayIDs(int edge) {
+	int count = getWayIDCount(edge);
+	return count > 0 || count < 0 && !getWayIDList(edge).isEmpty();
+    }
+
+    /**
+     * @param edge Der Kanten Index.
+     * @param index Index der Weg ID innerhalb der Kante, kleiner als {@link #getWayIDCount(int)}.
+     * @return Die Weg ID.
+     */
+    public long getWayID(int edge, int index) {
+	return buffer.getLong(wayIDStart + (buffer.getInt(wayIDOffsetStart + edge * 4) + index) * 8);
+    }
+
+    /**
+     * Gibt die Weg IDs einer Kante als Liste zurck, ohne den String der routes*.xml zu zerlegen.
+     * 
+     * @param edge Der Kanten Index.
+     * @return Die Weg IDs, eine leere Liste wenn die Kante keine hat.
+     */
+    public List<String> getWayIDList(int edge) {
+	int count = getWayIDCount(edge);
+	if (count < 0) {
+	    List<String> wayIDs = SupportMethods.commaStrToStrList(getString(edge, WAY_IDS));
+	    return wayIDs == null ? new ArrayList<String>() : wayIDs;
+	}
+
+	List<String> wayIDs = new ArrayList<String>(count);
+	for (int i = 0; i < count; i++)
+	    wayIDs.add(Long.toString(getWayID(edge, i)));
+	return wayIDs;
+    }
+
+    /**
+     * @param edge Der Kanten Index.
+     * @return Die Weg IDs durch Komma getrennt wie in der routes*.xml oder null.
+     */
+    public String getWayIDs(int edge) {
+	int count = getWayIDCount(edge);
+	if (count < 0)
+	    return getString(edge, WAY_IDS);
+
+	StringBuilder builder = new StringBuilder();
+	for (int i = 0; i < count; i++) {
+	    if (i > 0)
+		builder.append(',');
+	    builder.append(getWayID(edge, i));
+	}
+	return builder.toString();
+    }
+}
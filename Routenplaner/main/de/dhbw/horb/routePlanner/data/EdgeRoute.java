@@ -0,0 +1,94 @@
+package de.dhbw.horb.routePlanner.data;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.dhbw.horb.routePlanner.Constants;
+
+/**
+ * Unvernderliche Routen Map einer Kante wie in {@link StAXMapGraphDataParser#getRouteXMLMap()}. Die Werte werden erst
+ * beim Zugriff aus dem {@link EdgeAttributeStore} gelesen, die Weg IDs lassen sich ber {@link #getWayIDList()} ohne
+ * Zerlegen des Strings abfragen.
+ */
+public class EdgeRoute extends AbstractMap<String, String> {
+
+    private final EdgeAttributeStore store;
+    private final int edge;
+    private final String departureNodeID;
+    private final String destinationNodeID;
+    private Map<String, String> values;
+
+    EdgeRoute(EdgeAttributeStore store, int edge, String departureNodeID, String destinationNodeID) {
+	this.store = store;
+	this.edge = edge;
+	this.departureNodeID = departureNodeID;
+	this.destinationNodeID = destinationNodeID;
+    }
+
+    /**
+     * @return Der Kanten Index im {@link CompactRouteGraph}.
+     */
+    public int getEdge() {
+	return edge;
+    }
+
+    /**
+     * @return Die Weg IDs der Kante, eine leere Liste wenn sie keine hat.
+     */
+    public List<String> getWayIDList() {
+	return store.getWayIDList(edge);
+    }
+
+    @Override
+    public String get(Object key) {
+	if (!(key instanceof String))
+	    return null;
+
+	switch ((String) key) {
+	case Constants.NEW_ROUTE_DEPARTURENODEID:
+	    return departureNodeID;
+	case Constants.NEW_ROUTE_DESTINATIONNODEID:
+	    return destinationNodeID;
+	case Constants.NEW_ROUTE_DEPARTURENODENAME:
+	    return store.getDepartureName(edge);
+	case Constants.NEW_ROUTE_DESTINATIONNODENAME:
+	    return store.getDestinationName(edge);
+	case Constants.NEW_ROUTE_NUMBER:
+	    return store.getNumber(edge);
+	case Constants.NEW_ROUTE_DISTANCE:
+	    return store.getDistance(edge);
+	case Constants.NEW_ROUTE_DURATION:
+	    return store.getDuration(edge);
+	case Constants.NEW_ROUTE_WAYIDS:
+	    return store.getWayIDs(edge);
+	default:
+	    return null;
+	}
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+	return get(key) != null;
+    }
+
+    @Override
+    public synchronized Set<Map.Entry<String, String>> entrySet() {
+	if (values == null) {
+	    Map<String, String> map = new HashMap<String, String>();
+	    for (String key : new String[] { Constants.NEW_ROUTE_DEPARTURENODEID,
+	            Constants.NEW_ROUTE_DESTINATIONNODEID, Constants.NEW_ROUTE_DEPARTURENODENAME,
+	            Constants.NEW_ROUTE_DESTINATIONNODENAME, Constants.NEW_ROUTE_NUMBER, Constants.NEW_ROUTE_DISTANCE,
+	            Constants.NEW_ROUTE_DURATION, Constants.NEW_ROUTE_WAYIDS }) {
+		String value = get(key);
+		if (value != null)
+		    map.put(key, value);
+	    }
+	    values = Collections.unmodifiableMap(map);
+	}
+	return values.entrySet();
+    }
+}
@@ -0,0 +1,38 @@
+package de.dhbw.horb.routePlanner.data;
+
+import java.util.List;
+
+/**
+ * Empfnger fr die Knoten und Wege, die der {@link GraphDataStreamParser} beim einmaligen Lesen der graphData*.xml
+ * findet. Zuerst werden alle Wege gemeldet, danach alle Knoten, die benannt sind oder auf einem Weg liegen.
+ */
+public interface GraphDataConsumer {
+
+    /**
+     * Ein Weg aus der graphData*.xml.
+     * 
+     * @param id Weg ID
+     * @param highway Weg Art (motorway / motorway_link) oder null
+     * @param maxspeed Maximalgeschwindigkeit wie in der Datei (null, none, z.B.: "120")
+     * @param ref Autobahnnummer (A8) oder null
+     * @param nodeIDs Alle Knoten IDs des Wegs in richtiger Reihenfolge
+     */
+    void way(String id, String highway, String maxspeed, String ref, List<String> nodeIDs);
+
+    /**
+     * Ein Knoten aus der graphData*.xml.
+     * 
+     * @param id Knoten ID
+     * @param latitude Breitengrad
+     * @param longitude Lngengrad
+     * @param highway highway Art (motorway_junction) oder null
+     * @param name Name des Knotens oder null
+     * @param ref Nummer der Anschlussstelle oder null
+     */
+    void node(String id, double latitude, double longitude, String highway, String name, String ref);
+
+    /**
+     * Wird aufgerufen, nachdem alle Wege und Knoten gemeldet wurden.
+     */
+    void finished();
+}
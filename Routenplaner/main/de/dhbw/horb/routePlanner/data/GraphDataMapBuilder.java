@@ -0,0 +1,58 @@
+package de.dhbw.horb.routePlanner.data;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.SupportMethods;
+
+/**
+ * Baut aus den Meldungen des {@link GraphDataStreamParser} dieselben Maps wie
+ * {@link StAXMapGraphDataParser#getNodeMap()} und {@link StAXMapGraphDataParser#getWayMap()}.
+ */
+public class GraphDataMapBuilder implements GraphDataConsumer {
+
+    private final Map<String, Map<String, String>> nodes = new HashMap<String, Map<String, String>>();
+    private final Map<String, Map<String, String>> ways = new HashMap<String, Map<String, String>>();
+
+    @Override
+    public void way(String id, String highway, String maxspeed, String ref, List<String> nodeIDs) {
+	Map<String, String> way = new HashMap<String, String>();
+	way.put(Constants.WAY_HIGHWAY, highway);
+	way.put(Constants.WAY_MAXSPEED, StAXMapGraphDataParser.getMaxspeed(highway, maxspeed));
+	way.put(Constants.WAY_REF, ref);
+	way.put(Constants.WAY_NODE, SupportMethods.strListToCommaStr(nodeIDs));
+	ways.put(id, way);
+    }
+
+    @Override
+    public void node(String id, double latitude, double longitude, String highway, String name, String ref) {
+	Map<String, String> pos = new HashMap<String, String>();
+	pos.put(Constants.NODE_LATITUDE, Double.toString(latitude));
+	pos.put(Constants.NODE_LONGITUDE, Double.toString(longitude));
+	if (highway != null && name != null) {
+	    pos.put(Constants.NODE_HIGHWAY, highway);
+	    pos.put(Constants.NODE_NAME, ref != null ? name + " (" + ref + ")" : name);
+	}
+	nodes.put(id, pos);
+    }
+
+    @Override
+    public void finished() {
+    }
+
+    /**
+     * @return Die Knoten wie {@link StAXMapGraphDataParser#getNodeMap()}, ohne unbenannte Knoten abseits der Wege.
+     */
+    public Map<String, Map<String, String>> getNodeMap() {
+	return nodes;
+    }
+
+    /**
+     * @return Die Wege wie {@link StAXMapGraphDataParser#getWayMap()}.
+     */
+    public Map<String, Map<String, String>> getWayMap() {
+	return ways;
+    }
+}
@@ -0,0 +1,205 @@
+package de.dhbw.horb.routePlanner.data;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.SupportMethods;
+
+/**
+ * Liest die graphData*.xml in einem einzigen Durchlauf und meldet Knoten und Wege an alle registrierten
+ * {@link GraphDataConsumer}. Wege werden sofort weitergegeben. Knoten werden bis zum Dateiende in primitiven Arrays
+ * gepuffert, weil erst dann feststeht, welche Knoten auf einem Weg liegen. Knoten ohne highway, name oder ref, die auf
+ * keinem Weg liegen, werden bersprungen.
+ */
+public class GraphDataStreamParser {
+
+    private final List<GraphDataConsumer> consumers = new ArrayList<GraphDataConsumer>();
+
+    private int nodeCount;
+    private long[] nodeIDs;
+    private double[] latitudes;
+    private double[] longitudes;
+    private String[] highways;
+    private String[] names;
+    private String[] refs;
+    private int referencedCount;
+    private long[] referencedIDs;
+
+    /**
+     * @param consumer Empfnger, der alle Knoten und Wege erhalten soll.
+     */
+    public void addConsumer(GraphDataConsumer consumer) {
+	consumers.add(consumer);
+    }
+
+    /**
+     * Liest die graphData*.xml des in den Einstellungen gewhlten Landes.
+     * 
+     * @throws FileNotFoundException
+     * @throws XMLStreamException
+     */
+    public void parse() throws FileNotFoundException, XMLStreamException {
+	parse(XMLFileManager.getExtendedXMLFileName(Constants.XML_GRAPHDATA));
+    }
+
+    /**
+     * Liest eine Datei im Format der graphData*.xml.
+     * 
+     * @param fileName Die Datei.
+     * @throws FileNotFoundException
+     * @throws XMLStreamException
+     */
+    public void parse(String fileName) throws FileNotFoundException, XMLStreamException {
+	nodeCount = 0;
+	nodeIDs = new long[1024];
+	latitudes = new double[1024];
+	longitudes = new double[1024];
+	highways = new String[1024];
+	names = new String[1024];
+	refs = new String[1024];
+	referencedCount = 0;
+	referencedIDs = new long[1024];
+
+	XMLInputFactory factory = XMLInputFactory.newInstance();
+	GraphDataStreamReader reader = new GraphDataStreamReader(factory.createXMLStreamReader(new FileInputStream(
+	        fileName)));
+	try {
+	    while (reader.nextStartElement()) {
+		if (reader.getElementType() == GraphDataStreamReader.ELEMENT_WAY)
+		    readWay(reader);
+		else if (reader.getElementType() == GraphDataStreamReader.ELEMENT_NODE)
+		    readNode(reader);
+	    }
+	} finally {
+	    reader.close();
+	}
+
+	emitNodes();
+	for (GraphDataConsumer consumer : consumers)
+	    consumer.finished();
+
+	nodeIDs = null;
+	latitudes = null;
+	longitudes = null;
+	highways = null;
+	names = null;
+	refs = null;
+	referencedIDs = null;
+    }
+
+    private void readNode(GraphDataStreamReader reader) throws XMLStreamException {
+	String id = reader.getAttributeValue(Constants.NODE_ID);
+	String lat = reader.getAttributeValue(Constants.NODE_LATITUDE);
+	String lon = reader.getAttributeValue(Constants.NODE_LONGITUDE);
+	String highway = null;
+	String name = null;
+	String ref = null;
+
+	int type;
+	while ((type = reader.next()) != XMLStreamConstants.END_ELEMENT
+	        || reader.getElementType() != GraphDataStreamReader.ELEMENT_NODE) {
+	    if (type != XMLStreamConstants.START_ELEMENT)
+		continue;
+	    if (reader.getElementType() != GraphDataStreamReader.ELEMENT_TAG)
+		continue;
+
+	    if (highway == null)
+		highway = reader.getAttributeKV(Constants.NODE_HIGHWAY);
+	    if (name == null)
+		name = reader.getAttributeKV(Constants.NODE_NAME);
+	    if (ref == null)
+		ref = reader.getAttributeKV(Constants.NODE_REF);
+	}
+
+	long nodeID = SupportMethods.parseLong(id, Long.MIN_VALUE);
+	double latitude = SupportMethods.parseDouble(lat, Double.NaN);
+	double longitude = SupportMethods.parseDouble(lon, Double.NaN);
+	if (nodeID == Long.MIN_VALUE || Double.isNaN(latitude) || Double.isNaN(longitude))
+	    return;
+	addNode(nodeID, latitude, longitude, highway, name, ref);
+    }
+
+    private void addNode(long id, double lat, double lon, String highway, String name, String ref) {
+	if (nodeCount == nodeIDs.length) {
+	    int capacity = nodeCount * 2;
+	    nodeIDs = Arrays.copyOf(nodeIDs, capacity);
+	    latitudes = Arrays.copyOf(latitudes, capacity);
+	    longitudes = Arrays.copyOf(longitudes, capacity);
+	    highways = Arrays.copyOf(highways, capacity);
+	    names = Arrays.copyOf(names, capacity);
+	    refs = Arrays.copyOf(refs, capacity);
+	}
+	nodeIDs[nodeCount] = id;
+	latitudes[nodeCount] = lat;
+	longitudes[nodeCount] = lon;
+	highways[nodeCount] = highway;
+	names[nodeCount] = name;
+	refs[nodeCount] = ref;
+	nodeCount++;
+    }
+
+    private void readWay(GraphDataStreamReader reader) throws XMLStreamException {
+	String id = reader.getAttributeValue(Constants.WAY_ID);
+	List<String> nodeList = new ArrayList<String>();
+	String highway = null;
+	String maxspeed = null;
+	String ref = null;
+
+	int type;
+	while ((type = reader.next()) != XMLStreamConstants.END_ELEMENT
+	        || reader.getElementType() != GraphDataStreamReader.ELEMENT_WAY) {
+	    if (type != XMLStreamConstants.START_ELEMENT)
+		continue;
+
+	    if (reader.getElementType() == GraphDataStreamReader.ELEMENT_WAY_NODE) {
+		String refID = reader.getAttributeValue(Constants.WAY_REF);
+		nodeList.add(refID);
+		addReference(refID);
+	    } else if (reader.getElementType() == GraphDataStreamReader.ELEMENT_TAG) {
+		String k = reader.getAttributeValue("k");
+		String v = reader.getAttributeValue("v");
+		if (Constants.WAY_HIGHWAY.equals(k))
+		    highway = v;
+		else if (Constants.WAY_MAXSPEED.equals(k))
+		    maxspeed = v;
+		else if (Constants.WAY_REF.equals(k))
+		    ref = v;
+	    }
+	}
+
+	if (id == null)
+	    return;
+	for (GraphDataConsumer consumer : consumers)
+	    consumer.way(id, highway, maxspeed, ref, nodeList);
+    }
+
+    private void addReference(String refID) {
+	long id = SupportMethods.parseLong(refID, Long.MIN_VALUE);
+	if (id == Long.MIN_VALUE)
+	    return;
+	if (referencedCount == referencedIDs.length)
+	    referencedIDs = Arrays.copyOf(referencedIDs, referencedCount * 2);
+	referencedIDs[referencedCount++] = id;
+    }
+
+    private void emitNodes() {
+	Arrays.sort(referencedIDs, 0, referencedCount);
+	for (int i = 0; i < nodeCount; i++) {
+	    boolean tagged = highways[i] != null || names[i] != null || refs[i] != null;
+	    if (!tagged && Arrays.binarySearch(referencedIDs, 0, referencedCount, nodeIDs[i]) < 0)
+		continue;
+
+	    String id = Long.toString(nodeIDs[i]);
+	    for (GraphDataConsumer consumer : consumers)
+		consumer.node(id, latitudes[i], longitudes[i], highways[i], names[i], refs[i]);
+	}
+    }
+}
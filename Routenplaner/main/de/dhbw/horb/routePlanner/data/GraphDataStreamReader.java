@@ -12,20 +12,82 @@ import de.dhbw.horb.routePlanner.Constants;
  */
 public class GraphDataStreamReader extends StreamReaderDelegate {
 
+    /** Ein Element das keiner der folgenden Arten entspricht. */
+    public static final int ELEMENT_OTHER = 0;
+    /** Knoten (node). */
+    public static final int ELEMENT_NODE = 1;
+    /** Knoten Referenz eines Wegs (nd). */
+    public static final int ELEMENT_WAY_NODE = 2;
+    /** Weg (way). */
+    public static final int ELEMENT_WAY = 3;
+    /** Schlssel Wert Paar (tag). */
+    public static final int ELEMENT_TAG = 4;
+    /** Route der routes*.xml (route). */
+    public static final int ELEMENT_ROUTE = 5;
+
+    private int elementType = ELEMENT_OTHER;
+    private String tagKey;
+    private boolean tagKeyRead;
+
     public GraphDataStreamReader(XMLStreamReader streamReader) throws XMLStreamException {
 	super(streamReader);
     }
 
+    /**
+     * Geht zum nchsten Ereignis und bestimmt bei Start- und Endelementen einmalig die Art des Elements.
+     */
+    @Override
+    public int next() throws XMLStreamException {
+	int type = super.next();
+	tagKey = null;
+	tagKeyRead = false;
+	if (type == START_ELEMENT || type == END_ELEMENT)
+	    elementType = classify(getLocalName());
+	else
+	    elementType = ELEMENT_OTHER;
+	return type;
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+	int type;
+	while ((type = next()) != START_ELEMENT && type != END_ELEMENT)
+	    if (type != CHARACTERS && type != SPACE && type != COMMENT && type != PROCESSING_INSTRUCTION)
+		throw new XMLStreamException("Expected start or end tag", getLocation());
+	return type;
+    }
+
+    private static int classify(String localName) {
+	switch (localName) {
+	case Constants.NODE:
+	    return ELEMENT_NODE;
+	case Constants.WAY_NODE:
+	    return ELEMENT_WAY_NODE;
+	case Constants.WAY:
+	    return ELEMENT_WAY;
+	case Constants.WAY_TAG:
+	    return ELEMENT_TAG;
+	case Constants.NEW_ROUTE:
+	    return ELEMENT_ROUTE;
+	default:
+	    return ELEMENT_OTHER;
+	}
+    }
+
+    /**
+     * @return Die Art des aktuellen Start- oder Endelements (ELEMENT_NODE, ELEMENT_WAY, ...), sonst ELEMENT_OTHER.
+     */
+    public int getElementType() {
+	return elementType;
+    }
+
     /**
      * berprfung ob der Lokale Name ein Knoten ist.
      * 
      * @return Wahr wenn dies zutrifft und falsch wenn es nicht zutrifft.
      */
     public boolean isNode() {
-	if (getLocalName().trim().equals(Constants.NODE) || getLocalName().trim().equals(Constants.WAY_NODE)
-	        || getLocalName().trim().equals(Constants.NEW_NODE))
-	    return true;
-	return false;
+	return elementType == ELEMENT_NODE || elementType == ELEMENT_WAY_NODE;
     }
 
     /**
@@ -34,9 +96,7 @@ public class GraphDataStreamReader extends StreamReaderDelegate {
      * @return Wahr wenn dies zutrifft und falsch wenn es nicht zutrifft.
      */
     public boolean isWay() {
-	if (getLocalName().trim().equals(Constants.WAY))
-	    return true;
-	return false;
+	return elementType == ELEMENT_WAY;
     }
 
     /**
@@ -45,9 +105,7 @@ public class GraphDataStreamReader extends StreamReaderDelegate {
      * @return Wahr wenn dies zutrifft und falsch wenn es nicht zutrifft.
      */
     public boolean isRoute() {
-	if (getLocalName().trim().equals(Constants.NEW_ROUTE))
-	    return true;
-	return false;
+	return elementType == ELEMENT_ROUTE;
     }
 
     /**
@@ -70,11 +128,7 @@ public class GraphDataStreamReader extends StreamReaderDelegate {
      * @return Der Attribut Wert als String.
      */
     public String getAttributeValue(String AttributeLocalName) {
-	for (int x = 0; x < getAttributeCount(); x++)
-	    if (getAttributeLocalName(x).trim().equals(AttributeLocalName))
-		return getAttributeValue(x);
-
-	return null;
+	return getAttributeValue(null, AttributeLocalName);
     }
 
     /**
@@ -85,12 +139,14 @@ public class GraphDataStreamReader extends StreamReaderDelegate {
      * @throws XMLStreamException
      */
     public String getAttributeKV(String inK) throws XMLStreamException {
-	if (getLocalName().equals(Constants.NODE_TAG)) {
-	    String k = getAttributeValue("k");
-	    String v = getAttributeValue("v");
-	    if (k.equals(inK))
-		return v;
+	if (elementType != ELEMENT_TAG)
+	    return null;
+	if (!tagKeyRead) {
+	    tagKey = getAttributeValue(null, "k");
+	    tagKeyRead = true;
 	}
+	if (inK.equals(tagKey))
+	    return getAttributeValue(null, "v");
 	return null;
     }
 }
@@ -0,0 +1,91 @@
+package de.dhbw.horb.routePlanner.data;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jdom2.Attribute;
+import org.jdom2.Element;
+
+/**
+ * Schreibt eine XML Datei mit einem Wurzelelement und beliebig vielen leeren Kindelementen (z.B. node oder route)
+ * direkt in die Datei, ohne das Dokument im Speicher aufzubauen. Jedes Element kann nach dem Schreiben verworfen
+ * werden, der Speicherbedarf hngt also nicht von der Anzahl der Elemente ab.
+ */
+public class GraphDataXMLWriter implements Closeable {
+
+    private static final String LINE_SEPARATOR = "\r\n";
+    private static final String INDENT = "  ";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final OutputStream out;
+    private final XMLStreamWriter writer;
+    private final boolean pretty;
+
+    /**
+     * ffnet die Datei und schreibt den Anfang des Dokuments.
+     * 
+     * @param fileName Die zu schreibende Datei.
+     * @param rootElement Name des Wurzelelements (z.B. Constants.NEW_ROUTE_S).
+     * @param pretty Wahr fr eingerckte Ausgabe mit einem Element pro Zeile, falsch fr kompakte Ausgabe ohne
+     *            Leerraum.
+     * @throws IOException
+     * @throws XMLStreamException
+     */
+    public GraphDataXMLWriter(String fileName, String rootElement, boolean pretty) throws IOException,
+	    XMLStreamException {
+	this.out = new BufferedOutputStream(new FileOutputStream(fileName), BUFFER_SIZE);
+	this.pretty = pretty;
+	try {
+	    this.writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+	    writer.writeStartDocument("UTF-8", "1.0");
+	    if (pretty)
+		writer.writeCharacters(LINE_SEPARATOR);
+	    writer.writeStartElement(rootElement);
+	} catch (XMLStreamException e) {
+	    out.close();
+	    throw e;
+	}
+    }
+
+    /**
+     * Schreibt ein Element mit seinen Attributen als leeres Kindelement der Wurzel. Inhalt und Kinder des Elements
+     * werden nicht geschrieben.
+     * 
+     * @param element Das Element.
+     * @throws XMLStreamException
+     */
+    public void writeElement(Element element) throws XMLStreamException {
+	if (pretty)
+	    writer.writeCharacters(LINE_SEPARATOR + INDENT);
+	writer.writeEmptyElement(element.getName());
+	for (Attribute attribute : element.getAttributes())
+	    writer.writeAttribute(attribute.getName(), attribute.getValue());
+    }
+
+    /**
+     * Schliet das Wurzelelement und die Datei.
+     */
+    @Override
+    public void close() throws IOException {
+	try {
+	    if (pretty)
+		writer.writeCharacters(LINE_SEPARATOR);
+	    writer.writeEndElement();
+	    writer.writeEndDocument();
+	    writer.close();
+	    if (pretty)
+		out.write(LINE_SEPARATOR.getBytes("UTF-8"));
+	} catch (XMLStreamException e) {
+	    throw new IOException(e);
+	} finally {
+	    out.close();
+	}
+    }
+}
@@ -0,0 +1,268 @@
+package de.dhbw.horb.routePlanner.data;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import javax.xml.stream.XMLStreamException;
+
+import de.dhbw.horb.routePlanner.Constants;
+
+/**
+ * Binre Momentaufnahme eines {@link RoadGraph} neben der nodes*.xml und routes*.xml. Sie enthlt den
+ * {@link JunctionIndex} mit den Knoten Indizes jeder Anschlussstelle, den CSR Graphen und den
+ * {@link EdgeAttributeStore} der Kanten. Beim Laden wird die Datei per {@link FileChannel#map} eingeblendet. Nur die
+ * Arrays fr die Routenberechnung werden kopiert, der {@link EdgeAttributeStore} verweist direkt auf die eingeblendete
+ * Datei.
+ * <p>
+ * In der Datei stehen Lnge und nderungszeit der beiden XML Dateien, aus denen sie erzeugt wurde, und aus diesen
+ * Werten wird auch der Dateiname gebildet. Jeder Stand der XML Dateien bekommt so eine eigene Datei. Eine neue
+ * Momentaufnahme ersetzt daher nie eine Datei, die noch eingeblendet oder per
+ * {@link XMLFileManager#lockGraphSnapshot()} gesperrt ist, was unter Windows fehlschlagen wrde. ltere Dateien des
+ * Landes werden danach gelscht, soweit das System es zulsst, sonst beim nchsten Mal.
+ * <p>
+ * Ob die Datei veraltet ist, wird nur an Lnge und nderungszeit der XML Dateien erkannt, nicht an ihrem Inhalt. Die
+ * XML Dateien werden nur vom Programm selbst neu geschrieben, wobei sich die nderungszeit immer ndert. Wird eine
+ * XML Datei von Hand bei gleicher Lnge gendert und ihre nderungszeit zurckgesetzt, muss die Momentaufnahme
+ * gelscht werden.
+ */
+public class GraphSnapshot {
+
+    private static final int FILE_MAGIC = 0x52504753;
+    private static final int FILE_VERSION = 4;
+    private static final int HEADER_SIZE = 4 + 4 + 4 * 8 + 4 * 4;
+
+    /**
+     * @param country Das Land.
+     * @return Der Dateiname der Momentaufnahme, die zum aktuellen Stand der XML Dateien eines Landes passt, neben der
+     *         routes*.xml.
+     */
+    public static String getFileName(String country) {
+	long version = 17;
+	for (long stamp : getStamps(country))
+	    version = 31 * version + stamp;
+	return XMLFileManager.getExtendedFileName(Constants.GRAPH_SNAPSHOT, country + "_" + Long.toHexString(version));
+    }
+
+    /**
+     * Ldt den Graphen eines Landes aus seiner Momentaufnahme. Fehlt sie oder ist sie veraltet, werden die XML Dateien
+     * eingelesen und die Momentaufnahme neu geschrieben.
+     * 
+     * @param country Das Land.
+     * @return Der Graph des Landes.
+     * @throws FileNotFoundException
+     * @throws XMLStreamException
+     */
+    public static RoadGraph loadOrCreate(String country) throws FileNotFoundException, XMLStreamException {
+	String fileName = getFileName(country);
+	if (XMLFileManager.fileExists(fileName)) {
+	    try {
+		RoadGraph graph = load(fileName, country);
+		if (graph != null)
+		    return graph;
+	    } catch (IOException | RuntimeException e) {
+		e.printStackTrace();
+	    }
+	}
+
+	RoadGraph graph = new RoadGraph(country, StAXMapGraphDataParser.getNodeXMLMap(country),
+	        StAXMapGraphDataParser.getRouteXMLMap(country));
+	try {
+	    save(graph, fileName);
+	    deleteOldSnapshots(country, fileName);
+	} catch (IOException e) {
+	    e.printStackTrace();
+	}
+	return graph;
+    }
+
+    /**
+     * Lscht alle Momentaufnahmen eines Landes auer der aktuellen. Dateien, die noch eingeblendet oder gesperrt sind,
+     * knnen unter Windows nicht gelscht werden und bleiben bis zum nchsten Aufruf liegen.
+     */
+    private static void deleteOldSnapshots(String country, String fileName) {
+	File current = new File(fileName);
+	String name = new File(XMLFileManager.getExtendedFileName(Constants.GRAPH_SNAPSHOT, country)).getName();
+	int extension = name.lastIndexOf('.');
+	String prefix = extension < 0 ? name : name.substring(0, extension);
+	String suffix = extension < 0 ? "" : name.substring(extension);
+	File[] files = current.getAbsoluteFile().getParentFile().listFiles();
+	if (files == null)
+	    return;
+	for (File file : files) {
+	    String other = file.getName();
+	    if (file.equals(current) || !other.startsWith(prefix) || !other.endsWith(suffix))
+		continue;
+	    String version = other.substring(prefix.length(), other.length() - suffix.length());
+	    if (version.isEmpty() || version.matches("_[0-9a-f]+"))
+		file.delete();
+	}
+    }
+
+    /**
+     * Liest einen Graphen aus einer Momentaufnahme.
+     * 
+     * @param fileName Die Datei.
+     * @param country Das Land, dessen XML Dateien zur Momentaufnahme passen mssen.
+     * @return Der Graph oder null wenn die Datei ein anderes Format hat oder die XML Dateien sich gendert haben.
+     * @throws IOException
+     */
+    public static RoadGraph load(String fileName, String country) throws IOException {
+	MappedByteBuffer buffer;
+	ByteBuffer header = ByteBuffer.allocate(4 + 4 + 4 * 8);
+	RandomAccessFile file = new RandomAccessFile(fileName, "r");
+	try {
+	    FileChannel channel = file.getChannel();
+	    if (channel.size() < HEADER_SIZE)
+		return null;
+	    // Der Kopf wird vor dem Einblenden geprft, damit eine unpassende Datei nicht eingeblendet bleibt.
+	    while (header.hasRemaining())
+		if (channel.read(header) < 0)
+		    return null;
+	    header.flip();
+	    if (header.getInt() != FILE_MAGIC || header.getInt() != FILE_VERSION)
+		return null;
+	    for (long stamp : getStamps(country))
+		if (header.getLong() != stamp)
+		    return null;
+	    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+	} finally {
+	    file.close();
+	}
+	buffer.position(header.capacity());
+
+	int nodeCount = buffer.getInt();
+	int edgeCount = buffer.getInt();
+	int nameCount = buffer.getInt();
+	int nameNodeCount = buffer.getInt();
+
+	StringTable strings = StringTable.read(buffer);
+	int[] nodeIDIndices = readInts(buffer, nodeCount);
+	String[] nodeIDs = new String[nodeCount];
+	for (int node = 0; node < nodeCount; node++)
+	    nodeIDs[node] = strings.get(nodeIDIndices[node]);
+
+	int[] nameIndices = readInts(buffer, nameCount);
+	int[] nameOffsets = readInts(buffer, nameCount + 1);
+	int[] nameNodes = readInts(buffer, nameNodeCount);
+	String[] names = new String[nameCount];
+	int[][] nodesByName = new int[nameCount][];
+	for (int ordinal = 0; ordinal < nameCount; ordinal++) {
+	    names[ordinal] = strings.get(nameIndices[ordinal]);
+	    nodesByName[ordinal] = Arrays.copyOfRange(nameNodes, nameOffsets[ordinal], nameOffsets[ordinal + 1]);
+	}
+
+	int[] edgeOffsets = readInts(buffer, nodeCount + 1);
+	int[] edgeTargets = readInts(buffer, edgeCount);
+	double[] edgeDistances = readDoubles(buffer, edgeCount);
+	double[] edgeDurations = readDoubles(buffer, edgeCount);
+
+	EdgeAttributeStore edgeAttributes = EdgeAttributeStore.read(buffer);
+	if (edgeAttributes.getEdgeCount() != edgeCount || buffer.hasRemaining())
+	    throw new IOException("Unvollstndige Momentaufnahme");
+	CompactRouteGraph compactGraph = new CompactRouteGraph(nodeIDs, edgeOffsets, edgeTargets, edgeDistances,
+	        edgeDurations, edgeAttributes);
+	return new RoadGraph(country, new JunctionIndex(names, nodesByName, compactGraph), compactGraph);
+    }
+
+    /**
+     * Schreibt einen Graphen als Momentaufnahme. Die Datei wird zuerst unter einem temporren Namen geschrieben und
+     * dann umbenannt, damit nie eine halb geschriebene Datei geladen wird. Eine vorhandene Datei gleichen Namens wird
+     * ersetzt, sie wurde von {@link #load(String, String)} als unpassend erkannt und ist daher nicht eingeblendet.
+     * 
+     * @param graph Der Graph.
+     * @param fileName Die Datei.
+     * @throws IOException
+     */
+    public static void save(RoadGraph graph, String fileName) throws IOException {
+	CompactRouteGraph compactGraph = graph.getCompactGraph();
+	int nodeCount = compactGraph.getNodeCount();
+	int edgeCount = compactGraph.getEdgeCount();
+	StringTable.Builder strings = new StringTable.Builder();
+
+	int[] nodeIDs = new int[nodeCount];
+	for (int node = 0; node < nodeCount; node++)
+	    nodeIDs[node] = strings.add(compactGraph.getNodeID(node));
+
+	JunctionIndex junctions = graph.getJunctionIndex();
+	int[] nameIndices = new int[junctions.getNameCount()];
+	int[] nameOffsets = new int[junctions.getNameCount() + 1];
+	for (int ordinal = 0; ordinal < junctions.getNameCount(); ordinal++) {
+	    nameIndices[ordinal] = strings.add(junctions.getName(ordinal));
+	    nameOffsets[ordinal + 1] = nameOffsets[ordinal] + junctions.getNodes(ordinal).length;
+	}
+
+	File temporary = new File(fileName + ".tmp");
+	DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary), 1 << 16));
+	try {
+	    out.writeInt(FILE_MAGIC);
+	    out.writeInt(FILE_VERSION);
+	    for (long stamp : getStamps(graph.getCountry()))
+		out.writeLong(stamp);
+	    out.writeInt(nodeCount);
+	    out.writeInt(edgeCount);
+	    out.writeInt(nameIndices.length);
+	    out.writeInt(nameOffsets[nameIndices.length]);
+
+	    strings.write(out);
+	    writeInts(out, nodeIDs);
+	    writeInts(out, nameIndices);
+	    writeInts(out, nameOffsets);
+	    for (int ordinal = 0; ordinal < nameIndices.length; ordinal++)
+		writeInts(out, junctions.getNodes(ordinal));
+
+	    for (int node = 0; node < nodeCount; node++)
+		out.writeInt(compactGraph.getEdgeStart(node));
+	    out.writeInt(edgeCount);
+	    for (int edge = 0; edge < edgeCount; edge++)
+		out.writeInt(compactGraph.getEdgeTarget(edge));
+	    for (int edge = 0; edge < edgeCount; edge++)
+		out.writeDouble(compactGraph.getEdgeDistance(edge));
+	    for (int edge = 0; edge < edgeCount; edge++)
+		out.writeDouble(compactGraph.getEdgeDuration(edge));
+
+	    compactGraph.getEdgeAttributes().write(out);
+	} finally {
+	    out.close();
+	}
+	Files.move(temporary.toPath(), new File(fileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Lnge und nderungszeit der nodes*.xml und routes*.xml. Fehlt eine Datei, sind beide Werte 0.
+     */
+    private static long[] getStamps(String country) {
+	File nodes = new File(XMLFileManager.getExtendedXMLFileName(Constants.XML_NODES, country));
+	File routes = new File(XMLFileManager.getExtendedXMLFileName(Constants.XML_ROUTES, country));
+	return new long[] { nodes.length(), nodes.lastModified(), routes.length(), routes.lastModified() };
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+	for (int value : values)
+	    out.writeInt(value);
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int length) {
+	int[] values = new int[length];
+	buffer.asIntBuffer().get(values);
+	buffer.position(buffer.position() + length * 4);
+	return values;
+    }
+
+    private static double[] readDoubles(ByteBuffer buffer, int length) {
+	double[] values = new double[length];
+	buffer.asDoubleBuffer().get(values);
+	buffer.position(buffer.position() + length * 8);
+	return values;
+    }
+}
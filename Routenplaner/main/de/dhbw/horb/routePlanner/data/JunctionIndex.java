@@ -0,0 +1,168 @@
+package de.dhbw.horb.routePlanner.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.dhbw.horb.routePlanner.SupportMethods;
+
+/**
+ * Index der Anschlussstellen eines {@link RoadGraph}. Statt der gemischten Map aus
+ * {@link StAXMapGraphDataParser#getNodeXMLMap()}, in der Namen und IDs als Schlssel vorkommen, gibt es zwei getrennte
+ * Richtungen: Name zu den Knoten Indizes im {@link CompactRouteGraph} und Knoten Index zur Nummer des Namens. Die Namen
+ * werden ber {@link String#intern()} dedupliziert, sodass mehrere geladene Lnder sich gleiche Namen teilen.
+ */
+public class JunctionIndex {
+
+    private static final int[] NO_NODES = new int[0];
+
+    private final String[] names;
+    private final Map<String, Integer> ordinals;
+    private final int[][] nodesByName;
+    private final int[] nameByNode;
+    private final boolean[] hasRoute;
+
+    /**
+     * Erzeugt den Index aus bereits fertigen Arrays, z.B. aus einer {@link GraphSnapshot}.
+     * 
+     * @param names Die Namen der Anschlussstellen, aufsteigend sortiert.
+     * @param nodesByName Die Knoten Indizes jedes Namens.
+     * @param graph Der Graph zu dem die Knoten Indizes gehren.
+     */
+    JunctionIndex(String[] names, int[][] nodesByName, CompactRouteGraph graph) {
+	this.names = names;
+	this.nodesByName = nodesByName;
+	this.ordinals = new HashMap<String, Integer>(names.length * 2);
+	this.nameByNode = new int[graph.getNodeCount()];
+	this.hasRoute = new boolean[names.length];
+	Arrays.fill(nameByNode, -1);
+
+	for (int ordinal = 0; ordinal < names.length; ordinal++) {
+	    names[ordinal] = names[ordinal].intern();
+	    ordinals.put(names[ordinal], ordinal);
+	    for (int node : nodesByName[ordinal]) {
+		nameByNode[node] = ordinal;
+		if (graph.getEdgeEnd(node) > graph.getEdgeStart(node))
+		    hasRoute[ordinal] = true;
+	    }
+	}
+    }
+
+    /**
+     * Erzeugt den Index aus der Map der nodes*.xml. Nur hier wird einmalig ber
+     * {@link SupportMethods#isNumeric(String)} unterschieden, welche Schlssel Namen sind.
+     * 
+     * @param nodeXMLMap Map wie {@link StAXMapGraphDataParser#getNodeXMLMap()}
+     * @param graph Der Graph, der alle IDs der Anschlussstellen enthlt.
+     * @return Der Index.
+     */
+    public static JunctionIndex create(Map<String, List<String>> nodeXMLMap, CompactRouteGraph graph) {
+	List<String> nameList = new ArrayList<String>();
+	for (String key : nodeXMLMap.keySet())
+	    if (!SupportMethods.isNumeric(key))
+		nameList.add(key);
+	String[] names = nameList.toArray(new String[nameList.size()]);
+	Arrays.sort(names);
+
+	int[][] nodesByName = new int[names.length][];
+	for (int ordinal = 0; ordinal < names.length; ordinal++)
+	    nodesByName[ordinal] = graph.getNodeIndices(nodeXMLMap.get(names[ordinal]));
+	return new JunctionIndex(names, nodesByName, graph);
+    }
+
+    /**
+     * @return Anzahl der Namen.
+     */
+    public int getNameCount() {
+	return names.length;
+    }
+
+    /**
+     * @param ordinal Die Nummer des Namens.
+     * @return Der Name.
+     */
+    public String getName(int ordinal) {
+	return names[ordinal];
+    }
+
+    /**
+     * @param name Name einer Anschlussstelle.
+     * @return Die Nummer des Namens oder -1 wenn es ihn nicht gibt.
+     */
+    public int getOrdinal(String name) {
+	Integer ordinal = name == null ? null : ordinals.get(name);
+	return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * @param name Name einer Anschlussstelle.
+     * @return Wahr wenn es eine Anschlussstelle mit diesem Namen gibt.
+     */
+    public boolean contains(String name) {
+	return getOrdinal(name) >= 0;
+    }
+
+    /**
+     * @param ordinal Die Nummer des Namens.
+     * @return Die Knoten Indizes der Anschlussstelle. Das Array wird nicht kopiert und darf nicht verndert werden.
+     */
+    public int[] getNodes(int ordinal) {
+	return nodesByName[ordinal];
+    }
+
+    /**
+     * @param name Name einer Anschlussstelle.
+     * @return Die Knoten Indizes der Anschlussstelle, leer wenn es den Namen nicht gibt. Das Array wird nicht kopiert
+     *         und darf nicht verndert werden.
+     */
+    public int[] getNodes(String name) {
+	int ordinal = getOrdinal(name);
+	return ordinal < 0 ? NO_NODES : nodesByName[ordinal];
+    }
+
+    /**
+     * @param node Der Knoten Index.
+     * @return Die Nummer des Namens der Anschlussstelle oder -1 wenn der Knoten zu keiner gehrt.
+     */
+    public int getNameOrdinal(int node) {
+	return nameByNode[node];
+    }
+
+    /**
+     * @param node Der Knoten Index.
+     * @return Der Name der Anschlussstelle oder null wenn der Knoten zu keiner gehrt.
+     */
+    public String getNameOfNode(int node) {
+	return nameByNode[node] < 0 ? null : names[nameByNode[node]];
+    }
+
+    /**
+     * @param ordinal Die Nummer des Namens.
+     * @return Wahr wenn von mindestens einem Knoten der Anschlussstelle eine Route abgeht.
+     */
+    public boolean hasRoute(int ordinal) {
+	return hasRoute[ordinal];
+    }
+
+    /**
+     * Baut die Map der nodes*.xml wieder auf, z.B. fr ltere Aufrufer von {@link RoadGraph#getNodeXMLMap()}.
+     * 
+     * @param graph Der Graph zu dem die Knoten Indizes gehren.
+     * @return Map wie {@link StAXMapGraphDataParser#getNodeXMLMap()}
+     */
+    Map<String, List<String>> toNodeXMLMap(CompactRouteGraph graph) {
+	Map<String, List<String>> nodeXMLMap = new HashMap<String, List<String>>(names.length * 4);
+	for (int ordinal = 0; ordinal < names.length; ordinal++) {
+	    List<String> ids = new ArrayList<String>(nodesByName[ordinal].length);
+	    for (int node : nodesByName[ordinal])
+		ids.add(graph.getNodeID(node));
+	    nodeXMLMap.put(names[ordinal], ids);
+	}
+	for (int ordinal = 0; ordinal < names.length; ordinal++)
+	    for (int node : nodesByName[ordinal])
+		nodeXMLMap.put(graph.getNodeID(node), SupportMethods.commaStrToStrList(names[ordinal]));
+	return nodeXMLMap;
+    }
+}
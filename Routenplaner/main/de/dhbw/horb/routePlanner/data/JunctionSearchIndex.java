@@ -0,0 +1,256 @@
+package de.dhbw.horb.routePlanner.data;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Suchindex fr die Autovervollstndigung der Anschlussstellen. Er enthlt nur Namen, die als Start oder Ziel in
+ * Frage kommen, also mit mindestens zwei Knoten und einer abgehenden Route. Die Namen werden mit {@link #fold(String)}
+ * vereinheitlicht und durch ein Trennzeichen getrennt hintereinander gespeichert. ber alle Suffixe dieses Textes wird
+ * ein Suffix Array gebildet, sodass jede Teilzeichenkette ber eine binre Suche gefunden wird.
+ * <p>
+ * Sortiert wird wie in {@link de.dhbw.horb.routePlanner.SupportMethods#sortListCompairedToEquality(List, String)}:
+ * gleiche Namen zuerst, dann nach Position der Eingabe im Namen, danach nach Lnge und Alphabet.
+ */
+public class JunctionSearchIndex {
+
+    private static final char SEPARATOR = '\0';
+
+    private final JunctionIndex junctions;
+    /** Die Nummern der enthaltenen Namen im {@link JunctionIndex}. */
+    private final int[] entries;
+    /** Anfang jedes Eintrags im Text, mit dem Ende des Textes als letztem Wert. */
+    private final int[] entryStarts;
+    private final char[] text;
+    private final int[] suffixes;
+    /** Der Eintrag zu jedem Suffix, damit die Suche nicht fr jeden Treffer den Anfang suchen muss. */
+    private final int[] suffixEntries;
+
+    private JunctionSearchIndex(JunctionIndex junctions, int[] entries, int[] entryStarts, char[] text,
+	    int[] suffixes) {
+	this.junctions = junctions;
+	this.entries = entries;
+	this.entryStarts = entryStarts;
+	this.text = text;
+	this.suffixes = suffixes;
+	this.suffixEntries = new int[suffixes.length];
+	for (int i = 0; i < suffixes.length; i++) {
+	    int entry = Arrays.binarySearch(entryStarts, suffixes[i]);
+	    suffixEntries[i] = entry >= 0 ? entry : -entry - 2;
+	}
+    }
+
+    /**
+     * Baut den Suchindex einmalig aus dem Index der Anschlussstellen auf.
+     * 
+     * @param junctions Der Index der Anschlussstellen.
+     * @return Der Suchindex.
+     */
+    public static JunctionSearchIndex create(JunctionIndex junctions) {
+	List<Integer> entryList = new ArrayList<Integer>();
+	StringBuilder builder = new StringBuilder();
+	List<Integer> starts = new ArrayList<Integer>();
+	for (int ordinal = 0; ordinal < junctions.getNameCount(); ordinal++) {
+	    if (!junctions.hasRoute(ordinal) || junctions.getNodes(ordinal).length < 2)
+		continue;
+	    entryList.add(ordinal);
+	    starts.add(builder.length());
+	    builder.append(fold(junctions.getName(ordinal))).append(SEPARATOR);
+	}
+
+	int[] entries = new int[entryList.size()];
+	int[] entryStarts = new int[entries.length + 1];
+	for (int entry = 0; entry < entries.length; entry++) {
+	    entries[entry] = entryList.get(entry);
+	    entryStarts[entry] = starts.get(entry);
+	}
+	entryStarts[entries.length] = builder.length();
+
+	final char[] text = builder.toString().toCharArray();
+	List<Integer> positions = new ArrayList<Integer>(text.length);
+	for (int position = 0; position < text.length; position++)
+	    if (text[position] != SEPARATOR)
+		positions.add(position);
+	Integer[] sorted = positions.toArray(new Integer[positions.size()]);
+	Arrays.sort(sorted, new Comparator<Integer>() {
+	    @Override
+	    public int compare(Integer a, Integer b) {
+		return compareSuffixes(text, a, b);
+	    }
+	});
+
+	int[] suffixes = new int[sorted.length];
+	for (int i = 0; i < sorted.length; i++)
+	    suffixes[i] = sorted[i];
+	return new JunctionSearchIndex(junctions, entries, entryStarts, text, suffixes);
+    }
+
+    /**
+     * Vergleicht zwei Suffixe bis zum Ende ihres Eintrags. Das Trennzeichen ist kleiner als alle anderen Zeichen.
+     */
+    private static int compareSuffixes(char[] text, int a, int b) {
+	while (true) {
+	    char ca = text[a++];
+	    char cb = text[b++];
+	    if (ca != cb)
+		return ca - cb;
+	    if (ca == SEPARATOR)
+		return 0;
+	}
+    }
+
+    /**
+     * Vereinheitlicht einen Namen fr die Suche: Kleinbuchstaben, Umlaute als ae, oe und ue,  als ss und andere
+     * Akzente ohne Zeichen, z.B. wird "Mnchen-Ost" zu "muenchen-ost" und "Lige" zu "liege". Steuerzeichen werden
+     * entfernt.
+     * 
+     * @param name Der Name oder die Eingabe.
+     * @return Der vereinheitlichte Text.
+     */
+    public static String fold(String name) {
+	StringBuilder folded = new StringBuilder(name.length() + 4);
+	for (int i = 0; i < name.length(); i++) {
+	    char c = Character.toLowerCase(name.charAt(i));
+	    switch (c) {
+	    case '':
+		folded.append("ae");
+		break;
+	    case '':
+		folded.append("oe");
+		break;
+	    case '':
+		folded.append("ue");
+		break;
+	    case '':
+		folded.append("ss");
+		break;
+	    default:
+		if (c < 0x80) {
+		    if (!Character.isISOControl(c))
+			folded.append(c);
+		} else {
+		    for (char d : Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).toCharArray())
+			if (Character.getType(d) != Character.NON_SPACING_MARK && !Character.isISOControl(d))
+			    folded.append(d);
+		}
+	    }
+	}
+	return folded.toString();
+    }
+
+    /**
+     * @return Anzahl der durchsuchbaren Namen.
+     */
+    public int size() {
+	return entries.length;
+    }
+
+    /**
+     * Sucht die am besten passenden Namen, die die Eingabe an beliebiger Stelle enthalten.
+     * 
+     * @param input Die Eingabe, sie wird wie die Namen mit {@link #fold(String)} vereinheitlicht.
+     * @param limit Hchstanzahl der Vorschlge.
+     * @return Die Namen der Anschlussstellen, die besten zuerst.
+     */
+    public List<String> search(String input, int limit) {
+	int[] ordinals = searchOrdinals(input, limit);
+	List<String> names = new ArrayList<String>(ordinals.length);
+	for (int ordinal : ordinals)
+	    names.add(junctions.getName(ordinal));
+	return names;
+    }
+
+    /**
+     * Wie {@link #search(String, int)}, gibt aber die Nummern der Namen im {@link JunctionIndex} zurck.
+     * 
+     * @param input Die Eingabe.
+     * @param limit Hchstanzahl der Vorschlge.
+     * @return Die Nummern der Namen, die besten zuerst.
+     */
+    public int[] searchOrdinals(String input, int limit) {
+	if (input == null || limit <= 0)
+	    return new int[0];
+
+	char[] query = fold(input).toCharArray();
+	int from = lowerBound(query, false);
+	int to = lowerBound(query, true);
+
+	// Kleinste Position der Eingabe in jedem gefundenen Eintrag.
+	int[] offsets = new int[entries.length];
+	Arrays.fill(offsets, -1);
+	int[] found = new int[Math.min(to - from, entries.length)];
+	int foundCount = 0;
+	for (int i = from; i < to; i++) {
+	    int entry = suffixEntries[i];
+	    int offset = suffixes[i] - entryStarts[entry];
+	    if (offsets[entry] < 0)
+		found[foundCount++] = entry;
+	    if (offsets[entry] < 0 || offset < offsets[entry])
+		offsets[entry] = offset;
+	}
+
+	// Die besten Eintrge durch Einfgen in ein sortiertes Array der Lnge limit.
+	int[] best = new int[Math.min(limit, foundCount)];
+	int bestCount = 0;
+	for (int i = 0; i < foundCount; i++) {
+	    int entry = found[i];
+	    if (bestCount == best.length && compareEntries(entry, best[bestCount - 1], query.length, offsets) >= 0)
+		continue;
+	    int position = bestCount < best.length ? bestCount++ : bestCount - 1;
+	    while (position > 0 && compareEntries(entry, best[position - 1], query.length, offsets) < 0) {
+		best[position] = best[position - 1];
+		position--;
+	    }
+	    best[position] = entry;
+	}
+
+	int[] ordinals = new int[bestCount];
+	for (int i = 0; i < bestCount; i++)
+	    ordinals[i] = entries[best[i]];
+	return ordinals;
+    }
+
+    /**
+     * @return Erster Index im Suffix Array, dessen Suffix nicht kleiner als die Eingabe ist. Bei upper wird die Eingabe
+     *         als Prfix mit allen Suffixen gleich behandelt, die mit ihr beginnen.
+     */
+    private int lowerBound(char[] query, boolean upper) {
+	int low = 0;
+	int high = suffixes.length;
+	while (low < high) {
+	    int middle = (low + high) >>> 1;
+	    int compare = comparePrefix(suffixes[middle], query);
+	    if (compare < 0 || (upper && compare == 0))
+		low = middle + 1;
+	    else
+		high = middle;
+	}
+	return low;
+    }
+
+    private int comparePrefix(int position, char[] query) {
+	for (int i = 0; i < query.length; i++) {
+	    char c = text[position + i];
+	    if (c != query[i])
+		return c - query[i];
+	}
+	return 0;
+    }
+
+    private int compareEntries(int a, int b, int queryLength, int[] offsets) {
+	int lengthA = entryStarts[a + 1] - entryStarts[a] - 1;
+	int lengthB = entryStarts[b + 1] - entryStarts[b] - 1;
+	boolean equalA = lengthA == queryLength;
+	boolean equalB = lengthB == queryLength;
+	if (equalA != equalB)
+	    return equalA ? -1 : 1;
+	if (offsets[a] != offsets[b])
+	    return offsets[a] < offsets[b] ? -1 : 1;
+	if (lengthA != lengthB)
+	    return lengthA < lengthB ? -1 : 1;
+	return junctions.getName(entries[a]).compareTo(junctions.getName(entries[b]));
+    }
+}
@@ -0,0 +1,80 @@
+package de.dhbw.horb.routePlanner.data;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.SupportMethods;
+
+/**
+ * Koordinaten der Knoten eines {@link CompactRouteGraph}, abgelegt nach Knoten Index. Knoten ohne Koordinaten haben
+ * den Wert {@link Double#NaN}.
+ */
+public class NodeCoordinates {
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    /**
+     * @param graph Der Graph dessen Knoten Indizes verwendet werden.
+     * @param nodeMap Map wie {@link StAXMapGraphDataParser#getNodeMap()}
+     */
+    public NodeCoordinates(CompactRouteGraph graph, Map<String, Map<String, String>> nodeMap) {
+	latitudes = new double[graph.getNodeCount()];
+	longitudes = new double[graph.getNodeCount()];
+	Arrays.fill(latitudes, Double.NaN);
+	Arrays.fill(longitudes, Double.NaN);
+
+	for (int node = 0; node < graph.getNodeCount(); node++) {
+	    Map<String, String> values = nodeMap.get(graph.getNodeID(node));
+	    if (values == null)
+		continue;
+
+	    double lat = SupportMethods.parseDouble(values.get(Constants.NODE_LATITUDE), Double.NaN);
+	    double lon = SupportMethods.parseDouble(values.get(Constants.NODE_LONGITUDE), Double.NaN);
+	    if (Double.isNaN(lat) || Double.isNaN(lon))
+		continue;
+
+	    latitudes[node] = lat;
+	    longitudes[node] = lon;
+	}
+    }
+
+    /**
+     * @param node Der Knoten Index.
+     * @return true wenn fr den Knoten Koordinaten bekannt sind.
+     */
+    public boolean hasCoordinates(int node) {
+	return !Double.isNaN(latitudes[node]) && !Double.isNaN(longitudes[node]);
+    }
+
+    /**
+     * @param node Der Knoten Index.
+     * @return Breitengrad oder NaN.
+     */
+    public double getLatitude(int node) {
+	return latitudes[node];
+    }
+
+    /**
+     * @param node Der Knoten Index.
+     * @return Lngengrad oder NaN.
+     */
+    public double getLongitude(int node) {
+	return longitudes[node];
+    }
+
+    /**
+     * Luftlinie zwischen zwei Knoten.
+     * 
+     * @param from Knoten Index
+     * @param to Knoten Index
+     * @return Entfernung in km oder 0 wenn eine der Koordinaten fehlt.
+     */
+    public double getDistanceInKM(int from, int to) {
+	if (!hasCoordinates(from) || !hasCoordinates(to))
+	    return 0.0;
+	return SupportMethods.fromLatLonToDistanceInKM(latitudes[from], longitudes[from], latitudes[to],
+	        longitudes[to]);
+    }
+}
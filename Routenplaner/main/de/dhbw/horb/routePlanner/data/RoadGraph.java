@@ -0,0 +1,258 @@
+package de.dhbw.horb.routePlanner.data;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.evaluation.aStar.LandmarkTable;
+import de.dhbw.horb.routePlanner.evaluation.contraction.ContractionHierarchy;
+import de.dhbw.horb.routePlanner.evaluation.contraction.ContractionHierarchyBuilder;
+
+/**
+ * Unvernderlicher Routengraph eines Landes. Die nodes*.xml und routes*.xml werden pro Land nur einmal eingelesen und
+ * danach von allen Routenberechnungen gemeinsam verwendet. Nach dem Aktualisieren der Daten muss der Graph ber
+ * {@link #invalidateAll()} verworfen werden.
+ */
+public class RoadGraph {
+
+    private static final Map<String, RoadGraph> graphs = new HashMap<String, RoadGraph>();
+
+    private final String country;
+    private final JunctionIndex junctions;
+    private JunctionSearchIndex junctionSearchIndex;
+    private Map<String, List<String>> nodeXMLMap;
+    private Map<String, List<Map<String, String>>> routeXMLMap;
+    private final CompactRouteGraph compactGraph;
+    private NodeCoordinates nodeCoordinates;
+    private final Map<String, ContractionHierarchy> hierarchies = new HashMap<String, ContractionHierarchy>();
+    private LandmarkTable landmarks;
+    private boolean fileBased;
+
+    /**
+     * Erzeugt einen Graphen aus bereits eingelesenen Maps, z.B. fr Tests. Normalerweise wird der Graph ber
+     * {@link #getInstance()} geladen. Ein so erzeugter Graph liest und schreibt keine weiteren Dateien, vorberechnete
+     * Daten werden nur im Speicher gehalten. Die Routen Maps werden nicht behalten, ihre Werte stehen danach im
+     * {@link EdgeAttributeStore} des {@link CompactRouteGraph}.
+     * 
+     * @param country Das Land zu dem der Graph gehrt.
+     * @param nodeXMLMap Map wie {@link StAXMapGraphDataParser#getNodeXMLMap()}
+     * @param routeXMLMap Map wie {@link StAXMapGraphDataParser#getRouteXMLMap()}
+     */
+    public RoadGraph(String country, Map<String, List<String>> nodeXMLMap,
+	    Map<String, List<Map<String, String>>> routeXMLMap) {
+	this(country, nodeXMLMap, new CompactRouteGraph(nodeXMLMap, routeXMLMap));
+    }
+
+    private RoadGraph(String country, Map<String, List<String>> nodeXMLMap, CompactRouteGraph compactGraph) {
+	this(country, JunctionIndex.create(nodeXMLMap, compactGraph), compactGraph);
+    }
+
+    /**
+     * Erzeugt einen Graphen aus bereits fertigen Strukturen, z.B. aus einer {@link GraphSnapshot}.
+     * 
+     * @param country Das Land zu dem der Graph gehrt.
+     * @param junctions Der Index der Anschlussstellen.
+     * @param compactGraph Der Graph als CSR Struktur.
+     */
+    RoadGraph(String country, JunctionIndex junctions, CompactRouteGraph compactGraph) {
+	this.country = country;
+	this.junctions = junctions;
+	this.compactGraph = compactGraph;
+    }
+
+    /**
+     * Wie {@link #RoadGraph(String, Map, Map)}, zustzlich mit bereits eingelesenen Koordinaten.
+     * 
+     * @param country Das Land zu dem der Graph gehrt.
+     * @param nodeXMLMap Map wie {@link StAXMapGraphDataParser#getNodeXMLMap()}
+     * @param routeXMLMap Map wie {@link StAXMapGraphDataParser#getRouteXMLMap()}
+     * @param nodeMap Map wie {@link StAXMapGraphDataParser#getNodeMap()}
+     */
+    public RoadGraph(String country, Map<String, List<String>> nodeXMLMap,
+	    Map<String, List<Map<String, String>>> routeXMLMap, Map<String, Map<String, String>> nodeMap) {
+	this(country, nodeXMLMap, routeXMLMap);
+	this.nodeCoordinates = new NodeCoordinates(compactGraph, nodeMap);
+    }
+
+    /**
+     * Gibt den Graphen des in den Einstellungen gewhlten Landes zurck. Beim ersten Aufruf werden die XML Dateien
+     * eingelesen.
+     * 
+     * @return Der Graph des aktuellen Landes.
+     * @throws FileNotFoundException
+     * @throws XMLStreamException
+     */
+    public static RoadGraph getInstance() throws FileNotFoundException, XMLStreamException {
+	return getInstance(SettingsManager.getValue(Constants.SETTINGS_COUNTRY, Constants.SETTINGS__DEFAULT_COUNTRY));
+    }
+
+    /**
+     * Gibt den Graphen eines bestimmten Landes zurck. Beim ersten Aufruf wird er aus seiner {@link GraphSnapshot}
+     * geladen oder, falls diese fehlt oder veraltet ist, aus den XML Dateien eingelesen.
+     * 
+     * @param country Das Land.
+     * @return Der Graph des Landes.
+     * @throws FileNotFoundException
+     * @throws XMLStreamException
+     */
+    public static synchronized RoadGraph getInstance(String country) throws FileNotFoundException,
+	    XMLStreamException {
+	RoadGraph graph = graphs.get(country);
+	if (graph == null) {
+	    graph = GraphSnapshot.loadOrCreate(country);
+	    graph.fileBased = true;
+	    graphs.put(country, graph);
+	}
+	return graph;
+    }
+
+    /**
+     * Verwirft den geladenen Graphen eines Landes und ldt ihn neu.
+     * 
+     * @param country Das Land.
+     * @return Der neu geladene Graph.
+     * @throws FileNotFoundException
+     * @throws XMLStreamException
+     */
+    public static synchronized RoadGraph reload(String country) throws FileNotFoundException, XMLStreamException {
+	graphs.remove(country);
+	return getInstance(country);
+    }
+
+    /**
+     * Verwirft alle geladenen Graphen, z.B. wenn die XML Dateien neu erzeugt werden.
+     */
+    public static synchronized void invalidateAll() {
+	graphs.clear();
+    }
+
+    /**
+     * @return Das Land zu dem der Graph gehrt.
+     */
+    public String getCountry() {
+	return country;
+    }
+
+    /**
+     * @return Der Index der Anschlussstellen fr Namen und Knoten Indizes.
+     */
+    public JunctionIndex getJunctionIndex() {
+	return junctions;
+    }
+
+    /**
+     * @return Der Suchindex fr die Autovervollstndigung, er wird beim ersten Aufruf aufgebaut.
+     */
+    public synchronized JunctionSearchIndex getJunctionSearchIndex() {
+	if (junctionSearchIndex == null)
+	    junctionSearchIndex = JunctionSearchIndex.create(junctions);
+	return junctionSearchIndex;
+    }
+
+    /**
+     * Fr die Routenberechnung ist {@link #getJunctionIndex()} schneller, die Map wird nur fr ltere Aufrufer beim
+     * ersten Aufruf aus dem Index aufgebaut.
+     * 
+     * @return Unvernderliche Map wie {@link StAXMapGraphDataParser#getNodeXMLMap()}.
+     */
+    public synchronized Map<String, List<String>> getNodeXMLMap() {
+	if (nodeXMLMap == null) {
+	    Map<String, List<String>> nodes = junctions.toNodeXMLMap(compactGraph);
+	    for (Map.Entry<String, List<String>> entry : nodes.entrySet())
+		entry.setValue(Collections.unmodifiableList(entry.getValue()));
+	    nodeXMLMap = Collections.unmodifiableMap(nodes);
+	}
+	return nodeXMLMap;
+    }
+
+    /**
+     * @return Unvernderliche Map wie {@link StAXMapGraphDataParser#getRouteXMLMap()} mit allen gltigen Kanten. Sie
+     *         wird erst beim ersten Aufruf aus dem {@link CompactRouteGraph} aufgebaut.
+     */
+    public synchronized Map<String, List<Map<String, String>>> getRouteXMLMap() {
+	if (routeXMLMap == null) {
+	    Map<String, List<Map<String, String>>> routes = new HashMap<String, List<Map<String, String>>>();
+	    for (int node = 0; node < compactGraph.getNodeCount(); node++) {
+		if (compactGraph.getEdgeStart(node) == compactGraph.getEdgeEnd(node))
+		    continue;
+		List<Map<String, String>> edges = new ArrayList<Map<String, String>>();
+		for (int edge = compactGraph.getEdgeStart(node); edge < compactGraph.getEdgeEnd(node); edge++)
+		    edges.add(compactGraph.getEdgeRoute(edge));
+		routes.put(compactGraph.getNodeID(node), Collections.unmodifiableList(edges));
+	    }
+	    routeXMLMap = Collections.unmodifiableMap(routes);
+	}
+	return routeXMLMap;
+    }
+
+    /**
+     * @return Der Graph als kompakte CSR Struktur fr die Routenberechnung.
+     */
+    public CompactRouteGraph getCompactGraph() {
+	return compactGraph;
+    }
+
+    /**
+     * Gibt die Koordinaten der Knoten zurck. Sie werden erst beim ersten Aufruf aus der graphData*.xml gelesen. Kann
+     * die Datei nicht gelesen werden, haben alle Knoten keine Koordinaten.
+     * 
+     * @return Die Koordinaten nach Knoten Index.
+     */
+    public synchronized NodeCoordinates getNodeCoordinates() {
+	if (nodeCoordinates == null) {
+	    Map<String, Map<String, String>> nodeMap = new HashMap<String, Map<String, String>>();
+	    try {
+		if (fileBased)
+		    nodeMap = StAXMapGraphDataParser.getNodeMap(country);
+	    } catch (FileNotFoundException | XMLStreamException e) {
+		e.printStackTrace();
+	    }
+	    nodeCoordinates = new NodeCoordinates(compactGraph, nodeMap);
+	}
+	return nodeCoordinates;
+    }
+
+    /**
+     * Gibt die Contraction Hierarchy fr eine Berechnungsmethode zurck. Beim ersten Aufruf wird sie aus ihrer Datei
+     * geladen oder, falls diese fehlt oder veraltet ist, berechnet und gespeichert.
+     * 
+     * @param calculationMethod Constants.EVALUATION_CALCULATION_DISTANCE oder
+     *            Constants.EVALUATION_CALCULATION_DURATION (Standard).
+     * @return Die Hierarchie.
+     */
+    public synchronized ContractionHierarchy getContractionHierarchy(String calculationMethod) {
+	String key = Constants.EVALUATION_CALCULATION_DISTANCE.equals(calculationMethod)
+	        ? Constants.EVALUATION_CALCULATION_DISTANCE : Constants.EVALUATION_CALCULATION_DURATION;
+	ContractionHierarchy hierarchy = hierarchies.get(key);
+	if (hierarchy == null) {
+	    if (fileBased)
+		hierarchy = ContractionHierarchy.loadOrCreate(this, key);
+	    else
+		hierarchy = new ContractionHierarchyBuilder(compactGraph, key).build();
+	    hierarchies.put(key, hierarchy);
+	}
+	return hierarchy;
+    }
+
+    /**
+     * Gibt die Landmarken fr die ALT Heuristik zurck. Beim ersten Aufruf werden sie aus ihrer Datei geladen oder,
+     * falls diese fehlt oder veraltet ist, berechnet und gespeichert.
+     * 
+     * @return Die Landmarken.
+     */
+    public synchronized LandmarkTable getLandmarks() {
+	if (landmarks == null) {
+	    if (fileBased)
+		landmarks = LandmarkTable.loadOrCreate(this);
+	    else
+		landmarks = LandmarkTable.create(compactGraph, LandmarkTable.DEFAULT_LANDMARK_COUNT);
+	}
+	return landmarks;
+    }
+}
@@ -0,0 +1,455 @@
+package de.dhbw.horb.routePlanner.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.jdom2.Attribute;
+import org.jdom2.Element;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.SupportMethods;
+
+/**
+ * Erzeugt die Routen zwischen den Anschlussstellen fr die routes*.xml. Die Knotenlisten der Wege werden dafr nur
+ * einmal durchlaufen: Jeder Knoten bekommt einen int Index, jede Stelle eines Wegs wird zu einer Kante zum nchsten
+ * Knoten des Wegs. Knoten ohne Abzweigung und ohne Einmndung werden zu Ketten zusammengefasst, die pro Kante nur
+ * einmal berechnet und danach von allen Routen wiederverwendet werden.
+ * <p>
+ * Die erzeugten Routen entsprechen genau denen der frheren rekursiven Suche: Von einer Anschlussstelle aus wird jeder
+ * Weg bis zur nchsten Anschlussstelle verfolgt, ohne einen Knoten doppelt zu besuchen, und Strecke, Dauer, Nummer
+ * sowie Weg IDs werden Abschnitt fr Abschnitt wie bisher aufsummiert.
+ * <p>
+ * Nach dem Erzeugen wird der Graph nicht mehr verndert. Mehrere Threads knnen gleichzeitig Routen erzeugen, jeder
+ * Thread bekommt dafr seinen eigenen Suchzustand.
+ */
+public class RouteSegmentExtractor {
+
+    private final Map<String, Integer> nodeIndices;
+    private final String[] nodeIDs;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final String[] names;
+    private final boolean[] junctions;
+
+    private final String[] wayIDs;
+    private final int[] waySpeeds;
+    private final String[] wayRefs;
+
+    private final int[] edgeOffsets;
+    private final int[] edgeWays;
+    private final int[] edgeTargets;
+    private final int[] inDegrees;
+    private final Chain[] chains;
+
+    private final ThreadLocal<SearchSpace> searchSpaces = new ThreadLocal<SearchSpace>();
+
+    /** Anzahl der Anschlussstellen, ab der eine Aufgabe bei paralleler Berechnung weiter aufgeteilt wird. */
+    private static final int SPLIT_THRESHOLD = 16;
+
+    /**
+     * @param nodes Map wie {@link StAXMapGraphDataParser#getNodeMap()}
+     * @param ways Map wie {@link StAXMapGraphDataParser#getWayMap()}
+     */
+    public RouteSegmentExtractor(Map<String, Map<String, String>> nodes, Map<String, Map<String, String>> ways) {
+	int nodeCount = nodes.size();
+	nodeIndices = new HashMap<String, Integer>(nodeCount * 2);
+	nodeIDs = new String[nodeCount];
+	latitudes = new double[nodeCount];
+	longitudes = new double[nodeCount];
+	names = new String[nodeCount];
+	junctions = new boolean[nodeCount];
+
+	int node = 0;
+	for (Map.Entry<String, Map<String, String>> entry : nodes.entrySet()) {
+	    Map<String, String> nodeInfos = entry.getValue();
+	    if (entry.getKey() == null || entry.getKey().isEmpty() || nodeInfos == null || nodeInfos.isEmpty())
+		continue;
+	    nodeIndices.put(entry.getKey(), node);
+	    nodeIDs[node] = entry.getKey();
+	    latitudes[node] = Double.parseDouble(nodeInfos.get(Constants.NODE_LATITUDE));
+	    longitudes[node] = Double.parseDouble(nodeInfos.get(Constants.NODE_LONGITUDE));
+	    names[node] = nodeInfos.get(Constants.NODE_NAME);
+	    junctions[node] = Constants.NODE_MOTORWAY_JUNCTION.equals(nodeInfos.get(Constants.NODE_HIGHWAY));
+	    node++;
+	}
+	nodeCount = node;
+
+	wayIDs = new String[ways.size()];
+	waySpeeds = new int[ways.size()];
+	wayRefs = new String[ways.size()];
+
+	int[] edgeFrom = new int[1024];
+	int[] edgeWay = new int[1024];
+	int[] edgeTo = new int[1024];
+	int edgeCount = 0;
+	int[] firstPositionStamps = new int[nodeCount];
+	int[] firstPositions = new int[nodeCount];
+	Arrays.fill(firstPositionStamps, -1);
+
+	int way = 0;
+	for (Map.Entry<String, Map<String, String>> entry : ways.entrySet()) {
+	    Map<String, String> wayInfos = entry.getValue();
+	    if (entry.getKey() == null || entry.getKey().isEmpty() || wayInfos == null || wayInfos.isEmpty())
+		continue;
+
+	    wayIDs[way] = entry.getKey();
+	    waySpeeds[way] = parseSpeed(wayInfos.get(Constants.WAY_MAXSPEED));
+	    String ref = wayInfos.get(Constants.WAY_REF);
+	    wayRefs[way] = ref == null || ref.isEmpty() ? null : ref;
+
+	    List<String> nds = SupportMethods.commaStrToStrList(wayInfos.get(Constants.WAY_NODE));
+	    int[] positions = new int[nds == null ? 0 : nds.size()];
+	    for (int i = 0; i < positions.length; i++) {
+		Integer index = nodeIndices.get(nds.get(i));
+		positions[i] = index == null ? -1 : index;
+	    }
+
+	    // Wie bisher fhrt jedes Vorkommen eines Knotens zum Nachfolger seines ersten Vorkommens im Weg.
+	    for (int i = 0; i < positions.length; i++) {
+		int from = positions[i];
+		if (from < 0)
+		    continue;
+		if (firstPositionStamps[from] != way) {
+		    firstPositionStamps[from] = way;
+		    firstPositions[from] = i;
+		}
+		int first = firstPositions[from];
+		if (first == positions.length - 1 || positions[first + 1] < 0)
+		    continue;
+
+		if (edgeCount == edgeFrom.length) {
+		    edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+		    edgeWay = Arrays.copyOf(edgeWay, edgeCount * 2);
+		    edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+		}
+		edgeFrom[edgeCount] = from;
+		edgeWay[edgeCount] = way;
+		edgeTo[edgeCount] = positions[first + 1];
+		edgeCount++;
+	    }
+	    way++;
+	}
+
+	edgeOffsets = new int[nodeCount + 1];
+	inDegrees = new int[nodeCount];
+	for (int i = 0; i < edgeCount; i++) {
+	    edgeOffsets[edgeFrom[i] + 1]++;
+	    inDegrees[edgeTo[i]]++;
+	}
+	for (int i = 0; i < nodeCount; i++)
+	    edgeOffsets[i + 1] += edgeOffsets[i];
+
+	edgeWays = new int[edgeCount];
+	edgeTargets = new int[edgeCount];
+	int[] fill = new int[nodeCount];
+	for (int i = 0; i < edgeCount; i++) {
+	    int position = edgeOffsets[edgeFrom[i]] + fill[edgeFrom[i]]++;
+	    edgeWays[position] = edgeWay[i];
+	    edgeTargets[position] = edgeTo[i];
+	}
+
+	chains = new Chain[edgeCount];
+    }
+
+    private static int parseSpeed(String maxspeed) {
+	return SupportMethods.parseInt(maxspeed, 0);
+    }
+
+    /**
+     * Erzeugt die Routen mehrerer Anschlussstellen. Die Anschlussstellen werden auf die Threads des Pools aufgeteilt,
+     * die Routen aber in derselben Reihenfolge zurckgegeben wie bei der Berechnung nacheinander.
+     * 
+     * @param departureNodeIDs Knoten IDs der Anschlussstellen.
+     * @param pool Der Pool fr die Berechnung oder null, um alles im aufrufenden Thread zu berechnen.
+     * @return Die route Elemente in der Reihenfolge der Anschlussstellen.
+     */
+    public List<Element> createRoutes(List<String> departureNodeIDs, ForkJoinPool pool) {
+	RouteTask task = new RouteTask(departureNodeIDs, 0, departureNodeIDs.size());
+	if (pool == null)
+	    return task.compute();
+	return pool.invoke(task);
+    }
+
+    private List<Element> createRoutes(String departureNodeID) {
+	List<Element> routes = new ArrayList<Element>();
+	Integer departure = nodeIndices.get(departureNodeID);
+	if (departure == null || names[departure] == null)
+	    return routes;
+
+	SearchSpace space = searchSpaces.get();
+	if (space == null) {
+	    space = new SearchSpace();
+	    searchSpaces.set(space);
+	}
+
+	space.onPath[departure] = true;
+	for (int edge = edgeOffsets[departure]; edge < edgeOffsets[departure + 1]; edge++)
+	    follow(space, departure, departure, edge, routes);
+	space.onPath[departure] = false;
+	return routes;
+    }
+
+    private void follow(SearchSpace space, int departure, int from, int edge, List<Element> routes) {
+	Chain chain = getChain(from, edge);
+	int end = chain.end;
+	if (space.onPath[end])
+	    return;
+
+	space.path.add(chain);
+	if (junctions[end]) {
+	    saveRoute(departure, space.path, routes);
+	} else {
+	    space.onPath[end] = true;
+	    for (int next = edgeOffsets[end]; next < edgeOffsets[end + 1]; next++)
+		follow(space, departure, end, next, routes);
+	    space.onPath[end] = false;
+	}
+	space.path.remove(space.path.size() - 1);
+    }
+
+    /**
+     * Die Kette ab einer Kante bis zum nchsten Knoten, der eine Anschlussstelle ist, abzweigt, eine Einmndung hat
+     * oder nicht weiterfhrt. Jede Kette wird nur einmal berechnet. Berechnen zwei Threads dieselbe Kette gleichzeitig,
+     * ist das Ergebnis gleich; da alle Felder einer Kette final sind, ist sie auch ohne Synchronisation sichtbar.
+     */
+    private Chain getChain(int from, int edge) {
+	Chain chain = chains[edge];
+	if (chain != null)
+	    return chain;
+
+	int[] steps = new int[4];
+	int[] stepWays = new int[4];
+	int count = 0;
+	int node = from;
+	int current = edge;
+	while (true) {
+	    if (count == steps.length) {
+		steps = Arrays.copyOf(steps, count * 2);
+		stepWays = Arrays.copyOf(stepWays, count * 2);
+	    }
+	    steps[count] = node;
+	    stepWays[count] = edgeWays[current];
+	    count++;
+
+	    node = edgeTargets[current];
+	    if (junctions[node] || inDegrees[node] != 1 || edgeOffsets[node + 1] - edgeOffsets[node] != 1)
+		break;
+	    current = edgeOffsets[node];
+	}
+
+	chain = new Chain(Arrays.copyOf(steps, count), Arrays.copyOf(stepWays, count), node);
+	chains[edge] = chain;
+	return chain;
+    }
+
+    private void saveRoute(int departure, List<Chain> path, List<Element> routes) {
+	int destination = path.get(path.size() - 1).end;
+	if (names[destination] == null)
+	    return;
+
+	// Wurde am Ende einer Kette ein Abschnitt bersprungen, setzt der nchste Abschnitt nicht an ihrem Endknoten
+	// an. Dann wird die ganze Route wie bisher Abschnitt fr Abschnitt berechnet.
+	boolean clean = true;
+	for (int i = 0; i < path.size() - 1; i++)
+	    clean &= path.get(i).clean;
+
+	Chain route;
+	if (path.size() == 1) {
+	    route = path.get(0);
+	} else if (clean) {
+	    route = new Chain(path);
+	} else {
+	    int count = 0;
+	    for (Chain chain : path)
+		count += chain.steps.length;
+	    int[] steps = new int[count];
+	    int[] stepWays = new int[count];
+	    int position = 0;
+	    for (Chain chain : path) {
+		System.arraycopy(chain.steps, 0, steps, position, chain.steps.length);
+		System.arraycopy(chain.stepWays, 0, stepWays, position, chain.steps.length);
+		position += chain.steps.length;
+	    }
+	    route = new Chain(steps, stepWays, destination);
+	}
+
+	Element newRoute = new Element(Constants.NEW_ROUTE);
+	newRoute.setAttribute(new Attribute(Constants.NEW_ROUTE_DEPARTURENODEID, nodeIDs[departure]));
+	newRoute.setAttribute(new Attribute(Constants.NEW_ROUTE_DEPARTURENODENAME, names[departure]));
+	newRoute.setAttribute(new Attribute(Constants.NEW_ROUTE_DESTINATIONNODEID, nodeIDs[destination]));
+	newRoute.setAttribute(new Attribute(Constants.NEW_ROUTE_DESTINATIONNODENAME, names[destination]));
+	if (route.ref != null)
+	    newRoute.setAttribute(new Attribute(Constants.NEW_ROUTE_NUMBER, route.ref));
+	newRoute.setAttribute(new Attribute(Constants.NEW_ROUTE_DISTANCE, Double.toString(route.distance)));
+	newRoute.setAttribute(new Attribute(Constants.NEW_ROUTE_DURATION, Long.toString(route.duration)));
+	newRoute.setAttribute(new Attribute(Constants.NEW_ROUTE_WAYIDS, route.getWayIDs()));
+	routes.add(newRoute);
+    }
+
+    /**
+     * Eine Folge von Knoten, jeweils mit dem Weg ber den sie verlassen werden, und der daraus aufsummierte Abschnitt.
+     */
+    private final class Chain {
+
+	final int[] steps;
+	final int[] stepWays;
+	final int end;
+	final double[] distances;
+	final double distance;
+	final long duration;
+	final String ref;
+	final int[] ways;
+	/** Wahr wenn der letzte Abschnitt gezhlt wurde, die nchste Kette also an {@link #end} ansetzt. */
+	final boolean clean;
+
+	Chain(int[] steps, int[] stepWays, int end) {
+	    this.steps = steps;
+	    this.stepWays = stepWays;
+	    this.end = end;
+
+	    double[] counted = new double[steps.length];
+	    int countedCount = 0;
+	    double sum = 0.0;
+	    long durationSum = 0L;
+	    String firstRef = null;
+	    int[] usedWays = new int[steps.length];
+	    int usedCount = 0;
+
+	    int last = 0;
+	    for (int i = 1; i <= steps.length; i++) {
+		int node = i < steps.length ? steps[i] : end;
+		int lastNode = steps[last];
+		int way = stepWays[last];
+		double dist = SupportMethods.fromLatLonToDistanceInKM(latitudes[lastNode], longitudes[lastNode],
+		        latitudes[node], longitudes[node]);
+		if (dist == 0.0)
+		    continue;
+		counted[countedCount++] = dist;
+		sum += dist;
+		if (waySpeeds[way] == 0)
+		    continue;
+		Long dur = SupportMethods.fromDistanceAndSpeedToMilliseconds(dist, waySpeeds[way]);
+		if (dur == null || dur == 0L)
+		    continue;
+		durationSum += dur;
+		if (firstRef == null)
+		    firstRef = wayRefs[way];
+		usedCount = addWay(usedWays, usedCount, way);
+		last = i;
+	    }
+
+	    this.distances = Arrays.copyOf(counted, countedCount);
+	    this.distance = sum;
+	    this.duration = durationSum;
+	    this.ref = firstRef;
+	    this.ways = Arrays.copyOf(usedWays, usedCount);
+	    this.clean = last == steps.length;
+	}
+
+	/**
+	 * Fasst Ketten, die jeweils am Endknoten der vorherigen ansetzen, zu einer Route zusammen. Die Strecken werden
+	 * in derselben Reihenfolge wie bisher addiert.
+	 */
+	Chain(List<Chain> path) {
+	    this.steps = null;
+	    this.stepWays = null;
+	    this.end = path.get(path.size() - 1).end;
+	    this.distances = null;
+
+	    double sum = 0.0;
+	    long durationSum = 0L;
+	    String firstRef = null;
+	    int usedCount = 0;
+	    for (Chain chain : path)
+		usedCount += chain.ways.length;
+	    int[] usedWays = new int[usedCount];
+	    usedCount = 0;
+
+	    for (Chain chain : path) {
+		for (double dist : chain.distances)
+		    sum += dist;
+		durationSum += chain.duration;
+		if (firstRef == null)
+		    firstRef = chain.ref;
+		for (int way : chain.ways)
+		    usedCount = addWay(usedWays, usedCount, way);
+	    }
+
+	    this.distance = sum;
+	    this.duration = durationSum;
+	    this.ref = firstRef;
+	    this.ways = Arrays.copyOf(usedWays, usedCount);
+	    this.clean = path.get(path.size() - 1).clean;
+	}
+
+	/**
+	 * Hngt einen Weg an, wenn er noch nicht enthalten ist. Eine Route fhrt ber wenige verschiedene Wege, daher
+	 * reicht ein linearer Vergleich.
+	 */
+	private int addWay(int[] usedWays, int usedCount, int way) {
+	    for (int i = usedCount - 1; i >= 0; i--)
+		if (usedWays[i] == way)
+		    return usedCount;
+	    usedWays[usedCount] = way;
+	    return usedCount + 1;
+	}
+
+	String getWayIDs() {
+	    List<String> ids = new ArrayList<String>(ways.length);
+	    for (int way : ways)
+		ids.add(wayIDs[way]);
+	    return SupportMethods.strListToCommaStr(ids);
+	}
+    }
+
+    /**
+     * Suchzustand eines Threads: die Knoten der aktuellen Route und die bisher durchlaufenen Ketten.
+     */
+    private final class SearchSpace {
+
+	final boolean[] onPath = new boolean[nodeIDs.length];
+	final List<Chain> path = new ArrayList<Chain>();
+    }
+
+    /**
+     * Teilt einen Bereich der Anschlussstellen so lange, bis er klein genug ist, und hngt die Routen der Teile in
+     * ihrer ursprnglichen Reihenfolge aneinander.
+     */
+    private final class RouteTask extends RecursiveTask<List<Element>> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final List<String> departureNodeIDs;
+	private final int from;
+	private final int to;
+
+	RouteTask(List<String> departureNodeIDs, int from, int to) {
+	    this.departureNodeIDs = departureNodeIDs;
+	    this.from = from;
+	    this.to = to;
+	}
+
+	@Override
+	protected List<Element> compute() {
+	    if (to - from <= SPLIT_THRESHOLD || getPool() == null) {
+		List<Element> routes = new ArrayList<Element>();
+		for (int i = from; i < to; i++)
+		    routes.addAll(createRoutes(departureNodeIDs.get(i)));
+		return routes;
+	    }
+
+	    int middle = (from + to) >>> 1;
+	    RouteTask left = new RouteTask(departureNodeIDs, from, middle);
+	    RouteTask right = new RouteTask(departureNodeIDs, middle, to);
+	    right.fork();
+	    List<Element> routes = left.compute();
+	    routes.addAll(right.join());
+	    return routes;
+	}
+    }
+}
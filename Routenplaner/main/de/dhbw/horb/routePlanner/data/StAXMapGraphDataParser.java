@@ -40,10 +40,23 @@ public class StAXMapGraphDataParser {
      * @throws XMLStreamException
      */
     public static Map<String, Map<String, String>> getNodeMap() throws FileNotFoundException, XMLStreamException {
+	return getNodeMap(SettingsManager.getValue(Constants.SETTINGS_COUNTRY, Constants.SETTINGS__DEFAULT_COUNTRY));
+    }
+
+    /**
+     * Wie {@link #getNodeMap()}, aber fr ein bestimmtes Land unabhngig von den Einstellungen.
+     * 
+     * @param country Das Land dessen graphData*.xml gelesen werden soll.
+     * @return Eine Map mit allen "nodes" aus graphData*.xml
+     * @throws FileNotFoundException
+     * @throws XMLStreamException
+     */
+    public static Map<String, Map<String, String>> getNodeMap(String country) throws FileNotFoundException,
+	    XMLStreamException {
 
 	XMLInputFactory factory = XMLInputFactory.newInstance();
 	GraphDataStreamReader nodeSR = new GraphDataStreamReader(factory.createXMLStreamReader(new FileInputStream(
-	        XMLFileManager.getExtendedXMLFileName(Constants.XML_GRAPHDATA))));
+	        XMLFileManager.getExtendedXMLFileName(Constants.XML_GRAPHDATA, country))));
 
 	Map<String, Map<String, String>> nodes = new HashMap<String, Map<String, String>>();
 
@@ -128,11 +141,24 @@ public class StAXMapGraphDataParser {
      * @throws XMLStreamException
      */
     public static Map<String, Map<String, String>> getWayMap() throws FileNotFoundException, XMLStreamException {
+	return getWayMap(SettingsManager.getValue(Constants.SETTINGS_COUNTRY, Constants.SETTINGS__DEFAULT_COUNTRY));
+    }
+
+    /**
+     * Wie {@link #getWayMap()}, aber fr ein bestimmtes Land unabhngig von den Einstellungen.
+     * 
+     * @param country Das Land dessen graphData*.xml gelesen werden soll.
+     * @return Eine Map mit allen "ways" aus graphData*.xml
+     * @throws FileNotFoundException
+     * @throws XMLStreamException
+     */
+    public static Map<String, Map<String, String>> getWayMap(String country) throws FileNotFoundException,
+	    XMLStreamException {
 
 	XMLInputFactory factory = XMLInputFactory.newInstance();
 
 	GraphDataStreamReader waySR = new GraphDataStreamReader(factory.createXMLStreamReader(new FileInputStream(
-	        XMLFileManager.getExtendedXMLFileName(Constants.XML_GRAPHDATA))));
+	        XMLFileManager.getExtendedXMLFileName(Constants.XML_GRAPHDATA, country))));
 
 	Map<String, Map<String, String>> ways = new HashMap<String, Map<String, String>>();
 
@@ -180,17 +206,8 @@ public class StAXMapGraphDataParser {
 
 	    Map<String, String> way = new HashMap<String, String>();
 
-	    if (maxspeed == null || maxspeed.isEmpty() || !SupportMethods.isNumeric(maxspeed)) {
-		if (highway != null && highway.equals(Constants.WAY_MOTORWAY_LINK)) {
-		    maxspeed = "60";
-		} else if (highway != null && highway.equals(Constants.WAY_MOTORWAY)) {
-		    maxspeed = "120";
-		} else {
-		    maxspeed = "120";
-		}
-	    }
 	    way.put(Constants.WAY_HIGHWAY, highway);
-	    way.put(Constants.WAY_MAXSPEED, maxspeed);
+	    way.put(Constants.WAY_MAXSPEED, getMaxspeed(highway, maxspeed));
 	    way.put(Constants.WAY_REF, ref);
 	    way.put(Constants.WAY_NODE, SupportMethods.strListToCommaStr(listND));
 
@@ -201,6 +218,26 @@ public class StAXMapGraphDataParser {
 	return ways;
     }
 
+    /**
+     * Ersetzt eine fehlende oder nicht numerische Maximalgeschwindigkeit durch den Standardwert der Weg Art.
+     * 
+     * @param highway Weg Art (motorway / motorway_link)
+     * @param maxspeed Maximalgeschwindigkeit wie in der graphData*.xml
+     * @return Maximalgeschwindigkeit in km/h.
+     */
+    static String getMaxspeed(String highway, String maxspeed) {
+	if (maxspeed == null || maxspeed.isEmpty() || !SupportMethods.isNumeric(maxspeed)) {
+	    if (highway != null && highway.equals(Constants.WAY_MOTORWAY_LINK)) {
+		maxspeed = "60";
+	    } else if (highway != null && highway.equals(Constants.WAY_MOTORWAY)) {
+		maxspeed = "120";
+	    } else {
+		maxspeed = "120";
+	    }
+	}
+	return maxspeed;
+    }
+
     /**
      * 
      * @return Eine Map mit allen Beziehungen zwischen Kreuzungsnamen und den Node IDs.
@@ -221,9 +258,22 @@ public class StAXMapGraphDataParser {
      * @throws FileNotFoundException
      */
     public static Map<String, List<String>> getNodeXMLMap() throws XMLStreamException, FileNotFoundException {
+	return getNodeXMLMap(SettingsManager.getValue(Constants.SETTINGS_COUNTRY, Constants.SETTINGS__DEFAULT_COUNTRY));
+    }
+
+    /**
+     * Wie {@link #getNodeXMLMap()}, aber fr ein bestimmtes Land unabhngig von den Einstellungen.
+     * 
+     * @param country Das Land dessen nodes*.xml gelesen werden soll.
+     * @return Eine Map mit allen Beziehungen zwischen Kreuzungsnamen und den Node IDs.
+     * @throws XMLStreamException
+     * @throws FileNotFoundException
+     */
+    public static Map<String, List<String>> getNodeXMLMap(String country) throws XMLStreamException,
+	    FileNotFoundException {
 	XMLInputFactory factory = XMLInputFactory.newInstance();
 	GraphDataStreamReader nodeSR = new GraphDataStreamReader(factory.createXMLStreamReader(new FileInputStream(
-	        XMLFileManager.getExtendedXMLFileName(Constants.XML_NODES))));
+	        XMLFileManager.getExtendedXMLFileName(Constants.XML_NODES, country))));
 
 	Map<String, List<String>> nodeMap = new HashMap<String, List<String>>();
 
@@ -274,12 +324,26 @@ public class StAXMapGraphDataParser {
      * @throws XMLStreamException
      */
     public static Map<String, List<Map<String, String>>> getRouteXMLMap() throws FileNotFoundException,
-	                                                                 XMLStreamException {
+	    XMLStreamException {
+	return getRouteXMLMap(SettingsManager
+	        .getValue(Constants.SETTINGS_COUNTRY, Constants.SETTINGS__DEFAULT_COUNTRY));
+    }
+
+    /**
+     * Wie {@link #getRouteXMLMap()}, aber fr ein bestimmtes Land unabhngig von den Einstellungen.
+     * 
+     * @param country Das Land dessen routes*.xml gelesen werden soll.
+     * @return Eine Map mit allen Infos zu einer Route.
+     * @throws FileNotFoundException
+     * @throws XMLStreamException
+     */
+    public static Map<String, List<Map<String, String>>> getRouteXMLMap(String country)
+	    throws FileNotFoundException, XMLStreamException {
 
 	XMLInputFactory factory = XMLInputFactory.newInstance();
 
 	GraphDataStreamReader routeSR = new GraphDataStreamReader(factory.createXMLStreamReader(new FileInputStream(
-	        XMLFileManager.getExtendedXMLFileName(Constants.XML_ROUTES))));
+	        XMLFileManager.getExtendedXMLFileName(Constants.XML_ROUTES, country))));
 
 	Map<String, List<Map<String, String>>> routes = new HashMap<String, List<Map<String, String>>>();
 
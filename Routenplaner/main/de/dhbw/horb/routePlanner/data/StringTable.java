@@ -0,0 +1,105 @@
+package de.dhbw.horb.routePlanner.data;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tabelle von Strings ohne Duplikate in einem {@link ByteBuffer}, z.B. einer eingeblendeten Datei oder direktem
+ * Speicher auerhalb des Heaps. Die Strings werden ber ihren Index angesprochen und erst beim Zugriff dekodiert.
+ * 
+ * <pre>
+ * int Anzahl, int Bytes, int[Anzahl + 1] Offsets, byte[Bytes] UTF-8
+ * </pre>
+ */
+class StringTable {
+
+    private final ByteBuffer buffer;
+    private final int[] offsets;
+    private final int start;
+
+    private StringTable(ByteBuffer buffer, int[] offsets, int start) {
+	this.buffer = buffer;
+	this.offsets = offsets;
+	this.start = start;
+    }
+
+    /**
+     * Liest eine Tabelle ab der aktuellen Position des Puffers. Die Position steht danach hinter der Tabelle.
+     * 
+     * @param buffer Der Puffer.
+     * @return Die Tabelle, die auf den Puffer verweist.
+     */
+    static StringTable read(ByteBuffer buffer) {
+	int count = buffer.getInt();
+	int byteCount = buffer.getInt();
+	int[] offsets = new int[count + 1];
+	buffer.asIntBuffer().get(offsets);
+	int start = buffer.position() + offsets.length * 4;
+	buffer.position(start + byteCount);
+	return new StringTable(buffer.duplicate(), offsets, start);
+    }
+
+    /**
+     * @return Anzahl der Strings.
+     */
+    int size() {
+	return offsets.length - 1;
+    }
+
+    /**
+     * @param index Der Index des Strings.
+     * @return Der String.
+     */
+    String get(int index) {
+	byte[] bytes = new byte[offsets[index + 1] - offsets[index]];
+	ByteBuffer view = buffer.duplicate();
+	view.position(start + offsets[index]);
+	view.get(bytes);
+	return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sammelt Strings ohne Duplikate und schreibt sie im Format von {@link StringTable#read(ByteBuffer)}.
+     */
+    static class Builder {
+
+	private final Map<String, Integer> indices = new HashMap<String, Integer>();
+	private final List<byte[]> values = new ArrayList<byte[]>();
+	private int byteCount = 0;
+
+	/**
+	 * @param value Der String.
+	 * @return Der Index des Strings, bei schon vorhandenen Strings der bisherige Index.
+	 */
+	int add(String value) {
+	    Integer index = indices.get(value);
+	    if (index == null) {
+		index = values.size();
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		indices.put(value, index);
+		values.add(bytes);
+		byteCount += bytes.length;
+	    }
+	    return index;
+	}
+
+	void write(DataOutputStream out) throws IOException {
+	    out.writeInt(values.size());
+	    out.writeInt(byteCount);
+	    int offset = 0;
+	    out.writeInt(offset);
+	    for (byte[] value : values) {
+		offset += value.length;
+		out.writeInt(offset);
+	    }
+	    for (byte[] value : values)
+		out.write(value);
+	}
+    }
+}
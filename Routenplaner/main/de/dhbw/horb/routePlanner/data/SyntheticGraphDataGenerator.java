@@ -0,0 +1,415 @@
+package de.dhbw.horb.routePlanner.data;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.SupportMethods;
+
+/**
+ * Erzeugt knstliche graphData*.xml Dateien im Format der Overpass API, z.B. fr Lasttests ohne Download. Die Dateien
+ * enthalten Anschlussstellen mit Name und Nummer, Autobahnen und Auffahrten mit maxspeed und ref Tags und knnen wie
+ * heruntergeladene Daten mit {@link StAXMapGraphDataParser} und {@link JDomGraphDataCreator} verarbeitet werden.
+ * <p>
+ * Jede Verbindung zweier Anschlussstellen besteht aus einem Zwischenknoten ohne Namen und zwei Wegen, einem pro
+ * Richtung. Koordinaten und Attribute werden aus dem Startwert und der Nummer des Knotens bzw. der Verbindung
+ * berechnet, es wird also nichts im Speicher gehalten und auch Graphen mit zig Millionen Knoten werden direkt in die
+ * Datei geschrieben. Gleiche Parameter ergeben immer die gleiche Datei.
+ * <p>
+ * Topologien:
+ * <ul>
+ * <li>{@link #TOPOLOGY_GRID}: Gitter, jede Anschlussstelle ist mit ihrem rechten und unteren Nachbarn verbunden.
+ * <li>{@link #TOPOLOGY_GEOMETRIC}: Zufllig verteilte Anschlussstellen, jede ist mit ihren drei nchsten Nachbarn
+ * verbunden. Der Graph ist nicht zwingend zusammenhngend.
+ * <li>{@link #TOPOLOGY_HUB_AND_SPOKE}: Knotenpunkte auf einem Ring mit Querverbindungen, von jedem gehen sechs
+ * Strecken sternfrmig aus.
+ * </ul>
+ */
+public class SyntheticGraphDataGenerator {
+
+    public static final String TOPOLOGY_GRID = "grid";
+    public static final String TOPOLOGY_GEOMETRIC = "geometric";
+    public static final String TOPOLOGY_HUB_AND_SPOKE = "hubs";
+
+    /** Ausdehnung des Gebiets in Grad, ungefhr Europa. */
+    private static final double MIN_LATITUDE = 36.0;
+    private static final double MIN_LONGITUDE = -9.0;
+    private static final double LATITUDE_SPAN = 34.0;
+    private static final double LONGITUDE_SPAN = 45.0;
+
+    /** Die IDs der Zwischenknoten liegen hinter allen Anschlussstellen. */
+    private static final long MIDDLE_NODE_ID = 1L << 40;
+    private static final String[] MAXSPEEDS = { "80", "100", "120", "130", "none" };
+    /** Anteil der Verbindungen im Gitter und zuflligen Graphen, die als Auffahrt getaggt werden. */
+    private static final double LINK_SHARE = 0.1;
+
+    private static final int GEOMETRIC_POINTS_PER_CELL = 4;
+    private static final int GEOMETRIC_NEIGHBOURS = 3;
+    private static final int SPOKES_PER_HUB = 6;
+
+    private final String topology;
+    private final int junctionCount;
+    private final long seed;
+
+    /** Seitenlnge des Gitters, bei {@link #TOPOLOGY_GEOMETRIC} in Zellen. */
+    private final int side;
+    private final int hubCount;
+    private final int spokeLength;
+
+    /**
+     * @param topology {@link #TOPOLOGY_GRID}, {@link #TOPOLOGY_GEOMETRIC} oder {@link #TOPOLOGY_HUB_AND_SPOKE}
+     * @param junctionCount Anzahl der Anschlussstellen, mindestens 2.
+     * @param seed Startwert fr Koordinaten und Attribute.
+     */
+    public SyntheticGraphDataGenerator(String topology, int junctionCount, long seed) {
+	if (junctionCount < 2)
+	    throw new IllegalArgumentException("Mindestens zwei Anschlussstellen: " + junctionCount);
+	this.topology = topology;
+	this.junctionCount = junctionCount;
+	this.seed = seed;
+
+	switch (topology) {
+	case TOPOLOGY_GRID:
+	    side = (int) Math.ceil(Math.sqrt(junctionCount));
+	    hubCount = 0;
+	    spokeLength = 0;
+	    break;
+	case TOPOLOGY_GEOMETRIC:
+	    int cells = (junctionCount + GEOMETRIC_POINTS_PER_CELL - 1) / GEOMETRIC_POINTS_PER_CELL;
+	    side = (int) Math.ceil(Math.sqrt(cells));
+	    hubCount = 0;
+	    spokeLength = 0;
+	    break;
+	case TOPOLOGY_HUB_AND_SPOKE:
+	    side = 0;
+	    hubCount = Math.min(junctionCount, Math.max(3, (int) Math.sqrt(junctionCount) / 10));
+	    int spokeJunctions = junctionCount - hubCount;
+	    spokeLength = Math.max(1, (spokeJunctions + hubCount * SPOKES_PER_HUB - 1) / (hubCount * SPOKES_PER_HUB));
+	    break;
+	default:
+	    throw new IllegalArgumentException("Unbekannte Topologie: " + topology);
+	}
+    }
+
+    /**
+     * Erzeugt eine graphData*.xml fr ein Land.
+     * 
+     * <pre>
+     * java ... SyntheticGraphDataGenerator grid|geometric|hubs Anschlussstellen [Land] [Startwert]
+     * </pre>
+     * 
+     * @param args Topologie, Anzahl der Anschlussstellen, optional das Land (Standard "Synthetic") und der Startwert.
+     * @throws IOException
+     * @throws XMLStreamException
+     */
+    public static void main(String[] args) throws IOException, XMLStreamException {
+	if (args.length < 2 || SupportMethods.parseInt(args[1], -1) < 2) {
+	    System.err.println("Aufruf: SyntheticGraphDataGenerator " + TOPOLOGY_GRID + "|" + TOPOLOGY_GEOMETRIC + "|"
+	            + TOPOLOGY_HUB_AND_SPOKE + " Anschlussstellen [Land] [Startwert]");
+	    System.exit(1);
+	}
+	String country = args.length > 2 ? args[2] : "Synthetic";
+	long seed = args.length > 3 ? SupportMethods.parseLong(args[3], 1L) : 1L;
+	String fileName = XMLFileManager.getExtendedXMLFileName(Constants.XML_GRAPHDATA, country);
+
+	long start = System.currentTimeMillis();
+	new SyntheticGraphDataGenerator(args[0], SupportMethods.parseInt(args[1], -1), seed).write(fileName);
+	System.out.println(fileName + " geschrieben in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Schreibt den Graphen in eine Datei.
+     * 
+     * @param fileName Die Datei, z.B. XMLFileManager.getExtendedXMLFileName(Constants.XML_GRAPHDATA, Land).
+     * @throws IOException
+     * @throws XMLStreamException
+     */
+    public void write(String fileName) throws IOException, XMLStreamException {
+	OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16);
+	try {
+	    write(out);
+	} finally {
+	    out.close();
+	}
+    }
+
+    /**
+     * Schreibt den Graphen in einen Ausgabestrom. Zuerst kommen alle Knoten, dann alle Wege, wie es
+     * {@link StAXMapGraphDataParser#getNodeMap()} erwartet.
+     * 
+     * @param out Der Ausgabestrom, er wird nicht geschlossen.
+     * @throws XMLStreamException
+     */
+    public void write(OutputStream out) throws XMLStreamException {
+	final XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+	writer.writeStartDocument("UTF-8", "1.0");
+	writer.writeCharacters("\n");
+	writer.writeStartElement("osm");
+	writer.writeAttribute("version", "0.6");
+	writer.writeAttribute("generator", getClass().getSimpleName());
+	writer.writeCharacters("\n");
+
+	for (int junction = 0; junction < junctionCount; junction++) {
+	    writer.writeStartElement(Constants.NODE);
+	    writeNodeAttributes(writer, getJunctionID(junction), getLatitude(junction), getLongitude(junction));
+	    writeTag(writer, Constants.NODE_HIGHWAY, Constants.NODE_MOTORWAY_JUNCTION);
+	    writeTag(writer, Constants.NODE_NAME, "Anschlussstelle " + (junction + 1));
+	    writeTag(writer, Constants.NODE_REF, Integer.toString(junction % 100 + 1));
+	    writer.writeEndElement();
+	    writer.writeCharacters("\n");
+	}
+
+	visitConnections(new ConnectionVisitor() {
+	    @Override
+	    public void connection(long connection, int from, int to, boolean link, int road)
+	            throws XMLStreamException {
+		writer.writeEmptyElement(Constants.NODE);
+		writeNodeAttributes(writer, MIDDLE_NODE_ID + connection,
+		        (getLatitude(from) + getLatitude(to)) / 2, (getLongitude(from) + getLongitude(to)) / 2);
+		writer.writeCharacters("\n");
+	    }
+	});
+
+	visitConnections(new ConnectionVisitor() {
+	    @Override
+	    public void connection(long connection, int from, int to, boolean link, int road)
+	            throws XMLStreamException {
+		String maxspeed = MAXSPEEDS[(int) (random(connection, 1) * MAXSPEEDS.length)];
+		writeWay(writer, 2 * connection + 1, from, MIDDLE_NODE_ID + connection, to, link, maxspeed, road);
+		writeWay(writer, 2 * connection + 2, to, MIDDLE_NODE_ID + connection, from, link, maxspeed, road);
+	    }
+	});
+
+	writer.writeEndElement();
+	writer.writeEndDocument();
+	writer.close();
+    }
+
+    private void writeWay(XMLStreamWriter writer, long id, int from, long middle, int to, boolean link,
+	    String maxspeed, int road) throws XMLStreamException {
+	writer.writeStartElement(Constants.WAY);
+	writer.writeAttribute(Constants.WAY_ID, Long.toString(id));
+	writeNodeReference(writer, getJunctionID(from));
+	writeNodeReference(writer, middle);
+	writeNodeReference(writer, getJunctionID(to));
+	writeTag(writer, Constants.WAY_HIGHWAY, link ? Constants.WAY_MOTORWAY_LINK : Constants.WAY_MOTORWAY);
+	writeTag(writer, Constants.WAY_MAXSPEED, maxspeed);
+	if (!link)
+	    writeTag(writer, Constants.WAY_REF, "A " + road);
+	writer.writeEndElement();
+	writer.writeCharacters("\n");
+    }
+
+    private static void writeNodeAttributes(XMLStreamWriter writer, long id, double latitude, double longitude)
+	    throws XMLStreamException {
+	writer.writeAttribute(Constants.NODE_ID, Long.toString(id));
+	writer.writeAttribute(Constants.NODE_LATITUDE, Double.toString(latitude));
+	writer.writeAttribute(Constants.NODE_LONGITUDE, Double.toString(longitude));
+    }
+
+    private static void writeNodeReference(XMLStreamWriter writer, long id) throws XMLStreamException {
+	writer.writeEmptyElement(Constants.WAY_NODE);
+	writer.writeAttribute(Constants.WAY_REF, Long.toString(id));
+    }
+
+    private static void writeTag(XMLStreamWriter writer, String key, String value) throws XMLStreamException {
+	writer.writeEmptyElement(Constants.NODE_TAG);
+	writer.writeAttribute("k", key);
+	writer.writeAttribute("v", value);
+    }
+
+    private static long getJunctionID(int junction) {
+	return junction + 1L;
+    }
+
+    /**
+     * Zufallszahl aus Startwert, Nummer und Kanal (SplitMix64), damit Koordinaten und Attribute jederzeit neu
+     * berechnet werden knnen.
+     * 
+     * @return Wert zwischen 0 (inklusive) und 1 (exklusive).
+     */
+    private double random(long index, int channel) {
+	long z = seed + index * 0x9E3779B97F4A7C15L + channel * 0xD1B54A32D192ED03L;
+	z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+	z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+	z = z ^ (z >>> 31);
+	return (z >>> 11) * 0x1.0p-53;
+    }
+
+    private double getLatitude(int junction) {
+	return MIN_LATITUDE + getY(junction) * LATITUDE_SPAN;
+    }
+
+    private double getLongitude(int junction) {
+	return MIN_LONGITUDE + getX(junction) * LONGITUDE_SPAN;
+    }
+
+    /**
+     * @return Position der Anschlussstelle von West nach Ost zwischen 0 und 1.
+     */
+    private double getX(int junction) {
+	switch (topology) {
+	case TOPOLOGY_GRID:
+	    return (junction % side + 0.5 + (random(junction, 2) - 0.5) * 0.4) / side;
+	case TOPOLOGY_GEOMETRIC:
+	    int cell = junction / GEOMETRIC_POINTS_PER_CELL;
+	    return (cell % side + random(junction, 2)) / side;
+	default:
+	    return 0.5 + getHubOffset(junction, true);
+	}
+    }
+
+    /**
+     * @return Position der Anschlussstelle von Sd nach Nord zwischen 0 und 1.
+     */
+    private double getY(int junction) {
+	switch (topology) {
+	case TOPOLOGY_GRID:
+	    return (junction / side + 0.5 + (random(junction, 3) - 0.5) * 0.4) / side;
+	case TOPOLOGY_GEOMETRIC:
+	    int cell = junction / GEOMETRIC_POINTS_PER_CELL;
+	    return (cell / side + random(junction, 3)) / side;
+	default:
+	    return 0.5 + getHubOffset(junction, false);
+	}
+    }
+
+    /**
+     * Knotenpunkte liegen auf einem Ring, die Anschlussstellen einer Strecke in gleichen Abstnden in Richtung der
+     * Strecke. Alles liegt innerhalb eines Kreises mit Radius 0,5 um die Mitte.
+     */
+    private double getHubOffset(int junction, boolean x) {
+	double hubAngle;
+	double distance = 0;
+	double angle = 0;
+	if (junction < hubCount) {
+	    hubAngle = 2 * Math.PI * junction / hubCount;
+	} else {
+	    int spokeJunction = junction - hubCount;
+	    int hub = spokeJunction / (SPOKES_PER_HUB * spokeLength);
+	    int spoke = spokeJunction / spokeLength % SPOKES_PER_HUB;
+	    hubAngle = 2 * Math.PI * hub / hubCount;
+	    angle = 2 * Math.PI * (spoke + random(junction, 2) * 0.5) / SPOKES_PER_HUB;
+	    // Die Strecken eines Knotenpunkts reichen hchstens bis zur Hlfte des Abstands zum Nachbarn.
+	    double reach = Math.min(0.15, 0.25 * Math.PI / hubCount);
+	    distance = reach * (spokeJunction % spokeLength + 1) / spokeLength;
+	}
+	if (x)
+	    return 0.3 * Math.cos(hubAngle) + distance * Math.cos(angle);
+	return 0.3 * Math.sin(hubAngle) + distance * Math.sin(angle);
+    }
+
+    private interface ConnectionVisitor {
+
+	/**
+	 * @param connection Eindeutige Nummer der Verbindung.
+	 * @param from Erste Anschlussstelle.
+	 * @param to Zweite Anschlussstelle.
+	 * @param link Wahr wenn die Verbindung als Auffahrt getaggt wird.
+	 * @param road Nummer der Autobahn fr den ref Tag.
+	 */
+	void connection(long connection, int from, int to, boolean link, int road) throws XMLStreamException;
+    }
+
+    /**
+     * Zhlt alle Verbindungen der Topologie in immer gleicher Reihenfolge auf.
+     */
+    private void visitConnections(ConnectionVisitor visitor) throws XMLStreamException {
+	switch (topology) {
+	case TOPOLOGY_GRID:
+	    for (int junction = 0; junction < junctionCount; junction++) {
+		int row = junction / side;
+		int column = junction % side;
+		if (column + 1 < side && junction + 1 < junctionCount)
+		    visitor.connection(2L * junction, junction, junction + 1, random(2L * junction, 4) < LINK_SHARE,
+		            row + 1);
+		if (junction + side < junctionCount)
+		    visitor.connection(2L * junction + 1, junction, junction + side,
+		            random(2L * junction + 1, 4) < LINK_SHARE, side + column + 1);
+	    }
+	    break;
+	case TOPOLOGY_GEOMETRIC:
+	    int[] neighbours = new int[GEOMETRIC_NEIGHBOURS];
+	    int[] otherNeighbours = new int[GEOMETRIC_NEIGHBOURS];
+	    for (int junction = 0; junction < junctionCount; junction++) {
+		int count = getNearestNeighbours(junction, neighbours);
+		for (int rank = 0; rank < count; rank++) {
+		    int neighbour = neighbours[rank];
+		    // Jede Verbindung nur einmal: von der kleineren Nummer, auer die grere kommt bei ihr nicht vor.
+		    if (neighbour < junction
+		            && contains(otherNeighbours, getNearestNeighbours(neighbour, otherNeighbours), junction))
+			continue;
+		    long connection = (long) junction * GEOMETRIC_NEIGHBOURS + rank;
+		    visitor.connection(connection, junction, neighbour, random(connection, 4) < LINK_SHARE,
+		            junction / GEOMETRIC_POINTS_PER_CELL / side + 1);
+		}
+	    }
+	    break;
+	default:
+	    for (int hub = 0; hub < hubCount; hub++) {
+		visitor.connection(hub, hub, (hub + 1) % hubCount, false, 1);
+		if (hub < hubCount / 2 && hubCount > 3)
+		    visitor.connection(hubCount + hub, hub, hub + hubCount / 2, false, 2 + hub);
+	    }
+	    for (int junction = hubCount; junction < junctionCount; junction++) {
+		int spokeJunction = junction - hubCount;
+		int position = spokeJunction % spokeLength;
+		int previous = position == 0 ? spokeJunction / (SPOKES_PER_HUB * spokeLength) : junction - 1;
+		visitor.connection(2L * hubCount + spokeJunction, previous, junction, position == 0,
+		        100 + spokeJunction / spokeLength);
+	    }
+	}
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+	for (int i = 0; i < count; i++)
+	    if (values[i] == value)
+		return true;
+	return false;
+    }
+
+    /**
+     * Sucht die nchsten Nachbarn einer Anschlussstelle in ihrer und den acht umliegenden Zellen.
+     * 
+     * @param junction Die Anschlussstelle.
+     * @param neighbours Ergebnis, nach Abstand sortiert.
+     * @return Anzahl der gefundenen Nachbarn.
+     */
+    private int getNearestNeighbours(int junction, int[] neighbours) {
+	double[] distances = new double[neighbours.length];
+	int count = 0;
+	int cell = junction / GEOMETRIC_POINTS_PER_CELL;
+	double x = getX(junction);
+	double y = getY(junction);
+	for (int row = cell / side - 1; row <= cell / side + 1; row++)
+	    for (int column = cell % side - 1; column <= cell % side + 1; column++) {
+		if (row < 0 || column < 0 || column >= side)
+		    continue;
+		int first = (row * side + column) * GEOMETRIC_POINTS_PER_CELL;
+		for (int other = first; other < first + GEOMETRIC_POINTS_PER_CELL && other < junctionCount; other++) {
+		    if (other == junction)
+			continue;
+		    double dx = getX(other) - x;
+		    double dy = getY(other) - y;
+		    double distance = dx * dx + dy * dy;
+		    if (count == neighbours.length && distance >= distances[count - 1])
+			continue;
+		    int position = count < neighbours.length ? count++ : count - 1;
+		    while (position > 0 && distances[position - 1] > distance) {
+			distances[position] = distances[position - 1];
+			neighbours[position] = neighbours[position - 1];
+			position--;
+		    }
+		    distances[position] = distance;
+		    neighbours[position] = other;
+		}
+	    }
+	return count;
+    }
+}
@@ -15,9 +15,11 @@ public class XMLFileManager {
     private RandomAccessFile graphDataXMLRandomAccessFile = null;
     private RandomAccessFile routesXMLRandomAccessFile = null;
     private RandomAccessFile nodesXMLRandomAccessFile = null;
+    private RandomAccessFile graphSnapshotRandomAccessFile = null;
     private FileLock graphDataXMLLock = null;
     private FileLock routesXMLLock = null;
     private FileLock nodesXMLLock = null;
+    private FileLock graphSnapshotLock = null;
 
     public XMLFileManager() {
 
@@ -46,12 +48,39 @@ public class XMLFileManager {
      * @return Den erweiterten Dateinamen.
      */
     public static String getExtendedXMLFileName(String filePath) {
+	return getExtendedXMLFileName(filePath, SettingsManager.getValue(Constants.SETTINGS_COUNTRY,
+	        Constants.SETTINGS__DEFAULT_COUNTRY));
+    }
+
+    /**
+     * Erweitert einen XML Dateinamen mit einer bestimmten Lnderbezeichnung.
+     * 
+     * @param filePath Der XML Dateinamen der erweitert werden soll.
+     * @param country Die Lnderbezeichnung.
+     * @return Den erweiterten Dateinamen.
+     */
+    public static String getExtendedXMLFileName(String filePath, String country) {
+	if ((filePath == null) || filePath.isEmpty())
+	    return null;
+
+	return new StringBuilder(filePath).insert(filePath.indexOf(".xml"), ("_" + country)).toString();
+    }
+
+    /**
+     * Erweitert einen beliebigen Dateinamen vor der Dateiendung mit einer Lnderbezeichnung.
+     * 
+     * @param filePath Der Dateiname der erweitert werden soll.
+     * @param country Die Lnderbezeichnung.
+     * @return Den erweiterten Dateinamen.
+     */
+    public static String getExtendedFileName(String filePath, String country) {
 	if ((filePath == null) || filePath.isEmpty())
 	    return null;
 
-	return new StringBuilder(filePath).insert(filePath.indexOf(".xml"),
-	        ("_" + SettingsManager.getValue(Constants.SETTINGS_COUNTRY, Constants.SETTINGS__DEFAULT_COUNTRY)))
-	        .toString();
+	int extension = filePath.lastIndexOf('.');
+	if (extension < filePath.lastIndexOf(System.getProperty("file.separator")))
+	    extension = filePath.length();
+	return new StringBuilder(filePath).insert(extension, ("_" + country)).toString();
     }
 
     /**
@@ -87,6 +116,20 @@ public class XMLFileManager {
 	this.graphDataXMLLock = this.graphDataXMLRandomAccessFile.getChannel().lock(0, Long.MAX_VALUE, true);
     }
 
+    /**
+     * Sperrt die Momentaufnahme des Graphen ({@link GraphSnapshot}) fr den Zugriff, falls sie schon geschrieben wurde.
+     * 
+     * @throws IOException
+     */
+    public void lockGraphSnapshot() throws IOException {
+	String fileName = GraphSnapshot.getFileName(SettingsManager.getValue(Constants.SETTINGS_COUNTRY,
+	        Constants.SETTINGS__DEFAULT_COUNTRY));
+	if (!fileExists(fileName))
+	    return;
+	this.graphSnapshotRandomAccessFile = new RandomAccessFile(new File(fileName), "r");
+	this.graphSnapshotLock = this.graphSnapshotRandomAccessFile.getChannel().lock(0, Long.MAX_VALUE, true);
+    }
+
     /**
      * Sperrt die Route und Node XML Datei vor Zugriff.
      * 
@@ -105,6 +148,7 @@ public class XMLFileManager {
     public void lockAllXML() throws IOException {
 	lockGraphDataXML();
 	lockRoutesAndNodesXML();
+	lockGraphSnapshot();
     }
 
     /**
@@ -138,6 +182,20 @@ public class XMLFileManager {
 
     }
 
+    /**
+     * Gibt den Zugriff auf die Momentaufnahme des Graphen wieder frei.
+     * 
+     * @throws IOException
+     */
+    public void releaseGraphSnapshot() throws IOException {
+	if (this.graphSnapshotLock != null)
+	    this.graphSnapshotLock.release();
+	if (this.graphSnapshotRandomAccessFile != null)
+	    this.graphSnapshotRandomAccessFile.close();
+	this.graphSnapshotLock = null;
+	this.graphSnapshotRandomAccessFile = null;
+    }
+
     /**
      * Gibt den Zugriff auf die Routes und Nodes XML wieder frei.
      * 
@@ -156,6 +214,7 @@ public class XMLFileManager {
     public void releaseAllXML() throws IOException {
 	releaseGraphDataXML();
 	releaseRoutesAndNodesXML();
+	releaseGraphSnapshot();
     }
 
     @Override
@@ -0,0 +1,131 @@
+package de.dhbw.horb.routePlanner.evaluation;
+
+import java.util.Arrays;
+
+/**
+ * Binrer Min-Heap ber Knoten Indizes mit Decrease-Key. Jeder Knoten ist hchstens einmal enthalten, seine Position im
+ * Heap wird in einem Array nach Knoten Index gemerkt. Einfgen, Verringern und Entnehmen laufen damit in O(log n).
+ */
+public class IndexedMinHeap {
+
+    private final int[] heap;
+    private final double[] priorities;
+    private final int[] positions;
+    private int size;
+
+    /**
+     * @param capacity Anzahl der Knoten im Graphen. Gltige Indizes sind 0 bis capacity - 1.
+     */
+    public IndexedMinHeap(int capacity) {
+	heap = new int[capacity];
+	priorities = new double[capacity];
+	positions = new int[capacity];
+	Arrays.fill(positions, -1);
+    }
+
+    /**
+     * @return true wenn kein Knoten mehr enthalten ist.
+     */
+    public boolean isEmpty() {
+	return size == 0;
+    }
+
+    /**
+     * @return Anzahl der enthaltenen Knoten.
+     */
+    public int size() {
+	return size;
+    }
+
+    /**
+     * @param node Knoten Index
+     * @return true wenn der Knoten im Heap liegt.
+     */
+    public boolean contains(int node) {
+	return positions[node] >= 0;
+    }
+
+    /**
+     * Fgt einen Knoten ein oder verringert seine Prioritt. Ist die neue Prioritt nicht kleiner, passiert nichts.
+     * 
+     * @param node Knoten Index
+     * @param priority Neue Prioritt
+     * @return true wenn der Knoten eingefgt oder verringert wurde.
+     */
+    public boolean insertOrDecrease(int node, double priority) {
+	int position = positions[node];
+	if (position < 0) {
+	    position = size++;
+	} else if (priority >= priorities[node]) {
+	    return false;
+	}
+	priorities[node] = priority;
+	siftUp(position, node);
+	return true;
+    }
+
+    /**
+     * @return Die Prioritt des kleinsten Knotens, ohne ihn zu entnehmen.
+     */
+    public double peekPriority() {
+	return priorities[heap[0]];
+    }
+
+    /**
+     * Entnimmt den Knoten mit der kleinsten Prioritt.
+     * 
+     * @return Knoten Index
+     */
+    public int poll() {
+	int node = heap[0];
+	positions[node] = -1;
+	size--;
+	if (size > 0)
+	    siftDown(0, heap[size]);
+	return node;
+    }
+
+    /**
+     * Leert den Heap. Die Kosten hngen nur von der Anzahl der noch enthaltenen Knoten ab, sodass der Heap fr viele
+     * Suchen wiederverwendet werden kann.
+     */
+    public void clear() {
+	for (int i = 0; i < size; i++)
+	    positions[heap[i]] = -1;
+	size = 0;
+    }
+
+    private void siftUp(int position, int node) {
+	double priority = priorities[node];
+	while (position > 0) {
+	    int parent = (position - 1) >>> 1;
+	    int parentNode = heap[parent];
+	    if (priorities[parentNode] <= priority)
+		break;
+	    heap[position] = parentNode;
+	    positions[parentNode] = position;
+	    position = parent;
+	}
+	heap[position] = node;
+	positions[node] = position;
+    }
+
+    private void siftDown(int position, int node) {
+	double priority = priorities[node];
+	int half = size >>> 1;
+	while (position < half) {
+	    int child = 2 * position + 1;
+	    int right = child + 1;
+	    if (right < size && priorities[heap[right]] < priorities[heap[child]])
+		child = right;
+	    int childNode = heap[child];
+	    if (priority <= priorities[childNode])
+		break;
+	    heap[position] = childNode;
+	    positions[childNode] = position;
+	    position = child;
+	}
+	heap[position] = node;
+	positions[node] = position;
+    }
+}
@@ -0,0 +1,222 @@
+package de.dhbw.horb.routePlanner.evaluation;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+
+/**
+ * Begrenzter Zwischenspeicher fr berechnete Routen, den eine {@link RouteEngine} vor den Algorithmen abfragt. Der
+ * Schlssel besteht aus Start, Ziel, Algorithmus und Art der Auswertung, auch "keine Route gefunden" wird gespeichert.
+ * <p>
+ * Das Gewicht eines Eintrags ist die Anzahl seiner Abschnitte plus eins. bersteigt die Summe das Hchstgewicht,
+ * werden die am lngsten nicht mehr abgefragten Eintrge verworfen (LRU). Alle Zugriffe sind synchronisiert, die
+ * Berechnung selbst luft auerhalb der Sperre. Fragen zwei Threads gleichzeitig dieselbe fehlende Route an, wird sie
+ * daher zweimal berechnet.
+ * <p>
+ * Die Eintrge gehren immer zu genau einem {@link RoadGraph}. Wird der Cache mit einem anderen Graphen abgefragt,
+ * z.B. nach {@link RoadGraph#invalidateAll()} beim Neuerzeugen der XML Dateien oder nach einem Wechsel des Landes,
+ * werden alle Eintrge verworfen.
+ */
+public class RouteCache {
+
+    /** Standard Hchstgewicht, entspricht etwa 100000 gespeicherten Abschnitten. */
+    public static final long DEFAULT_MAX_WEIGHT = 100000;
+
+    private final long maxWeight;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+    private RoadGraph graph;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Schlssel eines Eintrags.
+     */
+    private static final class Key {
+
+	private final String departure;
+	private final String destination;
+	private final String evaluationMethod;
+	private final String calculationMethod;
+	private final int hash;
+
+	Key(String departure, String destination, String evaluationMethod, String calculationMethod) {
+	    this.departure = departure;
+	    this.destination = destination;
+	    this.evaluationMethod = evaluationMethod;
+	    this.calculationMethod = calculationMethod;
+	    int hash = departure.hashCode();
+	    hash = 31 * hash + destination.hashCode();
+	    hash = 31 * hash + evaluationMethod.hashCode();
+	    this.hash = 31 * hash + calculationMethod.hashCode();
+	}
+
+	@Override
+	public int hashCode() {
+	    return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+	    if (this == obj)
+		return true;
+	    if (!(obj instanceof Key))
+		return false;
+	    Key other = (Key) obj;
+	    return hash == other.hash && departure.equals(other.departure) && destination.equals(other.destination)
+	            && evaluationMethod.equals(other.evaluationMethod)
+	            && calculationMethod.equals(other.calculationMethod);
+	}
+    }
+
+    /**
+     * Gespeichertes Ergebnis, result ist null wenn es keine Route gibt.
+     */
+    static final class Entry {
+
+	final RouteResult result;
+	final int weight;
+
+	Entry(RouteResult result) {
+	    this.result = result;
+	    this.weight = result == null ? 1 : result.getEdges().size() + 1;
+	}
+    }
+
+    /**
+     * @param maxWeight Hchstgewicht aller Eintrge, mindestens 1.
+     * @throws IllegalArgumentException Wenn das Hchstgewicht kleiner als 1 ist.
+     */
+    public RouteCache(long maxWeight) {
+	if (maxWeight < 1)
+	    throw new IllegalArgumentException("Ungltiges Hchstgewicht: " + maxWeight);
+	this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Sucht ein gespeichertes Ergebnis und zhlt Treffer und Fehlschlge.
+     * 
+     * @return Der Eintrag oder null, wenn die Route noch nicht berechnet wurde.
+     */
+    synchronized Entry get(RoadGraph graph, String departure, String destination, String evaluationMethod,
+	    String calculationMethod) {
+	checkGraph(graph);
+	Entry entry = entries.get(new Key(departure, destination, evaluationMethod, calculationMethod));
+	if (entry == null)
+	    misses++;
+	else
+	    hits++;
+	return entry;
+    }
+
+    /**
+     * Speichert ein Ergebnis und verwirft so lange die ltesten Eintrge, bis das Hchstgewicht eingehalten ist.
+     * Eintrge, die allein schwerer als das Hchstgewicht sind, werden nicht gespeichert.
+     * 
+     * @param result Die Route oder null, wenn es keine Verbindung gibt.
+     */
+    synchronized void put(RoadGraph graph, String departure, String destination, String evaluationMethod,
+	    String calculationMethod, RouteResult result) {
+	checkGraph(graph);
+	Entry entry = new Entry(result);
+	if (entry.weight > maxWeight)
+	    return;
+	Entry previous = entries.put(new Key(departure, destination, evaluationMethod, calculationMethod), entry);
+	if (previous != null)
+	    weight -= previous.weight;
+	weight += entry.weight;
+
+	Iterator<Entry> eldest = entries.values().iterator();
+	while (weight > maxWeight) {
+	    weight -= eldest.next().weight;
+	    eldest.remove();
+	    evictions++;
+	}
+    }
+
+    private void checkGraph(RoadGraph graph) {
+	if (this.graph != graph) {
+	    if (this.graph != null)
+		invalidate();
+	    this.graph = graph;
+	}
+    }
+
+    /**
+     * Verwirft alle Eintrge, die Statistik bleibt erhalten.
+     */
+    public synchronized void invalidate() {
+	if (!entries.isEmpty())
+	    invalidations++;
+	entries.clear();
+	weight = 0;
+    }
+
+    /**
+     * @return Das Hchstgewicht aller Eintrge.
+     */
+    public long getMaxWeight() {
+	return maxWeight;
+    }
+
+    /**
+     * @return Das aktuelle Gewicht aller Eintrge.
+     */
+    public synchronized long getWeight() {
+	return weight;
+    }
+
+    /**
+     * @return Anzahl der gespeicherten Routen.
+     */
+    public synchronized int size() {
+	return entries.size();
+    }
+
+    /**
+     * @return Anzahl der Abfragen, die aus dem Cache beantwortet wurden.
+     */
+    public synchronized long getHits() {
+	return hits;
+    }
+
+    /**
+     * @return Anzahl der Abfragen, fr die die Route berechnet werden musste.
+     */
+    public synchronized long getMisses() {
+	return misses;
+    }
+
+    /**
+     * @return Anzahl der wegen des Hchstgewichts verworfenen Eintrge.
+     */
+    public synchronized long getEvictions() {
+	return evictions;
+    }
+
+    /**
+     * @return Wie oft alle Eintrge verworfen wurden, z.B. nach neu geladenen Daten.
+     */
+    public synchronized long getInvalidations() {
+	return invalidations;
+    }
+
+    /**
+     * @return Anteil der Treffer an allen Abfragen zwischen 0 und 1, 0 wenn es noch keine Abfrage gab.
+     */
+    public synchronized double getHitRate() {
+	long requests = hits + misses;
+	return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    @Override
+    public synchronized String toString() {
+	return String.format(Locale.ROOT, "RouteCache: %d Routen, Gewicht %d/%d, %d Treffer, %d Fehlschlge (%.1f%%), "
+	        + "%d verdrngt, %d mal verworfen", entries.size(), weight, maxWeight, hits, misses,
+	        getHitRate() * 100.0, evictions, invalidations);
+    }
+}
@@ -0,0 +1,153 @@
+package de.dhbw.horb.routePlanner.evaluation;
+
+import java.util.List;
+import java.util.Map;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.JunctionIndex;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.aStar.AStar;
+import de.dhbw.horb.routePlanner.evaluation.bidirectional.BidirectionalDijkstra;
+import de.dhbw.horb.routePlanner.evaluation.contraction.ContractionHierarchyQuery;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.Dijkstra;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.OneToAllDijkstra;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.ShortestPathTree;
+
+/**
+ * Gemeinsamer Einstieg in alle Algorithmen zur Routenberechnung. Die Engine hlt auer dem unvernderlichen Graphen
+ * keinen Zustand, jeder Aufruf von {@link #calculate(String, String, String, String)} legt seine eigene Suche an und
+ * gibt ein eigenes {@link RouteResult} zurck. Eine Engine kann daher von beliebig vielen Threads gleichzeitig genutzt
+ * werden, z.B. von der GUI, dem {@link de.dhbw.horb.routePlanner.server.RouteServer} und Stapelberechnungen.
+ * <p>
+ * Optional fragt die Engine vor jeder Berechnung einen {@link RouteCache} ab und legt neue Ergebnisse dort ab. Da
+ * {@link RouteResult} unvernderlich ist, knnen gespeicherte Routen an mehrere Aufrufer zurckgegeben werden.
+ */
+public class RouteEngine {
+
+    private final RoadGraph graph;
+    private final RouteCache cache;
+
+    /**
+     * @param graph Der gemeinsam genutzte Graph des Landes.
+     */
+    public RouteEngine(RoadGraph graph) {
+	this(graph, null);
+    }
+
+    /**
+     * @param graph Der gemeinsam genutzte Graph des Landes.
+     * @param cache Zwischenspeicher fr Routen, kann von mehreren Engines geteilt werden. Bei null wird jede Route
+     *            neu berechnet.
+     */
+    public RouteEngine(RoadGraph graph, RouteCache cache) {
+	this.graph = graph;
+	this.cache = cache;
+    }
+
+    /**
+     * @return Der Graph, auf dem gerechnet wird.
+     */
+    public RoadGraph getGraph() {
+	return graph;
+    }
+
+    /**
+     * @return Der Zwischenspeicher fr Routen oder null.
+     */
+    public RouteCache getCache() {
+	return cache;
+    }
+
+    /**
+     * @param evaluationMethod Name eines Algorithmus.
+     * @return Wahr wenn es der Name eines Algorithmus wie Constants.EVALUATION_METHOD_DIJKSTRA ist.
+     */
+    public static boolean isEvaluationMethod(String evaluationMethod) {
+	return Constants.EVALUATION_METHOD_DIJKSTRA.equals(evaluationMethod)
+	        || Constants.EVALUATION_METHOD_ASTAR.equals(evaluationMethod)
+	        || Constants.EVALUATION_METHOD_BIDIRECTIONAL.equals(evaluationMethod)
+	        || Constants.EVALUATION_METHOD_CONTRACTION_HIERARCHIES.equals(evaluationMethod);
+    }
+
+    /**
+     * @param calculationMethod Art der Auswertung.
+     * @return Wahr bei Constants.EVALUATION_CALCULATION_DURATION oder Constants.EVALUATION_CALCULATION_DISTANCE.
+     */
+    public static boolean isCalculationMethod(String calculationMethod) {
+	return Constants.EVALUATION_CALCULATION_DURATION.equals(calculationMethod)
+	        || Constants.EVALUATION_CALCULATION_DISTANCE.equals(calculationMethod);
+    }
+
+    /**
+     * Berechnet eine Route mit dem gewhlten Algorithmus.
+     * 
+     * @param departure Name der Startkreuzung.
+     * @param destination Name der Zielkreuzung.
+     * @param evaluationMethod Berechnungsalgorithmus, z.B. Constants.EVALUATION_METHOD_DIJKSTRA.
+     * @param calculationMethod Art der Auswertung (krzeste/schnellste Route).
+     * @return Die Route oder null, wenn es keine Verbindung gibt.
+     * @throws IllegalArgumentException Bei unbekannten Kreuzungen, Algorithmen oder Auswertungen.
+     */
+    public RouteResult calculate(String departure, String destination, String evaluationMethod,
+	    String calculationMethod) {
+	JunctionIndex junctions = graph.getJunctionIndex();
+	if (!junctions.contains(departure))
+	    throw new IllegalArgumentException("Unbekannte Anschlussstelle: " + departure);
+	if (!junctions.contains(destination))
+	    throw new IllegalArgumentException("Unbekannte Anschlussstelle: " + destination);
+	if (!isCalculationMethod(calculationMethod))
+	    throw new IllegalArgumentException("Unbekannte Auswertung: " + calculationMethod);
+	if (!isEvaluationMethod(evaluationMethod))
+	    throw new IllegalArgumentException("Unbekannter Algorithmus: " + evaluationMethod);
+
+	if (cache == null)
+	    return calculateRoute(departure, destination, evaluationMethod, calculationMethod);
+	RouteCache.Entry cached = cache.get(graph, departure, destination, evaluationMethod, calculationMethod);
+	if (cached != null)
+	    return cached.result;
+	RouteResult result = calculateRoute(departure, destination, evaluationMethod, calculationMethod);
+	cache.put(graph, departure, destination, evaluationMethod, calculationMethod, result);
+	return result;
+    }
+
+    /**
+     * Berechnet alle von einer Kreuzung aus erreichbaren Knoten, optional nur bis zu einem Hchstpreis (Isochrone).
+     * Der Baum wird nicht im {@link RouteCache} gespeichert.
+     * 
+     * @param departure Name der Startkreuzung.
+     * @param calculationMethod Art der Auswertung, in der cutoff angegeben ist.
+     * @param cutoff Hchstpreis in ms bzw. km, Double.POSITIVE_INFINITY fr alle erreichbaren Knoten.
+     * @return Der Krzeste-Wege-Baum.
+     * @throws IllegalArgumentException Bei unbekannten Kreuzungen oder Auswertungen oder negativem Hchstpreis.
+     */
+    public ShortestPathTree calculateTree(String departure, String calculationMethod, double cutoff) {
+	if (!isCalculationMethod(calculationMethod))
+	    throw new IllegalArgumentException("Unbekannte Auswertung: " + calculationMethod);
+	return OneToAllDijkstra.calculateTree(graph, departure, calculationMethod, cutoff);
+    }
+
+    private RouteResult calculateRoute(String departure, String destination, String evaluationMethod,
+	    String calculationMethod) {
+	List<Map<String, String>> route;
+	switch (evaluationMethod) {
+	case Constants.EVALUATION_METHOD_ASTAR:
+	    route = new AStar(departure, destination, graph).calculateWay(calculationMethod);
+	    break;
+	case Constants.EVALUATION_METHOD_DIJKSTRA:
+	    route = new Dijkstra(departure, destination, graph).calculateRoute(calculationMethod);
+	    break;
+	case Constants.EVALUATION_METHOD_BIDIRECTIONAL:
+	    route = new BidirectionalDijkstra(departure, destination, graph).calculateRoute(calculationMethod);
+	    break;
+	case Constants.EVALUATION_METHOD_CONTRACTION_HIERARCHIES:
+	    route = new ContractionHierarchyQuery(departure, destination, graph).calculateRoute(calculationMethod);
+	    break;
+	default:
+	    throw new IllegalArgumentException("Unbekannter Algorithmus: " + evaluationMethod);
+	}
+
+	if (route == null || route.isEmpty())
+	    return null;
+	return new RouteResult(departure, destination, evaluationMethod, calculationMethod, route);
+    }
+}
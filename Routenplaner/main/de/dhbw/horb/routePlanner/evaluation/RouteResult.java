@@ -0,0 +1,161 @@
+package de.dhbw.horb.routePlanner.evaluation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.SupportMethods;
+import de.dhbw.horb.routePlanner.data.EdgeRoute;
+
+/**
+ * Unvernderliches Ergebnis einer Routenberechnung aus {@link RouteEngine}. Jede Berechnung bekommt ihr eigenes
+ * Objekt, es kann ohne Synchronisation an andere Threads, z.B. die GUI, weitergegeben werden.
+ * <p>
+ * Abschnitte ohne Weg IDs oder ohne gltige Strecke und Dauer zhlen wie bisher in der GUI nicht zur Summe und nicht
+ * zu den Weg IDs, Knoten IDs und Namen.
+ */
+public class RouteResult {
+
+    private final String departure;
+    private final String destination;
+    private final String evaluationMethod;
+    private final String calculationMethod;
+    private final double distance;
+    private final double duration;
+    private final List<Map<String, String>> edges;
+    private final List<String> wayIDs;
+    private final List<String> nodeIDs;
+    private final List<String> junctionNames;
+    private final String departureNodeID;
+    private final String destinationNodeID;
+
+    /**
+     * @param route Die Abschnitte der Route, wie sie die Algorithmen zurckgeben. Darf nicht leer sein.
+     */
+    RouteResult(String departure, String destination, String evaluationMethod, String calculationMethod,
+	    List<Map<String, String>> route) {
+	this.departure = departure;
+	this.destination = destination;
+	this.evaluationMethod = evaluationMethod;
+	this.calculationMethod = calculationMethod;
+
+	double distance = 0.0;
+	double duration = 0.0;
+	List<String> wayIDs = new ArrayList<String>();
+	List<String> nodeIDs = new ArrayList<String>(route.size() + 1);
+	List<String> junctionNames = new ArrayList<String>(route.size() + 1);
+	for (Map<String, String> way : route) {
+	    double dist = SupportMethods.parseDouble(way.get(Constants.NEW_ROUTE_DISTANCE), Double.NaN);
+	    double dur = SupportMethods.parseDouble(way.get(Constants.NEW_ROUTE_DURATION), Double.NaN);
+	    List<String> ids = way instanceof EdgeRoute ? ((EdgeRoute) way).getWayIDList() : SupportMethods
+	            .commaStrToStrList(way.get(Constants.NEW_ROUTE_WAYIDS));
+	    if (ids == null || ids.isEmpty() || Double.isNaN(dist) || Double.isNaN(dur))
+		continue;
+
+	    wayIDs.addAll(ids);
+	    nodeIDs.add(way.get(Constants.NEW_ROUTE_DEPARTURENODEID));
+	    junctionNames.add(way.get(Constants.NEW_ROUTE_DEPARTURENODENAME));
+	    distance += dist;
+	    duration += dur;
+	}
+	Map<String, String> last = route.get(route.size() - 1);
+	nodeIDs.add(last.get(Constants.NEW_ROUTE_DESTINATIONNODEID));
+	junctionNames.add(last.get(Constants.NEW_ROUTE_DESTINATIONNODENAME));
+
+	this.distance = distance;
+	this.duration = duration;
+	this.edges = Collections.unmodifiableList(new ArrayList<Map<String, String>>(route));
+	this.wayIDs = Collections.unmodifiableList(wayIDs);
+	this.nodeIDs = Collections.unmodifiableList(nodeIDs);
+	this.junctionNames = Collections.unmodifiableList(junctionNames);
+	this.departureNodeID = route.get(0).get(Constants.NEW_ROUTE_DEPARTURENODEID);
+	this.destinationNodeID = last.get(Constants.NEW_ROUTE_DESTINATIONNODEID);
+    }
+
+    /**
+     * @return Name der Startkreuzung.
+     */
+    public String getDeparture() {
+	return departure;
+    }
+
+    /**
+     * @return Name der Zielkreuzung.
+     */
+    public String getDestination() {
+	return destination;
+    }
+
+    /**
+     * @return Der verwendete Algorithmus, z.B. Constants.EVALUATION_METHOD_DIJKSTRA.
+     */
+    public String getEvaluationMethod() {
+	return evaluationMethod;
+    }
+
+    /**
+     * @return Constants.EVALUATION_CALCULATION_DURATION oder Constants.EVALUATION_CALCULATION_DISTANCE.
+     */
+    public String getCalculationMethod() {
+	return calculationMethod;
+    }
+
+    /**
+     * @return Strecke der Route in km.
+     */
+    public double getDistance() {
+	return distance;
+    }
+
+    /**
+     * @return Dauer der Route in ms.
+     */
+    public double getDuration() {
+	return duration;
+    }
+
+    /**
+     * @return Die Abschnitte der Route in Fahrtrichtung, jeder wie eine Route aus
+     *         {@link de.dhbw.horb.routePlanner.data.StAXMapGraphDataParser#getRouteXMLMap()}.
+     */
+    public List<Map<String, String>> getEdges() {
+	return edges;
+    }
+
+    /**
+     * @return Die IDs aller Wege der Route in Fahrtrichtung.
+     */
+    public List<String> getWayIDs() {
+	return wayIDs;
+    }
+
+    /**
+     * @return Die Knoten IDs der durchfahrenen Anschlussstellen, vom Start bis zum Ziel.
+     */
+    public List<String> getNodeIDs() {
+	return nodeIDs;
+    }
+
+    /**
+     * @return Die Namen der durchfahrenen Anschlussstellen, vom Start bis zum Ziel.
+     */
+    public List<String> getJunctionNames() {
+	return junctionNames;
+    }
+
+    /**
+     * @return Knoten ID, an der die Route beginnt.
+     */
+    public String getDepartureNodeID() {
+	return departureNodeID;
+    }
+
+    /**
+     * @return Knoten ID, an der die Route endet.
+     */
+    public String getDestinationNodeID() {
+	return destinationNodeID;
+    }
+}
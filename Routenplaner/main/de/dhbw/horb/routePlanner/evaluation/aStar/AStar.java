@@ -1,8 +1,7 @@
 package de.dhbw.horb.routePlanner.evaluation.aStar;
 
 import java.io.FileNotFoundException;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -10,71 +9,118 @@ import java.util.Map;
 import javax.xml.stream.XMLStreamException;
 
 import de.dhbw.horb.routePlanner.Constants;
-import de.dhbw.horb.routePlanner.SupportMethods;
-import de.dhbw.horb.routePlanner.data.StAXMapGraphDataParser;
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.NodeCoordinates;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.IndexedMinHeap;
 
 /**
- * Berechnung der Route mit dem AStar Algorithmus. Da auf Heuristik verzichtet wurde handelt es sich mehr um das
- * aufbauen eines minimalen Spannbaums mit Kantenbewertung.
+ * Berechnung der Route mit dem AStar Algorithmus. Als Heuristik dient das Maximum aus der ALT Schranke der
+ * {@link LandmarkTable} und der Luftlinie zum Zielknoten, bei der Berechnung nach Dauer geteilt durch die hchste
+ * Geschwindigkeit im Graphen. Bei mehreren Zielknoten zhlt der kleinste Wert. Alle Schtzungen sind nie grer als
+ * die tatschlichen Kosten, die gefundene Route ist also optimal. Gerechnet wird auf den int Indizes des
+ * {@link CompactRouteGraph}, jeder Thread verwendet seine Sucharrays wieder.
  */
 public class AStar {
     /**
-     * enum fr die Unterscheidung zwischen offener und geschlossener Liste.
+     * Zustand eines Knotens: noch nicht gesehen, in der offenen oder in der geschlossenen Liste.
      */
-    private enum ListType {
-	open, closed
+    private static final byte UNSEEN = 0;
+    private static final byte OPEN = 1;
+    private static final byte CLOSED = 2;
+
+    /**
+     * Luftlinie und Kantenstrecken werden unterschiedlich gerundet und summiert, die Schtzung wird deshalb minimal
+     * verkleinert.
+     */
+    private static final double HEURISTIC_TOLERANCE = 0.9999;
+
+    /**
+     * Sucharrays eines Threads. Nach jeder Suche werden nur die vernderten Eintrge zurckgesetzt, sodass eine Anfrage
+     * nicht proportional zur Gre des Graphen kostet.
+     */
+    private static class SearchSpace {
+	final byte[] listType;
+	final double[] weightBack;
+	final double[] estimate;
+	final int[] predecessorEdge;
+	final int[] predecessorNode;
+	final boolean[] destinations;
+	final int[] touchedNodes;
+	int touchedCount;
+	final IndexedMinHeap openList;
+
+	SearchSpace(int nodeCount) {
+	    listType = new byte[nodeCount];
+	    weightBack = new double[nodeCount];
+	    estimate = new double[nodeCount];
+	    predecessorEdge = new int[nodeCount];
+	    predecessorNode = new int[nodeCount];
+	    destinations = new boolean[nodeCount];
+	    touchedNodes = new int[nodeCount];
+	    openList = new IndexedMinHeap(nodeCount);
+	    Arrays.fill(predecessorEdge, -1);
+	    Arrays.fill(predecessorNode, -1);
+	}
+
+	void touch(int node) {
+	    if (listType[node] == UNSEEN)
+		touchedNodes[touchedCount++] = node;
+	}
+
+	void reset(int[] destinationIDs) {
+	    for (int i = 0; i < touchedCount; i++) {
+		int node = touchedNodes[i];
+		listType[node] = UNSEEN;
+		weightBack[node] = 0.0;
+		predecessorEdge[node] = -1;
+		predecessorNode[node] = -1;
+	    }
+	    for (int desID : destinationIDs)
+		destinations[desID] = false;
+	    touchedCount = 0;
+	    openList.clear();
+	}
     }
 
-    private Map<String, List<Map<String, String>>> routes;
-    private Map<String, List<String>> nodeMap;
+    private static final ThreadLocal<SearchSpace> searchSpaces = new ThreadLocal<SearchSpace>();
 
-    private Map<String, String> openEdgesPredecessor;
-    private Map<String, Map<String, String>> openEdgesRoute;
-    private Map<String, Double> openEdgesWeight;
-    private Map<String, String> closedEdgesPredecessor;
-    private Map<String, Map<String, String>> closedEdgesRoute;
-    private Map<String, Double> closedEdgesWeight;
-    private HashSet<String> departureIDs;
-    private HashSet<String> destinationIDs;
-    private String calculateMethod;
+    private RoadGraph roadGraph;
+    private CompactRouteGraph graph;
+    private int[] departureIDs;
+    private int[] destinationIDs;
+    private double[] edgeWeights;
+
+    private String calculationMethod;
+    private NodeCoordinates coordinates;
+    private LandmarkTable landmarks;
+    private double heuristicFactor;
+    private int closedCount;
 
     /**
      * AStar Routenberechnung
      * 
      * @param departure Name des Anfangs
      * @param destination Name des Ziels
+     * @throws FileNotFoundException
+     * @throws XMLStreamException
      */
-    public AStar(String departure, String destination) {
-	openEdgesPredecessor = new HashMap<String, String>();
-	openEdgesRoute = new HashMap<String, Map<String, String>>();
-	openEdgesWeight = new HashMap<String, Double>();
-	closedEdgesPredecessor = new HashMap<String, String>();
-	closedEdgesRoute = new HashMap<String, Map<String, String>>();
-	closedEdgesWeight = new HashMap<String, Double>();
-	try {
-	    routes = StAXMapGraphDataParser.getRouteXMLMap();
-	    nodeMap = StAXMapGraphDataParser.getNodeXMLMap();
-	} catch (FileNotFoundException | XMLStreamException e) {
-	    e.printStackTrace();
-	}
-
-	departureIDs = new HashSet<String>();
-	List<String> depIDs = nodeMap.get(departure);
-	if (depIDs == null || depIDs.isEmpty())
-	    return;
-
-	for (String id : depIDs) {
-	    departureIDs.add(id);
-	}
-
-	destinationIDs = new HashSet<String>();
-	List<String> desIDs = nodeMap.get(destination);
-	if (desIDs == null || desIDs.isEmpty())
-	    return;
+    public AStar(String departure, String destination) throws FileNotFoundException, XMLStreamException {
+	this(departure, destination, RoadGraph.getInstance());
+    }
 
-	for (String id : desIDs) {
-	    destinationIDs.add(id);
-	}
+    /**
+     * AStar Routenberechnung auf einem bereits geladenen Graphen.
+     * 
+     * @param departure Name des Anfangs
+     * @param destination Name des Ziels
+     * @param graph Der gemeinsam genutzte Graph des Landes
+     */
+    public AStar(String departure, String destination, RoadGraph graph) {
+	this.roadGraph = graph;
+	this.graph = graph.getCompactGraph();
+	departureIDs = graph.getJunctionIndex().getNodes(departure);
+	destinationIDs = graph.getJunctionIndex().getNodes(destination);
     }
 
     /**
@@ -84,264 +130,144 @@ public class AStar {
      * @return Liste mit Wegen der richtigen Route
      */
     public List<Map<String, String>> calculateWay(String calculateMethod) {
-	if (destinationIDs == null || departureIDs == null || destinationIDs.isEmpty() || departureIDs.isEmpty()) {
+	if (destinationIDs.length == 0 || departureIDs.length == 0) {
 	    System.err.println("No IDs for departure or destination.");
 	    return null;
 	}
 
-	this.calculateMethod = calculateMethod;
-	for (String depID : departureIDs) {
-	    closedEdgesPredecessor.put(depID, depID);
-	    closedEdgesRoute.put(depID, null);
-	    closedEdgesWeight.put(depID, 0.0);
-	    addNeighbourToOpenList(depID);
+	edgeWeights = graph.getEdgeWeights(calculateMethod);
+	initializeHeuristic(calculateMethod);
+	closedCount = 0;
+	SearchSpace space = searchSpaces.get();
+	if (space == null || space.listType.length != graph.getNodeCount()) {
+	    space = new SearchSpace(graph.getNodeCount());
+	    searchSpaces.set(space);
 	}
-	findDestination();
 
-	String destinationID = null;
-	Double wCache = null;
-	for (String desID : destinationIDs) {
-	    Double w = getWeightBack(desID);
-	    if (w != null && (wCache == null || w < wCache)) {
-		wCache = w;
-		destinationID = desID;
+	try {
+	    for (int depID : departureIDs) {
+		space.touch(depID);
+		space.listType[depID] = CLOSED;
+	    }
+	    for (int depID : departureIDs)
+		addNeighbourToOpenList(space, depID);
+	    findDestination(space);
+
+	    int destinationID = -1;
+	    for (int desID : destinationIDs)
+		if (space.listType[desID] == CLOSED && space.predecessorEdge[desID] >= 0
+		        && (destinationID < 0 || space.weightBack[desID] < space.weightBack[destinationID]))
+		    destinationID = desID;
+
+	    if (destinationID < 0) {
+		System.err.println("AStar couldn't find a way to destination.");
+		return null;
 	    }
-	}
 
-	if (destinationID == null) {
-	    System.err.println("AStar couldn't find a way to destination.");
-	    return null;
+	    return getWays(space, destinationID);
+	} finally {
+	    space.reset(destinationIDs);
 	}
-
-	return getWays(destinationID);
     }
 
     /**
-     * Erzeugt eine Liste von Wegen (Von Blatt zu Wurzel).
-     * 
-     * @param destination Das Ziel
-     * @return Liste der Wege von Ziel zum Anfang
+     * @return Anzahl der Knoten, die bei der letzten Berechnung in die geschlossene Liste kamen.
      */
-    private List<Map<String, String>> getWays(String destination) {
-	List<Map<String, String>> nodes = new LinkedList<Map<String, String>>();
-	Map<String, String> mp = closedEdgesRoute.get(destination);
-
-	if (mp != null) {
-	    String newDestination = closedEdgesPredecessor.get(destination);
-
-	    if (newDestination != null) {
-
-		if (departureIDs.contains(newDestination)) {
-		    nodes.add(mp);
-		    return nodes;
-		} else {
-		    nodes = getWays(newDestination);
-		    nodes.add(mp);
-		}
-	    }
-	}
-
-	if (nodes != null && !nodes.isEmpty())
-	    return nodes;
-	return null;
+    public int getClosedCount() {
+	return closedCount;
     }
 
     /**
-     * Gibt das Gewicht zurck von einem Ziel bis zum Anfang (Von Blatt zu Wurzel).
+     * Legt den Faktor fest, mit dem die Luftlinie in km in eine Schtzung der Kosten umgerechnet wird.
      * 
-     * @param destination Das Ziel
-     * @return Gewicht (Zeit oder Strecke)
-     */
-    private Double getWeightBack(String destination) {
-	Double w = null;
-	String newDestination = closedEdgesPredecessor.get(destination);
-	Double newWeight = closedEdgesWeight.get(destination);
-
-	if (newDestination != null && newWeight != null) {
-
-	    if (departureIDs.contains(newDestination))
-		return newWeight;
-
-	    w = getWeightBack(newDestination) + newWeight;
-	}
-	return w;
-    }
-
-    /**
-     * Rekursives untersuchen der offenen Kanten bis das Ziel erreicht ist.
+     * @param calculateMethod Berechnungsmethode (Zeit oder Strecke)
      */
-    private void findDestination() {
-	String smallest = getSmallest();
-	if (smallest != null) {
-	    Map<String, String> mp = openEdgesRoute.get(smallest);
-
-	    removeEdge(ListType.open, mp);
-	    addEdge(ListType.closed, mp);
-	    addNeighbourToOpenList(mp.get(Constants.NEW_ROUTE_DESTINATIONNODEID));
-
-	    if (!openEdgesRoute.isEmpty())
-		findDestination();
+    private void initializeHeuristic(String calculateMethod) {
+	calculationMethod = calculateMethod;
+	coordinates = roadGraph.getNodeCoordinates();
+	landmarks = roadGraph.getLandmarks();
+	if (Constants.EVALUATION_CALCULATION_DISTANCE.equals(calculateMethod)) {
+	    heuristicFactor = HEURISTIC_TOLERANCE;
+	} else {
+	    double maxSpeed = graph.getMaxEdgeSpeed();
+	    if (maxSpeed > 0.0 && !Double.isInfinite(maxSpeed))
+		heuristicFactor = HEURISTIC_TOLERANCE / maxSpeed;
+	    else
+		heuristicFactor = 0.0;
 	}
     }
 
     /**
-     * Hinzufgen der Nachbarn zu einer ID
+     * Schtzt die Kosten von einem Knoten bis zum nchsten Zielknoten.
      * 
-     * @param id Knoten ID
+     * @param id Knoten Index
+     * @return Die Schtzung, 0 wenn weder Landmarken noch Koordinaten etwas beitragen.
      */
-    private void addNeighbourToOpenList(String id) {
-	List<Map<String, String>> r = routes.get(id);
-	if (r == null || r.isEmpty()) {
-	    return;
-	}
-	for (Map<String, String> edge : r) {
-
-	    if (edge == null)
-		continue;
-
-	    if (closedEdgesPredecessor.containsKey(edge.get(Constants.NEW_ROUTE_DESTINATIONNODEID)))
-		continue;
-
-	    if (openEdgesPredecessor.containsKey(edge.get(Constants.NEW_ROUTE_DESTINATIONNODEID))) {
-		Double newWeight = getWeight(edge);
-		Double newWeightBack = getWeightBack(edge.get(Constants.NEW_ROUTE_DEPARTURENODEID));
-
-		if (newWeightBack == null || newWeight == null)
-		    continue;
-
-		Double oldWeight = openEdgesWeight.get(edge.get(Constants.NEW_ROUTE_DESTINATIONNODEID));
-		Double oldWeightBack = getWeightBack(openEdgesPredecessor.get(edge
-		        .get(Constants.NEW_ROUTE_DESTINATIONNODEID)));
-
-		if (oldWeightBack == null || oldWeight == null)
-		    System.err.println("addNeighbourToOpenList() OldWeight Fehler");
-
-		if ((newWeight + newWeightBack) > (oldWeight + oldWeightBack))
-		    continue;
-
-		removeEdge(ListType.open, openEdgesRoute.get(edge.get(Constants.NEW_ROUTE_DESTINATIONNODEID)));
-	    }
-	    addEdge(ListType.open, edge);
+    private double getHeuristic(int id) {
+	double estimate = Double.POSITIVE_INFINITY;
+	for (int desID : destinationIDs) {
+	    double bound = landmarks.getLowerBound(id, desID, calculationMethod);
+	    if (heuristicFactor > 0.0 && coordinates.hasCoordinates(id) && coordinates.hasCoordinates(desID))
+		bound = Math.max(bound, coordinates.getDistanceInKM(id, desID) * heuristicFactor);
+	    estimate = Math.min(estimate, bound);
 	}
+	return estimate;
     }
 
     /**
-     * Das Gewicht entsprechend der Berechnungsmethode zurckgeben.
+     * Erzeugt eine Liste von Wegen (Von Blatt zu Wurzel).
      * 
-     * @param edge Die Kante
-     * @return Das Gewicht (Zeit oder Strecke)
+     * @param destination Das Ziel
+     * @return Liste der Wege vom Anfang zum Ziel
      */
-    private Double getWeight(Map<String, String> edge) {
-	String w;
-	switch (calculateMethod) {
-	case Constants.NEW_ROUTE_DISTANCE:
-	    w = edge.get(Constants.NEW_ROUTE_DISTANCE);
-	    break;
-	case Constants.NEW_ROUTE_DURATION:
-	    w = edge.get(Constants.NEW_ROUTE_DURATION);
-	    break;
-	default:
-	    w = edge.get(Constants.NEW_ROUTE_DURATION);
-	}
-	if (!SupportMethods.isNumeric(w))
-	    return null;
-	return Double.valueOf(w);
+    private List<Map<String, String>> getWays(SearchSpace space, int destination) {
+	LinkedList<Map<String, String>> ways = new LinkedList<Map<String, String>>();
+	for (int node = destination; space.predecessorEdge[node] >= 0; node = space.predecessorNode[node])
+	    ways.addFirst(graph.getEdgeRoute(space.predecessorEdge[node]));
+	return ways;
     }
 
     /**
-     * Fge eine Kante zur geschlossenen oder offenen Liste hinzu
-     * 
-     * @param t Listen Art (offen oder geschlossen)
-     * @param edge Die Kante
+     * Untersuchen der offenen Kanten bis das Ziel erreicht ist.
      */
-    private void addEdge(ListType t, Map<String, String> edge) {
-	if (edge == null || edge.isEmpty())
-	    return;
-	String destinationID = edge.get(Constants.NEW_ROUTE_DESTINATIONNODEID);
-
-	Double weight = getWeight(edge);
-
-	if (weight == null || destinationID == null)
-	    return;
-
-	switch (t) {
-	case open:
-	    openEdgesRoute.put(destinationID, edge);
-	    openEdgesPredecessor.put(destinationID, edge.get(Constants.NEW_ROUTE_DEPARTURENODEID));
-	    openEdgesWeight.put(destinationID, weight);
-	    break;
-
-	case closed:
-	    closedEdgesRoute.put(destinationID, edge);
-	    closedEdgesPredecessor.put(destinationID, edge.get(Constants.NEW_ROUTE_DEPARTURENODEID));
-	    closedEdgesWeight.put(destinationID, weight);
-	    break;
-
-	default:
-	    break;
+    private void findDestination(SearchSpace space) {
+	for (int desID : destinationIDs)
+	    space.destinations[desID] = true;
+
+	while (!space.openList.isEmpty()) {
+	    int smallest = space.openList.poll();
+	    space.listType[smallest] = CLOSED;
+	    closedCount++;
+	    if (space.destinations[smallest])
+		return;
+	    addNeighbourToOpenList(space, smallest);
 	}
     }
 
     /**
-     * gibt die mit gesamt Weg kleinste Kante zurck.
+     * Hinzufgen der Nachbarn zu einer ID
      * 
-     * @return Die Kante
+     * @param id Knoten Index
      */
-    private String getSmallest() {
-	String key = null;
-	Double value = null;
-
-	for (Map.Entry<String, Double> entry : openEdgesWeight.entrySet()) {
-	    String iKey = entry.getKey();
-	    Double iValue = entry.getValue();
-
-	    if (iKey == null || iValue == null)
+    private void addNeighbourToOpenList(SearchSpace space, int id) {
+	for (int edge = graph.getEdgeStart(id); edge < graph.getEdgeEnd(id); edge++) {
+	    int destinationID = graph.getEdgeTarget(edge);
+	    if (space.listType[destinationID] == CLOSED)
 		continue;
 
-	    Double wb = getWeightBack(openEdgesPredecessor.get(iKey));
-	    if (wb == null)
+	    double newWeight = space.weightBack[id] + edgeWeights[edge];
+	    if (space.listType[destinationID] == OPEN && newWeight >= space.weightBack[destinationID])
 		continue;
-	    Double newValue = wb + iValue;
 
-	    if (value == null || newValue <= value) {
-		key = iKey;
-		value = newValue;
+	    if (space.listType[destinationID] == UNSEEN) {
+		space.touch(destinationID);
+		space.estimate[destinationID] = getHeuristic(destinationID);
+		space.listType[destinationID] = OPEN;
 	    }
-	}
-	return key;
-    }
-
-    /**
-     * Lsche eine Kante aus einer Liste.
-     * 
-     * @param t Listen Art (offen oder geschlossen)
-     * @param edge Die Kante
-     * @return
-     */
-    private Map<String, String> removeEdge(ListType t, Map<String, String> edge) {
-	if (edge == null || edge.isEmpty())
-	    return null;
-	String destinationID = edge.get(Constants.NEW_ROUTE_DESTINATIONNODEID);
-
-	switch (t) {
-	case open:
-	    if (openEdgesRoute == null || openEdgesRoute.isEmpty() || !openEdgesRoute.containsKey(destinationID))
-		return null;
-
-	    openEdgesPredecessor.remove(destinationID);
-	    openEdgesWeight.remove(destinationID);
-	    return openEdgesRoute.remove(destinationID);
-
-	case closed:
-	    if (closedEdgesRoute == null || closedEdgesRoute.isEmpty() || !closedEdgesRoute.containsKey(destinationID))
-		return null;
-
-	    closedEdgesPredecessor.remove(destinationID);
-	    closedEdgesWeight.remove(destinationID);
-	    return closedEdgesRoute.remove(destinationID);
-
-	default:
-	    return null;
+	    space.weightBack[destinationID] = newWeight;
+	    space.predecessorEdge[destinationID] = edge;
+	    space.predecessorNode[destinationID] = id;
+	    space.openList.insertOrDecrease(destinationID, newWeight + space.estimate[destinationID]);
 	}
     }
 }
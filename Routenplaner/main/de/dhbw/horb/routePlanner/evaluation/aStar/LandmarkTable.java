@@ -0,0 +1,282 @@
+package de.dhbw.horb.routePlanner.evaluation.aStar;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.data.XMLFileManager;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.OneToAllDijkstra;
+
+/**
+ * Landmarken fr die ALT Heuristik (A*, Landmarken, Dreiecksungleichung). Fr wenige, mglichst weit verteilte
+ * Knoten L werden die Preise von L zu allen Knoten und von allen Knoten zu L vorberechnet, jeweils fr Dauer und
+ * Strecke. Fr einen Knoten v und ein Ziel t gilt dann d(v,t) >= d(L,t) - d(L,v) und d(v,t) >= d(v,L) - d(t,L).
+ */
+public class LandmarkTable {
+
+    /**
+     * Standardanzahl der Landmarken.
+     */
+    public static final int DEFAULT_LANDMARK_COUNT = 16;
+
+    private static final int FILE_MAGIC = 0x52504c4d;
+    private static final int FILE_VERSION = 1;
+    private static final int DURATION = 0;
+    private static final int DISTANCE = 1;
+
+    private final long fingerprint;
+    private final int[] landmarks;
+    /**
+     * Preise nach [Berechnungsmethode][Landmarke][Knoten Index], gespeichert als float.
+     */
+    private final float[][][] fromLandmark;
+    private final float[][][] toLandmark;
+    /**
+     * Maximaler Rundungsfehler durch die float Speicherung, wird von jeder Schtzung abgezogen.
+     */
+    private final double[] slack;
+
+    private LandmarkTable(long fingerprint, int[] landmarks, float[][][] fromLandmark, float[][][] toLandmark) {
+	this.fingerprint = fingerprint;
+	this.landmarks = landmarks;
+	this.fromLandmark = fromLandmark;
+	this.toLandmark = toLandmark;
+
+	slack = new double[2];
+	for (int metric = 0; metric < 2; metric++) {
+	    float max = 0.0f;
+	    for (float[][] table : new float[][][] { fromLandmark[metric], toLandmark[metric] })
+		for (float[] prices : table)
+		    for (float price : prices)
+			if (!Float.isInfinite(price))
+			    max = Math.max(max, price);
+	    slack[metric] = 2.0 * Math.ulp(max);
+	}
+    }
+
+    /**
+     * Whlt die Landmarken nach dem Prinzip des entferntesten Punktes: Jede neue Landmarke ist der erreichbare Knoten
+     * mit der grten Strecke zur nchsten bereits gewhlten Landmarke.
+     * 
+     * @param graph Der Graph.
+     * @param landmarkCount Gewnschte Anzahl der Landmarken.
+     * @return Die berechnete Tabelle.
+     */
+    public static LandmarkTable create(CompactRouteGraph graph, int landmarkCount) {
+	int nodeCount = graph.getNodeCount();
+	landmarkCount = Math.min(landmarkCount, nodeCount);
+	double[] distances = graph.getEdgeWeights(Constants.EVALUATION_CALCULATION_DISTANCE);
+
+	int[] landmarks = new int[landmarkCount];
+	double[] nearest = new double[nodeCount];
+	Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+	int count = 0;
+	int candidate = -1;
+	if (nodeCount > 0) {
+	    candidate = getFarthest(OneToAllDijkstra.calculatePrices(graph, new int[] { 0 }, distances, false),
+	            landmarks, 0);
+	    if (candidate < 0)
+		candidate = 0;
+	}
+	while (count < landmarkCount && candidate >= 0) {
+	    landmarks[count++] = candidate;
+	    double[] prices = OneToAllDijkstra.calculatePrices(graph, new int[] { candidate }, distances, false);
+	    for (int node = 0; node < nodeCount; node++)
+		nearest[node] = Math.min(nearest[node], prices[node]);
+	    candidate = getFarthest(nearest, landmarks, count);
+	}
+	landmarks = Arrays.copyOf(landmarks, count);
+
+	float[][][] fromLandmark = new float[2][count][];
+	float[][][] toLandmark = new float[2][count][];
+	for (int metric = 0; metric < 2; metric++) {
+	    double[] weights = graph.getEdgeWeights(metric == DISTANCE ? Constants.EVALUATION_CALCULATION_DISTANCE
+	            : Constants.EVALUATION_CALCULATION_DURATION);
+	    for (int i = 0; i < count; i++) {
+		int[] source = new int[] { landmarks[i] };
+		fromLandmark[metric][i] = toFloat(OneToAllDijkstra.calculatePrices(graph, source, weights, false));
+		toLandmark[metric][i] = toFloat(OneToAllDijkstra.calculatePrices(graph, source, weights, true));
+	    }
+	}
+	return new LandmarkTable(getFingerprint(graph), landmarks, fromLandmark, toLandmark);
+    }
+
+    private static int getFarthest(double[] prices, int[] landmarks, int landmarkCount) {
+	int farthest = -1;
+	for (int node = 0; node < prices.length; node++) {
+	    if (Double.isInfinite(prices[node]) || prices[node] <= 0.0)
+		continue;
+	    boolean used = false;
+	    for (int i = 0; i < landmarkCount; i++)
+		used |= landmarks[i] == node;
+	    if (!used && (farthest < 0 || prices[node] > prices[farthest]))
+		farthest = node;
+	}
+	return farthest;
+    }
+
+    private static float[] toFloat(double[] prices) {
+	float[] result = new float[prices.length];
+	for (int i = 0; i < prices.length; i++)
+	    result[i] = (float) prices[i];
+	return result;
+    }
+
+    private static long getFingerprint(CompactRouteGraph graph) {
+	return 31 * graph.getFingerprint(Constants.EVALUATION_CALCULATION_DURATION)
+	        + graph.getFingerprint(Constants.EVALUATION_CALCULATION_DISTANCE);
+    }
+
+    /**
+     * @param country Das Land.
+     * @return Der Dateiname der Landmarken eines Landes, neben der routes*.xml.
+     */
+    public static String getFileName(String country) {
+	return XMLFileManager.getExtendedFileName(Constants.ALT_LANDMARKS, country);
+    }
+
+    /**
+     * Ldt die Landmarken aus ihrer Datei. Fehlt die Datei, ist sie beschdigt oder passt sie nicht mehr zu den
+     * Routen, werden sie neu berechnet und gespeichert.
+     * 
+     * @param graph Der Graph des Landes.
+     * @return Die Landmarken.
+     */
+    public static LandmarkTable loadOrCreate(RoadGraph graph) {
+	String fileName = getFileName(graph.getCountry());
+	if (XMLFileManager.fileExists(fileName)) {
+	    try {
+		LandmarkTable table = load(fileName, graph.getCompactGraph());
+		if (table != null)
+		    return table;
+	    } catch (IOException | RuntimeException e) {
+		e.printStackTrace();
+	    }
+	}
+
+	LandmarkTable table = create(graph.getCompactGraph(), DEFAULT_LANDMARK_COUNT);
+	try {
+	    table.save(fileName);
+	} catch (IOException e) {
+	    e.printStackTrace();
+	}
+	return table;
+    }
+
+    /**
+     * Liest Landmarken aus einer Datei.
+     * 
+     * @param fileName Die Datei.
+     * @param graph Der Graph zu dem die Landmarken gehren sollen.
+     * @return Die Landmarken oder null wenn die Datei zu einem anderen Graphen oder Format gehrt.
+     * @throws IOException
+     */
+    public static LandmarkTable load(String fileName, CompactRouteGraph graph) throws IOException {
+	DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)));
+	try {
+	    long fingerprint = getFingerprint(graph);
+	    if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION || in.readLong() != fingerprint
+	            || in.readInt() != graph.getNodeCount())
+		return null;
+
+	    int count = in.readInt();
+	    int[] landmarks = new int[count];
+	    for (int i = 0; i < count; i++)
+		landmarks[i] = in.readInt();
+
+	    float[][][] fromLandmark = new float[2][count][graph.getNodeCount()];
+	    float[][][] toLandmark = new float[2][count][graph.getNodeCount()];
+	    for (int metric = 0; metric < 2; metric++)
+		for (int i = 0; i < count; i++) {
+		    readPrices(in, fromLandmark[metric][i]);
+		    readPrices(in, toLandmark[metric][i]);
+		}
+	    return new LandmarkTable(fingerprint, landmarks, fromLandmark, toLandmark);
+	} finally {
+	    in.close();
+	}
+    }
+
+    private static void readPrices(DataInputStream in, float[] prices) throws IOException {
+	for (int node = 0; node < prices.length; node++)
+	    prices[node] = in.readFloat();
+    }
+
+    /**
+     * Schreibt die Landmarken zuerst in eine temporre Datei und ersetzt damit die Datei. Bricht das Schreiben ab,
+     * bleibt die alte Datei erhalten.
+     * 
+     * @param fileName Die Datei.
+     * @throws IOException
+     */
+    public void save(String fileName) throws IOException {
+	File temporary = new File(fileName + ".tmp");
+	DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+	try {
+	    out.writeInt(FILE_MAGIC);
+	    out.writeInt(FILE_VERSION);
+	    out.writeLong(fingerprint);
+	    out.writeInt(landmarks.length == 0 ? 0 : fromLandmark[0][0].length);
+	    out.writeInt(landmarks.length);
+	    for (int landmark : landmarks)
+		out.writeInt(landmark);
+	    for (int metric = 0; metric < 2; metric++)
+		for (int i = 0; i < landmarks.length; i++) {
+		    for (float price : fromLandmark[metric][i])
+			out.writeFloat(price);
+		    for (float price : toLandmark[metric][i])
+			out.writeFloat(price);
+		}
+	} finally {
+	    out.close();
+	}
+	Files.move(temporary.toPath(), new File(fileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @return Die Knoten Indizes der Landmarken.
+     */
+    public int[] getLandmarks() {
+	return landmarks.clone();
+    }
+
+    /**
+     * Untere Schranke fr den Preis von einem Knoten zu einem Ziel. Terme mit unerreichbaren Knoten werden
+     * bersprungen.
+     * 
+     * @param node Knoten Index
+     * @param target Ziel Knoten Index
+     * @param calculationMethod Berechnungsmethode (Dauer oder Strecke)
+     * @return Die Schtzung, mindestens 0.
+     */
+    public double getLowerBound(int node, int target, String calculationMethod) {
+	int metric = Constants.EVALUATION_CALCULATION_DISTANCE.equals(calculationMethod) ? DISTANCE : DURATION;
+	float[][] from = fromLandmark[metric];
+	float[][] to = toLandmark[metric];
+
+	double bound = 0.0;
+	for (int i = 0; i < landmarks.length; i++) {
+	    float fromTarget = from[i][target];
+	    float fromNode = from[i][node];
+	    if (!Float.isInfinite(fromTarget) && !Float.isInfinite(fromNode))
+		bound = Math.max(bound, (double) fromTarget - fromNode);
+
+	    float toNode = to[i][node];
+	    float toTarget = to[i][target];
+	    if (!Float.isInfinite(toNode) && !Float.isInfinite(toTarget))
+		bound = Math.max(bound, (double) toNode - toTarget);
+	}
+	return Math.max(0.0, bound - slack[metric]);
+    }
+}
@@ -0,0 +1,246 @@
+package de.dhbw.horb.routePlanner.evaluation.bidirectional;
+
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.IndexedMinHeap;
+
+/**
+ * Bidirektionale Dijkstra Suche. Eine Suche luft von den Startknoten in Fahrtrichtung, eine zweite von den Zielknoten
+ * ber die eingehenden Kanten rckwrts. Es wird immer die Seite mit dem kleineren Preis erweitert. Sobald die Summe
+ * der beiden kleinsten Preise nicht mehr unter der besten bisher gefundenen Verbindung liegt, ist diese optimal. Jeder
+ * Thread verwendet seine Sucharrays wieder.
+ */
+public class BidirectionalDijkstra {
+
+    /**
+     * Sucharrays eines Threads fr beide Suchrichtungen. Nach jeder Suche werden nur die vernderten Eintrge
+     * zurckgesetzt, sodass eine Anfrage nicht proportional zur Gre des Graphen kostet.
+     */
+    private static class SearchSpace {
+	final double[] forwardPrice;
+	final double[] backwardPrice;
+	final int[] forwardPredecessorEdge;
+	final int[] forwardPredecessorNode;
+	final int[] backwardSuccessorEdge;
+	final int[] backwardSuccessorNode;
+	final int[] touchedNodes;
+	int touchedCount;
+	final IndexedMinHeap forwardQue;
+	final IndexedMinHeap backwardQue;
+
+	SearchSpace(int nodeCount) {
+	    forwardPrice = new double[nodeCount];
+	    backwardPrice = new double[nodeCount];
+	    forwardPredecessorEdge = new int[nodeCount];
+	    forwardPredecessorNode = new int[nodeCount];
+	    backwardSuccessorEdge = new int[nodeCount];
+	    backwardSuccessorNode = new int[nodeCount];
+	    touchedNodes = new int[nodeCount];
+	    forwardQue = new IndexedMinHeap(nodeCount);
+	    backwardQue = new IndexedMinHeap(nodeCount);
+	    Arrays.fill(forwardPrice, Double.POSITIVE_INFINITY);
+	    Arrays.fill(backwardPrice, Double.POSITIVE_INFINITY);
+	    Arrays.fill(forwardPredecessorEdge, -1);
+	    Arrays.fill(backwardSuccessorEdge, -1);
+	}
+
+	void touch(int node) {
+	    if (forwardPrice[node] == Double.POSITIVE_INFINITY && backwardPrice[node] == Double.POSITIVE_INFINITY)
+		touchedNodes[touchedCount++] = node;
+	}
+
+	void reset() {
+	    for (int i = 0; i < touchedCount; i++) {
+		int node = touchedNodes[i];
+		forwardPrice[node] = Double.POSITIVE_INFINITY;
+		backwardPrice[node] = Double.POSITIVE_INFINITY;
+		forwardPredecessorEdge[node] = -1;
+		backwardSuccessorEdge[node] = -1;
+	    }
+	    touchedCount = 0;
+	    forwardQue.clear();
+	    backwardQue.clear();
+	}
+    }
+
+    private static final ThreadLocal<SearchSpace> searchSpaces = new ThreadLocal<SearchSpace>();
+
+    private CompactRouteGraph graph;
+    private int[] startNodes;
+    private int[] endNodes;
+
+    private double bestPrice;
+    private int meetingNode;
+    private int settledCount;
+
+    public BidirectionalDijkstra(String startnode, String endnode) throws FileNotFoundException, XMLStreamException {
+	this(startnode, endnode, RoadGraph.getInstance());
+    }
+
+    /**
+     * Bidirektionale Routenberechnung auf einem bereits geladenen Graphen.
+     * 
+     * @param startnode Name des Startknotens
+     * @param endnode Name des Zielknotens
+     * @param graph Der gemeinsam genutzte Graph des Landes
+     */
+    public BidirectionalDijkstra(String startnode, String endnode, RoadGraph graph) {
+	this.graph = graph.getCompactGraph();
+	startNodes = graph.getJunctionIndex().getNodes(startnode);
+	endNodes = graph.getJunctionIndex().getNodes(endnode);
+    }
+
+    /**
+     * Berechnet die Route von einem der Startknoten zu einem der Zielknoten.
+     * 
+     * @param calcMethod String fr Unterscheidung der Berechnung (nach Dauer oder Strecke)
+     * @return Gibt eine Liste von Maps zurck, die die einzelnen Streckenabschnitte darstellen
+     */
+    public List<Map<String, String>> calculateRoute(String calcMethod) {
+	if (startNodes.length == 0 || endNodes.length == 0)
+	    return null;
+
+	double[] weights = graph.getEdgeWeights(calcMethod);
+	SearchSpace space = searchSpaces.get();
+	if (space == null || space.forwardPrice.length != graph.getNodeCount()) {
+	    space = new SearchSpace(graph.getNodeCount());
+	    searchSpaces.set(space);
+	}
+
+	try {
+	    initialize(space);
+	    while (!space.forwardQue.isEmpty() && !space.backwardQue.isEmpty()) {
+		double forwardMin = space.forwardQue.peekPriority();
+		double backwardMin = space.backwardQue.peekPriority();
+		if (forwardMin + backwardMin >= bestPrice)
+		    break;
+
+		if (forwardMin <= backwardMin)
+		    expandForward(space, space.forwardQue.poll(), weights);
+		else
+		    expandBackward(space, space.backwardQue.poll(), weights);
+	    }
+
+	    if (meetingNode < 0)
+		return null;
+	    return getEdges(space);
+	} finally {
+	    space.reset();
+	}
+    }
+
+    /**
+     * @return Anzahl der Knoten, die bei der letzten Berechnung von einer der beiden Suchen abgeschlossen wurden.
+     */
+    public int getSettledCount() {
+	return settledCount;
+    }
+
+    /**
+     * Setzt die Startknoten beider Suchrichtungen.
+     */
+    private void initialize(SearchSpace space) {
+	bestPrice = Double.POSITIVE_INFINITY;
+	meetingNode = -1;
+	settledCount = 0;
+
+	for (int startNode : startNodes) {
+	    space.touch(startNode);
+	    space.forwardPrice[startNode] = 0.0;
+	    space.forwardQue.insertOrDecrease(startNode, 0.0);
+	}
+	for (int endNode : endNodes) {
+	    space.touch(endNode);
+	    space.backwardPrice[endNode] = 0.0;
+	    space.backwardQue.insertOrDecrease(endNode, 0.0);
+	    if (space.forwardPrice[endNode] == 0.0) {
+		bestPrice = 0.0;
+		meetingNode = endNode;
+	    }
+	}
+    }
+
+    /**
+     * Erweitert die Vorwrtssuche um die ausgehenden Kanten eines Knotens.
+     * 
+     * @param node Knoten Index
+     * @param weights Kantengewichte der Berechnungsmethode
+     */
+    private void expandForward(SearchSpace space, int node, double[] weights) {
+	settledCount++;
+	for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++) {
+	    int neighbour = graph.getEdgeTarget(edge);
+	    double price = space.forwardPrice[node] + weights[edge];
+	    if (price < space.forwardPrice[neighbour]) {
+		space.touch(neighbour);
+		space.forwardPrice[neighbour] = price;
+		space.forwardPredecessorEdge[neighbour] = edge;
+		space.forwardPredecessorNode[neighbour] = node;
+		space.forwardQue.insertOrDecrease(neighbour, price);
+	    }
+	    updateMeetingNode(space, neighbour);
+	}
+    }
+
+    /**
+     * Erweitert die Rckwrtssuche um die eingehenden Kanten eines Knotens.
+     * 
+     * @param node Knoten Index
+     * @param weights Kantengewichte der Berechnungsmethode
+     */
+    private void expandBackward(SearchSpace space, int node, double[] weights) {
+	settledCount++;
+	int end = graph.getReverseEdgeEnd(node);
+	for (int reverseEdge = graph.getReverseEdgeStart(node); reverseEdge < end; reverseEdge++) {
+	    int edge = graph.getReverseEdge(reverseEdge);
+	    int neighbour = graph.getReverseEdgeSource(reverseEdge);
+	    double price = space.backwardPrice[node] + weights[edge];
+	    if (price < space.backwardPrice[neighbour]) {
+		space.touch(neighbour);
+		space.backwardPrice[neighbour] = price;
+		space.backwardSuccessorEdge[neighbour] = edge;
+		space.backwardSuccessorNode[neighbour] = node;
+		space.backwardQue.insertOrDecrease(neighbour, price);
+	    }
+	    updateMeetingNode(space, neighbour);
+	}
+    }
+
+    /**
+     * Merkt sich den Knoten, wenn die Verbindung ber ihn gnstiger ist als die bisher beste.
+     * 
+     * @param node Knoten Index
+     */
+    private void updateMeetingNode(SearchSpace space, int node) {
+	double price = space.forwardPrice[node] + space.backwardPrice[node];
+	if (price < bestPrice) {
+	    bestPrice = price;
+	    meetingNode = node;
+	}
+    }
+
+    /**
+     * Setzt die Streckenabschnitte beider Suchen am Treffpunkt zusammen.
+     * 
+     * @return Streckenabschnitte in Fahrtrichtung oder null wenn Start und Ziel identisch sind
+     */
+    private List<Map<String, String>> getEdges(SearchSpace space) {
+	LinkedList<Map<String, String>> edges = new LinkedList<Map<String, String>>();
+	for (int node = meetingNode; space.forwardPredecessorEdge[node] >= 0; node = space.forwardPredecessorNode[node])
+	    edges.addFirst(graph.getEdgeRoute(space.forwardPredecessorEdge[node]));
+	for (int node = meetingNode; space.backwardSuccessorEdge[node] >= 0; node = space.backwardSuccessorNode[node])
+	    edges.addLast(graph.getEdgeRoute(space.backwardSuccessorEdge[node]));
+
+	if (edges.isEmpty())
+	    return null;
+	return edges;
+    }
+}
@@ -0,0 +1,318 @@
+package de.dhbw.horb.routePlanner.evaluation.contraction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedList;
+import java.util.List;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.data.XMLFileManager;
+
+/**
+ * Contraction Hierarchy eines {@link CompactRouteGraph} fr eine Berechnungsmethode. Jeder Knoten hat einen Rang, die
+ * Kanten sind die ursprnglichen Kanten plus Abkrzungen (Shortcuts) ber bereits kontrahierte Knoten. Fr die Suche
+ * werden nur Kanten zu Knoten mit hherem Rang bentigt: in Fahrtrichtung fr die Vorwrtssuche und gegen die
+ * Fahrtrichtung fr die Rckwrtssuche.
+ */
+public class ContractionHierarchy {
+
+    private static final int FILE_MAGIC = 0x52504348;
+    private static final int FILE_VERSION = 1;
+
+    private final long fingerprint;
+    private final int[] rank;
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final double[] edgeWeight;
+    private final int[] edgeOriginal;
+    private final int[] edgeChildA;
+    private final int[] edgeChildB;
+    private final int[] upOffsets;
+    private final int[] upEdges;
+    private final int[] downOffsets;
+    private final int[] downEdges;
+
+    /**
+     * @param fingerprint Prfsumme des Graphen, siehe {@link CompactRouteGraph#getFingerprint(String)}
+     * @param rank Rang jedes Knotens (Reihenfolge der Kontraktion)
+     * @param edgeFrom Startknoten jeder Kante
+     * @param edgeTo Zielknoten jeder Kante
+     * @param edgeWeight Gewicht jeder Kante
+     * @param edgeOriginal Index der Kante im {@link CompactRouteGraph} oder -1 bei Abkrzungen
+     * @param edgeChildA Bei Abkrzungen die erste berbrckte Kante, sonst -1
+     * @param edgeChildB Bei Abkrzungen die zweite berbrckte Kante, sonst -1
+     */
+    ContractionHierarchy(long fingerprint, int[] rank, int[] edgeFrom, int[] edgeTo, double[] edgeWeight,
+	    int[] edgeOriginal, int[] edgeChildA, int[] edgeChildB) {
+	this.fingerprint = fingerprint;
+	this.rank = rank;
+	this.edgeFrom = edgeFrom;
+	this.edgeTo = edgeTo;
+	this.edgeWeight = edgeWeight;
+	this.edgeOriginal = edgeOriginal;
+	this.edgeChildA = edgeChildA;
+	this.edgeChildB = edgeChildB;
+
+	int nodeCount = rank.length;
+	upOffsets = new int[nodeCount + 1];
+	downOffsets = new int[nodeCount + 1];
+	for (int edge = 0; edge < edgeFrom.length; edge++)
+	    if (rank[edgeFrom[edge]] < rank[edgeTo[edge]])
+		upOffsets[edgeFrom[edge] + 1]++;
+	    else
+		downOffsets[edgeTo[edge] + 1]++;
+	for (int node = 0; node < nodeCount; node++) {
+	    upOffsets[node + 1] += upOffsets[node];
+	    downOffsets[node + 1] += downOffsets[node];
+	}
+
+	upEdges = new int[upOffsets[nodeCount]];
+	downEdges = new int[downOffsets[nodeCount]];
+	int[] upFill = new int[nodeCount];
+	int[] downFill = new int[nodeCount];
+	for (int edge = 0; edge < edgeFrom.length; edge++)
+	    if (rank[edgeFrom[edge]] < rank[edgeTo[edge]])
+		upEdges[upOffsets[edgeFrom[edge]] + upFill[edgeFrom[edge]]++] = edge;
+	    else
+		downEdges[downOffsets[edgeTo[edge]] + downFill[edgeTo[edge]]++] = edge;
+    }
+
+    /**
+     * Gibt den Dateinamen der Hierarchie eines Landes zurck. Die Dateien liegen neben der routes*.xml.
+     * 
+     * @param country Das Land.
+     * @param calculationMethod Constants.EVALUATION_CALCULATION_DISTANCE oder
+     *            Constants.EVALUATION_CALCULATION_DURATION (Standard).
+     * @return Der Dateiname.
+     */
+    public static String getFileName(String country, String calculationMethod) {
+	if (Constants.EVALUATION_CALCULATION_DISTANCE.equals(calculationMethod))
+	    return XMLFileManager.getExtendedFileName(Constants.CH_DISTANCE, country);
+	return XMLFileManager.getExtendedFileName(Constants.CH_DURATION, country);
+    }
+
+    /**
+     * Ldt die Hierarchie aus ihrer Datei. Fehlt die Datei, ist sie beschdigt oder passt sie nicht mehr zu den
+     * Routen, wird sie neu berechnet und gespeichert.
+     * 
+     * @param graph Der Graph des Landes.
+     * @param calculationMethod Berechnungsmethode (Dauer oder Strecke)
+     * @return Die Hierarchie.
+     */
+    public static ContractionHierarchy loadOrCreate(RoadGraph graph, String calculationMethod) {
+	String fileName = getFileName(graph.getCountry(), calculationMethod);
+	if (XMLFileManager.fileExists(fileName)) {
+	    try {
+		ContractionHierarchy hierarchy = load(fileName, graph.getCompactGraph(), calculationMethod);
+		if (hierarchy != null)
+		    return hierarchy;
+	    } catch (IOException | RuntimeException e) {
+		e.printStackTrace();
+	    }
+	}
+
+	ContractionHierarchy hierarchy = new ContractionHierarchyBuilder(graph.getCompactGraph(), calculationMethod)
+	        .build();
+	try {
+	    hierarchy.save(fileName);
+	} catch (IOException e) {
+	    e.printStackTrace();
+	}
+	return hierarchy;
+    }
+
+    /**
+     * Liest eine Hierarchie aus einer Datei.
+     * 
+     * @param fileName Die Datei.
+     * @param graph Der Graph zu dem die Hierarchie gehren soll.
+     * @param calculationMethod Berechnungsmethode (Dauer oder Strecke)
+     * @return Die Hierarchie oder null wenn die Datei zu einem anderen Graphen oder Format gehrt.
+     * @throws IOException
+     */
+    public static ContractionHierarchy load(String fileName, CompactRouteGraph graph, String calculationMethod)
+	    throws IOException {
+	DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)));
+	try {
+	    if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION
+	            || in.readLong() != graph.getFingerprint(calculationMethod))
+		return null;
+
+	    int nodeCount = in.readInt();
+	    if (nodeCount != graph.getNodeCount())
+		return null;
+	    int[] rank = new int[nodeCount];
+	    for (int node = 0; node < nodeCount; node++)
+		rank[node] = in.readInt();
+
+	    int edgeCount = in.readInt();
+	    int[] edgeFrom = new int[edgeCount];
+	    int[] edgeTo = new int[edgeCount];
+	    double[] edgeWeight = new double[edgeCount];
+	    int[] edgeOriginal = new int[edgeCount];
+	    int[] edgeChildA = new int[edgeCount];
+	    int[] edgeChildB = new int[edgeCount];
+	    for (int edge = 0; edge < edgeCount; edge++) {
+		edgeFrom[edge] = in.readInt();
+		edgeTo[edge] = in.readInt();
+		edgeWeight[edge] = in.readDouble();
+		edgeOriginal[edge] = in.readInt();
+		edgeChildA[edge] = in.readInt();
+		edgeChildB[edge] = in.readInt();
+	    }
+	    return new ContractionHierarchy(graph.getFingerprint(calculationMethod), rank, edgeFrom, edgeTo,
+	            edgeWeight, edgeOriginal, edgeChildA, edgeChildB);
+	} finally {
+	    in.close();
+	}
+    }
+
+    /**
+     * Schreibt die Hierarchie zuerst in eine temporre Datei und ersetzt damit die Datei, wie
+     * {@link de.dhbw.horb.routePlanner.data.GraphSnapshot}. Bricht das Schreiben ab, bleibt die alte Datei erhalten.
+     * 
+     * @param fileName Die Datei.
+     * @throws IOException
+     */
+    public void save(String fileName) throws IOException {
+	File temporary = new File(fileName + ".tmp");
+	DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+	try {
+	    out.writeInt(FILE_MAGIC);
+	    out.writeInt(FILE_VERSION);
+	    out.writeLong(fingerprint);
+	    out.writeInt(rank.length);
+	    for (int r : rank)
+		out.writeInt(r);
+	    out.writeInt(edgeFrom.length);
+	    for (int edge = 0; edge < edgeFrom.length; edge++) {
+		out.writeInt(edgeFrom[edge]);
+		out.writeInt(edgeTo[edge]);
+		out.writeDouble(edgeWeight[edge]);
+		out.writeInt(edgeOriginal[edge]);
+		out.writeInt(edgeChildA[edge]);
+		out.writeInt(edgeChildB[edge]);
+	    }
+	} finally {
+	    out.close();
+	}
+	Files.move(temporary.toPath(), new File(fileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @return Anzahl der Kanten inklusive Abkrzungen.
+     */
+    public int getEdgeCount() {
+	return edgeFrom.length;
+    }
+
+    /**
+     * @param node Knoten Index
+     * @return Der Rang des Knotens.
+     */
+    public int getRank(int node) {
+	return rank[node];
+    }
+
+    /**
+     * @param node Knoten Index
+     * @return Erste Kante zu einem hheren Knoten in Fahrtrichtung.
+     */
+    public int getUpEdgeStart(int node) {
+	return upOffsets[node];
+    }
+
+    /**
+     * @param node Knoten Index
+     * @return Index hinter der letzten Kante zu einem hheren Knoten in Fahrtrichtung.
+     */
+    public int getUpEdgeEnd(int node) {
+	return upOffsets[node + 1];
+    }
+
+    /**
+     * @param index Index zwischen {@link #getUpEdgeStart(int)} und {@link #getUpEdgeEnd(int)}
+     * @return Die Kante.
+     */
+    public int getUpEdge(int index) {
+	return upEdges[index];
+    }
+
+    /**
+     * @param node Knoten Index
+     * @return Erste Kante von einem hheren Knoten zu diesem Knoten.
+     */
+    public int getDownEdgeStart(int node) {
+	return downOffsets[node];
+    }
+
+    /**
+     * @param node Knoten Index
+     * @return Index hinter der letzten Kante von einem hheren Knoten zu diesem Knoten.
+     */
+    public int getDownEdgeEnd(int node) {
+	return downOffsets[node + 1];
+    }
+
+    /**
+     * @param index Index zwischen {@link #getDownEdgeStart(int)} und {@link #getDownEdgeEnd(int)}
+     * @return Die Kante.
+     */
+    public int getDownEdge(int index) {
+	return downEdges[index];
+    }
+
+    /**
+     * @param edge Die Kante.
+     * @return Der Startknoten.
+     */
+    public int getEdgeFrom(int edge) {
+	return edgeFrom[edge];
+    }
+
+    /**
+     * @param edge Die Kante.
+     * @return Der Zielknoten.
+     */
+    public int getEdgeTo(int edge) {
+	return edgeTo[edge];
+    }
+
+    /**
+     * @param edge Die Kante.
+     * @return Das Gewicht der Kante.
+     */
+    public double getEdgeWeight(int edge) {
+	return edgeWeight[edge];
+    }
+
+    /**
+     * Lst eine Kante in die ursprnglichen Kanten des {@link CompactRouteGraph} auf.
+     * 
+     * @param edge Die Kante.
+     * @param originalEdges Liste an die die Kanten in Fahrtrichtung angehngt werden.
+     */
+    public void unpackEdge(int edge, List<Integer> originalEdges) {
+	LinkedList<Integer> stack = new LinkedList<Integer>();
+	stack.push(edge);
+	while (!stack.isEmpty()) {
+	    int current = stack.pop();
+	    if (edgeOriginal[current] >= 0) {
+		originalEdges.add(edgeOriginal[current]);
+	    } else {
+		stack.push(edgeChildB[current]);
+		stack.push(edgeChildA[current]);
+	    }
+	}
+    }
+}
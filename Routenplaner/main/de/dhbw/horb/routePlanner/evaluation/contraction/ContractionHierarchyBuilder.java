@@ -0,0 +1,300 @@
+package de.dhbw.horb.routePlanner.evaluation.contraction;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.xml.stream.XMLStreamException;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.IndexedMinHeap;
+
+/**
+ * Berechnet eine {@link ContractionHierarchy}. Die Knoten werden nacheinander kontrahiert, zuerst die mit der
+ * kleinsten Kantendifferenz (bentigte Abkrzungen minus entfernte Kanten). Eine Abkrzung wird nur eingefgt, wenn
+ * eine begrenzte Zeugensuche keinen mindestens gleich guten Weg am kontrahierten Knoten vorbei findet.
+ */
+public class ContractionHierarchyBuilder {
+
+    /**
+     * Maximale Anzahl abgeschlossener Knoten einer Zeugensuche. Wird kein Zeuge gefunden, entsteht hchstens eine
+     * berflssige Abkrzung.
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    private final CompactRouteGraph graph;
+    private final String calculationMethod;
+
+    private int edgeCount;
+    private int[] edgeFrom;
+    private int[] edgeTo;
+    private double[] edgeWeight;
+    private int[] edgeOriginal;
+    private int[] edgeChildA;
+    private int[] edgeChildB;
+
+    private int[][] outEdges;
+    private int[] outCount;
+    private int[][] inEdges;
+    private int[] inCount;
+    private boolean[] contracted;
+    private int[] deletedNeighbours;
+
+    private double[] witnessPrice;
+    private int[] touchedNodes;
+    private int touchedCount;
+    private IndexedMinHeap witnessQue;
+
+    /**
+     * @param graph Der Graph dessen Hierarchie berechnet werden soll.
+     * @param calculationMethod Berechnungsmethode (Dauer oder Strecke)
+     */
+    public ContractionHierarchyBuilder(CompactRouteGraph graph, String calculationMethod) {
+	this.graph = graph;
+	this.calculationMethod = calculationMethod;
+    }
+
+    /**
+     * Berechnet die Hierarchien fr Dauer und Strecke des aktuellen Landes und speichert sie neben der routes*.xml.
+     * Wird nach dem Erzeugen der routes*.xml aufgerufen.
+     * 
+     * @throws FileNotFoundException
+     * @throws XMLStreamException
+     * @throws IOException
+     */
+    public static void createHierarchyFiles() throws FileNotFoundException, XMLStreamException, IOException {
+	RoadGraph roadGraph = RoadGraph.getInstance();
+	for (String calcMethod : new String[] { Constants.EVALUATION_CALCULATION_DURATION,
+	        Constants.EVALUATION_CALCULATION_DISTANCE }) {
+	    ContractionHierarchy hierarchy = new ContractionHierarchyBuilder(roadGraph.getCompactGraph(), calcMethod)
+	            .build();
+	    hierarchy.save(ContractionHierarchy.getFileName(roadGraph.getCountry(), calcMethod));
+	}
+    }
+
+    /**
+     * Kontrahiert alle Knoten.
+     * 
+     * @return Die fertige Hierarchie.
+     */
+    public ContractionHierarchy build() {
+	initialize();
+
+	int nodeCount = graph.getNodeCount();
+	IndexedMinHeap nodeQue = new IndexedMinHeap(nodeCount);
+	for (int node = 0; node < nodeCount; node++)
+	    nodeQue.insertOrDecrease(node, getPriority(node));
+
+	int[] rank = new int[nodeCount];
+	int nextRank = 0;
+	while (!nodeQue.isEmpty()) {
+	    int node = nodeQue.poll();
+	    double priority = getPriority(node);
+	    if (!nodeQue.isEmpty() && priority > nodeQue.peekPriority()) {
+		nodeQue.insertOrDecrease(node, priority);
+		continue;
+	    }
+	    contractNode(node, true);
+	    rank[node] = nextRank++;
+	}
+
+	return new ContractionHierarchy(graph.getFingerprint(calculationMethod), rank,
+	        Arrays.copyOf(edgeFrom, edgeCount), Arrays.copyOf(edgeTo, edgeCount), Arrays.copyOf(edgeWeight,
+	                edgeCount), Arrays.copyOf(edgeOriginal, edgeCount), Arrays.copyOf(edgeChildA, edgeCount),
+	        Arrays.copyOf(edgeChildB, edgeCount));
+    }
+
+    /**
+     * bernimmt die Kanten des Graphen. Von parallelen Kanten wird nur die gnstigste behalten.
+     */
+    private void initialize() {
+	int nodeCount = graph.getNodeCount();
+	double[] weights = graph.getEdgeWeights(calculationMethod);
+
+	int capacity = graph.getEdgeCount() * 2 + 16;
+	edgeCount = 0;
+	edgeFrom = new int[capacity];
+	edgeTo = new int[capacity];
+	edgeWeight = new double[capacity];
+	edgeOriginal = new int[capacity];
+	edgeChildA = new int[capacity];
+	edgeChildB = new int[capacity];
+
+	outEdges = new int[nodeCount][];
+	outCount = new int[nodeCount];
+	inEdges = new int[nodeCount][];
+	inCount = new int[nodeCount];
+	for (int node = 0; node < nodeCount; node++) {
+	    outEdges[node] = new int[4];
+	    inEdges[node] = new int[4];
+	}
+	contracted = new boolean[nodeCount];
+	deletedNeighbours = new int[nodeCount];
+
+	witnessPrice = new double[nodeCount];
+	Arrays.fill(witnessPrice, Double.POSITIVE_INFINITY);
+	touchedNodes = new int[nodeCount];
+	touchedCount = 0;
+	witnessQue = new IndexedMinHeap(nodeCount);
+
+	// Von parallelen Kanten bleibt nur die gnstigste, ein Eintrag gilt nur fr Kanten des aktuellen Knotens.
+	int[] edgeToTarget = new int[nodeCount];
+	Arrays.fill(edgeToTarget, -1);
+	for (int node = 0; node < nodeCount; node++) {
+	    for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++) {
+		int target = graph.getEdgeTarget(edge);
+		int chEdge = edgeToTarget[target];
+		if (chEdge < 0 || edgeFrom[chEdge] != node) {
+		    edgeToTarget[target] = addEdge(node, target, weights[edge], edge, -1, -1);
+		} else if (weights[edge] < edgeWeight[chEdge]) {
+		    edgeWeight[chEdge] = weights[edge];
+		    edgeOriginal[chEdge] = edge;
+		}
+	    }
+	}
+    }
+
+    /**
+     * Fgt eine Kante hinzu.
+     * 
+     * @return Index der neuen Kante.
+     */
+    private int addEdge(int from, int to, double weight, int original, int childA, int childB) {
+	if (edgeCount == edgeFrom.length) {
+	    int capacity = edgeFrom.length * 2;
+	    edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+	    edgeTo = Arrays.copyOf(edgeTo, capacity);
+	    edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+	    edgeOriginal = Arrays.copyOf(edgeOriginal, capacity);
+	    edgeChildA = Arrays.copyOf(edgeChildA, capacity);
+	    edgeChildB = Arrays.copyOf(edgeChildB, capacity);
+	}
+	int edge = edgeCount++;
+	edgeFrom[edge] = from;
+	edgeTo[edge] = to;
+	edgeWeight[edge] = weight;
+	edgeOriginal[edge] = original;
+	edgeChildA[edge] = childA;
+	edgeChildB[edge] = childB;
+
+	if (outCount[from] == outEdges[from].length)
+	    outEdges[from] = Arrays.copyOf(outEdges[from], outCount[from] * 2);
+	outEdges[from][outCount[from]++] = edge;
+	if (inCount[to] == inEdges[to].length)
+	    inEdges[to] = Arrays.copyOf(inEdges[to], inCount[to] * 2);
+	inEdges[to][inCount[to]++] = edge;
+	return edge;
+    }
+
+    /**
+     * Prioritt eines Knotens: Kantendifferenz plus Anzahl bereits kontrahierter Nachbarn.
+     * 
+     * @param node Knoten Index
+     * @return Die Prioritt, kleiner wird frher kontrahiert.
+     */
+    private double getPriority(int node) {
+	int removedEdges = 0;
+	for (int i = 0; i < inCount[node]; i++)
+	    if (!contracted[edgeFrom[inEdges[node][i]]])
+		removedEdges++;
+	for (int i = 0; i < outCount[node]; i++)
+	    if (!contracted[edgeTo[outEdges[node][i]]])
+		removedEdges++;
+	return contractNode(node, false) - removedEdges + deletedNeighbours[node];
+    }
+
+    /**
+     * Kontrahiert einen Knoten oder zhlt nur die dafr ntigen Abkrzungen.
+     * 
+     * @param node Knoten Index
+     * @param apply true um die Abkrzungen einzufgen und den Knoten als kontrahiert zu markieren.
+     * @return Anzahl der (ntigen) Abkrzungen.
+     */
+    private int contractNode(int node, boolean apply) {
+	int shortcuts = 0;
+	for (int i = 0; i < inCount[node]; i++) {
+	    int inEdge = inEdges[node][i];
+	    int source = edgeFrom[inEdge];
+	    if (contracted[source])
+		continue;
+
+	    double maxWeight = -1.0;
+	    for (int j = 0; j < outCount[node]; j++) {
+		int target = edgeTo[outEdges[node][j]];
+		if (!contracted[target] && target != source)
+		    maxWeight = Math.max(maxWeight, edgeWeight[inEdge] + edgeWeight[outEdges[node][j]]);
+	    }
+	    if (maxWeight < 0.0)
+		continue;
+
+	    runWitnessSearch(source, node, maxWeight);
+	    for (int j = 0; j < outCount[node]; j++) {
+		int outEdge = outEdges[node][j];
+		int target = edgeTo[outEdge];
+		if (contracted[target] || target == source)
+		    continue;
+
+		double weight = edgeWeight[inEdge] + edgeWeight[outEdge];
+		if (witnessPrice[target] <= weight)
+		    continue;
+		shortcuts++;
+		if (apply)
+		    addEdge(source, target, weight, -1, inEdge, outEdge);
+	    }
+	    resetWitnessSearch();
+	}
+
+	if (apply) {
+	    contracted[node] = true;
+	    for (int i = 0; i < inCount[node]; i++)
+		deletedNeighbours[edgeFrom[inEdges[node][i]]]++;
+	    for (int i = 0; i < outCount[node]; i++)
+		deletedNeighbours[edgeTo[outEdges[node][i]]]++;
+	}
+	return shortcuts;
+    }
+
+    /**
+     * Begrenzte Dijkstra Suche ber die noch nicht kontrahierten Knoten ohne den ignorierten Knoten.
+     * 
+     * @param source Startknoten
+     * @param ignoredNode Knoten der gerade kontrahiert wird
+     * @param maxWeight Preis ab dem die Suche abbricht
+     */
+    private void runWitnessSearch(int source, int ignoredNode, double maxWeight) {
+	witnessPrice[source] = 0.0;
+	touchedNodes[touchedCount++] = source;
+	witnessQue.insertOrDecrease(source, 0.0);
+
+	int settled = 0;
+	while (!witnessQue.isEmpty() && witnessQue.peekPriority() <= maxWeight && settled++ < WITNESS_SETTLE_LIMIT) {
+	    int node = witnessQue.poll();
+	    for (int i = 0; i < outCount[node]; i++) {
+		int edge = outEdges[node][i];
+		int target = edgeTo[edge];
+		if (contracted[target] || target == ignoredNode)
+		    continue;
+
+		double price = witnessPrice[node] + edgeWeight[edge];
+		if (price < witnessPrice[target]) {
+		    if (witnessPrice[target] == Double.POSITIVE_INFINITY)
+			touchedNodes[touchedCount++] = target;
+		    witnessPrice[target] = price;
+		    witnessQue.insertOrDecrease(target, price);
+		}
+	    }
+	}
+    }
+
+    /**
+     * Setzt die von der letzten Zeugensuche vernderten Preise zurck.
+     */
+    private void resetWitnessSearch() {
+	for (int i = 0; i < touchedCount; i++)
+	    witnessPrice[touchedNodes[i]] = Double.POSITIVE_INFINITY;
+	touchedCount = 0;
+	witnessQue.clear();
+    }
+}
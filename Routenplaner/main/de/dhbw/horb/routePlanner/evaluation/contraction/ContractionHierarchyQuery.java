@@ -0,0 +1,237 @@
+package de.dhbw.horb.routePlanner.evaluation.contraction;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.IndexedMinHeap;
+
+/**
+ * Routenberechnung auf einer {@link ContractionHierarchy}. Vorwrts- und Rckwrtssuche laufen nur zu Knoten mit
+ * hherem Rang und treffen sich am hchsten Knoten der Route. Die gefundenen Abkrzungen werden am Ende wieder in die
+ * ursprnglichen Streckenabschnitte aufgelst.
+ */
+public class ContractionHierarchyQuery {
+
+    /**
+     * Suchdaten eines Threads. Nach jeder Suche werden nur die vernderten Eintrge zurckgesetzt, sodass eine Anfrage
+     * nicht proportional zur Gre des Graphen kostet.
+     */
+    private static class SearchSpace {
+	final double[] forwardPrice;
+	final double[] backwardPrice;
+	final int[] forwardEdge;
+	final int[] backwardEdge;
+	final int[] touchedNodes;
+	int touchedCount;
+	final IndexedMinHeap forwardQue;
+	final IndexedMinHeap backwardQue;
+
+	SearchSpace(int nodeCount) {
+	    forwardPrice = new double[nodeCount];
+	    backwardPrice = new double[nodeCount];
+	    forwardEdge = new int[nodeCount];
+	    backwardEdge = new int[nodeCount];
+	    touchedNodes = new int[nodeCount];
+	    forwardQue = new IndexedMinHeap(nodeCount);
+	    backwardQue = new IndexedMinHeap(nodeCount);
+	    Arrays.fill(forwardPrice, Double.POSITIVE_INFINITY);
+	    Arrays.fill(backwardPrice, Double.POSITIVE_INFINITY);
+	    Arrays.fill(forwardEdge, -1);
+	    Arrays.fill(backwardEdge, -1);
+	}
+
+	void touch(int node) {
+	    if (forwardPrice[node] == Double.POSITIVE_INFINITY && backwardPrice[node] == Double.POSITIVE_INFINITY)
+		touchedNodes[touchedCount++] = node;
+	}
+
+	void reset() {
+	    for (int i = 0; i < touchedCount; i++) {
+		int node = touchedNodes[i];
+		forwardPrice[node] = Double.POSITIVE_INFINITY;
+		backwardPrice[node] = Double.POSITIVE_INFINITY;
+		forwardEdge[node] = -1;
+		backwardEdge[node] = -1;
+	    }
+	    touchedCount = 0;
+	    forwardQue.clear();
+	    backwardQue.clear();
+	}
+    }
+
+    private static final ThreadLocal<SearchSpace> searchSpaces = new ThreadLocal<SearchSpace>();
+
+    private RoadGraph roadGraph;
+    private CompactRouteGraph graph;
+    private ContractionHierarchy hierarchy;
+    private int[] startNodes;
+    private int[] endNodes;
+    private int settledCount;
+
+    public ContractionHierarchyQuery(String startnode, String endnode) throws FileNotFoundException,
+	    XMLStreamException {
+	this(startnode, endnode, RoadGraph.getInstance());
+    }
+
+    /**
+     * Routenberechnung mit der Hierarchie, die der Graph fr die Berechnungsmethode bereitstellt.
+     * 
+     * @param startnode Name des Startknotens
+     * @param endnode Name des Zielknotens
+     * @param graph Der gemeinsam genutzte Graph des Landes
+     */
+    public ContractionHierarchyQuery(String startnode, String endnode, RoadGraph graph) {
+	this(startnode, endnode, graph, null);
+    }
+
+    /**
+     * Routenberechnung mit einer bestimmten Hierarchie.
+     * 
+     * @param startnode Name des Startknotens
+     * @param endnode Name des Zielknotens
+     * @param graph Der gemeinsam genutzte Graph des Landes
+     * @param hierarchy Die Hierarchie oder null um sie vom Graphen zu holen.
+     */
+    public ContractionHierarchyQuery(String startnode, String endnode, RoadGraph graph,
+	    ContractionHierarchy hierarchy) {
+	this.roadGraph = graph;
+	this.graph = graph.getCompactGraph();
+	this.hierarchy = hierarchy;
+	startNodes = graph.getJunctionIndex().getNodes(startnode);
+	endNodes = graph.getJunctionIndex().getNodes(endnode);
+    }
+
+    /**
+     * Berechnet die Route von einem der Startknoten zu einem der Zielknoten.
+     * 
+     * @param calcMethod String fr Unterscheidung der Berechnung (nach Dauer oder Strecke)
+     * @return Gibt eine Liste von Maps zurck, die die einzelnen Streckenabschnitte darstellen
+     */
+    public List<Map<String, String>> calculateRoute(String calcMethod) {
+	if (startNodes.length == 0 || endNodes.length == 0)
+	    return null;
+
+	ContractionHierarchy ch = hierarchy != null ? hierarchy : roadGraph.getContractionHierarchy(calcMethod);
+	SearchSpace space = searchSpaces.get();
+	if (space == null || space.forwardPrice.length != graph.getNodeCount()) {
+	    space = new SearchSpace(graph.getNodeCount());
+	    searchSpaces.set(space);
+	}
+
+	try {
+	    return search(ch, space);
+	} finally {
+	    space.reset();
+	}
+    }
+
+    /**
+     * @return Anzahl der Knoten, die bei der letzten Berechnung von einer der beiden Suchen abgeschlossen wurden.
+     */
+    public int getSettledCount() {
+	return settledCount;
+    }
+
+    private List<Map<String, String>> search(ContractionHierarchy ch, SearchSpace space) {
+	settledCount = 0;
+	for (int startNode : startNodes) {
+	    space.touch(startNode);
+	    space.forwardPrice[startNode] = 0.0;
+	    space.forwardQue.insertOrDecrease(startNode, 0.0);
+	}
+	for (int endNode : endNodes) {
+	    space.touch(endNode);
+	    space.backwardPrice[endNode] = 0.0;
+	    space.backwardQue.insertOrDecrease(endNode, 0.0);
+	}
+
+	double bestPrice = Double.POSITIVE_INFINITY;
+	int meetingNode = -1;
+	boolean forwardDone = false;
+	boolean backwardDone = false;
+	boolean forwardTurn = true;
+
+	while (!forwardDone || !backwardDone) {
+	    boolean forward = backwardDone || (!forwardDone && forwardTurn);
+	    forwardTurn = !forwardTurn;
+	    IndexedMinHeap que = forward ? space.forwardQue : space.backwardQue;
+	    if (que.isEmpty() || que.peekPriority() >= bestPrice) {
+		if (forward)
+		    forwardDone = true;
+		else
+		    backwardDone = true;
+		continue;
+	    }
+
+	    int node = que.poll();
+	    settledCount++;
+	    double nodePrice = space.forwardPrice[node] + space.backwardPrice[node];
+	    if (nodePrice < bestPrice) {
+		bestPrice = nodePrice;
+		meetingNode = node;
+	    }
+
+	    if (forward) {
+		for (int i = ch.getUpEdgeStart(node); i < ch.getUpEdgeEnd(node); i++) {
+		    int edge = ch.getUpEdge(i);
+		    int target = ch.getEdgeTo(edge);
+		    double price = space.forwardPrice[node] + ch.getEdgeWeight(edge);
+		    if (price < space.forwardPrice[target]) {
+			space.touch(target);
+			space.forwardPrice[target] = price;
+			space.forwardEdge[target] = edge;
+			space.forwardQue.insertOrDecrease(target, price);
+		    }
+		}
+	    } else {
+		for (int i = ch.getDownEdgeStart(node); i < ch.getDownEdgeEnd(node); i++) {
+		    int edge = ch.getDownEdge(i);
+		    int source = ch.getEdgeFrom(edge);
+		    double price = space.backwardPrice[node] + ch.getEdgeWeight(edge);
+		    if (price < space.backwardPrice[source]) {
+			space.touch(source);
+			space.backwardPrice[source] = price;
+			space.backwardEdge[source] = edge;
+			space.backwardQue.insertOrDecrease(source, price);
+		    }
+		}
+	    }
+	}
+
+	if (meetingNode < 0)
+	    return null;
+	return getEdges(ch, space, meetingNode);
+    }
+
+    /**
+     * Setzt die Kanten beider Suchen am Treffpunkt zusammen und lst die Abkrzungen auf.
+     * 
+     * @return Streckenabschnitte in Fahrtrichtung oder null wenn Start und Ziel identisch sind
+     */
+    private List<Map<String, String>> getEdges(ContractionHierarchy ch, SearchSpace space, int meetingNode) {
+	List<Integer> upEdges = new ArrayList<Integer>();
+	for (int node = meetingNode; space.forwardEdge[node] >= 0; node = ch.getEdgeFrom(space.forwardEdge[node]))
+	    upEdges.add(space.forwardEdge[node]);
+
+	List<Integer> originalEdges = new ArrayList<Integer>();
+	for (int i = upEdges.size() - 1; i >= 0; i--)
+	    ch.unpackEdge(upEdges.get(i), originalEdges);
+	for (int node = meetingNode; space.backwardEdge[node] >= 0; node = ch.getEdgeTo(space.backwardEdge[node]))
+	    ch.unpackEdge(space.backwardEdge[node], originalEdges);
+
+	if (originalEdges.isEmpty())
+	    return null;
+
+	List<Map<String, String>> edges = new ArrayList<Map<String, String>>(originalEdges.size());
+	for (int edge : originalEdges)
+	    edges.add(graph.getEdgeRoute(edge));
+	return edges;
+    }
+}
@@ -1,314 +1,178 @@
 package de.dhbw.horb.routePlanner.evaluation.dijkstra;
 
 import java.io.FileNotFoundException;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import javax.xml.stream.XMLStreamException;
 
-import de.dhbw.horb.routePlanner.Constants;
-import de.dhbw.horb.routePlanner.SupportMethods;
-import de.dhbw.horb.routePlanner.data.StAXMapGraphDataParser;
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.IndexedMinHeap;
 
 /**
- * Klasse Dijkstra Berechnet krzeste bzw schnellste Route von Start zu Zielknoten
+ * Klasse Dijkstra Berechnet krzeste bzw schnellste Route von Start zu Zielknoten. Gerechnet wird auf den int Indizes
+ * des {@link CompactRouteGraph}, die Abarbeitungsschlange ist ein {@link IndexedMinHeap} mit Decrease-Key. Jeder
+ * Thread verwendet seine Sucharrays wieder.
  * 
  */
 public class Dijkstra {
 
-    private String startnode;
-    private String endnode;
-    private String nearestNode;
-    private String nearestNodeId;
-    private Map<String, List<Map<String, String>>> routes;
-    private Map<String, List<String>> nodeMap;
-    private Map<String, Double> nodeDuration = new HashMap<String, Double>();
-    private Map<String, Map<String, String>> currentNeighbours = new HashMap<String, Map<String, String>>();
-    private Map<String, Map<String, String>> openNeighbours = new HashMap<String, Map<String, String>>();
-    private Map<String, Map<String, String>> goneEdges = new HashMap<String, Map<String, String>>();
-
-    private LinkedList<String> prioQue = new LinkedList<String>();
-    private List<String> goneNodes = new ArrayList<String>();
-    private List<String> cheapNeighbours = new ArrayList<String>();
-    private Paths allPaths;
-    private Paths rightPaths;
-    private boolean targetReached;
-    private String calcMethod;
-    private boolean error;
-
-    public Dijkstra(String startnode, String endnode) {
-
-	try {
-	    nodeMap = StAXMapGraphDataParser.getNodeXMLMap();
-	    routes = StAXMapGraphDataParser.getRouteXMLMap();
-	} catch (FileNotFoundException | XMLStreamException e) {
-	    e.printStackTrace();
-	}
-	this.startnode = startnode;
-	this.endnode = endnode;
-	nearestNode = startnode;
-	initializeNodePrice();
-	allPaths = new Paths();
-	rightPaths = new Paths();
-	allPaths.add(new Way(startnode, endnode));
-    }
-
     /**
-     * Berechnet neue Preise, initialisiert Wege und bearbeitet Abarbeitungsschlange von noch offenen Knoten
-     * 
-     * @param calcMethod String fr Unterscheidung der Berechnung (nach Dauer oder Strecke)
-     * @return Gibt eine Liste von Maps zurck, die die einzelnen Streckenabschnitte darstellen
+     * Sucharrays eines Threads. Nach jeder Suche werden nur die vernderten Eintrge zurckgesetzt, sodass eine Anfrage
+     * nicht proportional zur Gre des Graphen kostet.
      */
-    public List<Map<String, String>> calculateRoute(String calcMethod) {
-
-	this.calcMethod = calcMethod;
-
-	while (!targetReached) {
-	    calcNewNodePrices(nearestNode);
-
-	    initializeRoute();
-
-	    maintainPrioQue();
-
-	    if (!prioQue.isEmpty() && nodeMap.get(prioQue.getFirst()).get(0).equals(endnode) || error == true) {
-		targetReached = true;
-		pickRightWays();
+    private static class SearchSpace {
+	final double[] nodePrice;
+	final int[] predecessorEdge;
+	final int[] predecessorNode;
+	final boolean[] goneNodes;
+	final boolean[] targets;
+	final int[] touchedNodes;
+	int touchedCount;
+	final IndexedMinHeap prioQue;
+
+	SearchSpace(int nodeCount) {
+	    nodePrice = new double[nodeCount];
+	    predecessorEdge = new int[nodeCount];
+	    predecessorNode = new int[nodeCount];
+	    goneNodes = new boolean[nodeCount];
+	    targets = new boolean[nodeCount];
+	    touchedNodes = new int[nodeCount];
+	    prioQue = new IndexedMinHeap(nodeCount);
+	    Arrays.fill(nodePrice, Double.POSITIVE_INFINITY);
+	    Arrays.fill(predecessorEdge, -1);
+	    Arrays.fill(predecessorNode, -1);
+	}
 
-		if (!rightPaths.isEmpty())
-		    rightPaths.initializeCheapestWay();
-		else if (rightPaths.isEmpty())
-		    return null;
+	void touch(int node) {
+	    if (nodePrice[node] == Double.POSITIVE_INFINITY)
+		touchedNodes[touchedCount++] = node;
+	}
 
-		return rightPaths.getCheapestWay().getEdges();
+	void reset(int[] endNodes) {
+	    for (int i = 0; i < touchedCount; i++) {
+		int node = touchedNodes[i];
+		nodePrice[node] = Double.POSITIVE_INFINITY;
+		predecessorEdge[node] = -1;
+		predecessorNode[node] = -1;
+		goneNodes[node] = false;
 	    }
+	    for (int endNode : endNodes)
+		targets[endNode] = false;
+	    touchedCount = 0;
+	    prioQue.clear();
 	}
-	return null;
     }
 
-    /**
-     * Berechnet Preise (nach Dauer oder Strecke) zu einzelnen Knoten
-     * 
-     * @param initialNode Ausgangsknoten von dem Nachbarknoten in Betracht gezogen werden
-     */
-    private void calcNewNodePrices(String initialNode) {
-	initializeCurrentNeighbours(initialNode);
-
-	Set<String> keys = currentNeighbours.keySet();
-
-	for (String focusedNeighbour : keys)
-	    if (getValue(currentNeighbours.get(focusedNeighbour)) + nodeDuration.get(nearestNodeId) < nodeDuration
-		    .get(getId(focusedNeighbour))
-		    || nodeDuration.get(getId(focusedNeighbour)) == 0) {
+    private static final ThreadLocal<SearchSpace> searchSpaces = new ThreadLocal<SearchSpace>();
 
-		setNodeDuration(getName(currentNeighbours.get(focusedNeighbour)), getValue(currentNeighbours
-		        .get(focusedNeighbour))
-		        + nodeDuration.get(nearestNodeId));
+    private CompactRouteGraph graph;
+    private int[] startNodes;
+    private int[] endNodes;
 
-		if (!prioQue.contains(getId(focusedNeighbour)) && !focusedNeighbour.equals(startnode))
-		    cheapNeighbours.add(focusedNeighbour);
-	    }
-	if (!prioQue.isEmpty())
-	    prioQue.removeFirst();
+    public Dijkstra(String startnode, String endnode) throws FileNotFoundException, XMLStreamException {
+	this(startnode, endnode, RoadGraph.getInstance());
     }
 
     /**
-     * Initialisiert Wege. Fr jeden Weg dessen letzter Knoten dem aktuell bearbeitenden Knoten gleicht werden (Anzahl
-     * Nachbarknoten des aktuell bearbeitenden Knoten)-viele neue Wege angelegt
+     * Dijkstra Routenberechnung auf einem bereits geladenen Graphen.
+     * 
+     * @param startnode Name des Startknotens
+     * @param endnode Name des Zielknotens
+     * @param graph Der gemeinsam genutzte Graph des Landes
      */
-    private void initializeRoute() {
-
-	int numberOfIterations = 0;
-	Double gonePrice = (double) 0;
-	List<String> goneNodes = null;
-	List<Map<String, String>> goneEdges = null;
-
-	if (!currentNeighbours.isEmpty()) {
-	    numberOfIterations = allPaths.size() - 1;
-	    for (int i = 0; i <= numberOfIterations; i++) {
-		if (allPaths.get(i).getLastNode().equals(nearestNode)) {
-		    gonePrice = allPaths.get(i).getPrice();
-		    goneNodes = allPaths.get(i).getNodes();
-		    goneEdges = allPaths.get(i).getEdges();
-		    addNewWays(goneNodes, gonePrice, goneEdges);
-		    allPaths.remove(allPaths.get(i));
-		    numberOfIterations--;
-		}
-	    }
-	}
-	this.goneNodes.add(nearestNodeId);
+    public Dijkstra(String startnode, String endnode, RoadGraph graph) {
+	this.graph = graph.getCompactGraph();
+	startNodes = graph.getJunctionIndex().getNodes(startnode);
+	endNodes = graph.getJunctionIndex().getNodes(endnode);
     }
 
     /**
-     * Initialisert aktuelle Nachbarn
+     * Berechnet die Preise der Knoten ausgehend von allen Startknoten bis ein Zielknoten erreicht ist.
      * 
-     * @param initialNode Ausgangsknoten von dem Nachbarn initialisiert werden
+     * @param calcMethod String fr Unterscheidung der Berechnung (nach Dauer oder Strecke)
+     * @return Gibt eine Liste von Maps zurck, die die einzelnen Streckenabschnitte darstellen
      */
-    private void initializeCurrentNeighbours(String initialNode) {
-	List<String> ids = new ArrayList<String>();
-
-	if (nearestNode.equals(startnode))
-	    ids = nodeMap.get(initialNode);
-	else
-	    ids.add(openNeighbours.get(initialNode).get(Constants.NEW_ROUTE_DESTINATIONNODEID));
-
-	for (String id : ids) {
-
-	    List<Map<String, String>> maps = routes.get(id);
-
-	    if (maps != null)
-		for (Map<String, String> map : maps) {
-
-		    Map<String, String> neighbour = map;
+    public List<Map<String, String>> calculateRoute(String calcMethod) {
+	if (startNodes.length == 0 || endNodes.length == 0)
+	    return null;
 
-		    if (!id.equals(neighbour.get(Constants.NEW_ROUTE_DESTINATIONNODEID)))
-			if (!currentNeighbours.containsKey(neighbour)
-			        || getValue(currentNeighbours.get(neighbour)) > Double.valueOf(map
-			                .get(Constants.NEW_ROUTE_DURATION))) {
-			    currentNeighbours.put(getName(neighbour), map);
-			    openNeighbours.put(getName(neighbour), map);
-			    goneEdges.put(getName(neighbour), map);
-			}
-		}
+	double[] weights = graph.getEdgeWeights(calcMethod);
+	SearchSpace space = searchSpaces.get();
+	if (space == null || space.nodePrice.length != graph.getNodeCount()) {
+	    space = new SearchSpace(graph.getNodeCount());
+	    searchSpaces.set(space);
 	}
-    }
-
-    /**
-     * Verwaltet Abarbeitungsschlange Bestimmt nchsten zu bearbeitenden Knoten anhand von geringstem Preis der offenen
-     * Knoten
-     */
-    private void maintainPrioQue() {
 
-	for (String cheapNeighbour : cheapNeighbours)
-	    prioQue.add(currentNeighbours.get(cheapNeighbour).get(Constants.NEW_ROUTE_DESTINATIONNODEID));
-	cheapNeighbours.clear();
+	try {
+	    initializeNodePrice(space);
+	    while (!space.prioQue.isEmpty()) {
+		int nearestNode = space.prioQue.poll();
+		space.goneNodes[nearestNode] = true;
 
-	if (!prioQue.isEmpty()) {
-	    nearestNode = nodeMap.get(prioQuePickCheapest()).get(0);
-	    nearestNodeId = goneEdges.get(nearestNode).get(Constants.NEW_ROUTE_DESTINATIONNODEID);
-	} else if (prioQue.isEmpty() && nearestNode != startnode) {
-	    error = true;
-	}
-	currentNeighbours.clear();
-    }
+		if (space.targets[nearestNode])
+		    return getEdges(space, nearestNode);
 
-    /**
-     * Sucht Knoten aus Warteschlange mit geringstem Preis (Dauer oder Strecke)
-     * 
-     * @return finalId Gibt Id des "billigsten" Knotens zurck
-     */
-    private String prioQuePickCheapest() {
-	Double finalPrice = null;
-	String finalId = null;
-	for (String id : prioQue) {
-	    if (finalId == null) {
-		finalId = id;
-		finalPrice = nodeDuration.get(id);
-	    } else if (finalPrice != null && nodeDuration.get(nodeMap.get(id).get(0)) < finalPrice) {
-		finalPrice = nodeDuration.get(id);
-		finalId = id;
+		calcNewNodePrices(space, nearestNode, weights);
 	    }
+	    return null;
+	} finally {
+	    space.reset(endNodes);
 	}
-	return finalId;
-    }
-
-    /**
-     * Fgt neue Wege hinzu
-     * 
-     * @param goneNodes Knoten, die bis dahin gegangen wurden
-     * @param price Preis (Dauer oder Strecke), der bis dahin beansprucht wurde
-     * @param edges Strecken, die bis dahin gegangen wurden
-     */
-    private void addNewWays(List<String> goneNodes, Double gonePrice, List<Map<String, String>> edges) {
-
-	Set<String> neighbours = currentNeighbours.keySet();
-
-	for (String focusedNeighbour : neighbours)
-	    if (!this.goneNodes.contains(currentNeighbours.get(focusedNeighbour).get(
-		    Constants.NEW_ROUTE_DESTINATIONNODEID)))
-		allPaths.add(new Way(goneNodes, gonePrice, focusedNeighbour, getValue(currentNeighbours
-		        .get(focusedNeighbour)), edges, currentNeighbours.get(focusedNeighbour)));
     }
 
     /**
-     * Initialisiert Hilfsmap fr Preise der Knoten
+     * Setzt die Preise der Startknoten und markiert die Zielknoten.
      */
-    private void initializeNodePrice() {
-	List<String> ids = new ArrayList<String>();
-	Set<String> keys = nodeMap.keySet();
-	nearestNodeId = nodeMap.get(startnode).get(0);
-	for (String singleKey : keys) {
-	    ids = nodeMap.get(singleKey);
-	    for (String id : ids) {
-		if (!SupportMethods.isNumeric(singleKey))
-		    nodeDuration.put(id, (double) 0);
-	    }
+    private void initializeNodePrice(SearchSpace space) {
+	for (int endNode : endNodes)
+	    space.targets[endNode] = true;
+	for (int startNode : startNodes) {
+	    space.touch(startNode);
+	    space.nodePrice[startNode] = 0.0;
+	    space.prioQue.insertOrDecrease(startNode, 0.0);
 	}
     }
 
     /**
-     * Gibt Preis in Abhngigkeit von der Berechnungsmethode Dauer oder Strecke zurck
+     * Berechnet Preise (nach Dauer oder Strecke) zu den Nachbarknoten
      * 
-     * @param map Kante, fr die die Dauer oder die Strecke zurckgegeben wird
-     * @return Preis fr die Kante
+     * @param initialNode Ausgangsknoten von dem Nachbarknoten in Betracht gezogen werden
+     * @param weights Kantengewichte der Berechnungsmethode
      */
-    private Double getValue(Map<String, String> edge) {
-	String valueString;
-	switch (calcMethod) {
-	case Constants.EVALUATION_CALCULATION_DURATION:
-	    valueString = edge.get(Constants.NEW_ROUTE_DURATION);
-	    break;
-	case Constants.EVALUATION_CALCULATION_DISTANCE:
-	    valueString = edge.get(Constants.NEW_ROUTE_DISTANCE);
-	    break;
-	default:
-	    valueString = edge.get(Constants.NEW_ROUTE_DURATION);
+    private void calcNewNodePrices(SearchSpace space, int initialNode, double[] weights) {
+	for (int edge = graph.getEdgeStart(initialNode); edge < graph.getEdgeEnd(initialNode); edge++) {
+	    int neighbour = graph.getEdgeTarget(edge);
+	    if (space.goneNodes[neighbour])
+		continue;
+
+	    double price = space.nodePrice[initialNode] + weights[edge];
+	    if (price < space.nodePrice[neighbour]) {
+		space.touch(neighbour);
+		space.prioQue.insertOrDecrease(neighbour, price);
+		space.nodePrice[neighbour] = price;
+		space.predecessorEdge[neighbour] = edge;
+		space.predecessorNode[neighbour] = initialNode;
+	    }
 	}
-	if (!SupportMethods.isNumeric(valueString))
-	    return null;
-	return Double.valueOf(valueString);
-    }
-
-    /**
-     * Gibt den Zielnamen von dem bergebenen Streckenabschnitt zurck
-     * 
-     * @param edge Kante von der Zielnamen zurckgegeben wird
-     * @return Zielnamen von Kante
-     */
-    private String getName(Map<String, String> edge) {
-	return edge.get(Constants.NEW_ROUTE_DESTINATIONNODENAME);
     }
 
     /**
-     * Gibt Id fr Name des Knoten zurck
+     * Sammelt die Streckenabschnitte vom Start bis zum bergebenen Zielknoten
      * 
-     * @param focusedNeighbour Knoten fr den Id zurckgegeben wird
-     * @return Id fr Knoten
+     * @param endNode Erreichter Zielknoten
+     * @return Streckenabschnitte in Fahrtrichtung oder null wenn Start und Ziel identisch sind
      */
-    private String getId(String focusedNeighbour) {
-	return currentNeighbours.get(focusedNeighbour).get(Constants.NEW_ROUTE_DESTINATIONNODEID);
-    }
+    private List<Map<String, String>> getEdges(SearchSpace space, int endNode) {
+	LinkedList<Map<String, String>> edges = new LinkedList<Map<String, String>>();
+	for (int node = endNode; space.predecessorEdge[node] >= 0; node = space.predecessorNode[node])
+	    edges.addFirst(graph.getEdgeRoute(space.predecessorEdge[node]));
 
-    /**
-     * Speichert alle Wege, die am richtigen Zielknoten angekommen sind
-     */
-    private void pickRightWays() {
-	for (int i = 0; i <= allPaths.size() - 1; i++)
-	    if (allPaths.get(i).getLastNode().equals(endnode))
-		rightPaths.add(allPaths.get(i));
-    }
-
-    /**
-     * Setzt den Preis fr einen Knoten
-     * 
-     * @param name Key, fr den Preis gesetzt werden soll
-     * @param price Preis der gesetzt wird
-     */
-    public void setNodeDuration(String name, Double price) {
-	nodeDuration.put(name, price);
+	if (edges.isEmpty())
+	    return null;
+	return edges;
     }
-
-}
\ No newline at end of file
+}
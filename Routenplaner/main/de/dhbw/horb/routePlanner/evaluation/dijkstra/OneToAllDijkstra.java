@@ -0,0 +1,178 @@
+package de.dhbw.horb.routePlanner.evaluation.dijkstra;
+
+import java.util.Arrays;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.IndexedMinHeap;
+
+/**
+ * Dijkstra Suche ohne Ziel, die die Preise von den Startknoten zu allen erreichbaren Knoten berechnet. Wahlweise
+ * ber die eingehenden Kanten, dann sind es die Preise aller Knoten zu den Startknoten.
+ * <p>
+ * {@link #calculateTree(RoadGraph, String, String, double)} berechnet zustzlich den Krzeste-Wege-Baum mit Dauer
+ * und Strecke, optional nur bis zu einem Hchstpreis (Isochrone). Dabei verwendet jeder Thread seine Sucharrays
+ * wieder, nur das Ergebnis wird neu angelegt.
+ */
+public class OneToAllDijkstra {
+
+    /**
+     * Sucharrays eines Threads. Nach jeder Suche werden nur die vernderten Eintrge zurckgesetzt.
+     */
+    private static class SearchSpace {
+	final double[] price;
+	final double[] secondary;
+	final int[] parentEdge;
+	final boolean[] settled;
+	final int[] settledNodes;
+	int settledCount;
+	final int[] touchedNodes;
+	int touchedCount;
+	final IndexedMinHeap que;
+
+	SearchSpace(int nodeCount) {
+	    price = new double[nodeCount];
+	    secondary = new double[nodeCount];
+	    parentEdge = new int[nodeCount];
+	    settled = new boolean[nodeCount];
+	    settledNodes = new int[nodeCount];
+	    touchedNodes = new int[nodeCount];
+	    que = new IndexedMinHeap(nodeCount);
+	    Arrays.fill(price, Double.POSITIVE_INFINITY);
+	}
+
+	void reset() {
+	    for (int i = 0; i < touchedCount; i++) {
+		price[touchedNodes[i]] = Double.POSITIVE_INFINITY;
+		settled[touchedNodes[i]] = false;
+	    }
+	    touchedCount = 0;
+	    settledCount = 0;
+	    que.clear();
+	}
+    }
+
+    private static final ThreadLocal<SearchSpace> searchSpaces = new ThreadLocal<SearchSpace>();
+
+    /**
+     * @param graph Der Graph
+     * @param sources Start Knoten Indizes
+     * @param weights Kantengewichte der Berechnungsmethode
+     * @param reverse true um gegen die Fahrtrichtung zu suchen
+     * @return Preis jedes Knotens nach Index, unendlich wenn nicht erreichbar.
+     */
+    public static double[] calculatePrices(CompactRouteGraph graph, int[] sources, double[] weights, boolean reverse) {
+	double[] prices = new double[graph.getNodeCount()];
+	Arrays.fill(prices, Double.POSITIVE_INFINITY);
+	IndexedMinHeap que = new IndexedMinHeap(graph.getNodeCount());
+	for (int source : sources) {
+	    prices[source] = 0.0;
+	    que.insertOrDecrease(source, 0.0);
+	}
+
+	while (!que.isEmpty()) {
+	    int node = que.poll();
+	    if (reverse) {
+		for (int i = graph.getReverseEdgeStart(node); i < graph.getReverseEdgeEnd(node); i++)
+		    relax(prices, que, node, graph.getReverseEdgeSource(i), weights[graph.getReverseEdge(i)]);
+	    } else {
+		for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++)
+		    relax(prices, que, node, graph.getEdgeTarget(edge), weights[edge]);
+	    }
+	}
+	return prices;
+    }
+
+    private static void relax(double[] prices, IndexedMinHeap que, int node, int neighbour, double weight) {
+	double price = prices[node] + weight;
+	if (price < prices[neighbour]) {
+	    prices[neighbour] = price;
+	    que.insertOrDecrease(neighbour, price);
+	}
+    }
+
+    /**
+     * Berechnet den Krzeste-Wege-Baum von allen Knoten einer Kreuzung aus. Knoten werden in der Reihenfolge ihres
+     * Preises abgeschlossen, die Suche endet beim ersten Knoten ber dem Hchstpreis.
+     * 
+     * @param graph Der Graph
+     * @param departure Name der Startkreuzung wie in {@link RoadGraph#getJunctionIndex()}
+     * @param calculationMethod Constants.EVALUATION_CALCULATION_DURATION oder Constants.EVALUATION_CALCULATION_DISTANCE
+     * @param cutoff Hchstpreis in ms bzw. km, Double.POSITIVE_INFINITY fr alle erreichbaren Knoten.
+     * @return Der Baum mit allen Knoten, deren Preis hchstens cutoff ist.
+     * @throws IllegalArgumentException Bei einer unbekannten Startkreuzung oder einem negativen Hchstpreis.
+     */
+    public static ShortestPathTree calculateTree(RoadGraph graph, String departure, String calculationMethod,
+	    double cutoff) {
+	if (!graph.getJunctionIndex().contains(departure))
+	    throw new IllegalArgumentException("Unbekannte Anschlussstelle: " + departure);
+	if (!(cutoff >= 0.0))
+	    throw new IllegalArgumentException("Ungltiger Hchstpreis: " + cutoff);
+
+	CompactRouteGraph compact = graph.getCompactGraph();
+	SearchSpace space = searchSpaces.get();
+	if (space == null || space.price.length != compact.getNodeCount()) {
+	    space = new SearchSpace(compact.getNodeCount());
+	    searchSpaces.set(space);
+	}
+
+	boolean byDistance = Constants.EVALUATION_CALCULATION_DISTANCE.equals(calculationMethod);
+	double[] weights = compact.getEdgeWeights(calculationMethod);
+	double[] otherWeights = compact.getEdgeWeights(byDistance ? Constants.EVALUATION_CALCULATION_DURATION
+	        : Constants.EVALUATION_CALCULATION_DISTANCE);
+
+	try {
+	    searchTree(compact, space, graph.getJunctionIndex().getNodes(departure), weights, otherWeights, cutoff);
+
+	    int count = space.settledCount;
+	    int[] nodes = Arrays.copyOf(space.settledNodes, count);
+	    double[] prices = new double[count];
+	    double[] secondaries = new double[count];
+	    int[] parentEdges = new int[count];
+	    for (int i = 0; i < count; i++) {
+		prices[i] = space.price[nodes[i]];
+		secondaries[i] = space.secondary[nodes[i]];
+		parentEdges[i] = space.parentEdge[nodes[i]];
+	    }
+	    return new ShortestPathTree(graph, departure, calculationMethod, cutoff, nodes,
+	            byDistance ? prices : secondaries, byDistance ? secondaries : prices, parentEdges);
+	} finally {
+	    space.reset();
+	}
+    }
+
+    private static void searchTree(CompactRouteGraph graph, SearchSpace space, int[] sources, double[] weights,
+	    double[] otherWeights, double cutoff) {
+	for (int source : sources) {
+	    if (space.price[source] == Double.POSITIVE_INFINITY)
+		space.touchedNodes[space.touchedCount++] = source;
+	    space.price[source] = 0.0;
+	    space.secondary[source] = 0.0;
+	    space.parentEdge[source] = -1;
+	    space.que.insertOrDecrease(source, 0.0);
+	}
+
+	while (!space.que.isEmpty() && space.que.peekPriority() <= cutoff) {
+	    int node = space.que.poll();
+	    space.settled[node] = true;
+	    space.settledNodes[space.settledCount++] = node;
+
+	    for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++) {
+		int neighbour = graph.getEdgeTarget(edge);
+		if (space.settled[neighbour])
+		    continue;
+
+		double price = space.price[node] + weights[edge];
+		if (price < space.price[neighbour]) {
+		    if (space.price[neighbour] == Double.POSITIVE_INFINITY)
+			space.touchedNodes[space.touchedCount++] = neighbour;
+		    space.price[neighbour] = price;
+		    space.secondary[neighbour] = space.secondary[node] + otherWeights[edge];
+		    space.parentEdge[neighbour] = edge;
+		    space.que.insertOrDecrease(neighbour, price);
+		}
+	    }
+	}
+    }
+}
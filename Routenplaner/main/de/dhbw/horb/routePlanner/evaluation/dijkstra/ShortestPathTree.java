@@ -0,0 +1,161 @@
+package de.dhbw.horb.routePlanner.evaluation.dijkstra;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.EdgeAttributeStore;
+import de.dhbw.horb.routePlanner.data.JunctionIndex;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+
+/**
+ * Unvernderliches Ergebnis von {@link OneToAllDijkstra#calculateTree(RoadGraph, String, String, double)}: alle
+ * erreichten Knoten mit Dauer, Strecke und der Kante, ber die sie erreicht wurden. Die Knoten sind nach ihrem Preis
+ * in der gewhlten Auswertung sortiert, die Knoten der Startkreuzung stehen vorne.
+ * <p>
+ * Mit einem Hchstpreis ist der Baum eine Isochrone, z.B. alle Anschlussstellen, die innerhalb von 90 Minuten
+ * erreichbar sind. Die Weg IDs der Baumkanten knnen wie eine Route auf der Karte eingezeichnet werden.
+ */
+public class ShortestPathTree {
+
+    private final String departure;
+    private final String calculationMethod;
+    private final double cutoff;
+    private final double[] distances;
+    private final double[] durations;
+    private final List<String> nodeIDs;
+    private final List<String> parentNodeIDs;
+    private final List<String> junctionNames;
+    private final Map<String, Integer> junctionPositions;
+    private final List<String> wayIDs;
+
+    /**
+     * @param nodes Die erreichten Knoten Indizes in Reihenfolge ihres Preises.
+     * @param distances Strecke in km zu jedem Knoten aus nodes.
+     * @param durations Dauer in ms zu jedem Knoten aus nodes.
+     * @param parentEdges Kante, ber die der Knoten erreicht wurde, -1 bei Startknoten.
+     */
+    ShortestPathTree(RoadGraph graph, String departure, String calculationMethod, double cutoff, int[] nodes,
+	    double[] distances, double[] durations, int[] parentEdges) {
+	this.departure = departure;
+	this.calculationMethod = calculationMethod;
+	this.cutoff = cutoff;
+	this.distances = distances;
+	this.durations = durations;
+
+	CompactRouteGraph compact = graph.getCompactGraph();
+	JunctionIndex junctions = graph.getJunctionIndex();
+	EdgeAttributeStore attributes = compact.getEdgeAttributes();
+	List<String> nodeIDs = new ArrayList<String>(nodes.length);
+	List<String> parentNodeIDs = new ArrayList<String>(nodes.length);
+	List<String> junctionNames = new ArrayList<String>();
+	Map<String, Integer> junctionPositions = new HashMap<String, Integer>();
+	List<String> wayIDs = new ArrayList<String>();
+	for (int i = 0; i < nodes.length; i++) {
+	    nodeIDs.add(compact.getNodeID(nodes[i]));
+	    if (parentEdges[i] < 0) {
+		parentNodeIDs.add(null);
+	    } else {
+		parentNodeIDs.add(compact.getNodeID(compact.getEdgeSource(parentEdges[i])));
+		wayIDs.addAll(attributes.getWayIDList(parentEdges[i]));
+	    }
+	    String name = junctions.getNameOfNode(nodes[i]);
+	    if (name != null && !junctionPositions.containsKey(name)) {
+		junctionPositions.put(name, i);
+		junctionNames.add(name);
+	    }
+	}
+
+	this.nodeIDs = Collections.unmodifiableList(nodeIDs);
+	this.parentNodeIDs = Collections.unmodifiableList(parentNodeIDs);
+	this.junctionNames = Collections.unmodifiableList(junctionNames);
+	this.junctionPositions = junctionPositions;
+	this.wayIDs = Collections.unmodifiableList(wayIDs);
+    }
+
+    /**
+     * @return Name der Startkreuzung.
+     */
+    public String getDeparture() {
+	return departure;
+    }
+
+    /**
+     * @return Constants.EVALUATION_CALCULATION_DURATION oder Constants.EVALUATION_CALCULATION_DISTANCE.
+     */
+    public String getCalculationMethod() {
+	return calculationMethod;
+    }
+
+    /**
+     * @return Hchstpreis in ms bzw. km, Double.POSITIVE_INFINITY wenn der ganze Baum berechnet wurde.
+     */
+    public double getCutoff() {
+	return cutoff;
+    }
+
+    /**
+     * @return Anzahl der erreichten Knoten.
+     */
+    public int size() {
+	return nodeIDs.size();
+    }
+
+    /**
+     * @return Die Knoten IDs aller erreichten Knoten in Reihenfolge ihres Preises.
+     */
+    public List<String> getNodeIDs() {
+	return nodeIDs;
+    }
+
+    /**
+     * @return Die Namen aller erreichten Anschlussstellen in Reihenfolge ihres Preises, jede nur einmal.
+     */
+    public List<String> getJunctionNames() {
+	return junctionNames;
+    }
+
+    /**
+     * @return Die Weg IDs aller Kanten des Baums.
+     */
+    public List<String> getWayIDs() {
+	return wayIDs;
+    }
+
+    /**
+     * @param position Position in {@link #getNodeIDs()}.
+     * @return Knoten ID, von der aus der Knoten erreicht wurde, null bei Startknoten.
+     */
+    public String getParentNodeID(int position) {
+	return parentNodeIDs.get(position);
+    }
+
+    /**
+     * @param position Position in {@link #getNodeIDs()}.
+     * @return Strecke in km vom Start bis zu diesem Knoten.
+     */
+    public double getDistance(int position) {
+	return distances[position];
+    }
+
+    /**
+     * @param position Position in {@link #getNodeIDs()}.
+     * @return Dauer in ms vom Start bis zu diesem Knoten.
+     */
+    public double getDuration(int position) {
+	return durations[position];
+    }
+
+    /**
+     * @param junctionName Name einer Anschlussstelle.
+     * @return Position des zuerst erreichten Knotens der Anschlussstelle in {@link #getNodeIDs()} oder -1,
+     *         wenn sie nicht erreicht wurde.
+     */
+    public int indexOfJunction(String junctionName) {
+	Integer position = junctionPositions.get(junctionName);
+	return position == null ? -1 : position;
+    }
+}
@@ -0,0 +1,68 @@
+package de.dhbw.horb.routePlanner.evaluation.matrix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ergebnis einer Matrixberechnung. Fr jede Kombination aus Start und Ziel enthlt die Matrix Strecke und Dauer der
+ * nach der Berechnungsmethode besten Route. Nicht erreichbare oder unbekannte Kreuzungen haben den Wert
+ * {@link Double#POSITIVE_INFINITY}, ebenso eine Kreuzung zu sich selbst. Die Werte entsprechen damit denen von
+ * {@link de.dhbw.horb.routePlanner.evaluation.RouteResult}, bei dem "keine Route" null ist.
+ */
+public class RouteMatrix {
+
+    private final List<String> departures;
+    private final List<String> destinations;
+    private final String calculationMethod;
+    private final double[][] distances;
+    private final double[][] durations;
+
+    RouteMatrix(List<String> departures, List<String> destinations, String calculationMethod,
+	    double[][] distances, double[][] durations) {
+	this.departures = Collections.unmodifiableList(new ArrayList<String>(departures));
+	this.destinations = Collections.unmodifiableList(new ArrayList<String>(destinations));
+	this.calculationMethod = calculationMethod;
+	this.distances = distances;
+	this.durations = durations;
+    }
+
+    /**
+     * @return Die Namen der Startkreuzungen (Zeilen).
+     */
+    public List<String> getDepartures() {
+	return departures;
+    }
+
+    /**
+     * @return Die Namen der Zielkreuzungen (Spalten).
+     */
+    public List<String> getDestinations() {
+	return destinations;
+    }
+
+    /**
+     * @return Die Berechnungsmethode, nach der die Routen gewhlt wurden.
+     */
+    public String getCalculationMethod() {
+	return calculationMethod;
+    }
+
+    /**
+     * @param row Index der Startkreuzung
+     * @param column Index der Zielkreuzung
+     * @return Strecke in km.
+     */
+    public double getDistance(int row, int column) {
+	return distances[row][column];
+    }
+
+    /**
+     * @param row Index der Startkreuzung
+     * @param column Index der Zielkreuzung
+     * @return Dauer in Millisekunden.
+     */
+    public double getDuration(int row, int column) {
+	return durations[row][column];
+    }
+}
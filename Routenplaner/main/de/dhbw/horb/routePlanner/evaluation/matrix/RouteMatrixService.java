@@ -0,0 +1,226 @@
+package de.dhbw.horb.routePlanner.evaluation.matrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.EdgeAttributeStore;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.IndexedMinHeap;
+import de.dhbw.horb.routePlanner.evaluation.RouteEngine;
+import de.dhbw.horb.routePlanner.evaluation.RouteResult;
+
+/**
+ * Berechnet Strecken- und Dauermatrizen zwischen Kreuzungen ohne GUI. Jede Zeile ist eine Dijkstra Suche von allen
+ * IDs der Startkreuzung, die endet sobald alle Zielknoten abgeschlossen sind. Die Zeilen werden auf einen Thread Pool
+ * verteilt, jeder Thread verwendet seine Sucharrays wieder.
+ * <p>
+ * Jede Zelle folgt denselben Regeln wie {@link RouteEngine#calculate(String, String, String, String)}: Von einer
+ * Kreuzung zu sich selbst gibt es keine Route, und Kanten ohne Weg IDs zhlen wie in {@link RouteResult} nicht zu
+ * Strecke und Dauer.
+ */
+public class RouteMatrixService {
+
+    /**
+     * Sucharrays eines Threads. Nach jeder Zeile werden nur die vernderten Eintrge zurckgesetzt.
+     */
+    private static class SearchSpace {
+	final double[] price;
+	final double[] distance;
+	final double[] duration;
+	final boolean[] settled;
+	final int[] touchedNodes;
+	int touchedCount;
+	final IndexedMinHeap que;
+
+	SearchSpace(int nodeCount) {
+	    price = new double[nodeCount];
+	    distance = new double[nodeCount];
+	    duration = new double[nodeCount];
+	    settled = new boolean[nodeCount];
+	    touchedNodes = new int[nodeCount];
+	    que = new IndexedMinHeap(nodeCount);
+	    Arrays.fill(price, Double.POSITIVE_INFINITY);
+	}
+
+	void reset() {
+	    for (int i = 0; i < touchedCount; i++) {
+		price[touchedNodes[i]] = Double.POSITIVE_INFINITY;
+		settled[touchedNodes[i]] = false;
+	    }
+	    touchedCount = 0;
+	    que.clear();
+	}
+    }
+
+    private final RoadGraph roadGraph;
+    private final CompactRouteGraph graph;
+    private final ExecutorService executor;
+    /** Kanten mit Weg IDs, nur diese zhlen zu Strecke und Dauer. */
+    private final boolean[] countedEdges;
+    private final ThreadLocal<SearchSpace> searchSpaces = new ThreadLocal<SearchSpace>();
+
+    /**
+     * Erzeugt den Dienst mit einem Thread pro Prozessor.
+     * 
+     * @param graph Der gemeinsam genutzte Graph des Landes
+     */
+    public RouteMatrixService(RoadGraph graph) {
+	this(graph, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param graph Der gemeinsam genutzte Graph des Landes
+     * @param threads Anzahl der Threads, auf die die Zeilen verteilt werden.
+     */
+    public RouteMatrixService(RoadGraph graph, int threads) {
+	this.roadGraph = graph;
+	this.graph = graph.getCompactGraph();
+	this.executor = Executors.newFixedThreadPool(Math.max(1, threads));
+	EdgeAttributeStore attributes = this.graph.getEdgeAttributes();
+	countedEdges = new boolean[this.graph.getEdgeCount()];
+	for (int edge = 0; edge < countedEdges.length; edge++)
+	    countedEdges[edge] = attributes.hasWayIDs(edge);
+    }
+
+    /**
+     * Berechnet die Matrix aller Start- und Zielkreuzungen.
+     * 
+     * @param departures Namen der Startkreuzungen wie in {@link RoadGraph#getJunctionIndex()}
+     * @param destinations Namen der Zielkreuzungen wie in {@link RoadGraph#getJunctionIndex()}
+     * @param calculationMethod Nach welcher Gre die Routen gewhlt werden (Dauer oder Strecke)
+     * @return Die Matrix.
+     * @throws InterruptedException
+     */
+    public RouteMatrix calculate(List<String> departures, List<String> destinations, final String calculationMethod)
+	    throws InterruptedException {
+	final int[][] destinationNodes = new int[destinations.size()][];
+	final boolean[] targets = new boolean[graph.getNodeCount()];
+	int targetCount = 0;
+	for (int column = 0; column < destinationNodes.length; column++) {
+	    destinationNodes[column] = roadGraph.getJunctionIndex().getNodes(destinations.get(column));
+	    for (int node : destinationNodes[column])
+		if (!targets[node]) {
+		    targets[node] = true;
+		    targetCount++;
+		}
+	}
+
+	final int allTargets = targetCount;
+	final double[][] distances = new double[departures.size()][];
+	final double[][] durations = new double[departures.size()][];
+	List<Future<?>> rows = new ArrayList<Future<?>>(departures.size());
+	for (int row = 0; row < departures.size(); row++) {
+	    final int currentRow = row;
+	    final int[] startNodes = roadGraph.getJunctionIndex().getNodes(departures.get(row));
+	    rows.add(executor.submit(new Callable<Void>() {
+		@Override
+		public Void call() {
+		    calculateRow(startNodes, destinationNodes, targets, allTargets, calculationMethod,
+		            distances, durations, currentRow);
+		    return null;
+		}
+	    }));
+	}
+
+	try {
+	    for (Future<?> row : rows)
+		row.get();
+	} catch (ExecutionException e) {
+	    throw new IllegalStateException(e.getCause());
+	}
+	for (int row = 0; row < departures.size(); row++) {
+	    for (int column = 0; column < destinations.size(); column++) {
+		if (departures.get(row).equals(destinations.get(column))) {
+		    distances[row][column] = Double.POSITIVE_INFINITY;
+		    durations[row][column] = Double.POSITIVE_INFINITY;
+		}
+	    }
+	}
+	return new RouteMatrix(departures, destinations, calculationMethod, distances, durations);
+    }
+
+    /**
+     * Beendet den Thread Pool. Danach knnen keine Matrizen mehr berechnet werden.
+     */
+    public void shutdown() {
+	executor.shutdown();
+    }
+
+    private void calculateRow(int[] startNodes, int[][] destinationNodes, boolean[] targets, int targetCount,
+	    String calculationMethod, double[][] distances, double[][] durations, int row) {
+	SearchSpace space = searchSpaces.get();
+	if (space == null || space.price.length != graph.getNodeCount()) {
+	    space = new SearchSpace(graph.getNodeCount());
+	    searchSpaces.set(space);
+	}
+
+	try {
+	    search(space, startNodes, targets, targetCount, graph.getEdgeWeights(calculationMethod));
+
+	    double[] distanceRow = new double[destinationNodes.length];
+	    double[] durationRow = new double[destinationNodes.length];
+	    for (int column = 0; column < destinationNodes.length; column++) {
+		int best = -1;
+		for (int node : destinationNodes[column])
+		    if (space.settled[node] && (best < 0 || space.price[node] < space.price[best]))
+			best = node;
+		distanceRow[column] = best < 0 ? Double.POSITIVE_INFINITY : space.distance[best];
+		durationRow[column] = best < 0 ? Double.POSITIVE_INFINITY : space.duration[best];
+	    }
+	    distances[row] = distanceRow;
+	    durations[row] = durationRow;
+	} finally {
+	    space.reset();
+	}
+    }
+
+    /**
+     * Dijkstra Suche von allen Startknoten, bis alle Zielknoten abgeschlossen sind. Entlang des Suchbaums werden
+     * Strecke und Dauer der Kanten mit Weg IDs mitgezhlt.
+     */
+    private void search(SearchSpace space, int[] startNodes, boolean[] targets, int targetCount, double[] weights) {
+	for (int startNode : startNodes) {
+	    if (space.price[startNode] == Double.POSITIVE_INFINITY)
+		space.touchedNodes[space.touchedCount++] = startNode;
+	    space.price[startNode] = 0.0;
+	    space.distance[startNode] = 0.0;
+	    space.duration[startNode] = 0.0;
+	    space.que.insertOrDecrease(startNode, 0.0);
+	}
+
+	int settledTargets = 0;
+	while (!space.que.isEmpty() && settledTargets < targetCount) {
+	    int node = space.que.poll();
+	    space.settled[node] = true;
+	    if (targets[node])
+		settledTargets++;
+
+	    for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++) {
+		int neighbour = graph.getEdgeTarget(edge);
+		if (space.settled[neighbour])
+		    continue;
+
+		double price = space.price[node] + weights[edge];
+		if (price < space.price[neighbour]) {
+		    if (space.price[neighbour] == Double.POSITIVE_INFINITY)
+			space.touchedNodes[space.touchedCount++] = neighbour;
+		    space.price[neighbour] = price;
+		    space.distance[neighbour] = space.distance[node];
+		    space.duration[neighbour] = space.duration[node];
+		    if (countedEdges[edge]) {
+			space.distance[neighbour] += graph.getEdgeDistance(edge);
+			space.duration[neighbour] += graph.getEdgeDuration(edge);
+		    }
+		    space.que.insertOrDecrease(neighbour, price);
+		}
+	    }
+	}
+    }
+}
@@ -0,0 +1,158 @@
+package de.dhbw.horb.routePlanner.server;
+
+import java.util.List;
+
+/**
+ * Schreibt JSON in einen StringBuilder, ohne zustzliche Bibliothek. Kommas zwischen den Werten werden selbst gesetzt.
+ * Zahlen, die in JSON nicht darstellbar sind (unendlich, NaN), werden als null geschrieben.
+ */
+public class JsonWriter {
+
+    private static final int MAX_DEPTH = 32;
+
+    private final StringBuilder out;
+    /** Fr jede offene Ebene, ob schon ein Wert geschrieben wurde. */
+    private final boolean[] hasValue = new boolean[MAX_DEPTH];
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter() {
+	this(new StringBuilder());
+    }
+
+    /**
+     * @param out Hier wird angehngt.
+     */
+    public JsonWriter(StringBuilder out) {
+	this.out = out;
+    }
+
+    public JsonWriter beginObject() {
+	beforeValue();
+	out.append('{');
+	hasValue[++depth] = false;
+	return this;
+    }
+
+    public JsonWriter endObject() {
+	depth--;
+	out.append('}');
+	return this;
+    }
+
+    public JsonWriter beginArray() {
+	beforeValue();
+	out.append('[');
+	hasValue[++depth] = false;
+	return this;
+    }
+
+    public JsonWriter endArray() {
+	depth--;
+	out.append(']');
+	return this;
+    }
+
+    /**
+     * @param name Der Name des folgenden Werts in einem Objekt.
+     * @return Dieser Writer.
+     */
+    public JsonWriter name(String name) {
+	beforeValue();
+	quote(name);
+	out.append(':');
+	afterName = true;
+	return this;
+    }
+
+    public JsonWriter value(String value) {
+	beforeValue();
+	if (value == null)
+	    out.append("null");
+	else
+	    quote(value);
+	return this;
+    }
+
+    public JsonWriter value(double value) {
+	beforeValue();
+	if (Double.isNaN(value) || Double.isInfinite(value))
+	    out.append("null");
+	else if (value == Math.rint(value) && Math.abs(value) < 1e15)
+	    out.append((long) value);
+	else
+	    out.append(value);
+	return this;
+    }
+
+    public JsonWriter value(long value) {
+	beforeValue();
+	out.append(value);
+	return this;
+    }
+
+    public JsonWriter value(boolean value) {
+	beforeValue();
+	out.append(value);
+	return this;
+    }
+
+    /**
+     * @param values Wird als Array aus Strings geschrieben.
+     * @return Dieser Writer.
+     */
+    public JsonWriter value(List<String> values) {
+	beginArray();
+	for (String value : values)
+	    value(value);
+	return endArray();
+    }
+
+    /**
+     * @return Das bisher geschriebene JSON.
+     */
+    @Override
+    public String toString() {
+	return out.toString();
+    }
+
+    private void beforeValue() {
+	if (afterName) {
+	    afterName = false;
+	    return;
+	}
+	if (hasValue[depth])
+	    out.append(',');
+	hasValue[depth] = true;
+    }
+
+    private void quote(String value) {
+	out.append('"');
+	for (int i = 0; i < value.length(); i++) {
+	    char c = value.charAt(i);
+	    switch (c) {
+	    case '"':
+		out.append("\\\"");
+		break;
+	    case '\\':
+		out.append("\\\\");
+		break;
+	    case '\n':
+		out.append("\\n");
+		break;
+	    case '\r':
+		out.append("\\r");
+		break;
+	    case '\t':
+		out.append("\\t");
+		break;
+	    default:
+		if (c < 0x20)
+		    out.append(String.format("\\u%04x", (int) c));
+		else
+		    out.append(c);
+	    }
+	}
+	out.append('"');
+    }
+}
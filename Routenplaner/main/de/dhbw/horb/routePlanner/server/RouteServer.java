@@ -0,0 +1,416 @@
+package de.dhbw.horb.routePlanner.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.SupportMethods;
+import de.dhbw.horb.routePlanner.data.JunctionIndex;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.RouteCache;
+import de.dhbw.horb.routePlanner.evaluation.RouteEngine;
+import de.dhbw.horb.routePlanner.evaluation.RouteResult;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.ShortestPathTree;
+import de.dhbw.horb.routePlanner.evaluation.matrix.RouteMatrix;
+import de.dhbw.horb.routePlanner.evaluation.matrix.RouteMatrixService;
+
+/**
+ * HTTP Schnittstelle zur Routenberechnung ohne GUI. Alle Anfragen teilen sich einen geladenen {@link RoadGraph} und
+ * werden auf einem Thread Pool fester Gre mit begrenzter Warteschlange abgearbeitet. Ist die Warteschlange voll,
+ * bearbeitet der annehmende Thread die Anfrage selbst und nimmt so lange keine neuen an. Routen werden ber eine
+ * gemeinsame {@link RouteEngine} mit {@link RouteCache} berechnet, jede Anfrage bekommt ihr eigenes
+ * {@link RouteResult}.
+ * <p>
+ * Endpunkte, alle mit GET und JSON als Antwort. Distanzen sind in km, Dauern in ms:
+ * <ul>
+ * <li>/route?departure=..&amp;destination=..&amp;evaluationMethod=Dijkstra&amp;calculationMethod=Dauer
+ * <li>/matrix?departure=..&amp;departure=..&amp;destination=..&amp;calculationMethod=Strecke
+ * <li>/isochrone?departure=..&amp;calculationMethod=Dauer&amp;cutoff=5400000 (ohne cutoff alle erreichbaren Knoten)
+ * <li>/junctions?query=..&amp;limit=10
+ * <li>/status
+ * </ul>
+ * Fehler werden mit passendem Statuscode und {"error": ".."} beantwortet.
+ */
+public class RouteServer {
+
+    public static final int DEFAULT_PORT = 8080;
+    /** Wartende Anfragen pro Thread, bevor der annehmende Thread selbst rechnet. */
+    private static final int QUEUE_PER_THREAD = 16;
+    /** Hchstanzahl der Zellen einer Matrix pro Anfrage. */
+    private static final int MAX_MATRIX_CELLS = 10000;
+    private static final int MAX_SUGGESTIONS = 1000;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final RoadGraph graph;
+    private final RouteEngine engine;
+    private final HttpServer server;
+    private final ThreadPoolExecutor executor;
+    private final RouteMatrixService matrixService;
+
+    /**
+     * Fehler einer Anfrage, der mit Statuscode an den Aufrufer geht.
+     */
+    private static class RequestException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+	final int status;
+
+	RequestException(int status, String message) {
+	    super(message);
+	    this.status = status;
+	}
+    }
+
+    /**
+     * Gemeinsamer Ablauf aller Endpunkte: Methode prfen, Parameter lesen, JSON schreiben.
+     */
+    private abstract class JsonHandler implements HttpHandler {
+
+	@Override
+	public void handle(HttpExchange exchange) throws IOException {
+	    int status = 200;
+	    JsonWriter json = new JsonWriter();
+	    try {
+		if (!"GET".equals(exchange.getRequestMethod()))
+		    throw new RequestException(405, "Nur GET wird untersttzt");
+		respond(parseQuery(exchange.getRequestURI().getRawQuery()), json);
+	    } catch (RequestException e) {
+		status = e.status;
+		json = error(e.getMessage());
+	    } catch (RuntimeException e) {
+		e.printStackTrace();
+		status = 500;
+		json = error(e.toString());
+	    }
+
+	    byte[] body = json.toString().getBytes(UTF8);
+	    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+	    exchange.sendResponseHeaders(status, body.length);
+	    OutputStream out = exchange.getResponseBody();
+	    try {
+		out.write(body);
+	    } finally {
+		out.close();
+	    }
+	}
+
+	abstract void respond(Map<String, List<String>> parameters, JsonWriter json);
+    }
+
+    /**
+     * Erzeugt den Server, gestartet wird er mit {@link #start()}.
+     * 
+     * @param graph Der gemeinsam genutzte Graph des Landes.
+     * @param address Adresse und Port, Port 0 whlt einen freien Port.
+     * @param threads Anzahl der Threads fr die Anfragen.
+     * @throws IOException Wenn der Port nicht geffnet werden kann.
+     */
+    public RouteServer(RoadGraph graph, InetSocketAddress address, int threads) throws IOException {
+	threads = Math.max(1, threads);
+	this.graph = graph;
+	this.engine = new RouteEngine(graph, new RouteCache(RouteCache.DEFAULT_MAX_WEIGHT));
+	this.matrixService = new RouteMatrixService(graph, threads);
+	this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+	        new ArrayBlockingQueue<Runnable>(threads * QUEUE_PER_THREAD),
+	        new ThreadPoolExecutor.CallerRunsPolicy());
+	this.server = HttpServer.create(address, 0);
+	server.setExecutor(executor);
+
+	server.createContext("/route", new JsonHandler() {
+	    @Override
+	    void respond(Map<String, List<String>> parameters, JsonWriter json) {
+		writeRoute(parameters, json);
+	    }
+	});
+	server.createContext("/matrix", new JsonHandler() {
+	    @Override
+	    void respond(Map<String, List<String>> parameters, JsonWriter json) {
+		writeMatrix(parameters, json);
+	    }
+	});
+	server.createContext("/isochrone", new JsonHandler() {
+	    @Override
+	    void respond(Map<String, List<String>> parameters, JsonWriter json) {
+		writeIsochrone(parameters, json);
+	    }
+	});
+	server.createContext("/junctions", new JsonHandler() {
+	    @Override
+	    void respond(Map<String, List<String>> parameters, JsonWriter json) {
+		writeJunctions(parameters, json);
+	    }
+	});
+	server.createContext("/status", new JsonHandler() {
+	    @Override
+	    void respond(Map<String, List<String>> parameters, JsonWriter json) {
+		json.beginObject();
+		json.name("country").value(RouteServer.this.graph.getCountry());
+		json.name("junctions").value(RouteServer.this.graph.getJunctionIndex().getNameCount());
+		json.name("activeRequests").value(executor.getActiveCount());
+		RouteCache cache = engine.getCache();
+		json.name("routeCache").beginObject();
+		json.name("entries").value(cache.size());
+		json.name("weight").value(cache.getWeight());
+		json.name("maxWeight").value(cache.getMaxWeight());
+		json.name("hits").value(cache.getHits());
+		json.name("misses").value(cache.getMisses());
+		json.name("hitRate").value(cache.getHitRate());
+		json.name("evictions").value(cache.getEvictions());
+		json.endObject();
+		json.endObject();
+	    }
+	});
+    }
+
+    /**
+     * Startet einen Server fr das eingestellte oder angegebene Land und luft bis zum Beenden der JVM.
+     * 
+     * <pre>
+     * java ... RouteServer [Port] [Threads] [Land]
+     * </pre>
+     * 
+     * @param args Optional Port (Standard 8080), Anzahl der Threads (Standard ein Thread pro Prozessor) und Land.
+     * @throws IOException
+     * @throws XMLStreamException
+     */
+    public static void main(String[] args) throws IOException, XMLStreamException {
+	int port = args.length > 0 ? SupportMethods.parseInt(args[0], -1) : DEFAULT_PORT;
+	int threads = args.length > 1 ? SupportMethods.parseInt(args[1], -1) : Runtime.getRuntime()
+	        .availableProcessors();
+	if (port < 0 || threads < 1) {
+	    System.err.println("Aufruf: RouteServer [Port] [Threads] [Land]");
+	    System.exit(1);
+	}
+
+	long start = System.currentTimeMillis();
+	RoadGraph graph = args.length > 2 ? RoadGraph.getInstance(args[2]) : RoadGraph.getInstance();
+	System.out.println("Routendaten fr " + graph.getCountry() + " geladen in "
+	        + (System.currentTimeMillis() - start) + " ms");
+
+	final RouteServer server = new RouteServer(graph, new InetSocketAddress(port), threads);
+	Runtime.getRuntime().addShutdownHook(new Thread() {
+	    @Override
+	    public void run() {
+		server.stop();
+	    }
+	});
+	server.start();
+	System.out.println("Routenserver luft auf Port " + server.getPort() + " mit " + threads + " Threads");
+    }
+
+    /**
+     * Nimmt ab jetzt Anfragen an.
+     */
+    public void start() {
+	server.start();
+    }
+
+    /**
+     * Beendet den Server. Laufende Anfragen werden noch beantwortet.
+     */
+    public void stop() {
+	server.stop(0);
+	executor.shutdown();
+	matrixService.shutdown();
+    }
+
+    /**
+     * @return Der Port, auf dem der Server lauscht.
+     */
+    public int getPort() {
+	return server.getAddress().getPort();
+    }
+
+    private void writeRoute(Map<String, List<String>> parameters, JsonWriter json) {
+	JunctionIndex junctions = graph.getJunctionIndex();
+	String departure = getJunction(parameters, "departure", junctions);
+	String destination = getJunction(parameters, "destination", junctions);
+	String evaluationMethod = getParameter(parameters, "evaluationMethod", Constants.EVALUATION_METHOD_DIJKSTRA);
+	String calculationMethod = getCalculationMethod(parameters);
+
+	if (!RouteEngine.isEvaluationMethod(evaluationMethod))
+	    throw new RequestException(400, "Unbekannter Algorithmus: " + evaluationMethod);
+
+	RouteResult result = engine.calculate(departure, destination, evaluationMethod, calculationMethod);
+	if (result == null)
+	    throw new RequestException(404, "Keine Route gefunden");
+
+	json.beginObject();
+	json.name("departure").value(departure);
+	json.name("destination").value(destination);
+	json.name("evaluationMethod").value(evaluationMethod);
+	json.name("calculationMethod").value(calculationMethod);
+	json.name("distance").value(result.getDistance());
+	json.name("duration").value(result.getDuration());
+	json.name("junctions").value(result.getJunctionNames());
+	json.name("nodeIDs").value(result.getNodeIDs());
+	json.name("wayIDs").value(result.getWayIDs());
+	json.endObject();
+    }
+
+    private void writeMatrix(Map<String, List<String>> parameters, JsonWriter json) {
+	JunctionIndex junctions = graph.getJunctionIndex();
+	List<String> departures = getJunctions(parameters, "departure", junctions);
+	List<String> destinations = getJunctions(parameters, "destination", junctions);
+	String calculationMethod = getCalculationMethod(parameters);
+	if ((long) departures.size() * destinations.size() > MAX_MATRIX_CELLS)
+	    throw new RequestException(400, "Hchstens " + MAX_MATRIX_CELLS + " Zellen pro Matrix");
+
+	RouteMatrix matrix;
+	try {
+	    matrix = matrixService.calculate(departures, destinations, calculationMethod);
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new RequestException(503, "Berechnung abgebrochen");
+	}
+
+	json.beginObject();
+	json.name("departures").value(departures);
+	json.name("destinations").value(destinations);
+	json.name("calculationMethod").value(calculationMethod);
+	json.name("distances").beginArray();
+	for (int row = 0; row < departures.size(); row++) {
+	    json.beginArray();
+	    for (int column = 0; column < destinations.size(); column++)
+		json.value(matrix.getDistance(row, column));
+	    json.endArray();
+	}
+	json.endArray();
+	json.name("durations").beginArray();
+	for (int row = 0; row < departures.size(); row++) {
+	    json.beginArray();
+	    for (int column = 0; column < destinations.size(); column++)
+		json.value(matrix.getDuration(row, column));
+	    json.endArray();
+	}
+	json.endArray();
+	json.endObject();
+    }
+
+    private void writeIsochrone(Map<String, List<String>> parameters, JsonWriter json) {
+	String departure = getJunction(parameters, "departure", graph.getJunctionIndex());
+	String calculationMethod = getCalculationMethod(parameters);
+	String cutoffParameter = getParameter(parameters, "cutoff", null);
+	double cutoff = cutoffParameter == null ? Double.POSITIVE_INFINITY : SupportMethods.parseDouble(
+	        cutoffParameter, -1.0);
+	if (!(cutoff >= 0.0))
+	    throw new RequestException(400, "Ungltiger Parameter cutoff: " + cutoffParameter);
+
+	ShortestPathTree tree = engine.calculateTree(departure, calculationMethod, cutoff);
+	json.beginObject();
+	json.name("departure").value(departure);
+	json.name("calculationMethod").value(calculationMethod);
+	json.name("cutoff").value(cutoff);
+	json.name("junctions").beginArray();
+	for (String junction : tree.getJunctionNames()) {
+	    int position = tree.indexOfJunction(junction);
+	    json.beginObject();
+	    json.name("name").value(junction);
+	    json.name("distance").value(tree.getDistance(position));
+	    json.name("duration").value(tree.getDuration(position));
+	    json.endObject();
+	}
+	json.endArray();
+	json.name("nodeIDs").value(tree.getNodeIDs());
+	json.name("wayIDs").value(tree.getWayIDs());
+	json.endObject();
+    }
+
+    private void writeJunctions(Map<String, List<String>> parameters, JsonWriter json) {
+	String query = getParameter(parameters, "query", "");
+	int limit = SupportMethods.parseInt(getParameter(parameters, "limit", null),
+	        Constants.AUTOCOMPLETE_MAX_SUGGESTIONS);
+	if (limit < 1 || limit > MAX_SUGGESTIONS)
+	    throw new RequestException(400, "limit muss zwischen 1 und " + MAX_SUGGESTIONS + " liegen");
+
+	json.beginObject();
+	json.name("query").value(query);
+	json.name("junctions").value(graph.getJunctionSearchIndex().search(query, limit));
+	json.endObject();
+    }
+
+    private static JsonWriter error(String message) {
+	return new JsonWriter().beginObject().name("error").value(message).endObject();
+    }
+
+    private static String getParameter(Map<String, List<String>> parameters, String name, String defaultValue) {
+	List<String> values = parameters.get(name);
+	return values == null || values.isEmpty() ? defaultValue : values.get(0);
+    }
+
+    private static String getCalculationMethod(Map<String, List<String>> parameters) {
+	String calculationMethod = getParameter(parameters, "calculationMethod",
+	        Constants.EVALUATION_CALCULATION_DURATION);
+	if (!RouteEngine.isCalculationMethod(calculationMethod))
+	    throw new RequestException(400, "Unbekannte Auswertung: " + calculationMethod);
+	return calculationMethod;
+    }
+
+    private static String getJunction(Map<String, List<String>> parameters, String name, JunctionIndex junctions) {
+	String junction = getParameter(parameters, name, null);
+	if (junction == null)
+	    throw new RequestException(400, "Parameter " + name + " fehlt");
+	if (!junctions.contains(junction))
+	    throw new RequestException(404, "Unbekannte Anschlussstelle: " + junction);
+	return junction;
+    }
+
+    private static List<String> getJunctions(Map<String, List<String>> parameters, String name,
+	    JunctionIndex junctions) {
+	List<String> values = parameters.get(name);
+	if (values == null || values.isEmpty())
+	    throw new RequestException(400, "Parameter " + name + " fehlt");
+	for (String junction : values)
+	    if (!junctions.contains(junction))
+		throw new RequestException(404, "Unbekannte Anschlussstelle: " + junction);
+	return values;
+    }
+
+    /**
+     * Zerlegt die Query einer URL, ein Parameter darf mehrfach vorkommen.
+     */
+    private static Map<String, List<String>> parseQuery(String query) {
+	if (query == null || query.isEmpty())
+	    return Collections.emptyMap();
+
+	Map<String, List<String>> parameters = new HashMap<String, List<String>>();
+	try {
+	    for (String pair : query.split("&")) {
+		if (pair.isEmpty())
+		    continue;
+		int separator = pair.indexOf('=');
+		String name = URLDecoder.decode(separator < 0 ? pair : pair.substring(0, separator), "UTF-8");
+		String value = separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), "UTF-8");
+		List<String> values = parameters.get(name);
+		if (values == null) {
+		    values = new ArrayList<String>(1);
+		    parameters.put(name, values);
+		}
+		values.add(value);
+	    }
+	} catch (UnsupportedEncodingException e) {
+	    throw new IllegalStateException(e);
+	} catch (IllegalArgumentException e) {
+	    throw new RequestException(400, "Ungltige Query: " + e.getMessage());
+	}
+	return parameters;
+    }
+}
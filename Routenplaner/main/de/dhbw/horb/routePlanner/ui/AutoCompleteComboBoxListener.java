@@ -1,9 +1,7 @@
 package de.dhbw.horb.routePlanner.ui;
 
 import java.io.FileNotFoundException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -14,8 +12,9 @@ import javafx.scene.input.KeyEvent;
 
 import javax.xml.stream.XMLStreamException;
 
-import de.dhbw.horb.routePlanner.SupportMethods;
-import de.dhbw.horb.routePlanner.data.StAXMapGraphDataParser;
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.JunctionSearchIndex;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
 
 /**
  * Klasse stellt Autocomplete-Funktionalitt zur Verfgung
@@ -27,15 +26,14 @@ public class AutoCompleteComboBoxListener<T> implements EventHandler<KeyEvent> {
     private ComboBox<String> comboBox;
     private boolean moveCaretToPos = false;
     private int caretPos;
-    private Map<String, List<String>> nodes = null;
-    private Map<String, List<Map<String, String>>> routes = null;
+    private JunctionSearchIndex searchIndex = null;
 
     public AutoCompleteComboBoxListener(final ComboBox<String> comboBox) {
 	this.comboBox = comboBox;
 
 	try {
-	    nodes = StAXMapGraphDataParser.getNodeXMLMap();
-	    routes = StAXMapGraphDataParser.getRouteXMLMap();
+	    RoadGraph graph = RoadGraph.getInstance();
+	    searchIndex = graph.getJunctionSearchIndex();
 	} catch (FileNotFoundException | XMLStreamException e) {
 	    e.printStackTrace();
 	}
@@ -80,50 +78,10 @@ public class AutoCompleteComboBoxListener<T> implements EventHandler<KeyEvent> {
 
 	ObservableList<String> list = FXCollections.observableArrayList();
 
-	String input = AutoCompleteComboBoxListener.this.comboBox.getEditor().getText().toLowerCase();
-	List<String> names = new ArrayList<String>();
-
-	if (nodes == null)
-	    return;
-
-	for (Map.Entry<String, List<String>> entry : nodes.entrySet()) {
-	    String key = entry.getKey();
-	    List<String> value = entry.getValue();
-
-	    if ((key == null) || (value == null))
-		continue;
-
-	    if (SupportMethods.isNumeric(key))
-		continue;
-
-	    List<String> s = nodes.get(key);
-	    if ((s == null) || s.isEmpty() || (s.size() < 2))
-		continue;
-
-	    Boolean hasRoute = false;
-	    for (String id : value) {
-		if (id == null)
-		    continue;
-
-		if (routes.get(id) != null) {
-		    hasRoute = true;
-		    break;
-		}
-	    }
-
-	    if (hasRoute && key.toLowerCase().contains(input.toLowerCase())) {
-		names.add(key);
-	    }
-	}
-
-	if (names != null) {
-	    names = SupportMethods.sortListCompairedToEquality(names, input);
-	}
-
-	if (names == null) {
+	if (searchIndex == null)
 	    return;
-	}
 
+	List<String> names = searchIndex.search(comboBox.getEditor().getText(), Constants.AUTOCOMPLETE_MAX_SUGGESTIONS);
 	for (String name : names) {
 	    list.add(name);
 	}
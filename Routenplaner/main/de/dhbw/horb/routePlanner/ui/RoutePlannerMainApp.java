@@ -17,10 +17,13 @@ import javafx.stage.Screen;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.GraphDataMapBuilder;
 import de.dhbw.horb.routePlanner.data.JDomGraphDataCreator;
 import de.dhbw.horb.routePlanner.data.OverpassDownloader;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
 import de.dhbw.horb.routePlanner.data.SettingsManager;
 import de.dhbw.horb.routePlanner.data.XMLFileManager;
+import de.dhbw.horb.routePlanner.evaluation.contraction.ContractionHierarchyBuilder;
 
 /**
  * Main Application-Klasse des Programms
@@ -55,17 +58,22 @@ public class RoutePlannerMainApp extends Application {
     }
 
     /**
-     * Definiert Ablauf beim Programmstart. berprft XML-Dateien, Zeigt Splash-Window an, startet Hauptanwendung
+     * Definiert Ablauf beim Programmstart. berprft XML-Dateien, Zeigt Splash-Window an, ldt den Routengraphen und
+     * startet Hauptanwendung. Ein bereits geladener Graph wird dabei verworfen.
      */
     public void executeStartupTask() {
 
 	this.primaryStage.close();
+	RoadGraph.invalidateAll();
 
 	initSplashLayout();
 	showSplash();
 
 	final RoutePlannerMainApp owner = this;
 	this.task = new Task<Integer>() {
+	    /** Die graphData*.xml, eingelesen fr die nodes*.xml und wiederverwendet fr die routes*.xml. */
+	    private GraphDataMapBuilder graphData;
+
 	    @Override
 	    protected Integer call() throws Exception {
 		int iterations;
@@ -131,7 +139,8 @@ public class RoutePlannerMainApp extends Application {
 			if (allXMLsExist == false)
 			    try {
 				updateMessage(Constants.STARTUP_CREATE_XML_NODES);
-				JDomGraphDataCreator.createNodeXML();
+				graphData = JDomGraphDataCreator.loadGraphData();
+				JDomGraphDataCreator.createNodeXML(graphData);
 			    } catch (Exception e) {
 				updateMessage(Constants.STARTUP_ERROR_XML_NODES);
 				this.cancel();
@@ -148,16 +157,28 @@ public class RoutePlannerMainApp extends Application {
 			break;
 
 		    case 3:
-			if (allXMLsExist == false)
+			if (allXMLsExist == false) {
 			    try {
 				updateMessage(Constants.STARTUP_CREATE_XML_ROUTES);
-				JDomGraphDataCreator.createRouteXML();
+				if (graphData == null)
+				    graphData = JDomGraphDataCreator.loadGraphData();
+				JDomGraphDataCreator.createRouteXML(graphData);
 			    } catch (Exception e) {
 				updateMessage(Constants.STARTUP_ERROR_XML_ROUTES);
 				this.cancel();
 				break;
+			    } finally {
+				graphData = null;
 			    }
-			else {
+			    try {
+				updateMessage(Constants.STARTUP_CREATE_HIERARCHY);
+				ContractionHierarchyBuilder.createHierarchyFiles();
+			    } catch (Exception e) {
+				updateMessage(Constants.STARTUP_ERROR_HIERARCHY);
+				this.cancel();
+				break;
+			    }
+			} else {
 			    try {
 				Thread.sleep(1000);
 			    } catch (InterruptedException ex) {
@@ -169,9 +190,15 @@ public class RoutePlannerMainApp extends Application {
 
 		    default:
 			try {
-			    Thread.sleep(1000);
-			} catch (InterruptedException ex) {
-			    Thread.currentThread().interrupt();
+			    updateMessage(Constants.STARTUP_LOAD_GRAPH);
+			    RoadGraph graph = RoadGraph.getInstance();
+			    graph.getContractionHierarchy(Constants.EVALUATION_CALCULATION_DURATION);
+			    graph.getContractionHierarchy(Constants.EVALUATION_CALCULATION_DISTANCE);
+			    graph.getLandmarks();
+			} catch (Exception e) {
+			    updateMessage(Constants.STARTUP_ERROR_GRAPH);
+			    this.cancel();
+			    break;
 			}
 			break;
 		    }
@@ -1,10 +1,12 @@
 package de.dhbw.horb.routePlanner.ui;
 
 import java.text.DecimalFormat;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.List;
 
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
 import javafx.concurrent.Worker;
 import javafx.concurrent.Worker.State;
 import javafx.event.ActionEvent;
@@ -20,6 +22,7 @@ import javafx.scene.control.RadioButton;
 import javafx.scene.control.SingleSelectionModel;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
+import javafx.scene.control.TextField;
 import javafx.scene.control.Toggle;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.control.Tooltip;
@@ -35,6 +38,8 @@ import org.controlsfx.dialog.Dialogs;
 import de.dhbw.horb.routePlanner.Constants;
 import de.dhbw.horb.routePlanner.SupportMethods;
 import de.dhbw.horb.routePlanner.data.SettingsManager;
+import de.dhbw.horb.routePlanner.evaluation.RouteResult;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.ShortestPathTree;
 
 /**
  * Controller-Klasse fr die Hauptanwendung. Stellt Funktionen der einzelnen JavaFX-Komponenten zur Verfgung.
@@ -50,6 +55,10 @@ public class RoutePlannerMainController {
     public String calculationMethod;
     public String evaluationMethod;
     public boolean flag = false;
+    /** Die Route, die nach dem Laden der Karte angezeigt wird. */
+    private RouteResult displayedRoute;
+    /** Die Isochrone, die nach dem Laden der Karte angezeigt wird. */
+    private ShortestPathTree displayedIsochrone;
 
     @FXML
     private WebView testWebView;
@@ -66,6 +75,10 @@ public class RoutePlannerMainController {
     @FXML
     private Button calculateRouteButton;
     @FXML
+    private TextField isochroneCutoffTextField;
+    @FXML
+    private Button calculateIsochroneButton;
+    @FXML
     private TabPane tabPane;
     @FXML
     private Tab calculatedRouteTab;
@@ -80,6 +93,10 @@ public class RoutePlannerMainController {
     @FXML
     private RadioButton aStarRouteRadio;
     @FXML
+    private RadioButton bidirectionalRouteRadio;
+    @FXML
+    private RadioButton contractionHierarchiesRouteRadio;
+    @FXML
     private ToggleGroup evaluationMethodToggleGroup;
     @FXML
     private Label startLabel;
@@ -120,6 +137,12 @@ public class RoutePlannerMainController {
 	case Constants.EVALUATION_METHOD_ASTAR:
 	    evaluationMethodToggleGroup.selectToggle(this.aStarRouteRadio);
 	    break;
+	case Constants.EVALUATION_METHOD_BIDIRECTIONAL:
+	    evaluationMethodToggleGroup.selectToggle(this.bidirectionalRouteRadio);
+	    break;
+	case Constants.EVALUATION_METHOD_CONTRACTION_HIERARCHIES:
+	    evaluationMethodToggleGroup.selectToggle(this.contractionHierarchiesRouteRadio);
+	    break;
 	default:
 	    break;
 	}
@@ -146,20 +169,33 @@ public class RoutePlannerMainController {
 		if (newState == Worker.State.SUCCEEDED) {
 
 		    RoutePlannerMainController.this.webEngine.executeScript("init()");
-		    generateLinkQuery(UIEvaluationInterface.allWayIDs, "way", "ways", SettingsManager.getValue(
+		    ShortestPathTree tree = RoutePlannerMainController.this.displayedIsochrone;
+		    if (tree != null) {
+			generateLinkQuery(tree.getWayIDs(), "way", "ways", SettingsManager.getValue(
+			        Constants.SETTINGS_COLOR_WAYS, Constants.SETTINGS_COLOR_WAYS_DEFAULT));
+			generateLinkQuery(tree.getNodeIDs(), "node", "nodes", SettingsManager.getValue(
+			        Constants.SETTINGS_COLOR_NODES, Constants.SETTINGS_COLOR_NODES_DEFAULT));
+			RoutePlannerMainController.this.calculatedRouteListView.setItems(FXCollections
+			        .observableArrayList(tree.getJunctionNames()));
+			RoutePlannerMainController.this.displayedIsochrone = null;
+			enableCalculateRouteButton();
+			return;
+		    }
+		    RouteResult result = RoutePlannerMainController.this.displayedRoute;
+		    if (result == null)
+			return;
+		    generateLinkQuery(result.getWayIDs(), "way", "ways", SettingsManager.getValue(
 			    Constants.SETTINGS_COLOR_WAYS, Constants.SETTINGS_COLOR_WAYS_DEFAULT));
-		    generateLinkQuery(UIEvaluationInterface.DepDestIDs, "node", "nodes", SettingsManager.getValue(
-			    Constants.SETTINGS_COLOR_NODES, Constants.SETTINGS_COLOR_NODES_DEFAULT));
-		    RoutePlannerMainController.this.calculatedRouteListView
-			    .setItems(UIEvaluationInterface.allDestinationNodeNames);
-		    RoutePlannerMainController.this.startLabel.setText(RoutePlannerMainController.this.startComboBox
-			    .getValue());
-		    RoutePlannerMainController.this.destinationLabel
-			    .setText(RoutePlannerMainController.this.targetComboBox.getValue());
+		    generateLinkQuery(Arrays.asList(result.getDepartureNodeID(), result.getDestinationNodeID()), "node",
+			    "nodes", SettingsManager.getValue(Constants.SETTINGS_COLOR_NODES,
+			            Constants.SETTINGS_COLOR_NODES_DEFAULT));
+		    RoutePlannerMainController.this.calculatedRouteListView.setItems(FXCollections
+			    .observableArrayList(result.getJunctionNames()));
+		    RoutePlannerMainController.this.startLabel.setText(result.getDeparture());
+		    RoutePlannerMainController.this.destinationLabel.setText(result.getDestination());
 		    DecimalFormat f = new DecimalFormat("#0.00");
-		    RoutePlannerMainController.this.distanceLabel.setText(f.format(UIEvaluationInterface.distance)
-			    + " km");
-		    Long ms = SupportMethods.millisecondsToSeconds(UIEvaluationInterface.duration).longValue();
+		    RoutePlannerMainController.this.distanceLabel.setText(f.format(result.getDistance()) + " km");
+		    Long ms = SupportMethods.millisecondsToSeconds(result.getDuration()).longValue();
 		    Double m = SupportMethods.secondsToMinutes(ms.doubleValue());
 		    int hours = (int) Math.floor(m / 60.0);
 		    int minutes = (int) Math.floor(m % 60.0);
@@ -173,7 +209,7 @@ public class RoutePlannerMainController {
 		    selectionModel.select(RoutePlannerMainController.this.calculatedRouteTab);
 		    RoutePlannerMainController.this.wayString = null;
 		    RoutePlannerMainController.this.nodeString = null;
-		    UIEvaluationInterface.allWayIDs = null;
+		    RoutePlannerMainController.this.displayedRoute = null;
 		    enableCalculateRouteButton();
 		}
 	    }
@@ -266,6 +302,10 @@ public class RoutePlannerMainController {
 	    result = Constants.EVALUATION_METHOD_ASTAR;
 	} else if (dijkstraRouteRadio.isSelected()) {
 	    result = Constants.EVALUATION_METHOD_DIJKSTRA;
+	} else if (bidirectionalRouteRadio.isSelected()) {
+	    result = Constants.EVALUATION_METHOD_BIDIRECTIONAL;
+	} else if (contractionHierarchiesRouteRadio.isSelected()) {
+	    result = Constants.EVALUATION_METHOD_CONTRACTION_HIERARCHIES;
 	}
 	return result;
     }
@@ -278,7 +318,7 @@ public class RoutePlannerMainController {
      * @param name Name des in die Karte eingefgten Layers, der die Markierungen enthlt
      * @param colorString Farbe, in der Ways/Nodes markiert werden sollen
      */
-    private void generateLinkQuery(LinkedList<String> list, String method, String name, String colorString) {
+    private void generateLinkQuery(List<String> list, String method, String name, String colorString) {
 	if (list == null || list.isEmpty())
 	    return;
 
@@ -313,6 +353,29 @@ public class RoutePlannerMainController {
 	}
     }
 
+    /**
+     * Zeigt eine berechnete Route an. Die Karte wird neu geladen und die Route danach eingezeichnet.
+     * 
+     * @param result Das Ergebnis der Berechnung.
+     */
+    public void showRoute(RouteResult result) {
+	displayedRoute = result;
+	displayedIsochrone = null;
+	loadOverpassHTML();
+    }
+
+    /**
+     * Zeigt alle erreichbaren Anschlussstellen einer Isochrone an. Die Karte wird neu geladen, danach werden die Wege
+     * des Baums und die erreichten Knoten eingezeichnet und die Anschlussstellen in der Liste angezeigt.
+     * 
+     * @param tree Der Krzeste-Wege-Baum aus {@link UIEvaluationInterface#calculateIsochrone}.
+     */
+    public void showIsochrone(ShortestPathTree tree) {
+	displayedIsochrone = tree;
+	displayedRoute = null;
+	loadOverpassHTML();
+    }
+
     /**
      * Ld die Datei overpass.html in die WebEngine
      */
@@ -327,6 +390,8 @@ public class RoutePlannerMainController {
 	closeButton.setTooltip(new Tooltip(Constants.TOOLTIP_CLOSE_BUTTON));
 	infoButton.setTooltip(new Tooltip(Constants.TOOLTIP_INFO_BUTTON));
 	calculateRouteButton.setTooltip(new Tooltip(Constants.TOOLTIP_CALCULATE_ROUTE_BUTTON));
+	isochroneCutoffTextField.setTooltip(new Tooltip(Constants.TOOLTIP_ISOCHRONE_CUTOFF_TEXTFIELD));
+	calculateIsochroneButton.setTooltip(new Tooltip(Constants.TOOLTIP_CALCULATE_ISOCHRONE_BUTTON));
 	updateDataButton.setTooltip(new Tooltip(Constants.TOOLTIP_UPDATE_DATA_BUTTON));
 	startComboBox.setTooltip(new Tooltip(Constants.TOOLTIP_START_COMBOBOX));
 	targetComboBox.setTooltip(new Tooltip(Constants.TOOLTIP_TARGET_COMBOBOX));
@@ -337,6 +402,9 @@ public class RoutePlannerMainController {
 	shortestRouteRadio.setTooltip(new Tooltip(Constants.TOOLTIP_SHORTEST_ROUTE_RADIO));
 	dijkstraRouteRadio.setTooltip(new Tooltip(Constants.TOOLTIP_DIJKSTRA_ROUTE_RADIO));
 	aStarRouteRadio.setTooltip(new Tooltip(Constants.TOOLTIP_ASTAR_ROUTE_RADIO));
+	bidirectionalRouteRadio.setTooltip(new Tooltip(Constants.TOOLTIP_BIDIRECTIONAL_ROUTE_RADIO));
+	contractionHierarchiesRouteRadio.setTooltip(new Tooltip(
+	        Constants.TOOLTIP_CONTRACTION_HIERARCHIES_ROUTE_RADIO));
     }
 
     /**
@@ -379,6 +447,37 @@ public class RoutePlannerMainController {
 	}
     }
 
+    /**
+     * Lst die Berechnung aller Anschlussstellen aus, die vom Start aus innerhalb der eingegebenen Fahrzeit in
+     * Minuten bzw. Strecke in km erreichbar sind, und zeigt sie danach auf der Karte an.
+     * 
+     * @param event
+     */
+    @FXML
+    void calculateIsochroneButtonClicked(ActionEvent event) {
+	disableCalculateRouteButton();
+	String start = startComboBox.getValue();
+	double cutoff = SupportMethods.parseDouble(isochroneCutoffTextField.getText().trim(), -1.0);
+	if (start == null || start.trim().isEmpty()) {
+	    Dialogs.create().title("Keine Berechnung mglich!").message("Bitte geben Sie einen Start an.").showError();
+	    enableCalculateRouteButton();
+	} else if (calculationMethodToggleGroup.getSelectedToggle() == null) {
+	    Dialogs.create().title("Keine Berechnung mglich!").message(
+		    "Bitte geben Sie eine Berechnungsmethode an.").showError();
+	    enableCalculateRouteButton();
+	} else if (cutoff < 0.0) {
+	    Dialogs.create().title("Keine Berechnung mglich!").message(
+		    "Bitte geben Sie eine Fahrzeit in Minuten bzw. eine Strecke in km an.").showError();
+	    enableCalculateRouteButton();
+	} else {
+	    calculateRouteProgressIndicator.setOpacity(1.0);
+	    calculationMethod = getCalculationMethod();
+	    if (Constants.EVALUATION_CALCULATION_DURATION.equals(calculationMethod))
+		cutoff = SupportMethods.secondsToMilliseconds(SupportMethods.minutesToSeconds(cutoff));
+	    UIEvaluationInterface.calculateIsochrone(start, calculationMethod, cutoff, routePlannerMainApp);
+	}
+    }
+
     /**
      * Zeigt ein Informations-Fenster ber das Programm.
      * 
@@ -401,17 +500,19 @@ public class RoutePlannerMainController {
     }
 
     /**
-     * Deaktiviert den "Route berechnen"-Button
+     * Deaktiviert den "Route berechnen"- und den "Erreichbare Anschlussstellen"-Button
      */
     public void disableCalculateRouteButton() {
 	calculateRouteButton.setDisable(true);
+	calculateIsochroneButton.setDisable(true);
     }
 
     /**
-     * Aktiviert den "Route berechnen"-Button
+     * Aktiviert den "Route berechnen"- und den "Erreichbare Anschlussstellen"-Button
      */
     public void enableCalculateRouteButton() {
 	calculateRouteButton.setDisable(false);
+	calculateIsochroneButton.setDisable(false);
     }
 
     /**
@@ -1,43 +1,47 @@
 package de.dhbw.horb.routePlanner.ui;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.concurrent.Task;
 import javafx.concurrent.WorkerStateEvent;
 import javafx.event.EventHandler;
 
 import org.controlsfx.dialog.Dialogs;
 
-import de.dhbw.horb.routePlanner.Constants;
-import de.dhbw.horb.routePlanner.SupportMethods;
-import de.dhbw.horb.routePlanner.data.StAXMapGraphDataParser;
-import de.dhbw.horb.routePlanner.evaluation.aStar.AStar;
-import de.dhbw.horb.routePlanner.evaluation.dijkstra.Dijkstra;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.RouteCache;
+import de.dhbw.horb.routePlanner.evaluation.RouteEngine;
+import de.dhbw.horb.routePlanner.evaluation.RouteResult;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.ShortestPathTree;
 
 /**
- * Schnittstelle zwischen der GUI und den einzelnen Klassen zur Berechnung einer Route.
+ * Schnittstelle zwischen der GUI und den einzelnen Klassen zur Berechnung einer Route. Jede Berechnung luft in einem
+ * eigenen Task und bergibt ihr {@link RouteResult} an den Controller, es gibt keinen gemeinsamen Zustand zwischen
+ * zwei Berechnungen. Nur der {@link RouteCache} wird von allen Berechnungen geteilt, so werden wiederholt angefragte
+ * Routen nicht neu berechnet.
+ * <p>
+ * Alle Tasks laufen nacheinander in einem einzigen Hintergrund-Thread. Dijkstra, AStar, die bidirektionale Suche, die
+ * Contraction Hierarchies und die Isochrone legen ihre Sucharrays pro Thread an und behalten sie so von einer
+ * Berechnung zur nchsten.
  * 
  */
 public class UIEvaluationInterface {
 
-    private static Task<Integer> task;
-    static List<Map<String, String>> route;
-    public static LinkedList<String> allWayIDs;
-    public static LinkedList<String> allNodeIDs;
-    public static LinkedList<String> DepDestIDs;
-    public static ArrayList<String> allDestinationNodes;
-    public static ObservableList<String> allDestinationNodeNames;
-    public static Double distance;
-    public static Double duration;
+    private static final RouteCache routeCache = new RouteCache(RouteCache.DEFAULT_MAX_WEIGHT);
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+	@Override
+	public Thread newThread(Runnable runnable) {
+	    Thread thread = new Thread(runnable, "Routenberechnung");
+	    thread.setDaemon(true);
+	    return thread;
+	}
+    });
 
     /**
-     * Methode, die die Berechnung der Route mit dem gewhlten Algorithmus auslst und nach Berechnung das Ergebnis fr
-     * die GUI aufbereitet.
+     * Methode, die die Berechnung der Route mit dem gewhlten Algorithmus auslst und nach Berechnung das Ergebnis an
+     * die GUI bergibt.
      * 
      * @param departure Startknoten der Route
      * @param destination Zielknoten der Route
@@ -48,90 +52,79 @@ public class UIEvaluationInterface {
     public static void calculateRoute(final String departure, final String destination, final String calculationMethod,
 	    final String evaluationMethod, final RoutePlannerMainApp mainApp) {
 
-	task = new Task<Integer>() {
+	final Task<RouteResult> task = new Task<RouteResult>() {
 	    @Override
-	    protected Integer call() throws Exception {
-		Map<String, List<String>> nodesMap = StAXMapGraphDataParser.getNodeXMLMap();
-		route = null;
-		if (departure == null || destination == null || calculationMethod == null || evaluationMethod == null
-		        || !nodesMap.containsKey(departure) || !nodesMap.containsKey(destination)) {
-		    this.cancel();
-		    return -1;
+	    protected RouteResult call() throws Exception {
+		RouteEngine engine = new RouteEngine(RoadGraph.getInstance(), routeCache);
+		RouteResult result = null;
+		try {
+		    result = engine.calculate(departure, destination, evaluationMethod, calculationMethod);
+		    if (result == null)
+			System.err.println(evaluationMethod + ": Keine Route gefunden");
+		} catch (IllegalArgumentException e) {
+		    System.err.println(e.getMessage());
 		}
-
-		if ((calculationMethod != Constants.EVALUATION_CALCULATION_DISTANCE)
-		        && (calculationMethod != Constants.EVALUATION_CALCULATION_DURATION)) {
-		    System.err.println("Unknown calculation method.");
+		if (result == null)
 		    this.cancel();
-		    return -2;
-		}
+		return result;
+	    }
+	};
 
-		switch (evaluationMethod) {
-		case Constants.EVALUATION_METHOD_ASTAR:
-		    AStar aStar = new AStar(departure, destination);
-		    route = aStar.calculateWay(calculationMethod);
-		    if ((route == null) || route.isEmpty()) {
-			System.err.println("AStar: Keine Route gefunden");
-			this.cancel();
-		    }
-		    break;
-
-		case Constants.EVALUATION_METHOD_DIJKSTRA:
-		    Dijkstra dijkstra = new Dijkstra(departure, destination);
-		    route = dijkstra.calculateRoute(calculationMethod);
-		    if ((route == null) || route.isEmpty()) {
-			System.err.println("Dijkstra: Keine Route gefunden");
-			this.cancel();
-		    }
-		    break;
-		default:
-		    System.err.println("Unknown evaluation method.");
-		}
+	task.setOnSucceeded(new EventHandler<WorkerStateEvent>() {
+	    @Override
+	    public void handle(WorkerStateEvent event) {
+		mainApp.controller.showRoute(task.getValue());
+		mainApp.controller.calculateRouteProgressIndicator.setOpacity(0.0);
+		mainApp.controller.enableCalculateRouteButton();
 
-		distance = 0.0;
-		duration = 0.0;
-		allWayIDs = new LinkedList<String>();
-		allNodeIDs = new LinkedList<String>();
-		DepDestIDs = new LinkedList<String>();
-		allDestinationNodes = new ArrayList<String>();
-		String departureNodeID = route.get(0).get(Constants.NEW_ROUTE_DEPARTURENODEID);
-		String destinationNodeID = route.get(route.size() - 1).get(Constants.NEW_ROUTE_DESTINATIONNODEID);
-		DepDestIDs.add(departureNodeID);
-		DepDestIDs.add(destinationNodeID);
-
-		for (Map<String, String> way : route) {
-
-		    String dist = way.get(Constants.NEW_ROUTE_DISTANCE);
-		    String dur = way.get(Constants.NEW_ROUTE_DURATION);
-		    List<String> wayIDs = SupportMethods.commaStrToStrList(way.get(Constants.NEW_ROUTE_WAYIDS));
-
-		    if ((wayIDs == null) || (dist == null) || (dur == null) || !SupportMethods.isNumeric(dist)
-			    || !SupportMethods.isNumeric(dur) || wayIDs.isEmpty()) {
-			continue;
-		    }
-
-		    allWayIDs.addAll(wayIDs);
-		    allNodeIDs.add(way.get(Constants.NEW_ROUTE_DEPARTURENODEID));
-		    allDestinationNodes.add(way.get(Constants.NEW_ROUTE_DEPARTURENODENAME));
-		    distance += Double.valueOf(dist);
-		    duration += Double.valueOf(dur);
-		}
+	    }
+	});
 
-		allDestinationNodes.add(route.get(route.size() - 1).get(Constants.NEW_ROUTE_DESTINATIONNODENAME));
-		allNodeIDs.add(route.get(route.size() - 1).get(Constants.NEW_ROUTE_DESTINATIONNODEID));
-		allDestinationNodeNames = FXCollections.observableArrayList(allDestinationNodes);
+	task.setOnCancelled(new EventHandler<WorkerStateEvent>() {
+	    @Override
+	    public void handle(WorkerStateEvent event) {
+		Dialogs.create().title("Keine Berechnung mglich!").message(
+		        "Bei der Berechnung der Route ist ein Fehler aufgetreten. Es wurde keine Route gefunden.")
+		        .showError();
+		mainApp.controller.calculateRouteProgressIndicator.setOpacity(0.0);
+		mainApp.controller.enableCalculateRouteButton();
+	    }
+	});
+
+	executor.execute(task);
+    }
+
+    /**
+     * Berechnet im Hintergrund alle Anschlussstellen, die von der Startkreuzung aus innerhalb des Hchstpreises
+     * erreichbar sind, und zeigt sie danach auf der Karte an.
+     * 
+     * @param departure Startknoten
+     * @param calculationMethod Art der Auswertung, in der cutoff angegeben ist
+     * @param cutoff Hchstpreis in ms bzw. km
+     * @param mainApp Referenz auf die Haupt-Application-Klasse
+     */
+    public static void calculateIsochrone(final String departure, final String calculationMethod, final double cutoff,
+	    final RoutePlannerMainApp mainApp) {
 
-		return 0;
+	final Task<ShortestPathTree> task = new Task<ShortestPathTree>() {
+	    @Override
+	    protected ShortestPathTree call() throws Exception {
+		try {
+		    return new RouteEngine(RoadGraph.getInstance()).calculateTree(departure, calculationMethod, cutoff);
+		} catch (IllegalArgumentException e) {
+		    System.err.println(e.getMessage());
+		    this.cancel();
+		    return null;
+		}
 	    }
 	};
 
 	task.setOnSucceeded(new EventHandler<WorkerStateEvent>() {
 	    @Override
 	    public void handle(WorkerStateEvent event) {
-		mainApp.controller.loadOverpassHTML();
+		mainApp.controller.showIsochrone(task.getValue());
 		mainApp.controller.calculateRouteProgressIndicator.setOpacity(0.0);
 		mainApp.controller.enableCalculateRouteButton();
-
 	    }
 	});
 
@@ -139,15 +132,12 @@ public class UIEvaluationInterface {
 	    @Override
 	    public void handle(WorkerStateEvent event) {
 		Dialogs.create().title("Keine Berechnung mglich!").message(
-		        "Bei der Berechnung der Route ist ein Fehler aufgetreten. Es wurde keine Route gefunden.")
-		        .showError();
+		        "Bei der Berechnung der erreichbaren Anschlussstellen ist ein Fehler aufgetreten.").showError();
 		mainApp.controller.calculateRouteProgressIndicator.setOpacity(0.0);
 		mainApp.controller.enableCalculateRouteButton();
 	    }
 	});
 
-	Thread th = new Thread(task);
-	th.setDaemon(true);
-	th.start();
+	executor.execute(task);
     }
 }
@@ -2,10 +2,29 @@ package de.dhbw.horb.routePlanner.test;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
+import de.dhbw.horb.routePlanner.test.batch.UTBatchRouteCalculator;
+import de.dhbw.horb.routePlanner.test.data.UTCompactRouteGraph;
+import de.dhbw.horb.routePlanner.test.data.UTEdgeAttributeStore;
+import de.dhbw.horb.routePlanner.test.data.UTGraphDataStreamParser;
 import de.dhbw.horb.routePlanner.test.data.UTGraphDataStreamReader;
+import de.dhbw.horb.routePlanner.test.data.UTGraphDataXMLWriter;
+import de.dhbw.horb.routePlanner.test.data.UTGraphSnapshot;
+import de.dhbw.horb.routePlanner.test.data.UTJunctionIndex;
+import de.dhbw.horb.routePlanner.test.data.UTJunctionSearchIndex;
+import de.dhbw.horb.routePlanner.test.data.UTRouteSegmentExtractor;
 import de.dhbw.horb.routePlanner.test.data.UTSettingsManager;
+import de.dhbw.horb.routePlanner.test.data.UTSyntheticGraphDataGenerator;
 import de.dhbw.horb.routePlanner.test.data.UTXMLFileManager;
+import de.dhbw.horb.routePlanner.test.evaluation.UTContractionHierarchy;
+import de.dhbw.horb.routePlanner.test.evaluation.UTIndexedMinHeap;
+import de.dhbw.horb.routePlanner.test.evaluation.UTLandmarkTable;
+import de.dhbw.horb.routePlanner.test.evaluation.UTOneToAllDijkstra;
+import de.dhbw.horb.routePlanner.test.evaluation.UTRouteCache;
+import de.dhbw.horb.routePlanner.test.evaluation.UTRouteEngine;
+import de.dhbw.horb.routePlanner.test.evaluation.UTRouteEngines;
+import de.dhbw.horb.routePlanner.test.evaluation.UTRouteMatrix;
 import de.dhbw.horb.routePlanner.test.general.UTSupportMethods;
+import de.dhbw.horb.routePlanner.test.server.UTRouteServer;
 
 public class AllTests {
 
@@ -13,8 +32,27 @@ public class AllTests {
 	TestSuite suite = new TestSuite();
 	suite.addTestSuite(UTSupportMethods.class);
 	suite.addTestSuite(UTGraphDataStreamReader.class);
+	suite.addTestSuite(UTGraphDataStreamParser.class);
+	suite.addTestSuite(UTRouteSegmentExtractor.class);
+	suite.addTestSuite(UTGraphDataXMLWriter.class);
 	suite.addTestSuite(UTSettingsManager.class);
 	suite.addTestSuite(UTXMLFileManager.class);
+	suite.addTestSuite(UTCompactRouteGraph.class);
+	suite.addTestSuite(UTGraphSnapshot.class);
+	suite.addTestSuite(UTEdgeAttributeStore.class);
+	suite.addTestSuite(UTJunctionIndex.class);
+	suite.addTestSuite(UTJunctionSearchIndex.class);
+	suite.addTestSuite(UTSyntheticGraphDataGenerator.class);
+	suite.addTestSuite(UTIndexedMinHeap.class);
+	suite.addTestSuite(UTRouteEngines.class);
+	suite.addTestSuite(UTRouteEngine.class);
+	suite.addTestSuite(UTRouteCache.class);
+	suite.addTestSuite(UTOneToAllDijkstra.class);
+	suite.addTestSuite(UTContractionHierarchy.class);
+	suite.addTestSuite(UTLandmarkTable.class);
+	suite.addTestSuite(UTRouteMatrix.class);
+	suite.addTestSuite(UTRouteServer.class);
+	suite.addTestSuite(UTBatchRouteCalculator.class);
 	return suite;
     }
 }
@@ -0,0 +1,99 @@
+package de.dhbw.horb.routePlanner.test.batch;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.batch.BatchRouteCalculator;
+import de.dhbw.horb.routePlanner.batch.BatchRouteCalculator.Summary;
+import de.dhbw.horb.routePlanner.evaluation.RouteEngine;
+import de.dhbw.horb.routePlanner.test.evaluation.TestGraph;
+
+public class UTBatchRouteCalculator extends TestCase {
+
+    private RouteEngine engine;
+
+    @Override
+    protected void setUp() {
+	engine = new RouteEngine(TestGraph.create());
+    }
+
+    @Override
+    protected void tearDown() {
+    }
+
+    public void testCsv() throws IOException, InterruptedException {
+	BatchRouteCalculator calculator = new BatchRouteCalculator(engine, Constants.EVALUATION_METHOD_DIJKSTRA,
+	        Constants.EVALUATION_CALCULATION_DURATION, BatchRouteCalculator.FORMAT_CSV, 3);
+	StringWriter out = new StringWriter();
+	Summary summary = calculator.run(new StringReader("departure,destination\nA,D\n\n\"A\",C\nA,E\nX,D\nA\n"),
+	        out);
+
+	Assert.assertEquals("status,departure,destination,distance,duration,wayIDs,message\n"
+	        + "ok,A,D,20.0,200,\"11,12,13\",\n" + "ok,A,C,1.0,50,16,\n"
+	        + "no_route,A,E,,,,Keine Route gefunden\n" + "error,X,D,,,,Unbekannte Anschlussstelle: X\n"
+	        + "error,A,,,,,Start oder Ziel fehlt\n", out.toString());
+	Assert.assertEquals(5, summary.getPairs());
+	Assert.assertEquals(2, summary.getRoutes());
+	Assert.assertEquals(1, summary.getNoRoutes());
+	Assert.assertEquals(2, summary.getErrors());
+    }
+
+    public void testJsonLines() throws IOException, InterruptedException {
+	BatchRouteCalculator calculator = new BatchRouteCalculator(engine, Constants.EVALUATION_METHOD_ASTAR,
+	        Constants.EVALUATION_CALCULATION_DISTANCE, BatchRouteCalculator.FORMAT_JSON_LINES, 2);
+	StringWriter out = new StringWriter();
+	calculator.run(new StringReader("A;D\nA;E\n"), out);
+	Assert.assertEquals("{\"line\":1,\"status\":\"ok\",\"departure\":\"A\",\"destination\":\"D\",\"distance\":6,"
+	        + "\"duration\":450,\"wayIDs\":[\"16\",\"15\"]}\n"
+	        + "{\"line\":2,\"status\":\"no_route\",\"departure\":\"A\",\"destination\":\"E\","
+	        + "\"message\":\"Keine Route gefunden\"}\n", out.toString());
+    }
+
+    public void testOrderWithManyPairs() throws IOException, InterruptedException {
+	RouteEngine randomEngine = new RouteEngine(TestGraph.createRandom(200, 1000, 3L));
+	StringBuilder input = new StringBuilder();
+	int pairs = BatchRouteCalculator.PENDING_PER_THREAD * 2 * 3 + 17;
+	for (int i = 0; i < pairs; i++)
+	    input.append('N').append(i % 200).append(",N").append(i * 31 % 200).append('\n');
+
+	StringWriter out = new StringWriter();
+	Summary summary = new BatchRouteCalculator(randomEngine, Constants.EVALUATION_METHOD_DIJKSTRA,
+	        Constants.EVALUATION_CALCULATION_DURATION, BatchRouteCalculator.FORMAT_JSON_LINES, 2).run(
+	        new StringReader(input.toString()), out);
+
+	String[] lines = out.toString().split("\n");
+	Assert.assertEquals(pairs, lines.length);
+	Assert.assertEquals(pairs, summary.getPairs());
+	Assert.assertEquals(pairs, summary.getRoutes() + summary.getNoRoutes() + summary.getErrors());
+	for (int i = 0; i < pairs; i++)
+	    Assert.assertTrue(lines[i], lines[i].startsWith("{\"line\":" + (i + 1) + ",")
+	            && lines[i].contains("\"departure\":\"N" + (i % 200) + "\""));
+    }
+
+    public void testParseCsvLine() {
+	Assert.assertEquals(Arrays.asList("A", "B"), BatchRouteCalculator.parseCsvLine("A,B", ','));
+	Assert.assertEquals(Arrays.asList("Horb, Nord", "Sulz \"a\"", ""),
+	        BatchRouteCalculator.parseCsvLine("\"Horb, Nord\",\"Sulz \"\"a\"\"\",", ','));
+	Assert.assertEquals(Arrays.asList("A,1", "B"), BatchRouteCalculator.parseCsvLine("A,1;B", ';'));
+    }
+
+    public void testInvalidArguments() {
+	String[][] arguments = {
+	        { "Zufall", Constants.EVALUATION_CALCULATION_DURATION, BatchRouteCalculator.FORMAT_CSV },
+	        { Constants.EVALUATION_METHOD_DIJKSTRA, "Kosten", BatchRouteCalculator.FORMAT_CSV },
+	        { Constants.EVALUATION_METHOD_DIJKSTRA, Constants.EVALUATION_CALCULATION_DURATION, "xml" } };
+	for (String[] argument : arguments)
+	    try {
+		new BatchRouteCalculator(engine, argument[0], argument[1], argument[2], 1);
+		Assert.fail();
+	    } catch (IllegalArgumentException e) {
+	    }
+    }
+}
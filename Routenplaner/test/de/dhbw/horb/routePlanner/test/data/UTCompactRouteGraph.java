@@ -0,0 +1,112 @@
+package de.dhbw.horb.routePlanner.test.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.NodeCoordinates;
+import de.dhbw.horb.routePlanner.test.evaluation.TestGraph;
+
+public class UTCompactRouteGraph extends TestCase {
+
+    private CompactRouteGraph graph;
+
+    @Override
+    protected void setUp() {
+	graph = TestGraph.create().getCompactGraph();
+    }
+
+    @Override
+    protected void tearDown() {
+    }
+
+    public void testNodeIndices() {
+	Assert.assertEquals(7, graph.getNodeCount());
+	for (int node = 0; node < graph.getNodeCount(); node++)
+	    Assert.assertEquals(node, graph.getNodeIndex(graph.getNodeID(node)));
+	Assert.assertEquals(-1, graph.getNodeIndex("99"));
+	Assert.assertEquals(2, graph.getNodeIndices(Arrays.asList("1", "99", "2")).length);
+    }
+
+    public void testMixedNodeIDs() {
+	// Numerische IDs werden im long Array gesucht, alle anderen in den sortierten Strings.
+	String[] ids = { "9", "007", "7", "-3", "x1", "9223372036854775807" };
+	Map<String, List<Map<String, String>>> routes = new HashMap<String, List<Map<String, String>>>();
+	List<Map<String, String>> fromTen = new ArrayList<Map<String, String>>();
+	for (String id : ids) {
+	    Map<String, String> route = new HashMap<String, String>();
+	    route.put(Constants.NEW_ROUTE_DESTINATIONNODEID, id);
+	    route.put(Constants.NEW_ROUTE_DISTANCE, "0.1");
+	    route.put(Constants.NEW_ROUTE_DURATION, "123456789");
+	    fromTen.add(route);
+	}
+	routes.put("10", fromTen);
+	CompactRouteGraph mixed = new CompactRouteGraph(new HashMap<String, List<String>>(), routes);
+
+	Assert.assertEquals(7, mixed.getNodeCount());
+	for (int node = 0; node < mixed.getNodeCount(); node++)
+	    Assert.assertEquals(node, mixed.getNodeIndex(mixed.getNodeID(node)));
+	Assert.assertFalse(mixed.getNodeIndex("007") == mixed.getNodeIndex("7"));
+	Assert.assertEquals(-1, mixed.getNodeIndex("07"));
+	Assert.assertEquals(-1, mixed.getNodeIndex("+7"));
+	Assert.assertEquals(-1, mixed.getNodeIndex("8"));
+	Assert.assertEquals(-1, mixed.getNodeIndex(null));
+
+	// Dauer und Strecke bleiben so genau wie in der routes*.xml.
+	int edge = mixed.getEdgeStart(mixed.getNodeIndex("10"));
+	Assert.assertEquals(123456789.0, mixed.getEdgeDuration(edge), 0);
+	Assert.assertEquals(0.1, mixed.getEdgeDistance(edge), 0);
+    }
+
+    public void testEdges() {
+	Assert.assertEquals(5, graph.getEdgeCount());
+
+	int node = graph.getNodeIndex("1");
+	Assert.assertEquals(2, graph.getEdgeEnd(node) - graph.getEdgeStart(node));
+	int node7 = graph.getNodeIndex("7");
+	Assert.assertEquals(0, graph.getEdgeEnd(node7) - graph.getEdgeStart(node7));
+
+	int edge = graph.getEdgeStart(graph.getNodeIndex("2"));
+	Assert.assertEquals("4", graph.getNodeID(graph.getEdgeTarget(edge)));
+	Assert.assertEquals(1.0, graph.getEdgeDistance(edge), 0);
+	Assert.assertEquals(50.0, graph.getEdgeDuration(edge), 0);
+	Assert.assertEquals(1.0, graph.getEdgeWeights(Constants.EVALUATION_CALCULATION_DISTANCE)[edge], 0);
+	Assert.assertEquals(50.0, graph.getEdgeWeights(Constants.EVALUATION_CALCULATION_DURATION)[edge], 0);
+	Assert.assertEquals("16", graph.getEdgeRoute(edge).get(Constants.NEW_ROUTE_WAYIDS));
+	Assert.assertEquals(0.1, graph.getMaxEdgeSpeed(), 1e-6);
+    }
+
+    public void testReverseEdges() {
+	int node4 = graph.getNodeIndex("4");
+	Assert.assertEquals(2, graph.getReverseEdgeEnd(node4) - graph.getReverseEdgeStart(node4));
+	int end = graph.getReverseEdgeEnd(node4);
+	for (int reverseEdge = graph.getReverseEdgeStart(node4); reverseEdge < end; reverseEdge++) {
+	    int edge = graph.getReverseEdge(reverseEdge);
+	    int source = graph.getReverseEdgeSource(reverseEdge);
+	    Assert.assertEquals(node4, graph.getEdgeTarget(edge));
+	    Assert.assertTrue(edge >= graph.getEdgeStart(source) && edge < graph.getEdgeEnd(source));
+	}
+	int node1 = graph.getNodeIndex("1");
+	Assert.assertEquals(0, graph.getReverseEdgeEnd(node1) - graph.getReverseEdgeStart(node1));
+    }
+
+    public void testNodeCoordinates() {
+	NodeCoordinates coordinates = TestGraph.create().getNodeCoordinates();
+	int node1 = graph.getNodeIndex("1");
+	int node4 = graph.getNodeIndex("4");
+	int node7 = graph.getNodeIndex("7");
+	Assert.assertTrue(coordinates.hasCoordinates(node1));
+	Assert.assertFalse(coordinates.hasCoordinates(node7));
+	Assert.assertEquals(48.0, coordinates.getLatitude(node1), 0);
+	Assert.assertEquals(0.74, coordinates.getDistanceInKM(node1, node4), 0.01);
+	Assert.assertEquals(0.0, coordinates.getDistanceInKM(node1, node7), 0);
+    }
+}
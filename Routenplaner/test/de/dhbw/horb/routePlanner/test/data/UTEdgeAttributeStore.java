@@ -0,0 +1,124 @@
+package de.dhbw.horb.routePlanner.test.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.EdgeAttributeStore;
+import de.dhbw.horb.routePlanner.data.EdgeRoute;
+import de.dhbw.horb.routePlanner.test.evaluation.TestGraph;
+
+public class UTEdgeAttributeStore extends TestCase {
+
+    private List<Map<String, String>> routes;
+    private EdgeAttributeStore store;
+
+    @Override
+    protected void setUp() {
+	routes = new ArrayList<Map<String, String>>();
+	addRoute("Horb", "Rottenburg", "A 81", "12,13,14");
+	addRoute("Rottenburg", "Horb", "A 81", "007");
+	addRoute("Horb", "Empfingen", null, "");
+	addRoute("Empfingen", "Horb", null, null);
+	addRoute("Horb", "Sulz", null, "12345678901234567890");
+	store = EdgeAttributeStore.create(routes);
+    }
+
+    @Override
+    protected void tearDown() {
+    }
+
+    private void addRoute(String departure, String destination, String number, String wayIDs) {
+	Map<String, String> route = new HashMap<String, String>();
+	route.put(Constants.NEW_ROUTE_DEPARTURENODENAME, departure);
+	route.put(Constants.NEW_ROUTE_DESTINATIONNODENAME, destination);
+	if (number != null)
+	    route.put(Constants.NEW_ROUTE_NUMBER, number);
+	route.put(Constants.NEW_ROUTE_DISTANCE, "1.25");
+	route.put(Constants.NEW_ROUTE_DURATION, "90000");
+	if (wayIDs != null)
+	    route.put(Constants.NEW_ROUTE_WAYIDS, wayIDs);
+	routes.add(route);
+    }
+
+    private static void assertSameAttributes(List<Map<String, String>> expected, EdgeAttributeStore actual) {
+	Assert.assertEquals(expected.size(), actual.getEdgeCount());
+	for (int edge = 0; edge < expected.size(); edge++) {
+	    Map<String, String> route = expected.get(edge);
+	    Assert.assertEquals(route.get(Constants.NEW_ROUTE_DEPARTURENODENAME), actual.getDepartureName(edge));
+	    Assert.assertEquals(route.get(Constants.NEW_ROUTE_DESTINATIONNODENAME), actual.getDestinationName(edge));
+	    Assert.assertEquals(route.get(Constants.NEW_ROUTE_NUMBER), actual.getNumber(edge));
+	    Assert.assertEquals(route.get(Constants.NEW_ROUTE_DISTANCE), actual.getDistance(edge));
+	    Assert.assertEquals(route.get(Constants.NEW_ROUTE_DURATION), actual.getDuration(edge));
+	    Assert.assertEquals(route.get(Constants.NEW_ROUTE_WAYIDS), actual.getWayIDs(edge));
+	}
+    }
+
+    public void testAttributes() {
+	assertSameAttributes(routes, store);
+    }
+
+    public void testPackedWayIDs() {
+	Assert.assertEquals(3, store.getWayIDCount(0));
+	Assert.assertEquals(13L, store.getWayID(0, 1));
+	Assert.assertEquals(Arrays.asList("12", "13", "14"), store.getWayIDList(0));
+
+	Assert.assertEquals(-1, store.getWayIDCount(1));
+	Assert.assertEquals(Arrays.asList("007"), store.getWayIDList(1));
+	Assert.assertTrue(store.getWayIDList(2).isEmpty());
+	Assert.assertTrue(store.getWayIDList(3).isEmpty());
+	Assert.assertEquals(-1, store.getWayIDCount(4));
+    }
+
+    public void testWriteAndRead() throws IOException {
+	ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+	DataOutputStream out = new DataOutputStream(bytes);
+	out.writeInt(42);
+	store.write(out);
+	out.writeInt(43);
+	out.close();
+
+	ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+	Assert.assertEquals(42, buffer.getInt());
+	EdgeAttributeStore read = EdgeAttributeStore.read(buffer);
+	Assert.assertEquals(43, buffer.getInt());
+	assertSameAttributes(routes, read);
+    }
+
+    public void testEdgeRoute() {
+	CompactRouteGraph graph = TestGraph.create().getCompactGraph();
+	int edge = graph.getEdgeStart(graph.getNodeIndex("3"));
+	EdgeRoute route = graph.getEdgeRoute(edge);
+
+	Map<String, String> expected = new HashMap<String, String>();
+	expected.put(Constants.NEW_ROUTE_DEPARTURENODEID, "3");
+	expected.put(Constants.NEW_ROUTE_DEPARTURENODENAME, "B");
+	expected.put(Constants.NEW_ROUTE_DESTINATIONNODEID, "5");
+	expected.put(Constants.NEW_ROUTE_DESTINATIONNODENAME, "D");
+	expected.put(Constants.NEW_ROUTE_DISTANCE, "10.0");
+	expected.put(Constants.NEW_ROUTE_DURATION, "100");
+	expected.put(Constants.NEW_ROUTE_WAYIDS, "12,13");
+	Assert.assertEquals(expected, route);
+	Assert.assertEquals(route, expected);
+	Assert.assertEquals(expected.hashCode(), route.hashCode());
+	Assert.assertEquals(edge, route.getEdge());
+	Assert.assertEquals(Arrays.asList("12", "13"), route.getWayIDList());
+	Assert.assertFalse(route.containsKey(Constants.NEW_ROUTE_NUMBER));
+
+	for (int node = 0; node < graph.getNodeCount(); node++)
+	    for (int i = graph.getEdgeStart(node); i < graph.getEdgeEnd(node); i++)
+		Assert.assertEquals(node, graph.getEdgeSource(i));
+    }
+}
@@ -0,0 +1,57 @@
+package de.dhbw.horb.routePlanner.test.data;
+
+import java.io.FileNotFoundException;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.GraphDataMapBuilder;
+import de.dhbw.horb.routePlanner.data.GraphDataStreamParser;
+
+public class UTGraphDataStreamParser extends TestCase {
+
+    private Map<String, Map<String, String>> nodes;
+    private Map<String, Map<String, String>> ways;
+
+    @Override
+    protected void setUp() throws FileNotFoundException, XMLStreamException {
+	GraphDataMapBuilder builder = new GraphDataMapBuilder();
+	GraphDataStreamParser parser = new GraphDataStreamParser();
+	parser.addConsumer(builder);
+	parser.parse("test/de/dhbw/horb/routePlanner/test/testFiles/testGraphDataStreamParser.xml");
+	nodes = builder.getNodeMap();
+	ways = builder.getWayMap();
+    }
+
+    public void testNodes() {
+	Assert.assertEquals(3, nodes.size());
+	Assert.assertFalse(nodes.containsKey("4"));
+
+	Assert.assertEquals("Horb (30)", nodes.get("1").get(Constants.NODE_NAME));
+	Assert.assertEquals(Constants.NODE_MOTORWAY_JUNCTION, nodes.get("1").get(Constants.NODE_HIGHWAY));
+	Assert.assertEquals("Empfingen", nodes.get("3").get(Constants.NODE_NAME));
+	Assert.assertNull(nodes.get("2").get(Constants.NODE_NAME));
+	Assert.assertEquals(48.1, Double.parseDouble(nodes.get("2").get(Constants.NODE_LATITUDE)), 0.0);
+	Assert.assertEquals(8.6, Double.parseDouble(nodes.get("2").get(Constants.NODE_LONGITUDE)), 0.0);
+    }
+
+    public void testWays() {
+	Assert.assertEquals(2, ways.size());
+
+	Map<String, String> motorway = ways.get("100");
+	Assert.assertEquals(Constants.WAY_MOTORWAY, motorway.get(Constants.WAY_HIGHWAY));
+	Assert.assertEquals("120", motorway.get(Constants.WAY_MAXSPEED));
+	Assert.assertEquals("A 81", motorway.get(Constants.WAY_REF));
+	Assert.assertEquals("1,2,3", motorway.get(Constants.WAY_NODE));
+
+	Map<String, String> link = ways.get("101");
+	Assert.assertEquals("80", link.get(Constants.WAY_MAXSPEED));
+	Assert.assertNull(link.get(Constants.WAY_REF));
+	Assert.assertEquals("3,1", link.get(Constants.WAY_NODE));
+    }
+}
@@ -70,4 +70,55 @@ public class UTGraphDataStreamReader extends TestCase {
 	testSR.nextStartElement();
 	Assert.assertEquals(testSR.getAttributeKV("TMC:cid_58:tabcd_1:Class"), "Point");
     }
+
+    public void testGetAttributeKVRepeated() throws XMLStreamException {
+	while (testSR.nextStartElement() && !testSR.isNode());
+	Assert.assertNull(testSR.getAttributeKV("TMC:cid_58:tabcd_1:Class"));
+	testSR.nextStartElement();
+	Assert.assertNull(testSR.getAttributeKV("highway"));
+	Assert.assertNull(testSR.getAttributeKV("name"));
+	Assert.assertEquals(testSR.getAttributeKV("TMC:cid_58:tabcd_1:Class"), "Point");
+	testSR.nextStartElement();
+	Assert.assertNull(testSR.getAttributeKV("TMC:cid_58:tabcd_1:Class"));
+	Assert.assertEquals(testSR.getAttributeKV("TMC:cid_58:tabcd_1:Direction"), "positive");
+    }
+
+    public void testGetAttributeValueMissing() throws XMLStreamException {
+	while (testSR.nextStartElement() && !testSR.isNode());
+	Assert.assertNull(testSR.getAttributeValue("name"));
+    }
+
+    public void testGetElementType() throws XMLStreamException {
+	int nodes = 0;
+	int wayNodes = 0;
+	int ways = 0;
+	int tags = 0;
+	int routes = 0;
+	while (testSR.nextStartElement()) {
+	    switch (testSR.getElementType()) {
+	    case GraphDataStreamReader.ELEMENT_NODE:
+		nodes++;
+		break;
+	    case GraphDataStreamReader.ELEMENT_WAY_NODE:
+		wayNodes++;
+		break;
+	    case GraphDataStreamReader.ELEMENT_WAY:
+		ways++;
+		break;
+	    case GraphDataStreamReader.ELEMENT_TAG:
+		tags++;
+		break;
+	    case GraphDataStreamReader.ELEMENT_ROUTE:
+		routes++;
+		break;
+	    default:
+		Assert.assertEquals(testSR.getLocalName(), "osm");
+	    }
+	}
+	Assert.assertEquals(nodes, 2);
+	Assert.assertEquals(wayNodes, 2);
+	Assert.assertEquals(ways, 1);
+	Assert.assertEquals(tags, 20);
+	Assert.assertEquals(routes, 1);
+    }
 }
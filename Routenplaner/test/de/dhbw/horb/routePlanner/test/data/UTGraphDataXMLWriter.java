@@ -0,0 +1,82 @@
+package de.dhbw.horb.routePlanner.test.data;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+
+import junit.framework.TestCase;
+
+import org.jdom2.Element;
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.GraphDataStreamReader;
+import de.dhbw.horb.routePlanner.data.GraphDataXMLWriter;
+
+public class UTGraphDataXMLWriter extends TestCase {
+
+    private File file;
+
+    @Override
+    protected void setUp() throws IOException {
+	file = File.createTempFile("routes", ".xml");
+    }
+
+    @Override
+    protected void tearDown() {
+	file.delete();
+    }
+
+    private void write(boolean pretty) throws IOException, XMLStreamException {
+	GraphDataXMLWriter writer = new GraphDataXMLWriter(file.getPath(), Constants.NEW_ROUTE_S, pretty);
+	try {
+	    for (int i = 0; i < 3; i++) {
+		Element route = new Element(Constants.NEW_ROUTE);
+		route.setAttribute(Constants.NEW_ROUTE_DEPARTURENODEID, String.valueOf(i));
+		route.setAttribute(Constants.NEW_ROUTE_DEPARTURENODENAME, "Horb & Empfingen <" + i + ">");
+		writer.writeElement(route);
+	    }
+	} finally {
+	    writer.close();
+	}
+    }
+
+    private void assertRoutes() throws IOException, XMLStreamException {
+	GraphDataStreamReader reader = new GraphDataStreamReader(XMLInputFactory.newInstance().createXMLStreamReader(
+	        new FileInputStream(file)));
+	try {
+	    int count = 0;
+	    while (reader.nextStartElement()) {
+		if (!reader.isRoute())
+		    continue;
+		Assert.assertEquals(String.valueOf(count),
+		        reader.getAttributeValue(Constants.NEW_ROUTE_DEPARTURENODEID));
+		Assert.assertEquals("Horb & Empfingen <" + count + ">",
+		        reader.getAttributeValue(Constants.NEW_ROUTE_DEPARTURENODENAME));
+		count++;
+	    }
+	    Assert.assertEquals(3, count);
+	} finally {
+	    reader.close();
+	}
+    }
+
+    public void testPretty() throws IOException, XMLStreamException {
+	write(true);
+	assertRoutes();
+	String content = new String(Files.readAllBytes(file.toPath()), "UTF-8");
+	Assert.assertEquals(6, content.split("\r\n").length);
+    }
+
+    public void testCompact() throws IOException, XMLStreamException {
+	write(false);
+	assertRoutes();
+	String content = new String(Files.readAllBytes(file.toPath()), "UTF-8");
+	Assert.assertFalse(content.contains("\n"));
+	Assert.assertFalse(content.contains("  "));
+    }
+}
@@ -0,0 +1,120 @@
+package de.dhbw.horb.routePlanner.test.data;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.GraphSnapshot;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.Dijkstra;
+import de.dhbw.horb.routePlanner.test.evaluation.TestGraph;
+
+public class UTGraphSnapshot extends TestCase {
+
+    private static final String COUNTRY = "UTGraphSnapshot";
+
+    private File file;
+
+    @Override
+    protected void setUp() throws IOException {
+	file = File.createTempFile("graph", ".snapshot");
+    }
+
+    @Override
+    protected void tearDown() {
+	file.delete();
+    }
+
+    private RoadGraph saveAndLoad(RoadGraph graph) throws IOException {
+	GraphSnapshot.save(graph, file.getPath());
+	RoadGraph loaded = GraphSnapshot.load(file.getPath(), COUNTRY);
+	Assert.assertNotNull(loaded);
+	return loaded;
+    }
+
+    private static void assertSameGraph(RoadGraph expected, RoadGraph actual) {
+	CompactRouteGraph expectedCompact = expected.getCompactGraph();
+	CompactRouteGraph actualCompact = actual.getCompactGraph();
+	Assert.assertEquals(expectedCompact.getNodeCount(), actualCompact.getNodeCount());
+	Assert.assertEquals(expectedCompact.getEdgeCount(), actualCompact.getEdgeCount());
+	Assert.assertEquals(expectedCompact.getFingerprint(Constants.EVALUATION_CALCULATION_DURATION),
+	        actualCompact.getFingerprint(Constants.EVALUATION_CALCULATION_DURATION));
+	Assert.assertEquals(expectedCompact.getFingerprint(Constants.EVALUATION_CALCULATION_DISTANCE),
+	        actualCompact.getFingerprint(Constants.EVALUATION_CALCULATION_DISTANCE));
+	Assert.assertEquals(expectedCompact.getMaxEdgeSpeed(), actualCompact.getMaxEdgeSpeed(), 0.0);
+
+	for (int edge = 0; edge < expectedCompact.getEdgeCount(); edge++)
+	    Assert.assertEquals(expectedCompact.getEdgeRoute(edge), actualCompact.getEdgeRoute(edge));
+	for (int node = 0; node < expectedCompact.getNodeCount(); node++)
+	    Assert.assertEquals(expectedCompact.getReverseEdgeEnd(node), actualCompact.getReverseEdgeEnd(node));
+
+	Assert.assertEquals(expected.getNodeXMLMap(), actual.getNodeXMLMap());
+	Assert.assertEquals(expected.getRouteXMLMap(), actual.getRouteXMLMap());
+    }
+
+    public void testRoundTrip() throws IOException {
+	RoadGraph graph = TestGraph.create();
+	RoadGraph loaded = saveAndLoad(graph);
+	assertSameGraph(graph, loaded);
+	Assert.assertEquals(COUNTRY, loaded.getCountry());
+
+	List<Map<String, String>> route = new Dijkstra("A", "D", loaded)
+	        .calculateRoute(Constants.EVALUATION_CALCULATION_DURATION);
+	Assert.assertEquals(2, route.size());
+	Assert.assertEquals("12,13", route.get(1).get(Constants.NEW_ROUTE_WAYIDS));
+    }
+
+    public void testRoundTripRandom() throws IOException {
+	RoadGraph graph = TestGraph.createRandom(200, 800, 7);
+	assertSameGraph(graph, saveAndLoad(graph));
+    }
+
+    public void testOptionalAttributes() throws IOException {
+	Map<String, List<String>> nodes = new HashMap<String, List<String>>();
+	TestGraph.addNode(nodes, "Kln-Sd", "1");
+	TestGraph.addNode(nodes, "Bonn", "2");
+
+	Map<String, List<Map<String, String>>> routes = new HashMap<String, List<Map<String, String>>>();
+	Map<String, String> withNumber = TestGraph.addRoute(routes, "1", "Kln-Sd", "2", null, 1.5, 60000L,
+	        "007,12");
+	withNumber.put(Constants.NEW_ROUTE_NUMBER, "A 555");
+	TestGraph.addRoute(routes, "2", null, "1", null, 1.5, 60000L, "9223372036854775807");
+	TestGraph.addRoute(routes, "2", null, "1", null, 1.5, 60000L, null);
+
+	RoadGraph graph = new RoadGraph(COUNTRY, nodes, routes);
+	RoadGraph loaded = saveAndLoad(graph);
+	assertSameGraph(graph, loaded);
+	Assert.assertEquals("A 555", loaded.getCompactGraph().getEdgeRoute(0).get(Constants.NEW_ROUTE_NUMBER));
+	Assert.assertNull(loaded.getCompactGraph().getEdgeRoute(2).get(Constants.NEW_ROUTE_WAYIDS));
+    }
+
+    public void testInvalidFile() throws IOException {
+	FileOutputStream out = new FileOutputStream(file);
+	try {
+	    out.write(new byte[100]);
+	} finally {
+	    out.close();
+	}
+	Assert.assertNull(GraphSnapshot.load(file.getPath(), COUNTRY));
+
+	new FileOutputStream(file).close();
+	Assert.assertNull(GraphSnapshot.load(file.getPath(), COUNTRY));
+    }
+
+    public void testFileName() {
+	// Ohne XML Dateien sind Lnge und nderungszeit 0, der Name hngt dann nur vom Land ab.
+	String fileName = GraphSnapshot.getFileName(COUNTRY);
+	Assert.assertEquals(fileName, GraphSnapshot.getFileName(COUNTRY));
+	Assert.assertTrue(new File(fileName).getName().matches("graph_" + COUNTRY + "_[0-9a-f]+\\.snapshot"));
+	Assert.assertFalse(fileName.equals(GraphSnapshot.getFileName(COUNTRY + "2")));
+    }
+}
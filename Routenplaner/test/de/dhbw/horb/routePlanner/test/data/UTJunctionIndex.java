@@ -0,0 +1,74 @@
+package de.dhbw.horb.routePlanner.test.data;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.JunctionIndex;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.test.evaluation.TestGraph;
+
+public class UTJunctionIndex extends TestCase {
+
+    private RoadGraph graph;
+    private CompactRouteGraph compactGraph;
+    private JunctionIndex junctions;
+
+    @Override
+    protected void setUp() {
+	graph = TestGraph.create();
+	compactGraph = graph.getCompactGraph();
+	junctions = graph.getJunctionIndex();
+    }
+
+    @Override
+    protected void tearDown() {
+    }
+
+    private int[] getNodeIndices(String... nodeIDs) {
+	return compactGraph.getNodeIndices(Arrays.asList(nodeIDs));
+    }
+
+    public void testNames() {
+	Assert.assertEquals(5, junctions.getNameCount());
+	Assert.assertEquals("A", junctions.getName(0));
+	Assert.assertEquals("E", junctions.getName(4));
+	Assert.assertEquals(3, junctions.getOrdinal("D"));
+	Assert.assertEquals(-1, junctions.getOrdinal("1"));
+	Assert.assertEquals(-1, junctions.getOrdinal(null));
+	Assert.assertTrue(junctions.contains("B"));
+	Assert.assertFalse(junctions.contains("F"));
+	Assert.assertSame("C", junctions.getName(2));
+    }
+
+    public void testNodes() {
+	Assert.assertArrayEquals(getNodeIndices("1", "2"), junctions.getNodes("A"));
+	Assert.assertArrayEquals(getNodeIndices("5", "6"), junctions.getNodes(junctions.getOrdinal("D")));
+	Assert.assertEquals(0, junctions.getNodes("F").length);
+	Assert.assertEquals(0, junctions.getNodes("3").length);
+
+	Assert.assertEquals("A", junctions.getNameOfNode(compactGraph.getNodeIndex("2")));
+	Assert.assertEquals(1, junctions.getNameOrdinal(compactGraph.getNodeIndex("3")));
+    }
+
+    public void testHasRoute() {
+	Assert.assertTrue(junctions.hasRoute(junctions.getOrdinal("A")));
+	Assert.assertTrue(junctions.hasRoute(junctions.getOrdinal("C")));
+	Assert.assertFalse(junctions.hasRoute(junctions.getOrdinal("D")));
+	Assert.assertFalse(junctions.hasRoute(junctions.getOrdinal("E")));
+    }
+
+    public void testNodeXMLMap() {
+	Map<String, List<String>> nodes = graph.getNodeXMLMap();
+	Assert.assertEquals(Arrays.asList("1", "2"), nodes.get("A"));
+	Assert.assertEquals(Arrays.asList("D"), nodes.get("6"));
+	Assert.assertEquals(Arrays.asList("E"), nodes.get("7"));
+	Assert.assertEquals(12, nodes.size());
+	Assert.assertSame(nodes, graph.getNodeXMLMap());
+    }
+}
@@ -0,0 +1,90 @@
+package de.dhbw.horb.routePlanner.test.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.data.JunctionSearchIndex;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.test.evaluation.TestGraph;
+
+public class UTJunctionSearchIndex extends TestCase {
+
+    private static final String[] NAMES = { "Mnchen-Ost", "Muenchen-Nord", "Stuttgart", "Stuttgart-Nord",
+	    "Nordheim", "Lige" };
+
+    private JunctionSearchIndex index;
+
+    @Override
+    protected void setUp() {
+	Map<String, List<String>> nodes = new HashMap<String, List<String>>();
+	Map<String, List<Map<String, String>>> routes = new HashMap<String, List<Map<String, String>>>();
+	for (int i = 0; i < NAMES.length; i++) {
+	    TestGraph.addNode(nodes, NAMES[i], (10 * i + 1) + "", (10 * i + 2) + "");
+	    int next = (i + 1) % NAMES.length;
+	    TestGraph.addRoute(routes, (10 * i + 1) + "", NAMES[i], (10 * next + 1) + "", NAMES[next], 1.0, 10L,
+	            (10 * i + 1) + "");
+	}
+	TestGraph.addNode(nodes, "Horb", "101", "102");
+	TestGraph.addNode(nodes, "Sulz", "111");
+	TestGraph.addRoute(routes, "1", NAMES[0], "101", "Horb", 1.0, 10L, "1");
+	TestGraph.addRoute(routes, "111", "Sulz", "1", NAMES[0], 1.0, 10L, "111");
+	index = new RoadGraph("UTJunctionSearchIndex", nodes, routes).getJunctionSearchIndex();
+    }
+
+    @Override
+    protected void tearDown() {
+    }
+
+    public void testFold() {
+	Assert.assertEquals("muenchen-ost", JunctionSearchIndex.fold("Mnchen-Ost"));
+	Assert.assertEquals("liege", JunctionSearchIndex.fold("Lige"));
+	Assert.assertEquals("strasse", JunctionSearchIndex.fold("Strae"));
+	Assert.assertEquals("oesterreich", JunctionSearchIndex.fold("sterreich"));
+    }
+
+    public void testOnlyJunctionsWithRoutes() {
+	Assert.assertEquals(NAMES.length, index.size());
+	Assert.assertTrue(index.search("horb", 10).isEmpty());
+	Assert.assertTrue(index.search("sulz", 10).isEmpty());
+    }
+
+    public void testSearch() {
+	Assert.assertEquals(Arrays.asList("Mnchen-Ost", "Muenchen-Nord"), index.search("Mnchen", 10));
+	Assert.assertEquals(Arrays.asList("Mnchen-Ost", "Muenchen-Nord"), index.search("muench", 10));
+	Assert.assertEquals(Arrays.asList("Lige"), index.search("LIEGE", 10));
+	Assert.assertTrue(index.search("xyz", 10).isEmpty());
+	Assert.assertTrue(index.search(null, 10).isEmpty());
+    }
+
+    public void testRanking() {
+	Assert.assertEquals(Arrays.asList("Nordheim", "Muenchen-Nord", "Stuttgart-Nord"), index.search("nord", 10));
+	Assert.assertEquals(Arrays.asList("Nordheim", "Muenchen-Nord"), index.search("nord", 2));
+	Assert.assertEquals(Arrays.asList("Stuttgart", "Stuttgart-Nord"), index.search("stuttgart", 10));
+	Assert.assertEquals(NAMES.length, index.search("", 100).size());
+	Assert.assertEquals(3, index.search("", 3).size());
+    }
+
+    public void testAllSubstrings() {
+	for (String name : NAMES) {
+	    String folded = JunctionSearchIndex.fold(name);
+	    for (int start = 0; start < folded.length(); start++)
+		for (int end = start + 1; end <= folded.length(); end++) {
+		    String query = folded.substring(start, end);
+		    List<String> expected = new ArrayList<String>();
+		    for (String other : NAMES)
+			if (JunctionSearchIndex.fold(other).contains(query))
+			    expected.add(other);
+		    List<String> found = index.search(query, 100);
+		    Assert.assertEquals(query, expected.size(), found.size());
+		    Assert.assertTrue(query, found.containsAll(expected));
+		}
+	}
+    }
+}
@@ -0,0 +1,156 @@
+package de.dhbw.horb.routePlanner.test.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+
+import org.jdom2.Element;
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.SupportMethods;
+import de.dhbw.horb.routePlanner.data.RouteSegmentExtractor;
+
+public class UTRouteSegmentExtractor extends TestCase {
+
+    private Map<String, Map<String, String>> nodes;
+    private Map<String, Map<String, String>> ways;
+
+    @Override
+    protected void setUp() {
+	nodes = new HashMap<String, Map<String, String>>();
+	addNode("1", 48.00, 8.50, "Horb");
+	addNode("2", 48.05, 8.55, null);
+	addNode("3", 48.10, 8.60, null);
+	addNode("4", 48.15, 8.65, "Empfingen");
+	addNode("5", 48.05, 8.65, null);
+	addNode("6", 48.05, 8.75, "Sulz");
+
+	ways = new HashMap<String, Map<String, String>>();
+	addWay("10", "1,2,3,4", "120", "A 81");
+	addWay("11", "2,5,6", "60", null);
+	addWay("12", "3,2", "120", null);
+    }
+
+    @Override
+    protected void tearDown() {
+    }
+
+    private void addNode(String id, double lat, double lon, String name) {
+	Map<String, String> node = new HashMap<String, String>();
+	node.put(Constants.NODE_LATITUDE, Double.toString(lat));
+	node.put(Constants.NODE_LONGITUDE, Double.toString(lon));
+	if (name != null) {
+	    node.put(Constants.NODE_HIGHWAY, Constants.NODE_MOTORWAY_JUNCTION);
+	    node.put(Constants.NODE_NAME, name);
+	}
+	nodes.put(id, node);
+    }
+
+    private void addWay(String id, String nds, String maxspeed, String ref) {
+	Map<String, String> way = new HashMap<String, String>();
+	way.put(Constants.WAY_HIGHWAY, Constants.WAY_MOTORWAY);
+	way.put(Constants.WAY_MAXSPEED, maxspeed);
+	way.put(Constants.WAY_REF, ref);
+	way.put(Constants.WAY_NODE, nds);
+	ways.put(id, way);
+    }
+
+    private double distance(String from, String to) {
+	Map<String, String> a = nodes.get(from);
+	Map<String, String> b = nodes.get(to);
+	return SupportMethods.fromLatLonToDistanceInKM(Double.valueOf(a.get(Constants.NODE_LATITUDE)),
+	        Double.valueOf(a.get(Constants.NODE_LONGITUDE)), Double.valueOf(b.get(Constants.NODE_LATITUDE)),
+	        Double.valueOf(b.get(Constants.NODE_LONGITUDE)));
+    }
+
+    private Element getRoute(List<Element> routes, String destinationNodeID) {
+	for (Element route : routes)
+	    if (destinationNodeID.equals(route.getAttributeValue(Constants.NEW_ROUTE_DESTINATIONNODEID)))
+		return route;
+	return null;
+    }
+
+    public void testRoutesToNextJunction() {
+	List<Element> routes = new RouteSegmentExtractor(nodes, ways).createRoutes(Arrays.asList("1"), null);
+	Assert.assertEquals(2, routes.size());
+
+	Element empfingen = getRoute(routes, "4");
+	Assert.assertEquals("1", empfingen.getAttributeValue(Constants.NEW_ROUTE_DEPARTURENODEID));
+	Assert.assertEquals("Horb", empfingen.getAttributeValue(Constants.NEW_ROUTE_DEPARTURENODENAME));
+	Assert.assertEquals("Empfingen", empfingen.getAttributeValue(Constants.NEW_ROUTE_DESTINATIONNODENAME));
+	Assert.assertEquals("A 81", empfingen.getAttributeValue(Constants.NEW_ROUTE_NUMBER));
+	Assert.assertEquals("10", empfingen.getAttributeValue(Constants.NEW_ROUTE_WAYIDS));
+	double distance = distance("1", "2") + distance("2", "3") + distance("3", "4");
+	Assert.assertEquals(distance, Double.parseDouble(empfingen.getAttributeValue(Constants.NEW_ROUTE_DISTANCE)),
+	        1e-9);
+	long duration = SupportMethods.fromDistanceAndSpeedToMilliseconds(distance("1", "2"), 120)
+	        + SupportMethods.fromDistanceAndSpeedToMilliseconds(distance("2", "3"), 120)
+	        + SupportMethods.fromDistanceAndSpeedToMilliseconds(distance("3", "4"), 120);
+	Assert.assertEquals(Long.toString(duration), empfingen.getAttributeValue(Constants.NEW_ROUTE_DURATION));
+
+	Element sulz = getRoute(routes, "6");
+	Assert.assertEquals("A 81", sulz.getAttributeValue(Constants.NEW_ROUTE_NUMBER));
+	Assert.assertEquals("10,11", sulz.getAttributeValue(Constants.NEW_ROUTE_WAYIDS));
+    }
+
+    public void testZeroLengthStep() {
+	addNode("7", 48.05, 8.55, null);
+	addWay("10", "1,7,2,3,4", "120", "A 81");
+	List<Element> routes = new RouteSegmentExtractor(nodes, ways).createRoutes(Arrays.asList("1"), null);
+
+	Element empfingen = getRoute(routes, "4");
+	double distance = distance("1", "2") + distance("2", "3") + distance("3", "4");
+	Assert.assertEquals(distance, Double.parseDouble(empfingen.getAttributeValue(Constants.NEW_ROUTE_DISTANCE)),
+	        1e-9);
+	Assert.assertEquals("10", empfingen.getAttributeValue(Constants.NEW_ROUTE_WAYIDS));
+    }
+
+    public void testParallelOrder() {
+	Random random = new Random(3);
+	List<String> departures = new ArrayList<String>();
+	for (int i = 0; i < 400; i++) {
+	    String name = random.nextInt(4) == 0 ? "J" + i : null;
+	    addNode("n" + i, 48 + random.nextDouble(), 8 + random.nextDouble(), name);
+	    if (name != null)
+		departures.add("n" + i);
+	}
+	for (int w = 0; w < 60; w++) {
+	    StringBuilder nds = new StringBuilder();
+	    int node = random.nextInt(400);
+	    for (int i = 0; i < 2 + random.nextInt(15); i++) {
+		nds.append(i == 0 ? "" : ",").append("n").append(node);
+		node = random.nextInt(8) == 0 ? random.nextInt(400) : (node + 1) % 400;
+	    }
+	    addWay("w" + w, nds.toString(), "120", "A " + w);
+	}
+
+	RouteSegmentExtractor extractor = new RouteSegmentExtractor(nodes, ways);
+	List<Element> sequential = extractor.createRoutes(departures, null);
+	ForkJoinPool pool = new ForkJoinPool(4);
+	List<Element> parallel;
+	try {
+	    parallel = extractor.createRoutes(departures, pool);
+	} finally {
+	    pool.shutdown();
+	}
+
+	Assert.assertTrue(sequential.size() > 0);
+	Assert.assertEquals(sequential.size(), parallel.size());
+	for (int i = 0; i < sequential.size(); i++) {
+	    String expected = sequential.get(i).getAttributes().toString();
+	    Assert.assertEquals(expected, parallel.get(i).getAttributes().toString());
+	}
+    }
+
+    public void testNoRoutes() {
+	RouteSegmentExtractor extractor = new RouteSegmentExtractor(nodes, ways);
+	Assert.assertEquals(0, extractor.createRoutes(Arrays.asList("2", "99", "6"), null).size());
+    }
+}
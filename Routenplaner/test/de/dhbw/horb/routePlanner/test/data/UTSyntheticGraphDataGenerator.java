@@ -0,0 +1,151 @@
+package de.dhbw.horb.routePlanner.test.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLStreamException;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.GraphDataMapBuilder;
+import de.dhbw.horb.routePlanner.data.GraphDataStreamParser;
+import de.dhbw.horb.routePlanner.data.RouteSegmentExtractor;
+import de.dhbw.horb.routePlanner.data.SyntheticGraphDataGenerator;
+
+public class UTSyntheticGraphDataGenerator extends TestCase {
+
+    private File file;
+    private Map<String, Map<String, String>> nodes;
+    private Map<String, Map<String, String>> ways;
+
+    @Override
+    protected void setUp() throws IOException {
+	file = File.createTempFile("graphData", ".xml");
+    }
+
+    @Override
+    protected void tearDown() {
+	file.delete();
+    }
+
+    private void generate(String topology, int junctionCount) throws IOException, XMLStreamException {
+	new SyntheticGraphDataGenerator(topology, junctionCount, 42L).write(file.getPath());
+	GraphDataMapBuilder builder = new GraphDataMapBuilder();
+	GraphDataStreamParser parser = new GraphDataStreamParser();
+	parser.addConsumer(builder);
+	parser.parse(file.getPath());
+	nodes = builder.getNodeMap();
+	ways = builder.getWayMap();
+    }
+
+    /**
+     * Prft, dass alle Anschlussstellen einen Namen haben, jeder Weg ber einen Zwischenknoten zwei Anschlussstellen
+     * verbindet und es zu jedem Weg den Weg in Gegenrichtung gibt.
+     */
+    private void assertValidGraph(int junctionCount) {
+	Set<String> names = new HashSet<String>();
+	for (Map<String, String> node : nodes.values())
+	    if (node.get(Constants.NODE_NAME) != null) {
+		Assert.assertEquals(Constants.NODE_MOTORWAY_JUNCTION, node.get(Constants.NODE_HIGHWAY));
+		names.add(node.get(Constants.NODE_NAME));
+	    }
+	Assert.assertEquals(junctionCount, names.size());
+
+	Set<String> connections = new HashSet<String>();
+	for (Map<String, String> way : ways.values()) {
+	    String[] wayNodes = way.get(Constants.WAY_NODE).split(",");
+	    Assert.assertEquals(3, wayNodes.length);
+	    for (String id : wayNodes)
+		Assert.assertTrue(nodes.containsKey(id));
+	    Assert.assertNotNull(nodes.get(wayNodes[0]).get(Constants.NODE_NAME));
+	    Assert.assertNull(nodes.get(wayNodes[1]).get(Constants.NODE_NAME));
+	    Assert.assertNotNull(nodes.get(wayNodes[2]).get(Constants.NODE_NAME));
+	    Assert.assertNotNull(way.get(Constants.WAY_MAXSPEED));
+	    if (Constants.WAY_MOTORWAY.equals(way.get(Constants.WAY_HIGHWAY)))
+		Assert.assertNotNull(way.get(Constants.WAY_REF));
+	    else
+		Assert.assertEquals(Constants.WAY_MOTORWAY_LINK, way.get(Constants.WAY_HIGHWAY));
+	    connections.add(wayNodes[0] + "," + wayNodes[2]);
+	}
+	Assert.assertEquals(ways.size(), connections.size());
+	for (String connection : connections) {
+	    String[] ends = connection.split(",");
+	    Assert.assertTrue(connections.contains(ends[1] + "," + ends[0]));
+	}
+    }
+
+    private List<String> getJunctionIDs() {
+	List<String> ids = new ArrayList<String>();
+	for (Map.Entry<String, Map<String, String>> node : nodes.entrySet())
+	    if (node.getValue().get(Constants.NODE_NAME) != null)
+		ids.add(node.getKey());
+	return ids;
+    }
+
+    public void testGrid() throws IOException, XMLStreamException {
+	generate(SyntheticGraphDataGenerator.TOPOLOGY_GRID, 25);
+	assertValidGraph(25);
+	// 5 x 5 Gitter: 2 * 5 * 4 Verbindungen mit je zwei Wegen.
+	Assert.assertEquals(80, ways.size());
+	Assert.assertEquals(80, new RouteSegmentExtractor(nodes, ways).createRoutes(getJunctionIDs(), null).size());
+    }
+
+    public void testIncompleteGrid() throws IOException, XMLStreamException {
+	generate(SyntheticGraphDataGenerator.TOPOLOGY_GRID, 7);
+	assertValidGraph(7);
+	// 3 x 3 Gitter ohne die letzten beiden Anschlussstellen.
+	Assert.assertEquals(16, ways.size());
+    }
+
+    public void testGeometric() throws IOException, XMLStreamException {
+	generate(SyntheticGraphDataGenerator.TOPOLOGY_GEOMETRIC, 200);
+	assertValidGraph(200);
+	Assert.assertTrue(ways.size() >= 200 * 3);
+	Assert.assertTrue(ways.size() <= 200 * 3 * 2);
+    }
+
+    public void testHubAndSpoke() throws IOException, XMLStreamException {
+	generate(SyntheticGraphDataGenerator.TOPOLOGY_HUB_AND_SPOKE, 39);
+	assertValidGraph(39);
+	// Drei Knotenpunkte im Ring und 36 Anschlussstellen auf 18 Strecken, alles ein Baum plus Ring.
+	Assert.assertEquals(2 * (3 + 36), ways.size());
+	Assert.assertEquals(2 * (3 + 36),
+	        new RouteSegmentExtractor(nodes, ways).createRoutes(getJunctionIDs(), null).size());
+    }
+
+    public void testDeterministic() throws XMLStreamException {
+	SyntheticGraphDataGenerator generator = new SyntheticGraphDataGenerator(
+	        SyntheticGraphDataGenerator.TOPOLOGY_GEOMETRIC, 50, 7L);
+	ByteArrayOutputStream first = new ByteArrayOutputStream();
+	ByteArrayOutputStream second = new ByteArrayOutputStream();
+	generator.write(first);
+	generator.write(second);
+	Assert.assertEquals(first.toString(), second.toString());
+
+	ByteArrayOutputStream other = new ByteArrayOutputStream();
+	new SyntheticGraphDataGenerator(SyntheticGraphDataGenerator.TOPOLOGY_GEOMETRIC, 50, 8L).write(other);
+	Assert.assertFalse(first.toString().equals(other.toString()));
+    }
+
+    public void testInvalidArguments() {
+	try {
+	    new SyntheticGraphDataGenerator("ring", 10, 1L);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	}
+	try {
+	    new SyntheticGraphDataGenerator(SyntheticGraphDataGenerator.TOPOLOGY_GRID, 1, 1L);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	}
+    }
+}
@@ -40,4 +40,13 @@ public class UTXMLFileManager extends TestCase {
 	    return;
 	SettingsManager.saveSetting(Constants.SETTINGS_COUNTRY, save_country);
     }
+
+    public void testGetExtendedFileName() {
+	String separator = System.getProperty("file.separator");
+	Assert.assertEquals("dir" + separator + "hierarchy_Test.ch",
+	        XMLFileManager.getExtendedFileName("dir" + separator + "hierarchy.ch", "Test"));
+	Assert.assertEquals("dir.d" + separator + "hierarchy_Test",
+	        XMLFileManager.getExtendedFileName("dir.d" + separator + "hierarchy", "Test"));
+	Assert.assertNull(XMLFileManager.getExtendedFileName("", "Test"));
+    }
 }
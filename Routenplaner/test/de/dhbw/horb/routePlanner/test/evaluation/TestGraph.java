@@ -0,0 +1,153 @@
+package de.dhbw.horb.routePlanner.test.evaluation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.SupportMethods;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+
+/**
+ * Kleiner Beispielgraph fr die Tests der Routenberechnung.
+ * 
+ * <pre>
+ * A(1,2) --B(3)--> D(5,6)   Strecke 20, Dauer 200
+ * A(1)   --C(4)--> D(6)     Strecke 10, Dauer 800
+ * A(2)   --C(4)              Strecke 1,  Dauer 50
+ * E(7)                       ohne Routen und Koordinaten
+ * </pre>
+ * 
+ * Krzeste Route von A nach D ist 2-4-6 (Strecke 6), schnellste Route ist 1-3-5 (Dauer 200).
+ */
+public class TestGraph {
+
+    public static RoadGraph create() {
+	Map<String, List<String>> nodes = new HashMap<String, List<String>>();
+	addNode(nodes, "A", "1", "2");
+	addNode(nodes, "B", "3");
+	addNode(nodes, "C", "4");
+	addNode(nodes, "D", "5", "6");
+	addNode(nodes, "E", "7");
+
+	Map<String, List<Map<String, String>>> routes = new HashMap<String, List<Map<String, String>>>();
+	addRoute(routes, "1", "A", "3", "B", 10.0, 100L, "11");
+	addRoute(routes, "3", "B", "5", "D", 10.0, 100L, "12,13");
+	addRoute(routes, "1", "A", "4", "C", 5.0, 400L, "14");
+	addRoute(routes, "4", "C", "6", "D", 5.0, 400L, "15");
+	addRoute(routes, "2", "A", "4", "C", 1.0, 50L, "16");
+	Map<String, Map<String, String>> coordinates = new HashMap<String, Map<String, String>>();
+	addCoordinates(coordinates, "1", 48.000, 8.000);
+	addCoordinates(coordinates, "2", 48.001, 8.000);
+	addCoordinates(coordinates, "3", 48.010, 8.010);
+	addCoordinates(coordinates, "4", 48.000, 8.010);
+	addCoordinates(coordinates, "5", 48.010, 8.020);
+	addCoordinates(coordinates, "6", 48.001, 8.020);
+	return new RoadGraph("Test", nodes, routes, coordinates);
+    }
+
+    /**
+     * Erzeugt einen zuflligen Graphen. Jede Kreuzung "Nx" hat eine ID, die Kanten sind zufllig verteilt.
+     * 
+     * @param nodeCount Anzahl der Kreuzungen
+     * @param edgeCount Anzahl der Kanten
+     * @param seed Startwert des Zufallsgenerators
+     * @return Der Graph
+     */
+    public static RoadGraph createRandom(int nodeCount, int edgeCount, long seed) {
+	Random random = new Random(seed);
+	Map<String, List<String>> nodes = new HashMap<String, List<String>>();
+	Map<String, Map<String, String>> coordinates = new HashMap<String, Map<String, String>>();
+	for (int node = 0; node < nodeCount; node++) {
+	    addNode(nodes, "N" + node, String.valueOf(100 + node));
+	    addCoordinates(coordinates, String.valueOf(100 + node), 47.0 + random.nextDouble() * 0.2,
+	            7.0 + random.nextDouble() * 0.2);
+	}
+
+	Map<String, List<Map<String, String>>> routes = new HashMap<String, List<Map<String, String>>>();
+	for (int edge = 0; edge < edgeCount; edge++) {
+	    int from = random.nextInt(nodeCount);
+	    int to = random.nextInt(nodeCount);
+	    if (from == to)
+		continue;
+	    String depID = String.valueOf(100 + from);
+	    String desID = String.valueOf(100 + to);
+	    double distance = getDistance(coordinates, depID, desID) * (1.0 + random.nextDouble());
+	    addRoute(routes, depID, "N" + from, desID, "N" + to, distance,
+	            (long) (distance * 36000 * (1.0 + random.nextDouble())), String.valueOf(edge));
+	}
+	return new RoadGraph("Test", nodes, routes, coordinates);
+    }
+
+    /**
+     * @param route Eine berechnete Route, z.B. von {@link de.dhbw.horb.routePlanner.evaluation.dijkstra.Dijkstra}.
+     * @param calcMethod Constants.EVALUATION_CALCULATION_DISTANCE oder Constants.EVALUATION_CALCULATION_DURATION.
+     * @return Summe der Strecken bzw. Dauern aller Abschnitte, -1 wenn es keine Route gibt.
+     */
+    public static double getPrice(List<Map<String, String>> route, String calcMethod) {
+	if (route == null)
+	    return -1.0;
+	String key = Constants.EVALUATION_CALCULATION_DISTANCE.equals(calcMethod) ? Constants.NEW_ROUTE_DISTANCE
+	        : Constants.NEW_ROUTE_DURATION;
+	double price = 0.0;
+	for (Map<String, String> edge : route)
+	    price += Double.parseDouble(edge.get(key));
+	return price;
+    }
+
+    private static double getDistance(Map<String, Map<String, String>> coordinates, String from, String to) {
+	return SupportMethods.fromLatLonToDistanceInKM(Double.valueOf(coordinates.get(from).get(
+	        Constants.NODE_LATITUDE)), Double.valueOf(coordinates.get(from).get(Constants.NODE_LONGITUDE)),
+	        Double.valueOf(coordinates.get(to).get(Constants.NODE_LATITUDE)), Double.valueOf(coordinates.get(to)
+	                .get(Constants.NODE_LONGITUDE)));
+    }
+
+    private static void addCoordinates(Map<String, Map<String, String>> coordinates, String id, Double lat,
+	    Double lon) {
+	Map<String, String> pos = new HashMap<String, String>();
+	pos.put(Constants.NODE_LATITUDE, lat.toString());
+	pos.put(Constants.NODE_LONGITUDE, lon.toString());
+	coordinates.put(id, pos);
+    }
+
+    /**
+     * Trgt eine Anschlussstelle mit ihren Knoten IDs in beide Richtungen der Map ein, wie in der nodes*.xml.
+     */
+    public static void addNode(Map<String, List<String>> nodes, String name, String... ids) {
+	List<String> idList = new ArrayList<String>();
+	for (String id : ids) {
+	    idList.add(id);
+	    List<String> nameList = new ArrayList<String>();
+	    nameList.add(name);
+	    nodes.put(id, nameList);
+	}
+	nodes.put(name, idList);
+    }
+
+    /**
+     * Fgt eine Route wie in der routes*.xml hinzu. Namen und Weg IDs, die null sind, werden weggelassen.
+     * 
+     * @return Die Map der Route, z.B. um weitere Attribute zu setzen.
+     */
+    public static Map<String, String> addRoute(Map<String, List<Map<String, String>>> routes, String depID,
+	    String depName, String desID, String desName, Double distance, Long duration, String wayIDs) {
+	Map<String, String> route = new HashMap<String, String>();
+	route.put(Constants.NEW_ROUTE_DEPARTURENODEID, depID);
+	if (depName != null)
+	    route.put(Constants.NEW_ROUTE_DEPARTURENODENAME, depName);
+	route.put(Constants.NEW_ROUTE_DESTINATIONNODEID, desID);
+	if (desName != null)
+	    route.put(Constants.NEW_ROUTE_DESTINATIONNODENAME, desName);
+	route.put(Constants.NEW_ROUTE_DISTANCE, distance.toString());
+	route.put(Constants.NEW_ROUTE_DURATION, duration.toString());
+	if (wayIDs != null)
+	    route.put(Constants.NEW_ROUTE_WAYIDS, wayIDs);
+
+	if (!routes.containsKey(depID))
+	    routes.put(depID, new ArrayList<Map<String, String>>());
+	routes.get(depID).add(route);
+	return route;
+    }
+}
@@ -0,0 +1,130 @@
+package de.dhbw.horb.routePlanner.test.evaluation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.contraction.ContractionHierarchy;
+import de.dhbw.horb.routePlanner.evaluation.contraction.ContractionHierarchyBuilder;
+import de.dhbw.horb.routePlanner.evaluation.contraction.ContractionHierarchyQuery;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.Dijkstra;
+
+public class UTContractionHierarchy extends TestCase {
+
+    private static final int NODES = 300;
+
+    private RoadGraph graph;
+
+    @Override
+    protected void setUp() {
+	graph = TestGraph.createRandom(NODES, 1200, 42);
+    }
+
+    @Override
+    protected void tearDown() {
+    }
+
+    private void compareWithDijkstra(String calcMethod) {
+	ContractionHierarchy hierarchy = new ContractionHierarchyBuilder(graph.getCompactGraph(), calcMethod).build();
+	Random random = new Random(7);
+	for (int i = 0; i < 200; i++) {
+	    String departure = "N" + random.nextInt(NODES);
+	    String destination = "N" + random.nextInt(NODES);
+	    List<Map<String, String>> expected = new Dijkstra(departure, destination, graph)
+	            .calculateRoute(calcMethod);
+	    List<Map<String, String>> actual = new ContractionHierarchyQuery(departure, destination, graph,
+	            hierarchy).calculateRoute(calcMethod);
+	    Assert.assertEquals(TestGraph.getPrice(expected, calcMethod), TestGraph.getPrice(actual, calcMethod), 1e-3);
+	    if (actual == null)
+		continue;
+
+	    Assert.assertEquals(departure, actual.get(0).get(Constants.NEW_ROUTE_DEPARTURENODENAME));
+	    Assert.assertEquals(destination, actual.get(actual.size() - 1).get(
+	            Constants.NEW_ROUTE_DESTINATIONNODENAME));
+	    for (int j = 1; j < actual.size(); j++)
+		Assert.assertEquals(actual.get(j - 1).get(Constants.NEW_ROUTE_DESTINATIONNODEID), actual.get(j).get(
+		        Constants.NEW_ROUTE_DEPARTURENODEID));
+	}
+    }
+
+    public void testDuration() {
+	compareWithDijkstra(Constants.EVALUATION_CALCULATION_DURATION);
+    }
+
+    public void testDistance() {
+	compareWithDijkstra(Constants.EVALUATION_CALCULATION_DISTANCE);
+    }
+
+    public void testSmallGraph() {
+	RoadGraph small = TestGraph.create();
+	ContractionHierarchy hierarchy = new ContractionHierarchyBuilder(small.getCompactGraph(),
+	        Constants.EVALUATION_CALCULATION_DURATION).build();
+	Assert.assertEquals(2, new ContractionHierarchyQuery("A", "D", small, hierarchy).calculateRoute(
+	        Constants.EVALUATION_CALCULATION_DURATION).size());
+	Assert.assertNull(new ContractionHierarchyQuery("A", "E", small, hierarchy)
+	        .calculateRoute(Constants.EVALUATION_CALCULATION_DURATION));
+	Assert.assertNull(new ContractionHierarchyQuery("A", "A", small, hierarchy)
+	        .calculateRoute(Constants.EVALUATION_CALCULATION_DURATION));
+    }
+
+    public void testSaveAndLoad() throws IOException {
+	String calcMethod = Constants.EVALUATION_CALCULATION_DURATION;
+	ContractionHierarchy hierarchy = new ContractionHierarchyBuilder(graph.getCompactGraph(), calcMethod).build();
+	File file = File.createTempFile("hierarchy", ".ch");
+	try {
+	    hierarchy.save(file.getPath());
+	    ContractionHierarchy loaded = ContractionHierarchy.load(file.getPath(), graph.getCompactGraph(),
+	            calcMethod);
+	    Assert.assertNotNull(loaded);
+	    Assert.assertEquals(hierarchy.getEdgeCount(), loaded.getEdgeCount());
+	    for (int node = 0; node < NODES; node++)
+		Assert.assertEquals(hierarchy.getRank(node), loaded.getRank(node));
+
+	    Assert.assertNull(ContractionHierarchy.load(file.getPath(), graph.getCompactGraph(),
+	            Constants.EVALUATION_CALCULATION_DISTANCE));
+	    Assert.assertNull(ContractionHierarchy.load(file.getPath(), TestGraph.create().getCompactGraph(),
+	            calcMethod));
+	} finally {
+	    file.delete();
+	}
+    }
+
+    public void testDamagedFile() throws IOException {
+	String calcMethod = Constants.EVALUATION_CALCULATION_DURATION;
+	ContractionHierarchy hierarchy = new ContractionHierarchyBuilder(graph.getCompactGraph(), calcMethod).build();
+	File file = new File(ContractionHierarchy.getFileName(graph.getCountry(), calcMethod));
+	try {
+	    hierarchy.save(file.getPath());
+	    Assert.assertFalse(new File(file.getPath() + ".tmp").exists());
+
+	    // Der Kopf passt noch, die Anzahl der Kanten hinter den Rngen ist aber negativ.
+	    RandomAccessFile damaged = new RandomAccessFile(file, "rw");
+	    try {
+		damaged.seek(4 + 4 + 8 + 4 + 4 * NODES);
+		damaged.writeInt(-1);
+	    } finally {
+		damaged.close();
+	    }
+	    try {
+		ContractionHierarchy.load(file.getPath(), graph.getCompactGraph(), calcMethod);
+		Assert.fail();
+	    } catch (RuntimeException e) {
+	    }
+
+	    ContractionHierarchy rebuilt = ContractionHierarchy.loadOrCreate(graph, calcMethod);
+	    Assert.assertEquals(hierarchy.getEdgeCount(), rebuilt.getEdgeCount());
+	    Assert.assertNotNull(ContractionHierarchy.load(file.getPath(), graph.getCompactGraph(), calcMethod));
+	} finally {
+	    file.delete();
+	}
+    }
+}
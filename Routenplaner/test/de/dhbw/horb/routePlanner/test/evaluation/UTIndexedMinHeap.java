@@ -0,0 +1,53 @@
+package de.dhbw.horb.routePlanner.test.evaluation;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.evaluation.IndexedMinHeap;
+
+public class UTIndexedMinHeap extends TestCase {
+
+    private IndexedMinHeap heap;
+
+    @Override
+    protected void setUp() {
+	heap = new IndexedMinHeap(10);
+    }
+
+    @Override
+    protected void tearDown() {
+    }
+
+    public void testOrder() {
+	double[] priorities = { 5, 3, 8, 1, 9, 2, 7, 4, 6, 0 };
+	for (int node = 0; node < priorities.length; node++)
+	    Assert.assertTrue(heap.insertOrDecrease(node, priorities[node]));
+	Assert.assertEquals(10, heap.size());
+
+	double last = -1;
+	while (!heap.isEmpty()) {
+	    double priority = heap.peekPriority();
+	    int node = heap.poll();
+	    Assert.assertEquals(priorities[node], priority, 0);
+	    Assert.assertTrue(priority >= last);
+	    Assert.assertFalse(heap.contains(node));
+	    last = priority;
+	}
+    }
+
+    public void testDecreaseKey() {
+	heap.insertOrDecrease(1, 10);
+	heap.insertOrDecrease(2, 5);
+	heap.insertOrDecrease(3, 7);
+	Assert.assertFalse(heap.insertOrDecrease(1, 12));
+	Assert.assertTrue(heap.insertOrDecrease(1, 1));
+	Assert.assertEquals(3, heap.size());
+	Assert.assertEquals(1, heap.poll());
+	Assert.assertEquals(2, heap.poll());
+
+	heap.clear();
+	Assert.assertTrue(heap.isEmpty());
+	Assert.assertFalse(heap.contains(3));
+    }
+}
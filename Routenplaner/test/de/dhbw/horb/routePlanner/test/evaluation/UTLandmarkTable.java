@@ -0,0 +1,118 @@
+package de.dhbw.horb.routePlanner.test.evaluation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.aStar.AStar;
+import de.dhbw.horb.routePlanner.evaluation.aStar.LandmarkTable;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.Dijkstra;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.OneToAllDijkstra;
+
+public class UTLandmarkTable extends TestCase {
+
+    private static final int NODES = 300;
+
+    private RoadGraph graph;
+
+    @Override
+    protected void setUp() {
+	graph = TestGraph.createRandom(NODES, 1200, 11);
+    }
+
+    @Override
+    protected void tearDown() {
+    }
+
+    private void checkLowerBound(String calcMethod) {
+	CompactRouteGraph compact = graph.getCompactGraph();
+	LandmarkTable table = graph.getLandmarks();
+	Assert.assertEquals(LandmarkTable.DEFAULT_LANDMARK_COUNT, table.getLandmarks().length);
+
+	Random random = new Random(3);
+	for (int i = 0; i < 20; i++) {
+	    int source = random.nextInt(compact.getNodeCount());
+	    double[] prices = OneToAllDijkstra.calculatePrices(compact, new int[] { source }, compact
+	            .getEdgeWeights(calcMethod), false);
+	    for (int target = 0; target < compact.getNodeCount(); target++)
+		Assert.assertTrue(table.getLowerBound(source, target, calcMethod) <= prices[target]);
+	}
+    }
+
+    public void testLowerBound() {
+	checkLowerBound(Constants.EVALUATION_CALCULATION_DURATION);
+	checkLowerBound(Constants.EVALUATION_CALCULATION_DISTANCE);
+    }
+
+    public void testAStar() {
+	Random random = new Random(5);
+	for (String calcMethod : new String[] { Constants.EVALUATION_CALCULATION_DURATION,
+	        Constants.EVALUATION_CALCULATION_DISTANCE })
+	    for (int i = 0; i < 100; i++) {
+		String departure = "N" + random.nextInt(NODES);
+		String destination = "N" + random.nextInt(NODES);
+		List<Map<String, String>> expected = new Dijkstra(departure, destination, graph)
+		        .calculateRoute(calcMethod);
+		List<Map<String, String>> actual = new AStar(departure, destination, graph).calculateWay(calcMethod);
+		if (expected == null)
+		    Assert.assertTrue(actual == null || actual.isEmpty());
+		else
+		    Assert.assertEquals(TestGraph.getPrice(expected, calcMethod), TestGraph.getPrice(actual,
+		            calcMethod), 1e-3);
+	    }
+    }
+
+    public void testSaveAndLoad() throws IOException {
+	LandmarkTable table = graph.getLandmarks();
+	File file = File.createTempFile("landmarks", ".alt");
+	try {
+	    table.save(file.getPath());
+	    LandmarkTable loaded = LandmarkTable.load(file.getPath(), graph.getCompactGraph());
+	    Assert.assertNotNull(loaded);
+	    Assert.assertArrayEquals(table.getLandmarks(), loaded.getLandmarks());
+	    Assert.assertEquals(table.getLowerBound(1, 2, Constants.EVALUATION_CALCULATION_DURATION), loaded
+	            .getLowerBound(1, 2, Constants.EVALUATION_CALCULATION_DURATION), 0);
+	    Assert.assertNull(LandmarkTable.load(file.getPath(), TestGraph.create().getCompactGraph()));
+	} finally {
+	    file.delete();
+	}
+    }
+
+    public void testDamagedFile() throws IOException {
+	File file = new File(LandmarkTable.getFileName(graph.getCountry()));
+	try {
+	    graph.getLandmarks().save(file.getPath());
+	    Assert.assertFalse(new File(file.getPath() + ".tmp").exists());
+
+	    // Der Kopf passt noch, die Anzahl der Landmarken ist aber negativ.
+	    RandomAccessFile damaged = new RandomAccessFile(file, "rw");
+	    try {
+		damaged.seek(4 + 4 + 8 + 4);
+		damaged.writeInt(-1);
+	    } finally {
+		damaged.close();
+	    }
+	    try {
+		LandmarkTable.load(file.getPath(), graph.getCompactGraph());
+		Assert.fail();
+	    } catch (RuntimeException e) {
+	    }
+
+	    LandmarkTable rebuilt = LandmarkTable.loadOrCreate(graph);
+	    Assert.assertArrayEquals(graph.getLandmarks().getLandmarks(), rebuilt.getLandmarks());
+	    Assert.assertNotNull(LandmarkTable.load(file.getPath(), graph.getCompactGraph()));
+	} finally {
+	    file.delete();
+	}
+    }
+}
@@ -0,0 +1,109 @@
+package de.dhbw.horb.routePlanner.test.evaluation;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.RouteEngine;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.OneToAllDijkstra;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.ShortestPathTree;
+
+public class UTOneToAllDijkstra extends TestCase {
+
+    private RoadGraph graph;
+
+    @Override
+    protected void setUp() {
+	graph = TestGraph.create();
+    }
+
+    @Override
+    protected void tearDown() {
+    }
+
+    public void testDurationTree() {
+	ShortestPathTree tree = OneToAllDijkstra.calculateTree(graph, "A", Constants.EVALUATION_CALCULATION_DURATION,
+	        Double.POSITIVE_INFINITY);
+	Assert.assertEquals(6, tree.size());
+	Assert.assertEquals(Arrays.asList("A", "C", "B", "D"), tree.getJunctionNames());
+	Assert.assertEquals(Arrays.asList("4", "3", "5", "6"), tree.getNodeIDs().subList(2, 6));
+	Assert.assertEquals(Arrays.asList("16", "11", "12", "13", "15"), tree.getWayIDs());
+
+	int d = tree.indexOfJunction("D");
+	Assert.assertEquals("5", tree.getNodeIDs().get(d));
+	Assert.assertEquals("3", tree.getParentNodeID(d));
+	Assert.assertEquals(200.0, tree.getDuration(d), 1e-9);
+	Assert.assertEquals(20.0, tree.getDistance(d), 1e-9);
+	Assert.assertNull(tree.getParentNodeID(0));
+	Assert.assertEquals(-1, tree.indexOfJunction("E"));
+    }
+
+    public void testDistanceTree() {
+	ShortestPathTree tree = OneToAllDijkstra.calculateTree(graph, "A", Constants.EVALUATION_CALCULATION_DISTANCE,
+	        Double.POSITIVE_INFINITY);
+	int d = tree.indexOfJunction("D");
+	Assert.assertEquals("6", tree.getNodeIDs().get(d));
+	Assert.assertEquals(6.0, tree.getDistance(d), 1e-9);
+	Assert.assertEquals(450.0, tree.getDuration(d), 1e-9);
+	Assert.assertEquals(Arrays.asList("16", "15", "11", "12", "13"), tree.getWayIDs());
+    }
+
+    public void testCutoff() {
+	ShortestPathTree isochrone = OneToAllDijkstra.calculateTree(graph, "A",
+	        Constants.EVALUATION_CALCULATION_DURATION, 100.0);
+	Assert.assertEquals(Arrays.asList("A", "C", "B"), isochrone.getJunctionNames());
+	Assert.assertEquals(Arrays.asList("16", "11"), isochrone.getWayIDs());
+	Assert.assertEquals(100.0, isochrone.getCutoff(), 0.0);
+
+	ShortestPathTree start = OneToAllDijkstra.calculateTree(graph, "E",
+	        Constants.EVALUATION_CALCULATION_DURATION, 0.0);
+	Assert.assertEquals(Arrays.asList("E"), start.getJunctionNames());
+	Assert.assertTrue(start.getWayIDs().isEmpty());
+
+	try {
+	    OneToAllDijkstra.calculateTree(graph, "A", Constants.EVALUATION_CALCULATION_DURATION, -1.0);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	}
+	try {
+	    new RouteEngine(graph).calculateTree("X", Constants.EVALUATION_CALCULATION_DURATION, 1.0);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	}
+    }
+
+    public void testMatchesPrices() {
+	// Die Sucharrays des Threads werden zwischen den Suchen wiederverwendet und mssen sauber zurckgesetzt sein.
+	RoadGraph random = TestGraph.createRandom(300, 1500, 17L);
+	CompactRouteGraph compact = random.getCompactGraph();
+	for (String calculationMethod : new String[] { Constants.EVALUATION_CALCULATION_DURATION,
+	        Constants.EVALUATION_CALCULATION_DISTANCE }) {
+	    double[] weights = compact.getEdgeWeights(calculationMethod);
+	    for (int source = 0; source < 300; source += 37) {
+		String departure = "N" + source;
+		double[] prices = OneToAllDijkstra.calculatePrices(compact,
+		        random.getJunctionIndex().getNodes(departure), weights, false);
+		ShortestPathTree tree = OneToAllDijkstra.calculateTree(random, departure, calculationMethod,
+		        Double.POSITIVE_INFINITY);
+		int reached = 0;
+		for (int node = 0; node < prices.length; node++) {
+		    int position = tree.getNodeIDs().indexOf(compact.getNodeID(node));
+		    if (prices[node] == Double.POSITIVE_INFINITY) {
+			Assert.assertEquals(-1, position);
+			continue;
+		    }
+		    reached++;
+		    double price = Constants.EVALUATION_CALCULATION_DISTANCE.equals(calculationMethod) ? tree
+		            .getDistance(position) : tree.getDuration(position);
+		    Assert.assertEquals(prices[node], price, 1e-6 * Math.max(1.0, prices[node]));
+		}
+		Assert.assertEquals(reached, tree.size());
+	    }
+	}
+    }
+}
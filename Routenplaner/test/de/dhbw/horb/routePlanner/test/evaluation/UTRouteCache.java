@@ -0,0 +1,131 @@
+package de.dhbw.horb.routePlanner.test.evaluation;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.RouteCache;
+import de.dhbw.horb.routePlanner.evaluation.RouteEngine;
+import de.dhbw.horb.routePlanner.evaluation.RouteResult;
+
+public class UTRouteCache extends TestCase {
+
+    private RoadGraph graph;
+    private RouteCache cache;
+    private RouteEngine engine;
+
+    @Override
+    protected void setUp() {
+	graph = TestGraph.create();
+	cache = new RouteCache(RouteCache.DEFAULT_MAX_WEIGHT);
+	engine = new RouteEngine(graph, cache);
+    }
+
+    @Override
+    protected void tearDown() {
+    }
+
+    private static RouteResult fastest(RouteEngine engine, String departure, String destination) {
+	return engine.calculate(departure, destination, Constants.EVALUATION_METHOD_DIJKSTRA,
+	        Constants.EVALUATION_CALCULATION_DURATION);
+    }
+
+    public void testHitsAndMisses() {
+	Assert.assertEquals(0.0, cache.getHitRate(), 0.0);
+	RouteResult first = engine.calculate("A", "D", Constants.EVALUATION_METHOD_DIJKSTRA,
+	        Constants.EVALUATION_CALCULATION_DURATION);
+	RouteResult second = engine.calculate("A", "D", Constants.EVALUATION_METHOD_DIJKSTRA,
+	        Constants.EVALUATION_CALCULATION_DURATION);
+	Assert.assertSame(first, second);
+	Assert.assertEquals(1, cache.getHits());
+	Assert.assertEquals(1, cache.getMisses());
+	Assert.assertEquals(0.5, cache.getHitRate(), 1e-9);
+	Assert.assertEquals(1, cache.size());
+	Assert.assertEquals(first.getEdges().size() + 1, cache.getWeight());
+
+	// Jedes Element des Schlssels unterscheidet die Eintrge.
+	RouteResult shortest = engine.calculate("A", "D", Constants.EVALUATION_METHOD_DIJKSTRA,
+	        Constants.EVALUATION_CALCULATION_DISTANCE);
+	Assert.assertEquals(6.0, shortest.getDistance(), 1e-9);
+	engine.calculate("A", "D", Constants.EVALUATION_METHOD_ASTAR, Constants.EVALUATION_CALCULATION_DURATION);
+	fastest(engine, "A", "C");
+	Assert.assertEquals(4, cache.size());
+	Assert.assertEquals(4, cache.getMisses());
+    }
+
+    public void testNoRouteIsCached() {
+	Assert.assertNull(engine.calculate("A", "E", Constants.EVALUATION_METHOD_DIJKSTRA,
+	        Constants.EVALUATION_CALCULATION_DURATION));
+	Assert.assertNull(engine.calculate("A", "E", Constants.EVALUATION_METHOD_DIJKSTRA,
+	        Constants.EVALUATION_CALCULATION_DURATION));
+	Assert.assertEquals(1, cache.getHits());
+	Assert.assertEquals(1, cache.getWeight());
+    }
+
+    public void testErrorsAreNotCached() {
+	try {
+	    engine.calculate("A", "X", Constants.EVALUATION_METHOD_DIJKSTRA,
+	            Constants.EVALUATION_CALCULATION_DURATION);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	}
+	try {
+	    engine.calculate("A", "D", "Unbekannt", Constants.EVALUATION_CALCULATION_DURATION);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	}
+	Assert.assertEquals(0, cache.size());
+	Assert.assertEquals(0, cache.getMisses());
+    }
+
+    public void testEviction() {
+	// A->D besteht aus zwei Abschnitten und wiegt 3, A->B und A->C wiegen je 2.
+	RouteCache small = new RouteCache(5);
+	RouteEngine smallEngine = new RouteEngine(graph, small);
+	fastest(smallEngine, "A", "D");
+	fastest(smallEngine, "A", "B");
+	Assert.assertEquals(5, small.getWeight());
+
+	// A->D wird wieder abgefragt, deshalb wird A->B verdrngt.
+	fastest(smallEngine, "A", "D");
+	fastest(smallEngine, "A", "C");
+	Assert.assertEquals(1, small.getEvictions());
+	Assert.assertEquals(2, small.size());
+	Assert.assertEquals(5, small.getWeight());
+	fastest(smallEngine, "A", "D");
+	Assert.assertEquals(2, small.getHits());
+	fastest(smallEngine, "A", "B");
+	Assert.assertEquals(2, small.getHits());
+
+	// Zu schwere Routen werden berechnet, aber nicht gespeichert.
+	RouteCache tiny = new RouteCache(2);
+	RouteEngine tinyEngine = new RouteEngine(graph, tiny);
+	Assert.assertNotNull(tinyEngine.calculate("A", "D", Constants.EVALUATION_METHOD_DIJKSTRA,
+	        Constants.EVALUATION_CALCULATION_DURATION));
+	Assert.assertEquals(0, tiny.size());
+
+	try {
+	    new RouteCache(0);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	}
+    }
+
+    public void testNewGraphInvalidates() {
+	fastest(engine, "A", "D");
+	Assert.assertEquals(1, cache.size());
+
+	// Ein neu geladener Graph, z.B. nach RoadGraph.invalidateAll(), verwirft die alten Routen.
+	RouteEngine reloaded = new RouteEngine(TestGraph.create(), cache);
+	fastest(reloaded, "A", "D");
+	Assert.assertEquals(0, cache.getHits());
+	Assert.assertEquals(1, cache.size());
+	Assert.assertEquals(1, cache.getInvalidations());
+
+	cache.invalidate();
+	Assert.assertEquals(0, cache.size());
+	Assert.assertEquals(0, cache.getWeight());
+    }
+}
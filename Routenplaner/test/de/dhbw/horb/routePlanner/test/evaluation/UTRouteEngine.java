@@ -0,0 +1,127 @@
+package de.dhbw.horb.routePlanner.test.evaluation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.evaluation.RouteEngine;
+import de.dhbw.horb.routePlanner.evaluation.RouteResult;
+
+public class UTRouteEngine extends TestCase {
+
+    private RouteEngine engine;
+
+    @Override
+    protected void setUp() {
+	engine = new RouteEngine(TestGraph.create());
+    }
+
+    @Override
+    protected void tearDown() {
+    }
+
+    public void testResult() {
+	RouteResult fastest = engine.calculate("A", "D", Constants.EVALUATION_METHOD_DIJKSTRA,
+	        Constants.EVALUATION_CALCULATION_DURATION);
+	Assert.assertEquals("A", fastest.getDeparture());
+	Assert.assertEquals("D", fastest.getDestination());
+	Assert.assertEquals(Constants.EVALUATION_METHOD_DIJKSTRA, fastest.getEvaluationMethod());
+	Assert.assertEquals(Constants.EVALUATION_CALCULATION_DURATION, fastest.getCalculationMethod());
+	Assert.assertEquals(20.0, fastest.getDistance(), 1e-9);
+	Assert.assertEquals(200.0, fastest.getDuration(), 1e-9);
+	Assert.assertEquals(2, fastest.getEdges().size());
+	Assert.assertEquals(Arrays.asList("11", "12", "13"), fastest.getWayIDs());
+	Assert.assertEquals(Arrays.asList("1", "3", "5"), fastest.getNodeIDs());
+	Assert.assertEquals(Arrays.asList("A", "B", "D"), fastest.getJunctionNames());
+	Assert.assertEquals("1", fastest.getDepartureNodeID());
+	Assert.assertEquals("5", fastest.getDestinationNodeID());
+
+	RouteResult shortest = engine.calculate("A", "D", Constants.EVALUATION_METHOD_ASTAR,
+	        Constants.EVALUATION_CALCULATION_DISTANCE);
+	Assert.assertEquals(6.0, shortest.getDistance(), 1e-9);
+	Assert.assertEquals(Arrays.asList("2", "4", "6"), shortest.getNodeIDs());
+
+	try {
+	    fastest.getWayIDs().add("14");
+	    Assert.fail();
+	} catch (UnsupportedOperationException e) {
+	}
+    }
+
+    public void testAllMethods() {
+	for (String method : new String[] { Constants.EVALUATION_METHOD_DIJKSTRA, Constants.EVALUATION_METHOD_ASTAR,
+	        Constants.EVALUATION_METHOD_BIDIRECTIONAL, Constants.EVALUATION_METHOD_CONTRACTION_HIERARCHIES }) {
+	    Assert.assertTrue(RouteEngine.isEvaluationMethod(method));
+	    RouteResult result = engine.calculate("A", "D", method, Constants.EVALUATION_CALCULATION_DISTANCE);
+	    Assert.assertEquals(method, 6.0, result.getDistance(), 1e-9);
+	    Assert.assertNull(engine.calculate("A", "E", method, Constants.EVALUATION_CALCULATION_DISTANCE));
+	}
+    }
+
+    public void testInvalidArguments() {
+	String[][] arguments = { { "A", "X", Constants.EVALUATION_METHOD_DIJKSTRA,
+	        Constants.EVALUATION_CALCULATION_DURATION },
+	        { null, "D", Constants.EVALUATION_METHOD_DIJKSTRA, Constants.EVALUATION_CALCULATION_DURATION },
+	        { "A", "D", "Zufall", Constants.EVALUATION_CALCULATION_DURATION },
+	        { "A", "D", null, Constants.EVALUATION_CALCULATION_DURATION },
+	        { "A", "D", Constants.EVALUATION_METHOD_DIJKSTRA, "Kosten" } };
+	for (String[] argument : arguments)
+	    try {
+		engine.calculate(argument[0], argument[1], argument[2], argument[3]);
+		Assert.fail();
+	    } catch (IllegalArgumentException e) {
+	    }
+    }
+
+    public void testConcurrentCalculations() throws InterruptedException, ExecutionException {
+	final RouteEngine randomEngine = new RouteEngine(TestGraph.createRandom(300, 1500, 11L));
+	final String[] methods = { Constants.EVALUATION_METHOD_DIJKSTRA, Constants.EVALUATION_METHOD_ASTAR };
+	final String[] metrics = { Constants.EVALUATION_CALCULATION_DURATION,
+	        Constants.EVALUATION_CALCULATION_DISTANCE };
+
+	List<Callable<RouteResult>> calculations = new ArrayList<Callable<RouteResult>>();
+	for (int i = 0; i < 400; i++) {
+	    final String departure = "N" + (i * 7 % 300);
+	    final String destination = "N" + (i * 13 % 300 + 1) % 300;
+	    final String method = methods[i % 2];
+	    final String metric = metrics[i / 2 % 2];
+	    calculations.add(new Callable<RouteResult>() {
+		@Override
+		public RouteResult call() {
+		    return randomEngine.calculate(departure, destination, method, metric);
+		}
+	    });
+	}
+
+	ExecutorService executor = Executors.newFixedThreadPool(8);
+	List<Future<RouteResult>> results = executor.invokeAll(calculations);
+	executor.shutdown();
+	for (int i = 0; i < calculations.size(); i++) {
+	    RouteResult expected;
+	    try {
+		expected = calculations.get(i).call();
+	    } catch (Exception e) {
+		throw new ExecutionException(e);
+	    }
+	    RouteResult actual = results.get(i).get();
+	    if (expected == null) {
+		Assert.assertNull(actual);
+		continue;
+	    }
+	    Assert.assertEquals(expected.getDeparture(), actual.getDeparture());
+	    Assert.assertEquals(expected.getDestination(), actual.getDestination());
+	    Assert.assertEquals(expected.getDistance(), actual.getDistance(), 1e-6);
+	    Assert.assertEquals(expected.getDuration(), actual.getDuration(), 1e-6);
+	}
+    }
+}
@@ -0,0 +1,117 @@
+package de.dhbw.horb.routePlanner.test.evaluation;
+
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.CompactRouteGraph;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.RouteEngine;
+import de.dhbw.horb.routePlanner.evaluation.RouteResult;
+import de.dhbw.horb.routePlanner.evaluation.aStar.AStar;
+import de.dhbw.horb.routePlanner.evaluation.bidirectional.BidirectionalDijkstra;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.Dijkstra;
+import de.dhbw.horb.routePlanner.evaluation.dijkstra.OneToAllDijkstra;
+
+public class UTRouteEngines extends TestCase {
+
+    private RoadGraph graph;
+
+    @Override
+    protected void setUp() {
+	graph = TestGraph.create();
+    }
+
+    @Override
+    protected void tearDown() {
+    }
+
+    private static String getPath(List<Map<String, String>> route) {
+	Assert.assertNotNull(route);
+	String path = route.get(0).get(Constants.NEW_ROUTE_DEPARTURENODEID);
+	for (Map<String, String> edge : route)
+	    path += "-" + edge.get(Constants.NEW_ROUTE_DESTINATIONNODEID);
+	return path;
+    }
+
+    /**
+     * Viele Anfragen nacheinander im selben Thread, die Sucharrays werden dabei wiederverwendet und mssen nach jeder
+     * Suche sauber zurckgesetzt sein. Verglichen wird mit den Preisen einer Suche mit frischen Arrays.
+     */
+    private static void compareWithPrices(String evaluationMethod) {
+	RoadGraph random = TestGraph.createRandom(300, 1200, 31L);
+	CompactRouteGraph compact = random.getCompactGraph();
+	RouteEngine engine = new RouteEngine(random);
+	for (String calcMethod : new String[] { Constants.EVALUATION_CALCULATION_DURATION,
+	        Constants.EVALUATION_CALCULATION_DISTANCE }) {
+	    for (int source = 0; source < 300; source += 29) {
+		double[] prices = OneToAllDijkstra.calculatePrices(compact,
+		        random.getJunctionIndex().getNodes("N" + source), compact.getEdgeWeights(calcMethod), false);
+		for (int target = 1; target < 300; target += 23) {
+		    if (target == source)
+			continue;
+		    double expected = prices[random.getJunctionIndex().getNodes("N" + target)[0]];
+		    RouteResult route = engine.calculate("N" + source, "N" + target, evaluationMethod, calcMethod);
+		    if (expected == Double.POSITIVE_INFINITY) {
+			Assert.assertNull(route);
+			continue;
+		    }
+		    double actual = Constants.EVALUATION_CALCULATION_DISTANCE.equals(calcMethod) ? route.getDistance()
+		            : route.getDuration();
+		    Assert.assertEquals(expected, actual, 1e-6 * Math.max(1.0, expected));
+		}
+	    }
+	}
+    }
+
+    public void testDijkstra() {
+	Assert.assertEquals("2-4-6", getPath(new Dijkstra("A", "D", graph)
+	        .calculateRoute(Constants.EVALUATION_CALCULATION_DISTANCE)));
+	Assert.assertEquals("1-3-5", getPath(new Dijkstra("A", "D", graph)
+	        .calculateRoute(Constants.EVALUATION_CALCULATION_DURATION)));
+	Assert.assertNull(new Dijkstra("A", "E", graph).calculateRoute(Constants.EVALUATION_CALCULATION_DURATION));
+	Assert.assertNull(new Dijkstra("A", "X", graph).calculateRoute(Constants.EVALUATION_CALCULATION_DURATION));
+    }
+
+    public void testDijkstraReusesSearchArrays() {
+	compareWithPrices(Constants.EVALUATION_METHOD_DIJKSTRA);
+    }
+
+    public void testAStar() {
+	Assert.assertEquals("2-4-6", getPath(new AStar("A", "D", graph)
+	        .calculateWay(Constants.EVALUATION_CALCULATION_DISTANCE)));
+	Assert.assertEquals("1-3-5", getPath(new AStar("A", "D", graph)
+	        .calculateWay(Constants.EVALUATION_CALCULATION_DURATION)));
+	Assert.assertNull(new AStar("A", "E", graph).calculateWay(Constants.EVALUATION_CALCULATION_DURATION));
+	Assert.assertNull(new AStar("A", "X", graph).calculateWay(Constants.EVALUATION_CALCULATION_DURATION));
+
+	AStar aStar = new AStar("A", "C", graph);
+	Assert.assertEquals("2-4", getPath(aStar.calculateWay(Constants.EVALUATION_CALCULATION_DISTANCE)));
+	Assert.assertTrue(aStar.getClosedCount() <= 2);
+    }
+
+    public void testAStarReusesSearchArrays() {
+	compareWithPrices(Constants.EVALUATION_METHOD_ASTAR);
+    }
+
+    public void testBidirectionalDijkstra() {
+	Assert.assertEquals("2-4-6", getPath(new BidirectionalDijkstra("A", "D", graph)
+	        .calculateRoute(Constants.EVALUATION_CALCULATION_DISTANCE)));
+	Assert.assertEquals("1-3-5", getPath(new BidirectionalDijkstra("A", "D", graph)
+	        .calculateRoute(Constants.EVALUATION_CALCULATION_DURATION)));
+	Assert.assertEquals("2-4", getPath(new BidirectionalDijkstra("A", "C", graph)
+	        .calculateRoute(Constants.EVALUATION_CALCULATION_DISTANCE)));
+	Assert.assertNull(new BidirectionalDijkstra("A", "E", graph)
+	        .calculateRoute(Constants.EVALUATION_CALCULATION_DURATION));
+	Assert.assertNull(new BidirectionalDijkstra("A", "A", graph)
+	        .calculateRoute(Constants.EVALUATION_CALCULATION_DURATION));
+    }
+
+    public void testBidirectionalDijkstraReusesSearchArrays() {
+	compareWithPrices(Constants.EVALUATION_METHOD_BIDIRECTIONAL);
+    }
+}
@@ -0,0 +1,97 @@
+package de.dhbw.horb.routePlanner.test.evaluation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.Constants;
+import de.dhbw.horb.routePlanner.data.RoadGraph;
+import de.dhbw.horb.routePlanner.evaluation.RouteEngine;
+import de.dhbw.horb.routePlanner.evaluation.RouteResult;
+import de.dhbw.horb.routePlanner.evaluation.matrix.RouteMatrix;
+import de.dhbw.horb.routePlanner.evaluation.matrix.RouteMatrixService;
+
+public class UTRouteMatrix extends TestCase {
+
+    private RoadGraph graph;
+    private RouteMatrixService service;
+
+    @Override
+    protected void setUp() {
+	graph = TestGraph.createRandom(200, 800, 23);
+	service = new RouteMatrixService(graph, 2);
+    }
+
+    @Override
+    protected void tearDown() {
+	service.shutdown();
+    }
+
+    private void compareWithDijkstra(String calcMethod) throws InterruptedException {
+	List<String> departures = new ArrayList<String>();
+	List<String> destinations = new ArrayList<String>();
+	for (int i = 0; i < 15; i++) {
+	    departures.add("N" + (i * 13));
+	    destinations.add("N" + (i * 7 + 3));
+	}
+	destinations.add("Unbekannt");
+
+	RouteMatrix matrix = service.calculate(departures, destinations, calcMethod);
+	RouteEngine engine = new RouteEngine(graph);
+	for (int row = 0; row < departures.size(); row++) {
+	    for (int column = 0; column < destinations.size() - 1; column++) {
+		// Gleiche Kreuzungen und nicht erreichbare Ziele haben wie bei der RouteEngine keine Route.
+		RouteResult route = engine.calculate(departures.get(row), destinations.get(column),
+		        Constants.EVALUATION_METHOD_DIJKSTRA, calcMethod);
+		if (route == null) {
+		    Assert.assertEquals(Double.POSITIVE_INFINITY, matrix.getDistance(row, column), 0);
+		    Assert.assertEquals(Double.POSITIVE_INFINITY, matrix.getDuration(row, column), 0);
+		    continue;
+		}
+		Assert.assertEquals(route.getDistance(), matrix.getDistance(row, column), 1e-3);
+		Assert.assertEquals(route.getDuration(), matrix.getDuration(row, column), 1e-3);
+	    }
+	    Assert.assertEquals(Double.POSITIVE_INFINITY, matrix.getDuration(row, destinations.size() - 1), 0);
+	}
+    }
+
+    public void testDuration() throws InterruptedException {
+	compareWithDijkstra(Constants.EVALUATION_CALCULATION_DURATION);
+    }
+
+    public void testDistance() throws InterruptedException {
+	compareWithDijkstra(Constants.EVALUATION_CALCULATION_DISTANCE);
+    }
+
+    public void testEdgesWithoutWayIDs() throws InterruptedException {
+	Map<String, List<String>> nodes = new HashMap<String, List<String>>();
+	TestGraph.addNode(nodes, "A", "1");
+	TestGraph.addNode(nodes, "B", "2");
+	TestGraph.addNode(nodes, "C", "3");
+	Map<String, List<Map<String, String>>> routes = new HashMap<String, List<Map<String, String>>>();
+	TestGraph.addRoute(routes, "1", "A", "2", "B", 1.0, 10L, "1");
+	TestGraph.addRoute(routes, "2", "B", "3", "C", 2.0, 20L, null);
+	RoadGraph small = new RoadGraph("Test", nodes, routes);
+
+	// Wie in RouteResult zhlt der Abschnitt B->C ohne Weg IDs nicht zu Strecke und Dauer.
+	RouteResult route = new RouteEngine(small).calculate("A", "C", Constants.EVALUATION_METHOD_DIJKSTRA,
+	        Constants.EVALUATION_CALCULATION_DURATION);
+	RouteMatrixService smallService = new RouteMatrixService(small, 1);
+	try {
+	    RouteMatrix matrix = smallService.calculate(Arrays.asList("A"), Arrays.asList("A", "C"),
+		    Constants.EVALUATION_CALCULATION_DURATION);
+	    Assert.assertEquals(Double.POSITIVE_INFINITY, matrix.getDuration(0, 0), 0);
+	    Assert.assertEquals(1.0, route.getDistance(), 1e-9);
+	    Assert.assertEquals(route.getDistance(), matrix.getDistance(0, 1), 1e-9);
+	    Assert.assertEquals(route.getDuration(), matrix.getDuration(0, 1), 1e-9);
+	} finally {
+	    smallService.shutdown();
+	}
+    }
+}
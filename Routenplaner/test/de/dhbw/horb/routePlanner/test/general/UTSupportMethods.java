@@ -66,6 +66,54 @@ public class UTSupportMethods extends TestCase {
 	Assert.assertFalse(SupportMethods.isNumeric("A"));
 	Assert.assertFalse(SupportMethods.isNumeric("No number"));
 	Assert.assertFalse(SupportMethods.isNumeric("134643a"));
+	Assert.assertFalse(SupportMethods.isNumeric(null));
+    }
+
+    public void testIsNumericLikeParseDouble() {
+
+	String[] values = { "", " ", "-", "+", ".", "1.", ".5", "-.5e-3", " 12 ", "1e", "1e+", "1E10", "1e10f", "2d",
+	        "1.2.3", "1,5", "NaN", "-Infinity", "Infinity5", "Nordheim", "Ingolstadt", "0x1p3", "0x", "0xg",
+	        "12 34", "--1", "4 711", "A 81" };
+	for (String value : values) {
+	    boolean numeric = true;
+	    try {
+		Double.parseDouble(value);
+	    } catch (NumberFormatException nfe) {
+		numeric = false;
+	    }
+	    Assert.assertEquals(value, numeric, SupportMethods.isNumeric(value));
+	}
+    }
+
+    public void testParseLong() {
+
+	Assert.assertEquals(4711L, SupportMethods.parseLong("4711", -1));
+	Assert.assertEquals(-42L, SupportMethods.parseLong("-42", -1));
+	Assert.assertEquals(Long.MAX_VALUE, SupportMethods.parseLong("9223372036854775807", -1));
+	Assert.assertEquals(Long.MIN_VALUE, SupportMethods.parseLong("-9223372036854775808", -1));
+	Assert.assertEquals(-1L, SupportMethods.parseLong("9223372036854775808", -1));
+	Assert.assertEquals(-1L, SupportMethods.parseLong("12.5", -1));
+	Assert.assertEquals(-1L, SupportMethods.parseLong("-", -1));
+	Assert.assertEquals(-1L, SupportMethods.parseLong("", -1));
+	Assert.assertEquals(-1L, SupportMethods.parseLong(null, -1));
+
+	Assert.assertEquals(120, SupportMethods.parseInt("120", 0));
+	Assert.assertEquals(0, SupportMethods.parseInt("none", 0));
+	Assert.assertEquals(0, SupportMethods.parseInt("2147483648", 0));
+	Assert.assertEquals(Integer.MIN_VALUE, SupportMethods.parseInt("-2147483648", 0));
+    }
+
+    public void testParseDouble() {
+
+	double delta = 0;
+	Assert.assertEquals(90000.0, SupportMethods.parseDouble("90000", -1), delta);
+	Assert.assertEquals(48.1234567, SupportMethods.parseDouble("48.1234567", -1), delta);
+	Assert.assertEquals(1.5e-3, SupportMethods.parseDouble("1.5e-3", -1), delta);
+	Assert.assertEquals(Double.doubleToLongBits(-0.0),
+	        Double.doubleToLongBits(SupportMethods.parseDouble("-0", -1)));
+	Assert.assertEquals(1234567890123456789.0, SupportMethods.parseDouble("1234567890123456789", -1), delta);
+	Assert.assertEquals(-1.0, SupportMethods.parseDouble("Horb", -1), delta);
+	Assert.assertTrue(Double.isNaN(SupportMethods.parseDouble(null, Double.NaN)));
     }
 
     public void testCommaStrToStrList() {
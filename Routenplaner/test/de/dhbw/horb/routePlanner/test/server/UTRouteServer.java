@@ -0,0 +1,123 @@
+package de.dhbw.horb.routePlanner.test.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import de.dhbw.horb.routePlanner.server.JsonWriter;
+import de.dhbw.horb.routePlanner.server.RouteServer;
+import de.dhbw.horb.routePlanner.test.evaluation.TestGraph;
+
+public class UTRouteServer extends TestCase {
+
+    private RouteServer server;
+
+    @Override
+    protected void setUp() throws IOException {
+	server = new RouteServer(TestGraph.create(), new InetSocketAddress("127.0.0.1", 0), 2);
+	server.start();
+    }
+
+    @Override
+    protected void tearDown() {
+	server.stop();
+    }
+
+    /**
+     * @return Statuscode und Antwort, getrennt durch ein Leerzeichen.
+     */
+    private String get(String path) throws IOException {
+	HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path)
+	        .openConnection();
+	int status = connection.getResponseCode();
+	InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+	ByteArrayOutputStream body = new ByteArrayOutputStream();
+	byte[] buffer = new byte[4096];
+	for (int read = in.read(buffer); read >= 0; read = in.read(buffer))
+	    body.write(buffer, 0, read);
+	in.close();
+	return status + " " + body.toString("UTF-8");
+    }
+
+    public void testRoute() throws IOException {
+	Assert.assertEquals("200 {\"departure\":\"A\",\"destination\":\"D\",\"evaluationMethod\":\"Dijkstra\","
+	        + "\"calculationMethod\":\"Dauer\",\"distance\":20,\"duration\":200,\"junctions\":[\"A\",\"B\",\"D\"],"
+	        + "\"nodeIDs\":[\"1\",\"3\",\"5\"],\"wayIDs\":[\"11\",\"12\",\"13\"]}",
+	        get("/route?departure=A&destination=D"));
+
+	String shortest = get("/route?departure=A&destination=D&evaluationMethod=AStern&calculationMethod=Strecke");
+	Assert.assertTrue(shortest, shortest.startsWith("200 "));
+	Assert.assertTrue(shortest, shortest.contains("\"distance\":6,"));
+	Assert.assertTrue(shortest, shortest.contains("\"wayIDs\":[\"16\",\"15\"]"));
+    }
+
+    public void testRouteErrors() throws IOException {
+	Assert.assertEquals("400 {\"error\":\"Parameter destination fehlt\"}", get("/route?departure=A"));
+	Assert.assertTrue(get("/route?departure=A&destination=X").startsWith("404 "));
+	Assert.assertTrue(get("/route?departure=D&destination=A").startsWith("404 "));
+	Assert.assertTrue(get("/route?departure=A&destination=D&evaluationMethod=Zufall").startsWith("400 "));
+	Assert.assertTrue(get("/route?departure=A&destination=D&calculationMethod=Kosten").startsWith("400 "));
+    }
+
+    public void testMatrix() throws IOException {
+	Assert.assertEquals("200 {\"departures\":[\"A\",\"B\"],\"destinations\":[\"D\",\"E\"],"
+	        + "\"calculationMethod\":\"Strecke\",\"distances\":[[6,null],[10,null]],"
+	        + "\"durations\":[[450,null],[100,null]]}",
+	        get("/matrix?departure=A&departure=B&destination=D&destination=E&calculationMethod=Strecke"));
+    }
+
+    public void testIsochrone() throws IOException {
+	Assert.assertEquals("200 {\"departure\":\"A\",\"calculationMethod\":\"Dauer\",\"cutoff\":100,"
+	        + "\"junctions\":[{\"name\":\"A\",\"distance\":0,\"duration\":0},"
+	        + "{\"name\":\"C\",\"distance\":1,\"duration\":50},{\"name\":\"B\",\"distance\":10,\"duration\":100}],"
+	        + "\"nodeIDs\":[\"1\",\"2\",\"4\",\"3\"],\"wayIDs\":[\"16\",\"11\"]}",
+	        get("/isochrone?departure=A&cutoff=100"));
+	Assert.assertTrue(get("/isochrone?departure=A&cutoff=-5").startsWith("400 "));
+	Assert.assertTrue(get("/isochrone?departure=X").startsWith("404 "));
+    }
+
+    public void testJunctions() throws IOException {
+	Assert.assertEquals("200 {\"query\":\"a\",\"junctions\":[\"A\"]}", get("/junctions?query=a&limit=5"));
+	Assert.assertTrue(get("/junctions?query=a&limit=0").startsWith("400 "));
+    }
+
+    public void testConcurrentRequests() throws InterruptedException, ExecutionException {
+	ExecutorService clients = Executors.newFixedThreadPool(8);
+	List<Future<String>> responses = new ArrayList<Future<String>>();
+	for (int i = 0; i < 200; i++) {
+	    final String path = i % 2 == 0 ? "/route?departure=A&destination=D"
+	            : "/route?departure=A&destination=D&calculationMethod=Strecke";
+	    responses.add(clients.submit(new Callable<String>() {
+		@Override
+		public String call() throws IOException {
+		    return get(path);
+		}
+	    }));
+	}
+	for (int i = 0; i < responses.size(); i++)
+	    Assert.assertTrue(responses.get(i).get().contains(i % 2 == 0 ? "\"duration\":200," : "\"distance\":6,"));
+	clients.shutdown();
+    }
+
+    public void testJsonWriter() {
+	JsonWriter json = new JsonWriter();
+	json.beginObject().name("a").value("x\"\n\u0001").name("b").beginArray().value(1.5).value(Double.NaN)
+	        .value(true).endArray().name("c").value(Arrays.asList("1", "2")).endObject();
+	Assert.assertEquals("{\"a\":\"x\\\"\\n\\u0001\",\"b\":[1.5,null,true],\"c\":[\"1\",\"2\"]}", json.toString());
+    }
+}